@@ -34,6 +34,11 @@ android {
         targetCompatibility = JavaVersion.VERSION_11
     }
 
+    // Repository helpers log through android.util.Log; return defaults instead of throwing in JVM tests
+    testOptions {
+        unitTests.isReturnDefaultValues = true
+    }
+
     // --- Android Lint Configuration ---
     lint {
         abortOnError = true
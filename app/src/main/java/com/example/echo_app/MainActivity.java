@@ -8,11 +8,22 @@ import androidx.core.graphics.Insets;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
 
+import com.example.echo_app.data.GroupDeleteWorker;
+import com.example.echo_app.data.OutboxWorker;
+import com.example.echo_app.di.AppModule;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+
 public class MainActivity extends AppCompatActivity {
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        AppModule.getInstance(this);
+        // Deliver anything left in the outbox by a previous process
+        OutboxWorker.schedule(this);
+        // Finish group deletes interrupted in a previous process
+        GroupDeleteWorker.resumePending(this);
         EdgeToEdge.enable(this);
         setContentView(R.layout.activity_main);
         ViewCompat.setOnApplyWindowInsetsListener(findViewById(R.id.main), (v, insets) -> {
@@ -21,4 +32,20 @@ public class MainActivity extends AppCompatActivity {
             return insets;
         });
     }
+
+    @Override
+    protected void onStart() {
+        super.onStart();
+        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+        if (user != null) {
+            AppModule.getInstance().getPresenceService().onForeground(user.getUid());
+        }
+    }
+
+    @Override
+    protected void onStop() {
+        // Debounced: a configuration change (stop + start) writes nothing
+        AppModule.getInstance().getPresenceService().onBackground();
+        super.onStop();
+    }
 }
\ No newline at end of file
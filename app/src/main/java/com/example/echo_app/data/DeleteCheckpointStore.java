@@ -0,0 +1,76 @@
+package com.example.echo_app.data;
+
+import java.util.List;
+
+/**
+ * DeleteCheckpointStore.java
+ *
+ * Role: Durable progress record for long-running cascading deletes.
+ *
+ * A cascading delete (e.g. a group with its chat, messages and memberships) runs as
+ * an ordered list of steps, each deleting one page of documents at a time. After
+ * every page the job's position is saved here, so a delete interrupted by process
+ * death or a network failure resumes at the step it was in instead of starting over.
+ * Re-running a page is safe because deletes are idempotent.
+ *
+ * Implementations must be thread-safe; methods may block briefly on disk I/O.
+ *
+ * Part of: Data Layer (MVVM Architecture)
+ *
+ * @see SharedPrefsDeleteCheckpointStore
+ * @see com.example.echo_app.repository.CascadingDelete
+ */
+public interface DeleteCheckpointStore {
+
+    /**
+     * Get the saved position of a job.
+     *
+     * @param jobId The job identifier (e.g. the group ID)
+     * @return The checkpoint, or null if the job has not started or has finished
+     */
+    Checkpoint load(String jobId);
+
+    /**
+     * Save the position of a job, replacing any earlier checkpoint.
+     */
+    void save(String jobId, Checkpoint checkpoint);
+
+    /**
+     * Forget a job once it has finished.
+     */
+    void clear(String jobId);
+
+    /**
+     * Get the IDs of all jobs that have a checkpoint, i.e. started but not finished.
+     */
+    List<String> getPendingJobIds();
+
+    /**
+     * Position of a cascading delete: the step being executed and how many pages
+     * have been deleted in total.
+     */
+    final class Checkpoint {
+
+        private final int step;
+        private final int pages;
+
+        public Checkpoint(int step, int pages) {
+            this.step = step;
+            this.pages = pages;
+        }
+
+        /**
+         * Index of the current step; every step before it has completed.
+         */
+        public int getStep() {
+            return step;
+        }
+
+        /**
+         * Number of pages deleted so far across all steps.
+         */
+        public int getPages() {
+            return pages;
+        }
+    }
+}
@@ -29,6 +29,17 @@ public class FirestoreConstants {
     // public static final String FIELD_EMAIL = "email";
     // public static final String FIELD_TIMESTAMP = "timestamp";
 
+    // Query limits
+    /**
+     * Maximum number of values Firestore accepts in a single whereIn() filter.
+     */
+    public static final int MAX_IN_QUERY_VALUES = 30;
+
+    /**
+     * Maximum number of operations Firestore accepts in a single WriteBatch.
+     */
+    public static final int MAX_BATCH_OPERATIONS = 500;
+
     // Private constructor to prevent instantiation
     private FirestoreConstants() {
     }
@@ -0,0 +1,64 @@
+package com.example.echo_app.data;
+
+import com.google.firebase.firestore.FirebaseFirestoreException;
+
+/**
+ * FirestoreErrors.java
+ *
+ * Role: Classifies write failures as transient (worth retrying) or permanent.
+ *
+ * Retrying a write that the server has rejected for good (rules, a malformed
+ * document, a deleted parent) only burns quota and, in a FIFO queue, blocks every
+ * write behind it. Callers use this to retry only failures that can succeed later.
+ *
+ * Permanent: INVALID_ARGUMENT, NOT_FOUND, ALREADY_EXISTS, PERMISSION_DENIED,
+ * FAILED_PRECONDITION, OUT_OF_RANGE, UNIMPLEMENTED, DATA_LOSS, and local validation
+ * failures (IllegalArgumentException). Everything else (UNAVAILABLE, DEADLINE_EXCEEDED,
+ * ABORTED, timeouts, I/O errors, ...) is transient.
+ *
+ * Part of: Data Layer (MVVM Architecture)
+ */
+public final class FirestoreErrors {
+
+    private FirestoreErrors() {
+    }
+
+    /**
+     * Check whether retrying the failed operation can never succeed.
+     *
+     * @param e The failure (causes are inspected as well; null is transient)
+     * @return true if the failure is permanent
+     */
+    public static boolean isPermanent(Exception e) {
+        Throwable current = e;
+        while (current != null) {
+            if (current instanceof IllegalArgumentException) {
+                return true;
+            }
+            if (current instanceof FirebaseFirestoreException) {
+                return isPermanent(((FirebaseFirestoreException) current).getCode());
+            }
+            current = current.getCause();
+        }
+        return false;
+    }
+
+    /**
+     * Check whether a Firestore status code is permanent.
+     */
+    public static boolean isPermanent(FirebaseFirestoreException.Code code) {
+        switch (code) {
+            case INVALID_ARGUMENT:
+            case NOT_FOUND:
+            case ALREADY_EXISTS:
+            case PERMISSION_DENIED:
+            case FAILED_PRECONDITION:
+            case OUT_OF_RANGE:
+            case UNIMPLEMENTED:
+            case DATA_LOSS:
+                return true;
+            default:
+                return false;
+        }
+    }
+}
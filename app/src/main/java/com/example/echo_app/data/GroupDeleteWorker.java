@@ -0,0 +1,108 @@
+package com.example.echo_app.data;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.Data;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.example.echo_app.di.AppModule;
+import com.example.echo_app.repository.FirestoreGroupRepository;
+import com.example.echo_app.utils.Constants;
+import com.google.android.gms.tasks.Tasks;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GroupDeleteWorker.java
+ *
+ * Role: WorkManager worker that runs (or resumes) the cascading delete of one group.
+ *
+ * GroupRepository.deleteGroup() checkpoints its progress after every page, so this
+ * worker simply calls it again: a delete interrupted by process death or a network
+ * failure continues at the step it had reached. Work is unique per group, so
+ * scheduling the same group twice does not start a second delete.
+ *
+ * Responsibilities:
+ * - Run deleteGroup() off the main thread while the device is online
+ * - Retry with exponential backoff when a page fails
+ * - Re-schedule deletes left unfinished by a previous process
+ *
+ * Part of: Data Layer (MVVM Architecture)
+ *
+ * @see com.example.echo_app.repository.CascadingDelete
+ */
+public class GroupDeleteWorker extends Worker {
+
+    private static final String TAG = "GroupDeleteWorker";
+    private static final String UNIQUE_WORK_PREFIX = "group-delete-";
+    private static final String KEY_GROUP_ID = "groupId";
+
+    public GroupDeleteWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        String groupId = getInputData().getString(KEY_GROUP_ID);
+        if (groupId == null || groupId.isEmpty()) {
+            Log.e(TAG, "Missing groupId, dropping work");
+            return Result.failure();
+        }
+
+        try {
+            Tasks.await(AppModule.getInstance(getApplicationContext()).getGroupRepository().deleteGroup(groupId));
+            return Result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "Delete of group " + groupId + " failed (attempt " + getRunAttemptCount() + "), will retry", e);
+            return Result.retry();
+        }
+    }
+
+    /**
+     * Delete a group in the background once the device is online.
+     *
+     * @param context Any context
+     * @param groupId The group to delete
+     */
+    public static void schedule(Context context, String groupId) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .build();
+
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(GroupDeleteWorker.class)
+                .setConstraints(constraints)
+                .setInputData(new Data.Builder().putString(KEY_GROUP_ID, groupId).build())
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL,
+                        Constants.GROUP_DELETE_BACKOFF_DELAY_MS, TimeUnit.MILLISECONDS)
+                .build();
+
+        WorkManager.getInstance(context.getApplicationContext())
+                .enqueueUniqueWork(UNIQUE_WORK_PREFIX + groupId, ExistingWorkPolicy.KEEP, request);
+    }
+
+    /**
+     * Schedule every group delete that has a checkpoint but never finished.
+     *
+     * @param context Any context
+     */
+    public static void resumePending(Context context) {
+        DeleteCheckpointStore checkpoints = AppModule.getInstance(context).getDeleteCheckpointStore();
+        for (String jobId : checkpoints.getPendingJobIds()) {
+            if (jobId.startsWith(FirestoreGroupRepository.DELETE_JOB_PREFIX)) {
+                String groupId = jobId.substring(FirestoreGroupRepository.DELETE_JOB_PREFIX.length());
+                Log.d(TAG, "Resuming unfinished delete of group: " + groupId);
+                schedule(context, groupId);
+            }
+        }
+    }
+}
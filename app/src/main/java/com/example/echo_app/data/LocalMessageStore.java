@@ -0,0 +1,106 @@
+package com.example.echo_app.data;
+
+import com.example.echo_app.model.Message;
+
+import java.util.List;
+
+/**
+ * LocalMessageStore.java
+ *
+ * Role: On-device persistent storage for chat messages.
+ *
+ * Keeps a local copy of every synchronized message together with a per-chat
+ * high-water mark (the newest Message.receivedAt, a server time, received from Firestore).
+ * The repository layer uses the mark to request only newer documents, so the
+ * network cost of opening a chat grows with new traffic rather than history size.
+ *
+ * All methods are blocking and must be called off the main thread.
+ *
+ * Responsibilities:
+ * - Persist messages per chat (upsert by message ID)
+ * - Track the per-chat sync high-water mark
+ * - Serve cached messages ordered by timestamp
+ * - Apply local status updates (forward only) and deletions
+ *
+ * Part of: Data Layer (MVVM Architecture)
+ *
+ * @see SqliteMessageStore
+ */
+public interface LocalMessageStore {
+
+    /**
+     * Value returned by getHighWaterMark() for chats that were never synchronized.
+     */
+    long NO_HIGH_WATER_MARK = -1L;
+
+    /**
+     * Get all cached messages of a chat, ordered by timestamp ascending.
+     *
+     * @param chatId The chat identifier
+     * @return Cached messages (empty list if none)
+     */
+    List<Message> getMessages(String chatId);
+
+    /**
+     * Get the newest cached messages of a chat, ordered by timestamp ascending.
+     * Reads only the requested window, so opening a chat does not load its whole history.
+     *
+     * @param chatId The chat identifier
+     * @param limit Maximum number of messages
+     * @return Up to limit of the newest cached messages (empty list if none)
+     */
+    List<Message> getNewestMessages(String chatId, int limit);
+
+    /**
+     * Get the newest Message.receivedAt synchronized from the server for a chat.
+     *
+     * @param chatId The chat identifier
+     * @return The high-water mark, or NO_HIGH_WATER_MARK if the chat was never synchronized
+     */
+    long getHighWaterMark(String chatId);
+
+    /**
+     * Insert or replace messages and advance the chat's high-water mark atomically.
+     * The mark never moves backwards.
+     *
+     * @param chatId The chat identifier
+     * @param messages Messages to upsert (must have IDs)
+     * @param highWaterMark Candidate new high-water mark
+     */
+    void upsertMessages(String chatId, List<Message> messages, long highWaterMark);
+
+    /**
+     * Insert or replace messages without touching the high-water mark.
+     * Used for out-of-order data such as older history pages.
+     *
+     * @param chatId The chat identifier
+     * @param messages Messages to upsert (must have IDs)
+     */
+    void cacheMessages(String chatId, List<Message> messages);
+
+    /**
+     * Advance the cached delivery status of a message.
+     * Like the server-side update, the status never moves backwards: a late
+     * "delivered" leaves a cached "seen" alone.
+     *
+     * @param chatId The chat identifier
+     * @param messageId The message identifier
+     * @param deliveryStatus The new delivery status
+     */
+    void updateDeliveryStatus(String chatId, String messageId, String deliveryStatus);
+
+    /**
+     * Remove a cached message.
+     *
+     * @param chatId The chat identifier
+     * @param messageId The message identifier
+     */
+    void deleteMessage(String chatId, String messageId);
+
+    /**
+     * Remove all cached messages and the high-water mark of a chat.
+     *
+     * @param chatId The chat identifier
+     */
+    void clearChat(String chatId);
+}
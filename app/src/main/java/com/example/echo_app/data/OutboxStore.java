@@ -0,0 +1,98 @@
+package com.example.echo_app.data;
+
+import com.example.echo_app.model.Message;
+
+import java.util.List;
+
+/**
+ * OutboxStore.java
+ *
+ * Role: Durable on-device queue of outgoing messages.
+ *
+ * Messages are recorded here, with their client-generated IDs, before any network
+ * call is made, so a send survives connectivity loss and process death. The queue
+ * is drained in insertion order by OutboxWorker; because every message already has
+ * its final document ID, re-sending after a partial failure overwrites instead of
+ * duplicating.
+ *
+ * A message the server will never accept, or one that has failed too many drains, is
+ * marked failed instead of being removed: it stays on disk (it is the only copy) but
+ * is no longer served by peek(), so it cannot block the messages queued after it.
+ *
+ * All methods are blocking and must be called off the main thread.
+ *
+ * Responsibilities:
+ * - Persist outgoing messages in FIFO order
+ * - Serve the oldest pending messages in bounded batches
+ * - Remove messages once the server has acknowledged them
+ * - Count failed delivery attempts and set failed messages aside
+ *
+ * Part of: Data Layer (MVVM Architecture)
+ *
+ * @see SqliteOutboxStore
+ * @see OutboxWorker
+ */
+public interface OutboxStore {
+
+    /**
+     * Append a message to the queue. Re-enqueueing an ID already queued replaces
+     * its content but keeps its original position; a failed message is queued again
+     * with its attempt count reset.
+     *
+     * @param message The message to queue (id and chatId must be set)
+     */
+    void enqueue(Message message);
+
+    /**
+     * Get the oldest queued messages, in enqueue order. Failed messages are skipped.
+     *
+     * @param limit Maximum number of messages to return
+     * @return Up to limit messages (empty list if the queue is empty)
+     */
+    List<Message> peek(int limit);
+
+    /**
+     * Get the queued (not failed) messages of one chat, in enqueue order
+     * (e.g. to render pending bubbles).
+     *
+     * @param chatId The chat identifier
+     * @return Pending messages of the chat
+     */
+    List<Message> getPending(String chatId);
+
+    /**
+     * Remove acknowledged messages from the queue.
+     *
+     * @param messageIds IDs of messages the server has committed
+     */
+    void remove(List<String> messageIds);
+
+    /**
+     * Count one failed delivery attempt of a queued message.
+     *
+     * @param messageId The message identifier
+     * @return The number of failed attempts so far (0 if the message is not queued)
+     */
+    int recordFailure(String messageId);
+
+    /**
+     * Set messages aside as failed. They are kept, but no longer returned by peek(),
+     * getPending() or size() until they are enqueued again.
+     *
+     * @param messageIds IDs of messages that cannot be delivered
+     */
+    void markFailed(List<String> messageIds);
+
+    /**
+     * Get the failed messages of one chat, in enqueue order (e.g. to offer a resend).
+     *
+     * @param chatId The chat identifier
+     * @return Failed messages of the chat
+     */
+    List<Message> getFailed(String chatId);
+
+    /**
+     * Get the number of queued messages, not counting failed ones.
+     */
+    int size();
+}
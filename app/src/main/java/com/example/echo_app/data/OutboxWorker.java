@@ -0,0 +1,89 @@
+package com.example.echo_app.data;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.example.echo_app.di.AppModule;
+import com.example.echo_app.utils.Constants;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OutboxWorker.java
+ *
+ * Role: WorkManager worker that drains the message outbox.
+ *
+ * Runs only while the device has a network connection and survives process death,
+ * so a message queued offline is delivered as soon as connectivity returns. Work is
+ * unique: requesting a drain while one is already queued or running does not start
+ * a second worker in parallel, which keeps sends in order.
+ *
+ * Responsibilities:
+ * - Drain MessageOutbox through the app's MessageRepository
+ * - Ask WorkManager to retry with exponential backoff when a batch fails transiently
+ *   (permanently rejected messages are set aside by the drain itself)
+ *
+ * Part of: Data Layer (MVVM Architecture)
+ *
+ * @see com.example.echo_app.repository.MessageOutbox
+ */
+public class OutboxWorker extends Worker {
+
+    private static final String TAG = "OutboxWorker";
+    private static final String UNIQUE_WORK_NAME = "message-outbox-drain";
+
+    public OutboxWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        AppModule module = AppModule.getInstance(getApplicationContext());
+        try {
+            module.getMessageOutbox().drain(module.getMessageRepository(),
+                    Constants.OUTBOX_BATCH_SIZE, Constants.OUTBOX_SEND_TIMEOUT_MS);
+            return Result.success();
+        } catch (Exception e) {
+            if (FirestoreErrors.isPermanent(e)) {
+                Log.e(TAG, "Outbox drain failed permanently", e);
+                return Result.failure();
+            }
+            Log.e(TAG, "Outbox drain failed (attempt " + getRunAttemptCount() + "), will retry", e);
+            return Result.retry();
+        }
+    }
+
+    /**
+     * Request a drain of the outbox once the device is online.
+     *
+     * A drain requested while another is running is appended after it, so
+     * messages queued during a drain are never left behind.
+     *
+     * @param context Any context
+     */
+    public static void schedule(Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .build();
+
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(OutboxWorker.class)
+                .setConstraints(constraints)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL,
+                        Constants.OUTBOX_BACKOFF_DELAY_MS, TimeUnit.MILLISECONDS)
+                .build();
+
+        WorkManager.getInstance(context.getApplicationContext())
+                .enqueueUniqueWork(UNIQUE_WORK_NAME, ExistingWorkPolicy.APPEND_OR_REPLACE, request);
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.echo_app.data;
+
+import android.util.Log;
+
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.Transaction;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executor;
+
+/**
+ * ShardedCounter.java
+ *
+ * Role: Distributed counter spread over N shard documents.
+ *
+ * A single Firestore document sustains roughly one write per second, so a counter
+ * that many clients bump at once (e.g. reads of a broadcast message) must not live
+ * in one document. Each increment goes to a randomly chosen shard with
+ * FieldValue.increment(), so no read is needed and concurrent increments do not
+ * conflict; the value is the sum of all shards.
+ *
+ * Firestore Path: {shards}/{0..N-1}, field "count"
+ *
+ * Shards are created lazily by the first increment that lands on them (set with
+ * merge), so an untouched counter costs no documents. The shard count of an
+ * existing counter must not shrink, or the dropped shards would stop being summed.
+ *
+ * Part of: Data Layer (MVVM Architecture)
+ */
+public class ShardedCounter {
+
+    private static final String TAG = "ShardedCounter";
+
+    /**
+     * Field holding the partial count in each shard document.
+     */
+    public static final String FIELD_COUNT = "count";
+
+    private final CollectionReference shards;
+    private final int shardCount;
+    private final Random random;
+
+    /**
+     * Constructor.
+     *
+     * @param shards Collection holding the shard documents
+     * @param shardCount Number of shards (must be positive)
+     */
+    public ShardedCounter(CollectionReference shards, int shardCount) {
+        this(shards, shardCount, new Random());
+    }
+
+    /**
+     * Constructor with an injectable shard picker.
+     *
+     * @param shards Collection holding the shard documents
+     * @param shardCount Number of shards (must be positive)
+     * @param random Source used to pick the shard of each increment
+     */
+    public ShardedCounter(CollectionReference shards, int shardCount, Random random) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("shardCount must be positive");
+        }
+        this.shards = shards;
+        this.shardCount = shardCount;
+        this.random = random;
+    }
+
+    /**
+     * Add an increment of a random shard to a batch.
+     */
+    public void increment(WriteBatch batch, long delta) {
+        batch.set(randomShard(), incrementMap(delta), SetOptions.merge());
+    }
+
+    /**
+     * Add an increment of a random shard to a transaction.
+     * Must be called after the transaction's reads.
+     */
+    public void increment(Transaction transaction, long delta) {
+        transaction.set(randomShard(), incrementMap(delta), SetOptions.merge());
+    }
+
+    /**
+     * Increment a random shard on its own.
+     *
+     * @return Task<Void> - A Task that completes when the increment is written
+     */
+    public Task<Void> increment(long delta) {
+        return randomShard().set(incrementMap(delta), SetOptions.merge());
+    }
+
+    /**
+     * Read every shard and sum them.
+     *
+     * Costs one read per existing shard (at most shardCount).
+     *
+     * @param executor Executor for the summing continuation
+     * @return Task<Long> - The current total (0 if no shard exists yet)
+     */
+    public Task<Long> getCount(Executor executor) {
+        return shards.get().continueWith(executor, task -> {
+            if (!task.isSuccessful()) {
+                Exception exception = task.getException();
+                Log.e(TAG, "Error reading counter shards: " + shards.getPath(), exception);
+                throw exception != null ? exception : new Exception("Unknown error");
+            }
+
+            return sum(task.getResult().getDocuments());
+        });
+    }
+
+    /**
+     * Get references to every shard, whether or not it exists yet.
+     * Used to read a counter inside a transaction, which cannot run queries.
+     */
+    public List<DocumentReference> getShardReferences() {
+        List<DocumentReference> references = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            references.add(shards.document(String.valueOf(i)));
+        }
+        return references;
+    }
+
+    /**
+     * Sum the counts of shard snapshots; missing shards count as zero.
+     */
+    public static long sum(List<DocumentSnapshot> shardSnapshots) {
+        long total = 0L;
+        for (DocumentSnapshot shard : shardSnapshots) {
+            Long count = shard.getLong(FIELD_COUNT);
+            if (count != null) {
+                total += count;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Get the number of shards increments are spread over.
+     */
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    private DocumentReference randomShard() {
+        return shards.document(String.valueOf(random.nextInt(shardCount)));
+    }
+
+    private static Map<String, Object> incrementMap(long delta) {
+        return Collections.singletonMap(FIELD_COUNT, FieldValue.increment(delta));
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.echo_app.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SharedPrefsDeleteCheckpointStore.java
+ *
+ * Role: SharedPreferences-backed implementation of DeleteCheckpointStore.
+ *
+ * Each job is one entry, keyed by job ID, holding "step:pages". A checkpoint is a few
+ * bytes written once per deleted page, so SharedPreferences is sufficient; writes use
+ * apply() and a checkpoint lost to a crash only means one page is deleted again.
+ *
+ * Part of: Data Layer (MVVM Architecture)
+ */
+public class SharedPrefsDeleteCheckpointStore implements DeleteCheckpointStore {
+
+    private static final String TAG = "DeleteCheckpointStore";
+    private static final String PREFS_NAME = "echo_delete_checkpoints";
+
+    private final SharedPreferences prefs;
+
+    /**
+     * Constructor.
+     *
+     * @param context Any context; the application context is used
+     */
+    public SharedPrefsDeleteCheckpointStore(Context context) {
+        this.prefs = context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    @Override
+    public Checkpoint load(String jobId) {
+        String value = prefs.getString(jobId, null);
+        if (value == null) {
+            return null;
+        }
+        String[] parts = value.split(":");
+        try {
+            return new Checkpoint(Integer.parseInt(parts[0]), parts.length > 1 ? Integer.parseInt(parts[1]) : 0);
+        } catch (NumberFormatException e) {
+            // Restart the job from the first step; every step is idempotent
+            Log.e(TAG, "Corrupt checkpoint for job: " + jobId + " (" + value + ")", e);
+            return new Checkpoint(0, 0);
+        }
+    }
+
+    @Override
+    public void save(String jobId, Checkpoint checkpoint) {
+        prefs.edit().putString(jobId, checkpoint.getStep() + ":" + checkpoint.getPages()).apply();
+    }
+
+    @Override
+    public void clear(String jobId) {
+        prefs.edit().remove(jobId).apply();
+    }
+
+    @Override
+    public List<String> getPendingJobIds() {
+        return new ArrayList<>(prefs.getAll().keySet());
+    }
+}
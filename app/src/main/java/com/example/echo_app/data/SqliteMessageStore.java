@@ -0,0 +1,252 @@
+package com.example.echo_app.data;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+import com.example.echo_app.model.DeliveryStatus;
+import com.example.echo_app.model.Message;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SqliteMessageStore.java
+ *
+ * Role: SQLite-backed implementation of LocalMessageStore.
+ *
+ * Stores messages in a single table keyed by (chat_id, id) with an index on
+ * (chat_id, timestamp) for ordered reads. The per-chat high-water mark lives in
+ * a separate sync_state table and is updated in the same transaction as the
+ * message upsert, so a crash can never leave the mark ahead of the data.
+ *
+ * Tables:
+ * - messages(chat_id, id, sender_id, receiver_id, content, media_url,
+ *            message_type, delivery_status, timestamp)
+ * - sync_state(chat_id, high_water_mark)
+ *
+ * Part of: Data Layer (MVVM Architecture)
+ *
+ * @see LocalMessageStore
+ */
+public class SqliteMessageStore extends SQLiteOpenHelper implements LocalMessageStore {
+
+    private static final String DATABASE_NAME = "echo_messages.db";
+    // Version 3: high-water marks are server receivedAt times instead of client timestamps
+    private static final int DATABASE_VERSION = 3;
+
+    private static final String TABLE_MESSAGES = "messages";
+    private static final String TABLE_SYNC_STATE = "sync_state";
+
+    private static final String COL_CHAT_ID = "chat_id";
+    private static final String COL_ID = "id";
+    private static final String COL_SENDER_ID = "sender_id";
+    private static final String COL_RECEIVER_ID = "receiver_id";
+    private static final String COL_CONTENT = "content";
+    private static final String COL_MEDIA_URL = "media_url";
+    private static final String COL_THUMBNAIL = "thumbnail";
+    private static final String COL_MESSAGE_TYPE = "message_type";
+    private static final String COL_DELIVERY_STATUS = "delivery_status";
+    private static final String COL_TIMESTAMP = "timestamp";
+    private static final String COL_HIGH_WATER_MARK = "high_water_mark";
+
+    /**
+     * Constructor.
+     *
+     * @param context Any context; the application context is retained
+     */
+    public SqliteMessageStore(Context context) {
+        super(context.getApplicationContext(), DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_MESSAGES + " ("
+                + COL_CHAT_ID + " TEXT NOT NULL, "
+                + COL_ID + " TEXT NOT NULL, "
+                + COL_SENDER_ID + " TEXT, "
+                + COL_RECEIVER_ID + " TEXT, "
+                + COL_CONTENT + " TEXT, "
+                + COL_MEDIA_URL + " TEXT, "
+                + COL_THUMBNAIL + " TEXT, "
+                + COL_MESSAGE_TYPE + " TEXT, "
+                + COL_DELIVERY_STATUS + " TEXT, "
+                + COL_TIMESTAMP + " INTEGER NOT NULL, "
+                + "PRIMARY KEY (" + COL_CHAT_ID + ", " + COL_ID + "))");
+        db.execSQL("CREATE INDEX idx_messages_chat_timestamp ON " + TABLE_MESSAGES
+                + " (" + COL_CHAT_ID + ", " + COL_TIMESTAMP + ")");
+        db.execSQL("CREATE TABLE " + TABLE_SYNC_STATE + " ("
+                + COL_CHAT_ID + " TEXT PRIMARY KEY, "
+                + COL_HIGH_WATER_MARK + " INTEGER NOT NULL)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // The store is a cache of server data; rebuilding it only costs one full re-sync
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_MESSAGES);
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_SYNC_STATE);
+        onCreate(db);
+    }
+
+    @Override
+    public List<Message> getMessages(String chatId) {
+        List<Message> messages = new ArrayList<>();
+        try (Cursor cursor = getReadableDatabase().query(TABLE_MESSAGES, null,
+                COL_CHAT_ID + " = ?", new String[]{chatId},
+                null, null, COL_TIMESTAMP + " ASC")) {
+            while (cursor.moveToNext()) {
+                messages.add(readMessage(cursor));
+            }
+        }
+        return messages;
+    }
+
+    @Override
+    public List<Message> getNewestMessages(String chatId, int limit) {
+        List<Message> messages = new ArrayList<>();
+        try (Cursor cursor = getReadableDatabase().query(TABLE_MESSAGES, null,
+                COL_CHAT_ID + " = ?", new String[]{chatId},
+                null, null, COL_TIMESTAMP + " DESC, " + COL_ID + " DESC", String.valueOf(limit))) {
+            while (cursor.moveToNext()) {
+                messages.add(readMessage(cursor));
+            }
+        }
+        Collections.reverse(messages);
+        return messages;
+    }
+
+    @Override
+    public long getHighWaterMark(String chatId) {
+        try (Cursor cursor = getReadableDatabase().query(TABLE_SYNC_STATE,
+                new String[]{COL_HIGH_WATER_MARK},
+                COL_CHAT_ID + " = ?", new String[]{chatId},
+                null, null, null)) {
+            return cursor.moveToFirst() ? cursor.getLong(0) : NO_HIGH_WATER_MARK;
+        }
+    }
+
+    @Override
+    public void upsertMessages(String chatId, List<Message> messages, long highWaterMark) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            writeMessages(db, chatId, messages);
+
+            if (highWaterMark > getHighWaterMark(chatId)) {
+                ContentValues values = new ContentValues();
+                values.put(COL_CHAT_ID, chatId);
+                values.put(COL_HIGH_WATER_MARK, highWaterMark);
+                db.insertWithOnConflict(TABLE_SYNC_STATE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+            }
+
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    @Override
+    public void cacheMessages(String chatId, List<Message> messages) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            writeMessages(db, chatId, messages);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    @Override
+    public void updateDeliveryStatus(String chatId, String messageId, String deliveryStatus) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            String current;
+            try (Cursor cursor = db.query(TABLE_MESSAGES, new String[]{COL_DELIVERY_STATUS},
+                    COL_CHAT_ID + " = ? AND " + COL_ID + " = ?", new String[]{chatId, messageId},
+                    null, null, null)) {
+                if (!cursor.moveToFirst()) {
+                    db.setTransactionSuccessful();
+                    return;
+                }
+                current = cursor.getString(0);
+            }
+
+            // Forward only, like the server: a late "delivered" never replaces "seen"
+            if (DeliveryStatus.rank(deliveryStatus) > DeliveryStatus.rank(current)) {
+                ContentValues values = new ContentValues();
+                values.put(COL_DELIVERY_STATUS, deliveryStatus);
+                db.update(TABLE_MESSAGES, values,
+                        COL_CHAT_ID + " = ? AND " + COL_ID + " = ?", new String[]{chatId, messageId});
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    @Override
+    public void deleteMessage(String chatId, String messageId) {
+        getWritableDatabase().delete(TABLE_MESSAGES,
+                COL_CHAT_ID + " = ? AND " + COL_ID + " = ?", new String[]{chatId, messageId});
+    }
+
+    @Override
+    public void clearChat(String chatId) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(TABLE_MESSAGES, COL_CHAT_ID + " = ?", new String[]{chatId});
+            db.delete(TABLE_SYNC_STATE, COL_CHAT_ID + " = ?", new String[]{chatId});
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Upsert messages inside an open transaction. Messages without an ID are skipped.
+     */
+    private void writeMessages(SQLiteDatabase db, String chatId, List<Message> messages) {
+        ContentValues values = new ContentValues();
+        for (Message message : messages) {
+            if (message.getId() == null) {
+                continue;
+            }
+            values.clear();
+            values.put(COL_CHAT_ID, chatId);
+            values.put(COL_ID, message.getId());
+            values.put(COL_SENDER_ID, message.getSenderId());
+            values.put(COL_RECEIVER_ID, message.getReceiverId());
+            values.put(COL_CONTENT, message.getContent());
+            values.put(COL_MEDIA_URL, message.getMediaUrl());
+            values.put(COL_THUMBNAIL, message.getThumbnail());
+            values.put(COL_MESSAGE_TYPE, message.getMessageType());
+            values.put(COL_DELIVERY_STATUS, message.getDeliveryStatus());
+            values.put(COL_TIMESTAMP, message.getTimestamp());
+            db.insertWithOnConflict(TABLE_MESSAGES, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+        }
+    }
+
+    /**
+     * Map the current cursor row to a Message.
+     */
+    private Message readMessage(Cursor cursor) {
+        Message message = new Message();
+        message.setId(cursor.getString(cursor.getColumnIndexOrThrow(COL_ID)));
+        message.setChatId(cursor.getString(cursor.getColumnIndexOrThrow(COL_CHAT_ID)));
+        message.setSenderId(cursor.getString(cursor.getColumnIndexOrThrow(COL_SENDER_ID)));
+        message.setReceiverId(cursor.getString(cursor.getColumnIndexOrThrow(COL_RECEIVER_ID)));
+        message.setContent(cursor.getString(cursor.getColumnIndexOrThrow(COL_CONTENT)));
+        message.setMediaUrl(cursor.getString(cursor.getColumnIndexOrThrow(COL_MEDIA_URL)));
+        message.setThumbnail(cursor.getString(cursor.getColumnIndexOrThrow(COL_THUMBNAIL)));
+        message.setMessageType(cursor.getString(cursor.getColumnIndexOrThrow(COL_MESSAGE_TYPE)));
+        message.setDeliveryStatus(cursor.getString(cursor.getColumnIndexOrThrow(COL_DELIVERY_STATUS)));
+        message.setTimestamp(cursor.getLong(cursor.getColumnIndexOrThrow(COL_TIMESTAMP)));
+        return message;
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.echo_app.data;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+import com.example.echo_app.model.Message;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SqliteOutboxStore.java
+ *
+ * Role: SQLite-backed implementation of OutboxStore.
+ *
+ * Messages are kept in one table ordered by an AUTOINCREMENT sequence number,
+ * which fixes the send order across restarts. Unlike SqliteMessageStore this is
+ * not a cache: its rows are the only copy of unsent messages, so schema upgrades
+ * must migrate rather than drop the table.
+ *
+ * Tables:
+ * - outbox(seq, id, chat_id, sender_id, receiver_id, content, media_url, thumbnail,
+ *          message_type, delivery_status, timestamp, attempts, failed)
+ *
+ * Part of: Data Layer (MVVM Architecture)
+ *
+ * @see OutboxStore
+ */
+public class SqliteOutboxStore extends SQLiteOpenHelper implements OutboxStore {
+
+    private static final String DATABASE_NAME = "echo_outbox.db";
+    private static final int DATABASE_VERSION = 3;
+
+    private static final String TABLE_OUTBOX = "outbox";
+
+    private static final String COL_SEQ = "seq";
+    private static final String COL_ID = "id";
+    private static final String COL_CHAT_ID = "chat_id";
+    private static final String COL_SENDER_ID = "sender_id";
+    private static final String COL_RECEIVER_ID = "receiver_id";
+    private static final String COL_CONTENT = "content";
+    private static final String COL_MEDIA_URL = "media_url";
+    private static final String COL_THUMBNAIL = "thumbnail";
+    private static final String COL_MESSAGE_TYPE = "message_type";
+    private static final String COL_DELIVERY_STATUS = "delivery_status";
+    private static final String COL_TIMESTAMP = "timestamp";
+    private static final String COL_ATTEMPTS = "attempts";
+    private static final String COL_FAILED = "failed";
+
+    /**
+     * Constructor.
+     *
+     * @param context Any context; the application context is retained
+     */
+    public SqliteOutboxStore(Context context) {
+        super(context.getApplicationContext(), DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_OUTBOX + " ("
+                + COL_SEQ + " INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + COL_ID + " TEXT NOT NULL UNIQUE, "
+                + COL_CHAT_ID + " TEXT NOT NULL, "
+                + COL_SENDER_ID + " TEXT, "
+                + COL_RECEIVER_ID + " TEXT, "
+                + COL_CONTENT + " TEXT, "
+                + COL_MEDIA_URL + " TEXT, "
+                + COL_THUMBNAIL + " TEXT, "
+                + COL_MESSAGE_TYPE + " TEXT, "
+                + COL_DELIVERY_STATUS + " TEXT, "
+                + COL_TIMESTAMP + " INTEGER NOT NULL, "
+                + COL_ATTEMPTS + " INTEGER NOT NULL DEFAULT 0, "
+                + COL_FAILED + " INTEGER NOT NULL DEFAULT 0)");
+        db.execSQL("CREATE INDEX idx_outbox_chat ON " + TABLE_OUTBOX + " (" + COL_CHAT_ID + ", " + COL_SEQ + ")");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // Rows are unsent user data: migrate, never drop
+        if (oldVersion < 2) {
+            db.execSQL("ALTER TABLE " + TABLE_OUTBOX + " ADD COLUMN " + COL_THUMBNAIL + " TEXT");
+        }
+        if (oldVersion < 3) {
+            db.execSQL("ALTER TABLE " + TABLE_OUTBOX + " ADD COLUMN " + COL_ATTEMPTS + " INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("ALTER TABLE " + TABLE_OUTBOX + " ADD COLUMN " + COL_FAILED + " INTEGER NOT NULL DEFAULT 0");
+        }
+    }
+
+    @Override
+    public void enqueue(Message message) {
+        ContentValues values = new ContentValues();
+        values.put(COL_ID, message.getId());
+        values.put(COL_CHAT_ID, message.getChatId());
+        values.put(COL_SENDER_ID, message.getSenderId());
+        values.put(COL_RECEIVER_ID, message.getReceiverId());
+        values.put(COL_CONTENT, message.getContent());
+        values.put(COL_MEDIA_URL, message.getMediaUrl());
+        values.put(COL_THUMBNAIL, message.getThumbnail());
+        values.put(COL_MESSAGE_TYPE, message.getMessageType());
+        values.put(COL_DELIVERY_STATUS, message.getDeliveryStatus());
+        values.put(COL_TIMESTAMP, message.getTimestamp());
+        values.put(COL_ATTEMPTS, 0);
+        values.put(COL_FAILED, 0);
+
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            // Update in place first so a re-enqueued message keeps its sequence number
+            int updated = db.update(TABLE_OUTBOX, values, COL_ID + " = ?", new String[]{message.getId()});
+            if (updated == 0) {
+                db.insertOrThrow(TABLE_OUTBOX, null, values);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    @Override
+    public List<Message> peek(int limit) {
+        return query(COL_FAILED + " = 0", null, Integer.toString(limit));
+    }
+
+    @Override
+    public List<Message> getPending(String chatId) {
+        return query(COL_CHAT_ID + " = ? AND " + COL_FAILED + " = 0", new String[]{chatId}, null);
+    }
+
+    @Override
+    public void remove(List<String> messageIds) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (String messageId : messageIds) {
+                db.delete(TABLE_OUTBOX, COL_ID + " = ?", new String[]{messageId});
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    @Override
+    public int recordFailure(String messageId) {
+        SQLiteDatabase db = getWritableDatabase();
+        String[] args = new String[]{messageId};
+        db.beginTransaction();
+        try {
+            db.execSQL("UPDATE " + TABLE_OUTBOX + " SET " + COL_ATTEMPTS + " = " + COL_ATTEMPTS + " + 1"
+                    + " WHERE " + COL_ID + " = ?", args);
+            long attempts = DatabaseUtils.longForQuery(db, "SELECT IFNULL(MAX(" + COL_ATTEMPTS + "), 0) FROM "
+                    + TABLE_OUTBOX + " WHERE " + COL_ID + " = ?", args);
+            db.setTransactionSuccessful();
+            return (int) attempts;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    @Override
+    public void markFailed(List<String> messageIds) {
+        ContentValues values = new ContentValues();
+        values.put(COL_FAILED, 1);
+
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (String messageId : messageIds) {
+                db.update(TABLE_OUTBOX, values, COL_ID + " = ?", new String[]{messageId});
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    @Override
+    public List<Message> getFailed(String chatId) {
+        return query(COL_CHAT_ID + " = ? AND " + COL_FAILED + " = 1", new String[]{chatId}, null);
+    }
+
+    @Override
+    public int size() {
+        return (int) DatabaseUtils.queryNumEntries(getReadableDatabase(), TABLE_OUTBOX, COL_FAILED + " = 0");
+    }
+
+    private List<Message> query(String selection, String[] selectionArgs, String limit) {
+        List<Message> messages = new ArrayList<>();
+        try (Cursor cursor = getReadableDatabase().query(TABLE_OUTBOX, null, selection, selectionArgs,
+                null, null, COL_SEQ + " ASC", limit)) {
+            while (cursor.moveToNext()) {
+                messages.add(readMessage(cursor));
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * Map the current cursor row to a Message.
+     */
+    private Message readMessage(Cursor cursor) {
+        Message message = new Message();
+        message.setId(cursor.getString(cursor.getColumnIndexOrThrow(COL_ID)));
+        message.setChatId(cursor.getString(cursor.getColumnIndexOrThrow(COL_CHAT_ID)));
+        message.setSenderId(cursor.getString(cursor.getColumnIndexOrThrow(COL_SENDER_ID)));
+        message.setReceiverId(cursor.getString(cursor.getColumnIndexOrThrow(COL_RECEIVER_ID)));
+        message.setContent(cursor.getString(cursor.getColumnIndexOrThrow(COL_CONTENT)));
+        message.setMediaUrl(cursor.getString(cursor.getColumnIndexOrThrow(COL_MEDIA_URL)));
+        message.setThumbnail(cursor.getString(cursor.getColumnIndexOrThrow(COL_THUMBNAIL)));
+        message.setMessageType(cursor.getString(cursor.getColumnIndexOrThrow(COL_MESSAGE_TYPE)));
+        message.setDeliveryStatus(cursor.getString(cursor.getColumnIndexOrThrow(COL_DELIVERY_STATUS)));
+        message.setTimestamp(cursor.getLong(cursor.getColumnIndexOrThrow(COL_TIMESTAMP)));
+        return message;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.echo_app.data.mapper;
+
+import com.example.echo_app.model.Chat;
+import com.example.echo_app.model.Message;
+import com.example.echo_app.utils.Constants;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ChatMapper.java
+ *
+ * Hand-written Firestore codec for Chat.
+ *
+ * Writes the group flag as "isGroup" and also reads the "group" key produced by
+ * reflective serialization of the isGroup() getter.
+ *
+ * toPreviewMap() encodes only the denormalized last-message fields, for a
+ * set(..., SetOptions.merge()) issued in the same batch as the message itself.
+ *
+ * Part of: Data Layer (MVVM Architecture)
+ *
+ * @see Chat
+ */
+public final class ChatMapper {
+
+    public static final String FIELD_ID = "id";
+    public static final String FIELD_PARTICIPANT_IDS = "participantIds";
+    public static final String FIELD_LAST_MESSAGE_ID = "lastMessageId";
+    public static final String FIELD_LAST_MESSAGE_TEXT = "lastMessageText";
+    public static final String FIELD_LAST_MESSAGE_TIMESTAMP = "lastMessageTimestamp";
+    public static final String FIELD_IS_GROUP = "isGroup";
+    public static final String FIELD_GROUP_LEGACY = "group";
+    public static final String FIELD_UPDATED_AT = "updatedAt";
+    public static final String FIELD_BROADCAST = "broadcast";
+
+    private ChatMapper() {
+    }
+
+    /**
+     * Decode a chat document.
+     *
+     * @return The chat, or null if the document does not exist
+     */
+    public static Chat fromSnapshot(DocumentSnapshot document) {
+        Map<String, Object> data = document.getData();
+        return data != null ? fromMap(document.getId(), data) : null;
+    }
+
+    /**
+     * Decode chat fields.
+     *
+     * @param id The document ID (falls back to the stored "id" field if null)
+     * @param data The document data
+     * @return A new Chat
+     */
+    public static Chat fromMap(String id, Map<String, Object> data) {
+        Chat chat = new Chat();
+        chat.id = id != null ? id : MapValues.getString(data, FIELD_ID);
+        chat.participantIds = MapValues.getStringList(data, FIELD_PARTICIPANT_IDS);
+        chat.lastMessageId = MapValues.getString(data, FIELD_LAST_MESSAGE_ID);
+        chat.lastMessageText = MapValues.getString(data, FIELD_LAST_MESSAGE_TEXT);
+        chat.lastMessageTimestamp = MapValues.getLong(data, FIELD_LAST_MESSAGE_TIMESTAMP);
+        chat.isGroup = MapValues.getBoolean(data, FIELD_IS_GROUP, FIELD_GROUP_LEGACY);
+        chat.updatedAt = MapValues.getLong(data, FIELD_UPDATED_AT);
+        chat.broadcast = MapValues.getBoolean(data, FIELD_BROADCAST, FIELD_BROADCAST);
+        return chat;
+    }
+
+    /**
+     * Encode a chat for set().
+     *
+     * @param chat The chat to encode
+     * @return Field map
+     */
+    public static Map<String, Object> toMap(Chat chat) {
+        Map<String, Object> data = new HashMap<>(12);
+        data.put(FIELD_ID, chat.id);
+        data.put(FIELD_PARTICIPANT_IDS, MapValues.copyList(chat.participantIds));
+        data.put(FIELD_LAST_MESSAGE_ID, chat.lastMessageId);
+        data.put(FIELD_LAST_MESSAGE_TEXT, chat.lastMessageText);
+        data.put(FIELD_LAST_MESSAGE_TIMESTAMP, chat.lastMessageTimestamp);
+        data.put(FIELD_IS_GROUP, chat.isGroup);
+        data.put(FIELD_UPDATED_AT, chat.updatedAt);
+        data.put(FIELD_BROADCAST, chat.broadcast);
+        return data;
+    }
+
+    /**
+     * Encode the last-message preview fields of a chat from its newest message.
+     * Other chat fields are not included, so the map is meant for a merge write.
+     *
+     * @param message The message that becomes the chat's last message
+     * @return Field map with lastMessageId, lastMessageText, lastMessageTimestamp and updatedAt
+     */
+    public static Map<String, Object> toPreviewMap(Message message) {
+        Map<String, Object> data = new HashMap<>(6);
+        data.put(FIELD_LAST_MESSAGE_ID, message.id);
+        data.put(FIELD_LAST_MESSAGE_TEXT, previewText(message));
+        data.put(FIELD_LAST_MESSAGE_TIMESTAMP, message.timestamp);
+        data.put(FIELD_UPDATED_AT, message.timestamp);
+        return data;
+    }
+
+    /**
+     * Build the chat-list preview of a message: its text, cut to
+     * Constants.CHAT_PREVIEW_MAX_LENGTH, or "[type]" for messages without text.
+     *
+     * @param message The message to preview
+     * @return Preview text (never null)
+     */
+    public static String previewText(Message message) {
+        String content = message.content;
+        if (content == null || content.trim().isEmpty()) {
+            return "[" + (message.messageType != null ? message.messageType : "message") + "]";
+        }
+        if (content.length() <= Constants.CHAT_PREVIEW_MAX_LENGTH) {
+            return content;
+        }
+        int end = Constants.CHAT_PREVIEW_MAX_LENGTH;
+        // Do not split a surrogate pair (e.g. an emoji) in half
+        if (Character.isHighSurrogate(content.charAt(end - 1))) {
+            end--;
+        }
+        return content.substring(0, end);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.echo_app.data.mapper;
+
+import com.example.echo_app.model.Group;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * GroupMapper.java
+ *
+ * Hand-written Firestore codec for Group.
+ *
+ * Part of: Data Layer (MVVM Architecture)
+ *
+ * @see Group
+ */
+public final class GroupMapper {
+
+    public static final String FIELD_ID = "id";
+    public static final String FIELD_NAME = "name";
+    public static final String FIELD_DESCRIPTION = "description";
+    public static final String FIELD_ADMIN_ID = "adminId";
+    public static final String FIELD_MEMBER_IDS = "memberIds";
+    public static final String FIELD_GROUP_IMAGE_URL = "groupImageUrl";
+    public static final String FIELD_CREATED_AT = "createdAt";
+    public static final String FIELD_UPDATED_AT = "updatedAt";
+    public static final String FIELD_BROADCAST = "broadcast";
+
+    private GroupMapper() {
+    }
+
+    /**
+     * Decode a group document.
+     *
+     * @return The group, or null if the document does not exist
+     */
+    public static Group fromSnapshot(DocumentSnapshot document) {
+        Map<String, Object> data = document.getData();
+        return data != null ? fromMap(document.getId(), data) : null;
+    }
+
+    /**
+     * Decode group fields.
+     *
+     * @param id The document ID (falls back to the stored "id" field if null)
+     * @param data The document data
+     * @return A new Group
+     */
+    public static Group fromMap(String id, Map<String, Object> data) {
+        Group group = new Group();
+        group.id = id != null ? id : MapValues.getString(data, FIELD_ID);
+        group.name = MapValues.getString(data, FIELD_NAME);
+        group.description = MapValues.getString(data, FIELD_DESCRIPTION);
+        group.adminId = MapValues.getString(data, FIELD_ADMIN_ID);
+        group.memberIds = MapValues.getStringList(data, FIELD_MEMBER_IDS);
+        group.groupImageUrl = MapValues.getString(data, FIELD_GROUP_IMAGE_URL);
+        group.createdAt = MapValues.getLong(data, FIELD_CREATED_AT);
+        group.updatedAt = MapValues.getLong(data, FIELD_UPDATED_AT);
+        group.broadcast = MapValues.getBoolean(data, FIELD_BROADCAST, FIELD_BROADCAST);
+        return group;
+    }
+
+    /**
+     * Encode a group for set().
+     *
+     * @param group The group to encode
+     * @return Field map
+     */
+    public static Map<String, Object> toMap(Group group) {
+        Map<String, Object> data = new HashMap<>(12);
+        data.put(FIELD_ID, group.id);
+        data.put(FIELD_NAME, group.name);
+        data.put(FIELD_DESCRIPTION, group.description);
+        data.put(FIELD_ADMIN_ID, group.adminId);
+        data.put(FIELD_MEMBER_IDS, MapValues.copyList(group.memberIds));
+        data.put(FIELD_GROUP_IMAGE_URL, group.groupImageUrl);
+        data.put(FIELD_CREATED_AT, group.createdAt);
+        data.put(FIELD_UPDATED_AT, group.updatedAt);
+        data.put(FIELD_BROADCAST, group.broadcast);
+        return data;
+    }
+}
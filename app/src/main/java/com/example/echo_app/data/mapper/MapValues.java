@@ -0,0 +1,90 @@
+package com.example.echo_app.data.mapper;
+
+import com.google.firebase.Timestamp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MapValues.java
+ *
+ * Typed, lenient accessors for Firestore document data shared by the mappers.
+ *
+ * Firestore returns integers as Long, decimals as Double and server timestamps as
+ * Timestamp; documents written by older app versions may also miss fields or use
+ * the alternate boolean property names produced by reflective serialization
+ * (e.g. "online" for the isOnline field). These helpers absorb those differences
+ * so each mapper stays a flat list of field reads.
+ *
+ * Part of: Data Layer (MVVM Architecture)
+ */
+final class MapValues {
+
+    private MapValues() {
+    }
+
+    static String getString(Map<String, Object> data, String key) {
+        Object value = data.get(key);
+        return value instanceof String ? (String) value : null;
+    }
+
+    /**
+     * Read a long, accepting any Number or a Timestamp (converted to epoch millis).
+     *
+     * @return The value, or 0 if missing or of another type
+     */
+    static long getLong(Map<String, Object> data, String key) {
+        Object value = data.get(key);
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof Timestamp) {
+            Timestamp timestamp = (Timestamp) value;
+            return timestamp.getSeconds() * 1000L + timestamp.getNanoseconds() / 1_000_000;
+        }
+        return 0L;
+    }
+
+    /**
+     * Read a boolean stored under key, or under fallbackKey for documents written by
+     * reflective serialization.
+     *
+     * @return The value, or false if neither key holds a boolean
+     */
+    static boolean getBoolean(Map<String, Object> data, String key, String fallbackKey) {
+        Object value = data.get(key);
+        if (!(value instanceof Boolean)) {
+            value = data.get(fallbackKey);
+        }
+        return value instanceof Boolean && (Boolean) value;
+    }
+
+    /**
+     * Read a list of strings, skipping non-string elements.
+     *
+     * @return A new mutable list, or null if the field is missing
+     */
+    static List<String> getStringList(Map<String, Object> data, String key) {
+        Object value = data.get(key);
+        if (!(value instanceof List)) {
+            return null;
+        }
+        List<?> raw = (List<?>) value;
+        List<String> strings = new ArrayList<>(raw.size());
+        for (Object element : raw) {
+            if (element instanceof String) {
+                strings.add((String) element);
+            }
+        }
+        return strings;
+    }
+
+    /**
+     * Copy a list for writing, so later mutation of the model does not affect a pending write.
+     */
+    static List<String> copyList(List<String> list) {
+        return list == null ? null : Collections.unmodifiableList(new ArrayList<>(list));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.echo_app.data.mapper;
+
+import com.example.echo_app.model.Membership;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * MembershipMapper.java
+ *
+ * Hand-written Firestore codec for Membership.
+ *
+ * Writes the admin flag as "isAdmin" and also reads the "admin" key produced by
+ * reflective serialization of the isAdmin() getter.
+ *
+ * Part of: Data Layer (MVVM Architecture)
+ *
+ * @see Membership
+ */
+public final class MembershipMapper {
+
+    public static final String FIELD_ID = "id";
+    public static final String FIELD_USER_ID = "userId";
+    public static final String FIELD_GROUP_ID = "groupId";
+    public static final String FIELD_IS_ADMIN = "isAdmin";
+    public static final String FIELD_ADMIN_LEGACY = "admin";
+    public static final String FIELD_JOINED_AT = "joinedAt";
+
+    private MembershipMapper() {
+    }
+
+    /**
+     * Decode a membership document.
+     *
+     * @return The membership, or null if the document does not exist
+     */
+    public static Membership fromSnapshot(DocumentSnapshot document) {
+        Map<String, Object> data = document.getData();
+        return data != null ? fromMap(document.getId(), data) : null;
+    }
+
+    /**
+     * Decode membership fields.
+     *
+     * @param id The document ID (falls back to the stored "id" field if null)
+     * @param data The document data
+     * @return A new Membership
+     */
+    public static Membership fromMap(String id, Map<String, Object> data) {
+        Membership membership = new Membership();
+        membership.id = id != null ? id : MapValues.getString(data, FIELD_ID);
+        membership.userId = MapValues.getString(data, FIELD_USER_ID);
+        membership.groupId = MapValues.getString(data, FIELD_GROUP_ID);
+        membership.isAdmin = MapValues.getBoolean(data, FIELD_IS_ADMIN, FIELD_ADMIN_LEGACY);
+        membership.joinedAt = MapValues.getLong(data, FIELD_JOINED_AT);
+        return membership;
+    }
+
+    /**
+     * Encode a membership for set().
+     *
+     * @param membership The membership to encode
+     * @return Field map
+     */
+    public static Map<String, Object> toMap(Membership membership) {
+        Map<String, Object> data = new HashMap<>(8);
+        data.put(FIELD_ID, membership.id);
+        data.put(FIELD_USER_ID, membership.userId);
+        data.put(FIELD_GROUP_ID, membership.groupId);
+        data.put(FIELD_IS_ADMIN, membership.isAdmin);
+        data.put(FIELD_JOINED_AT, membership.joinedAt);
+        return data;
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.echo_app.data.mapper;
+
+import com.example.echo_app.model.DeliveryStatus;
+import com.example.echo_app.model.Message;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * MessageMapper.java
+ *
+ * Hand-written Firestore codec for Message.
+ *
+ * Replaces DocumentSnapshot.toObject(Message.class) and set(message), which go
+ * through Firestore's reflective CustomClassMapper for every document. Explicit
+ * field reads avoid reflection and per-class bean introspection, which matters when
+ * deserializing long histories.
+ *
+ * The document ID always wins over a stored "id" field. Messages are sent with
+ * toSendMap(), which leaves deliveryStatus to the recipients; a document without
+ * the field decodes as "sent". toSendMap() also sets receivedAt to the server time
+ * of the write, which delta sync uses as its high-water mark.
+ *
+ * Part of: Data Layer (MVVM Architecture)
+ *
+ * @see Message
+ */
+public final class MessageMapper {
+
+    public static final String FIELD_ID = "id";
+    public static final String FIELD_SENDER_ID = "senderId";
+    public static final String FIELD_RECEIVER_ID = "receiverId";
+    public static final String FIELD_CHAT_ID = "chatId";
+    public static final String FIELD_CONTENT = "content";
+    public static final String FIELD_MEDIA_URL = "mediaUrl";
+    public static final String FIELD_THUMBNAIL = "thumbnail";
+    public static final String FIELD_MESSAGE_TYPE = "messageType";
+    public static final String FIELD_DELIVERY_STATUS = "deliveryStatus";
+    public static final String FIELD_TIMESTAMP = "timestamp";
+    public static final String FIELD_RECEIVED_AT = "receivedAt";
+
+    private MessageMapper() {
+    }
+
+    /**
+     * Decode a message document.
+     *
+     * @return The message, or null if the document does not exist
+     */
+    public static Message fromSnapshot(DocumentSnapshot document) {
+        Map<String, Object> data = document.getData();
+        return data != null ? fromMap(document.getId(), data) : null;
+    }
+
+    /**
+     * Decode message fields.
+     *
+     * @param id The document ID (falls back to the stored "id" field if null)
+     * @param data The document data
+     * @return A new Message
+     */
+    public static Message fromMap(String id, Map<String, Object> data) {
+        Message message = new Message();
+        message.id = id != null ? id : MapValues.getString(data, FIELD_ID);
+        message.senderId = MapValues.getString(data, FIELD_SENDER_ID);
+        message.receiverId = MapValues.getString(data, FIELD_RECEIVER_ID);
+        message.chatId = MapValues.getString(data, FIELD_CHAT_ID);
+        message.content = MapValues.getString(data, FIELD_CONTENT);
+        message.mediaUrl = MapValues.getString(data, FIELD_MEDIA_URL);
+        message.thumbnail = MapValues.getString(data, FIELD_THUMBNAIL);
+        message.messageType = MapValues.getString(data, FIELD_MESSAGE_TYPE);
+        String deliveryStatus = MapValues.getString(data, FIELD_DELIVERY_STATUS);
+        message.deliveryStatus = deliveryStatus != null ? deliveryStatus : DeliveryStatus.SENT;
+        message.timestamp = MapValues.getLong(data, FIELD_TIMESTAMP);
+        message.receivedAt = MapValues.getLong(data, FIELD_RECEIVED_AT);
+        return message;
+    }
+
+    /**
+     * Encode a message for set().
+     *
+     * @param message The message to encode
+     * @return Field map with the same keys reflective serialization produced
+     */
+    public static Map<String, Object> toMap(Message message) {
+        Map<String, Object> data = new HashMap<>(16);
+        data.put(FIELD_ID, message.id);
+        data.put(FIELD_SENDER_ID, message.senderId);
+        data.put(FIELD_RECEIVER_ID, message.receiverId);
+        data.put(FIELD_CHAT_ID, message.chatId);
+        data.put(FIELD_CONTENT, message.content);
+        data.put(FIELD_MEDIA_URL, message.mediaUrl);
+        if (message.thumbnail != null) {
+            // Only media messages carry a thumbnail; text messages keep their old shape
+            data.put(FIELD_THUMBNAIL, message.thumbnail);
+        }
+        data.put(FIELD_MESSAGE_TYPE, message.messageType);
+        data.put(FIELD_DELIVERY_STATUS, message.deliveryStatus);
+        data.put(FIELD_TIMESTAMP, message.timestamp);
+        return data;
+    }
+
+    /**
+     * Encode a message for set(..., SetOptions.merge()) by its sender.
+     *
+     * Same as toMap() without deliveryStatus: a re-send (e.g. an outbox retry after
+     * the first commit landed) rewrites the immutable content but never resets a
+     * status the recipient has already advanced. receivedAt is set to the server
+     * timestamp, so a message sent late with an old client timestamp still sorts
+     * after everything other devices have already synchronized.
+     *
+     * @param message The message to encode
+     * @return Field map without deliveryStatus, with receivedAt = serverTimestamp()
+     */
+    public static Map<String, Object> toSendMap(Message message) {
+        Map<String, Object> data = toMap(message);
+        data.remove(FIELD_DELIVERY_STATUS);
+        data.put(FIELD_RECEIVED_AT, FieldValue.serverTimestamp());
+        return data;
+    }
+}
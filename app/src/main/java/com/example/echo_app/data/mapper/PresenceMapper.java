@@ -0,0 +1,56 @@
+package com.example.echo_app.data.mapper;
+
+import com.example.echo_app.model.Presence;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * PresenceMapper.java
+ *
+ * Hand-written Firestore codec for the presence fields of a user document.
+ * Uses the same field names as UserMapper, including the legacy "online" key.
+ *
+ * Part of: Data Layer (MVVM Architecture)
+ *
+ * @see Presence
+ */
+public final class PresenceMapper {
+
+    private PresenceMapper() {
+    }
+
+    /**
+     * Decode the presence fields of a user document.
+     *
+     * @return The presence, or null if the document does not exist
+     */
+    public static Presence fromSnapshot(DocumentSnapshot document) {
+        Map<String, Object> data = document.getData();
+        return data != null ? fromMap(document.getId(), data) : null;
+    }
+
+    /**
+     * Decode presence fields.
+     *
+     * @param userId The document ID
+     * @param data The document data
+     * @return A new Presence
+     */
+    public static Presence fromMap(String userId, Map<String, Object> data) {
+        return new Presence(userId,
+                MapValues.getBoolean(data, UserMapper.FIELD_IS_ONLINE, UserMapper.FIELD_ONLINE_LEGACY),
+                MapValues.getLong(data, UserMapper.FIELD_LAST_SEEN));
+    }
+
+    /**
+     * Encode presence for update(); contains only isOnline and lastSeen.
+     */
+    public static Map<String, Object> toMap(boolean online, long lastSeen) {
+        Map<String, Object> data = new HashMap<>(4);
+        data.put(UserMapper.FIELD_IS_ONLINE, online);
+        data.put(UserMapper.FIELD_LAST_SEEN, lastSeen);
+        return data;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.echo_app.data.mapper;
+
+import com.example.echo_app.model.ReadReceipt;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ReadReceiptMapper.java
+ *
+ * Hand-written Firestore codec for ReadReceipt.
+ * The document ID is the participant's user ID.
+ *
+ * Part of: Data Layer (MVVM Architecture)
+ *
+ * @see ReadReceipt
+ */
+public final class ReadReceiptMapper {
+
+    public static final String FIELD_USER_ID = "userId";
+    public static final String FIELD_CHAT_ID = "chatId";
+    public static final String FIELD_DELIVERED_UP_TO = "deliveredUpTo";
+    public static final String FIELD_SEEN_UP_TO = "seenUpTo";
+    public static final String FIELD_UPDATED_AT = "updatedAt";
+
+    private ReadReceiptMapper() {
+    }
+
+    /**
+     * Decode a receipt document.
+     *
+     * @return The receipt, or null if the document does not exist
+     */
+    public static ReadReceipt fromSnapshot(DocumentSnapshot document) {
+        Map<String, Object> data = document.getData();
+        return data != null ? fromMap(document.getId(), data) : null;
+    }
+
+    /**
+     * Decode receipt fields.
+     *
+     * @param userId The document ID (falls back to the stored "userId" field if null)
+     * @param data The document data
+     * @return A new ReadReceipt
+     */
+    public static ReadReceipt fromMap(String userId, Map<String, Object> data) {
+        ReadReceipt receipt = new ReadReceipt();
+        receipt.userId = userId != null ? userId : MapValues.getString(data, FIELD_USER_ID);
+        receipt.chatId = MapValues.getString(data, FIELD_CHAT_ID);
+        receipt.deliveredUpTo = MapValues.getLong(data, FIELD_DELIVERED_UP_TO);
+        receipt.seenUpTo = MapValues.getLong(data, FIELD_SEEN_UP_TO);
+        receipt.updatedAt = MapValues.getLong(data, FIELD_UPDATED_AT);
+        return receipt;
+    }
+
+    /**
+     * Encode a receipt for set().
+     *
+     * @param receipt The receipt to encode
+     * @return Field map
+     */
+    public static Map<String, Object> toMap(ReadReceipt receipt) {
+        Map<String, Object> data = new HashMap<>(8);
+        data.put(FIELD_USER_ID, receipt.userId);
+        data.put(FIELD_CHAT_ID, receipt.chatId);
+        data.put(FIELD_DELIVERED_UP_TO, receipt.deliveredUpTo);
+        data.put(FIELD_SEEN_UP_TO, receipt.seenUpTo);
+        data.put(FIELD_UPDATED_AT, receipt.updatedAt);
+        return data;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.echo_app.data.mapper;
+
+import com.example.echo_app.model.TypingStatus;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * TypingStatusMapper.java
+ *
+ * Hand-written Firestore codec for TypingStatus.
+ * The chat ID is taken from the document path and not stored.
+ *
+ * Part of: Data Layer (MVVM Architecture)
+ *
+ * @see TypingStatus
+ */
+public final class TypingStatusMapper {
+
+    public static final String FIELD_USER_ID = "userId";
+    public static final String FIELD_EXPIRES_AT = "expiresAt";
+
+    private TypingStatusMapper() {
+    }
+
+    /**
+     * Decode a typing document of chats/{chatId}/typing.
+     *
+     * @return The status, or null if the document does not exist
+     */
+    public static TypingStatus fromSnapshot(String chatId, DocumentSnapshot document) {
+        Map<String, Object> data = document.getData();
+        return data != null ? fromMap(chatId, document.getId(), data) : null;
+    }
+
+    /**
+     * Decode typing fields.
+     *
+     * @param chatId The chat the document belongs to
+     * @param userId The document ID (falls back to the stored "userId" field if null)
+     * @param data The document data
+     * @return A new TypingStatus
+     */
+    public static TypingStatus fromMap(String chatId, String userId, Map<String, Object> data) {
+        return new TypingStatus(userId != null ? userId : MapValues.getString(data, FIELD_USER_ID), chatId,
+                MapValues.getLong(data, FIELD_EXPIRES_AT));
+    }
+
+    /**
+     * Encode a typing status for set().
+     */
+    public static Map<String, Object> toMap(TypingStatus status) {
+        Map<String, Object> data = new HashMap<>(4);
+        data.put(FIELD_USER_ID, status.userId);
+        data.put(FIELD_EXPIRES_AT, status.expiresAt);
+        return data;
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.echo_app.data.mapper;
+
+import com.example.echo_app.model.User;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * UserMapper.java
+ *
+ * Hand-written Firestore codec for User.
+ *
+ * Replaces DocumentSnapshot.toObject(User.class) and set(user). Reflective
+ * serialization wrote the online flag under both "isOnline" (public field) and
+ * "online" (isOnline() getter); this codec writes "isOnline" and reads either.
+ * Missing normalized search fields are derived from displayName and email when
+ * decoding, and always re-derived from them when encoding, so every profile write
+ * stores them; searchKeysToBackfill() finds documents written before they existed.
+ * diff() computes the field map for a partial update() between two encodings.
+ * Profile updates use toProfileMap()/toUpdateMap(), which leave out the presence
+ * fields (isOnline, lastSeen) that only PresenceRepository writes.
+ *
+ * Part of: Data Layer (MVVM Architecture)
+ *
+ * @see User
+ */
+public final class UserMapper {
+
+    public static final String FIELD_ID = "id";
+    public static final String FIELD_DISPLAY_NAME = "displayName";
+    public static final String FIELD_DISPLAY_NAME_LOWER = "displayNameLower";
+    public static final String FIELD_EMAIL = "email";
+    public static final String FIELD_EMAIL_LOWER = "emailLower";
+    public static final String FIELD_PROFILE_IMAGE_URL = "profileImageUrl";
+    public static final String FIELD_IS_ONLINE = "isOnline";
+    public static final String FIELD_ONLINE_LEGACY = "online";
+    public static final String FIELD_LAST_SEEN = "lastSeen";
+    public static final String FIELD_CREATED_AT = "createdAt";
+    public static final String FIELD_UPDATED_AT = "updatedAt";
+
+    private UserMapper() {
+    }
+
+    /**
+     * Decode a user document.
+     *
+     * @return The user, or null if the document does not exist
+     */
+    public static User fromSnapshot(DocumentSnapshot document) {
+        Map<String, Object> data = document.getData();
+        return data != null ? fromMap(document.getId(), data) : null;
+    }
+
+    /**
+     * Decode user fields.
+     *
+     * @param id The document ID (falls back to the stored "id" field if null)
+     * @param data The document data
+     * @return A new User
+     */
+    public static User fromMap(String id, Map<String, Object> data) {
+        User user = new User();
+        user.id = id != null ? id : MapValues.getString(data, FIELD_ID);
+        user.displayName = MapValues.getString(data, FIELD_DISPLAY_NAME);
+        user.email = MapValues.getString(data, FIELD_EMAIL);
+        String displayNameLower = MapValues.getString(data, FIELD_DISPLAY_NAME_LOWER);
+        user.displayNameLower = displayNameLower != null ? displayNameLower : User.normalize(user.displayName);
+        String emailLower = MapValues.getString(data, FIELD_EMAIL_LOWER);
+        user.emailLower = emailLower != null ? emailLower : User.normalize(user.email);
+        user.profileImageUrl = MapValues.getString(data, FIELD_PROFILE_IMAGE_URL);
+        user.isOnline = MapValues.getBoolean(data, FIELD_IS_ONLINE, FIELD_ONLINE_LEGACY);
+        user.lastSeen = MapValues.getLong(data, FIELD_LAST_SEEN);
+        user.createdAt = MapValues.getLong(data, FIELD_CREATED_AT);
+        user.updatedAt = MapValues.getLong(data, FIELD_UPDATED_AT);
+        return user;
+    }
+
+    /**
+     * Encode a user for set().
+     *
+     * @param user The user to encode
+     * @return Field map
+     */
+    public static Map<String, Object> toMap(User user) {
+        Map<String, Object> data = new HashMap<>(16);
+        data.put(FIELD_ID, user.id);
+        data.put(FIELD_DISPLAY_NAME, user.displayName);
+        data.put(FIELD_DISPLAY_NAME_LOWER, User.normalize(user.displayName));
+        data.put(FIELD_EMAIL, user.email);
+        data.put(FIELD_EMAIL_LOWER, User.normalize(user.email));
+        data.put(FIELD_PROFILE_IMAGE_URL, user.profileImageUrl);
+        data.put(FIELD_IS_ONLINE, user.isOnline);
+        data.put(FIELD_LAST_SEEN, user.lastSeen);
+        data.put(FIELD_CREATED_AT, user.createdAt);
+        data.put(FIELD_UPDATED_AT, user.updatedAt);
+        return data;
+    }
+
+    /**
+     * Encode a user for a profile update: toMap() without the presence fields.
+     *
+     * @param user The user to encode
+     * @return Field map without isOnline and lastSeen
+     */
+    public static Map<String, Object> toProfileMap(User user) {
+        Map<String, Object> data = toMap(user);
+        data.remove(FIELD_IS_ONLINE);
+        data.remove(FIELD_LAST_SEEN);
+        return data;
+    }
+
+    /**
+     * Encode only the profile fields of updated that differ from previous, for update().
+     * Presence fields are never included, even if they differ.
+     *
+     * A non-empty update always carries the normalized search fields: previous may have
+     * been decoded from a document that lacks them (fromMap() derives them), so a diff
+     * alone would never write them to that document.
+     *
+     * @param previous The last known state of the user
+     * @param updated The new state of the same user
+     * @return Changed fields, empty if nothing changed
+     * @see #diff(Map, Map)
+     */
+    public static Map<String, Object> toUpdateMap(User previous, User updated) {
+        Map<String, Object> changed = diff(toProfileMap(previous), toProfileMap(updated));
+        if (!changed.isEmpty()) {
+            changed.put(FIELD_DISPLAY_NAME_LOWER, User.normalize(updated.displayName));
+            changed.put(FIELD_EMAIL_LOWER, User.normalize(updated.email));
+        }
+        return changed;
+    }
+
+    /**
+     * Compute the normalized search fields a stored user document is missing.
+     *
+     * Documents written before displayNameLower/emailLower existed are left out of
+     * queries ordered or filtered on them; update() with this map makes them visible.
+     * Fields whose source value is absent are not included.
+     *
+     * @param data The stored document data
+     * @return Missing search fields with their values, empty if none are missing
+     */
+    public static Map<String, Object> searchKeysToBackfill(Map<String, Object> data) {
+        Map<String, Object> missing = new HashMap<>(2);
+        String displayNameLower = User.normalize(MapValues.getString(data, FIELD_DISPLAY_NAME));
+        if (displayNameLower != null && !data.containsKey(FIELD_DISPLAY_NAME_LOWER)) {
+            missing.put(FIELD_DISPLAY_NAME_LOWER, displayNameLower);
+        }
+        String emailLower = User.normalize(MapValues.getString(data, FIELD_EMAIL));
+        if (emailLower != null && !data.containsKey(FIELD_EMAIL_LOWER)) {
+            missing.put(FIELD_EMAIL_LOWER, emailLower);
+        }
+        return missing;
+    }
+
+    /**
+     * Compute the fields of an encoded user that differ from a previous encoding.
+     *
+     * The ID never changes and is never included. updatedAt is included only together
+     * with another changed field, so re-saving an unchanged profile with a fresh
+     * updatedAt is still a no-op.
+     *
+     * @param previous Encoded last known state (e.g. toMap() of the last read snapshot)
+     * @param updated Encoded new state
+     * @return Changed fields with their new values, empty if nothing changed
+     */
+    public static Map<String, Object> diff(Map<String, Object> previous, Map<String, Object> updated) {
+        Map<String, Object> changed = new HashMap<>();
+        for (Map.Entry<String, Object> field : updated.entrySet()) {
+            String key = field.getKey();
+            if (FIELD_ID.equals(key) || FIELD_UPDATED_AT.equals(key)) {
+                continue;
+            }
+            if (!previous.containsKey(key) || !Objects.equals(previous.get(key), field.getValue())) {
+                changed.put(key, field.getValue());
+            }
+        }
+        if (!changed.isEmpty() && updated.containsKey(FIELD_UPDATED_AT)
+                && !Objects.equals(previous.get(FIELD_UPDATED_AT), updated.get(FIELD_UPDATED_AT))) {
+            changed.put(FIELD_UPDATED_AT, updated.get(FIELD_UPDATED_AT));
+        }
+        return changed;
+    }
+}
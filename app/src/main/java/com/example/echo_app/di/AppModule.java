@@ -1,5 +1,49 @@
 package com.example.echo_app.di;
 
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+
+import com.example.echo_app.data.DeleteCheckpointStore;
+import com.example.echo_app.data.LocalMessageStore;
+import com.example.echo_app.data.OutboxWorker;
+import com.example.echo_app.data.SharedPrefsDeleteCheckpointStore;
+import com.example.echo_app.data.SqliteMessageStore;
+import com.example.echo_app.data.SqliteOutboxStore;
+import com.example.echo_app.media.ImageCompressor;
+import com.example.echo_app.media.MediaUploader;
+import com.example.echo_app.repository.CachingMessageRepository;
+import com.example.echo_app.repository.CachingUnreadCounterRepository;
+import com.example.echo_app.repository.CachingUserRepository;
+import com.example.echo_app.repository.ChatRepository;
+import com.example.echo_app.repository.FirebaseStorageMediaRepository;
+import com.example.echo_app.repository.FirestoreChatRepository;
+import com.example.echo_app.repository.FirestoreGroupRepository;
+import com.example.echo_app.repository.FirestoreMessageRepository;
+import com.example.echo_app.repository.FirestorePresenceRepository;
+import com.example.echo_app.repository.FirestoreReceiptRepository;
+import com.example.echo_app.repository.FirestoreTypingRepository;
+import com.example.echo_app.repository.FirestoreUnreadCounterRepository;
+import com.example.echo_app.repository.FirestoreUserRepository;
+import com.example.echo_app.repository.GroupRepository;
+import com.example.echo_app.repository.MessageOutbox;
+import com.example.echo_app.repository.PresenceRepository;
+import com.example.echo_app.repository.PresenceService;
+import com.example.echo_app.repository.ReceiptRepository;
+import com.example.echo_app.repository.TypingRepository;
+import com.example.echo_app.repository.UserRepository;
+import com.example.echo_app.utils.Constants;
+import com.example.echo_app.utils.Scheduler;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.storage.FirebaseStorage;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * AppModule.java
  *
@@ -22,10 +66,46 @@ public class AppModule {
 
     private static AppModule instance;
 
+    private Context appContext;
+
+    /**
+     * Single-threaded executor for on-device database I/O.
+     * Serializing disk access avoids SQLite lock contention.
+     */
+    private final ExecutorService diskExecutor = Executors.newSingleThreadExecutor();
+
+    /**
+     * Bounded pool for repository continuations (deserialization, mapping).
+     * Keeps snapshot decoding (the hand-written mappers) off the main thread without
+     * unbounded thread growth.
+     */
+    private final ExecutorService backgroundExecutor = Executors.newFixedThreadPool(
+            Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors() - 1)),
+            new BackgroundThreadFactory("echo-bg"));
+
+    /**
+     * Single-threaded executor for decoding and re-encoding picked media.
+     * One thread bounds peak memory to a single sampled bitmap at a time.
+     */
+    private final ExecutorService mediaExecutor = Executors.newSingleThreadExecutor(
+            new BackgroundThreadFactory("echo-media"));
+
+    private LocalMessageStore localMessageStore;
+    private CachingMessageRepository messageRepository;
+    private MessageOutbox messageOutbox;
+    private UserRepository userRepository;
+    private ReceiptRepository receiptRepository;
+    private ChatRepository chatRepository;
+    private GroupRepository groupRepository;
+    private DeleteCheckpointStore deleteCheckpointStore;
+    private CachingUnreadCounterRepository unreadCounterRepository;
+    private PresenceRepository presenceRepository;
+    private PresenceService presenceService;
+    private TypingRepository typingRepository;
+    private MediaUploader mediaUploader;
+
     // TODO: Declare singleton instances
     // private FirebaseService firebaseService;
-    // private UserRepository userRepository;
-    // private MessageRepository messageRepository;
     // private AuthRepository authRepository;
 
     private AppModule() {
@@ -42,9 +122,218 @@ public class AppModule {
         return instance;
     }
 
+    /**
+     * Get singleton instance of AppModule, binding the application context on first use.
+     * Must be called (e.g. from MainActivity or a Worker) before requesting
+     * dependencies that need a Context.
+     *
+     * @param context Any context; only the application context is retained
+     */
+    public static synchronized AppModule getInstance(Context context) {
+        AppModule module = getInstance();
+        if (module.appContext == null) {
+            module.appContext = context.getApplicationContext();
+        }
+        return module;
+    }
+
+    /**
+     * Get the shared bounded background executor.
+     * Repositories run all Task continuations on it; results reach the main thread
+     * only at the LiveData boundary.
+     */
+    public Executor getBackgroundExecutor() {
+        return backgroundExecutor;
+    }
+
+    /**
+     * Get the on-device message store.
+     *
+     * @throws IllegalStateException if no Context has been bound
+     */
+    public synchronized LocalMessageStore getLocalMessageStore() {
+        if (localMessageStore == null) {
+            localMessageStore = new SqliteMessageStore(requireContext());
+        }
+        return localMessageStore;
+    }
+
+    /**
+     * Get the message repository: Firestore behind a local delta-synced cache.
+     * Typed as the cache so that screens can read it before going to the network.
+     *
+     * @throws IllegalStateException if no Context has been bound
+     */
+    public synchronized CachingMessageRepository getMessageRepository() {
+        if (messageRepository == null) {
+            messageRepository = new CachingMessageRepository(
+                    new FirestoreMessageRepository(FirebaseFirestore.getInstance(), backgroundExecutor),
+                    getLocalMessageStore(), diskExecutor);
+        }
+        return messageRepository;
+    }
+
+    /**
+     * Get the durable outbox for outgoing messages, drained by OutboxWorker.
+     *
+     * @throws IllegalStateException if no Context has been bound
+     */
+    public synchronized MessageOutbox getMessageOutbox() {
+        if (messageOutbox == null) {
+            Context context = requireContext();
+            messageOutbox = new MessageOutbox(new SqliteOutboxStore(context), diskExecutor,
+                    () -> OutboxWorker.schedule(context));
+        }
+        return messageOutbox;
+    }
+
+    /**
+     * Get the user repository: Firestore behind an in-memory LRU profile cache.
+     */
+    public synchronized UserRepository getUserRepository() {
+        if (userRepository == null) {
+            userRepository = new CachingUserRepository(
+                    new FirestoreUserRepository(FirebaseFirestore.getInstance(), backgroundExecutor));
+        }
+        return userRepository;
+    }
+
+    /**
+     * Get the read-receipt repository.
+     */
+    public synchronized ReceiptRepository getReceiptRepository() {
+        if (receiptRepository == null) {
+            receiptRepository = new FirestoreReceiptRepository(FirebaseFirestore.getInstance(), backgroundExecutor);
+        }
+        return receiptRepository;
+    }
+
+    /**
+     * Get the chat repository (chat documents and the per-user inbox).
+     */
+    public synchronized ChatRepository getChatRepository() {
+        if (chatRepository == null) {
+            chatRepository = new FirestoreChatRepository(FirebaseFirestore.getInstance(), backgroundExecutor);
+        }
+        return chatRepository;
+    }
+
+    /**
+     * Get the group repository (groups, members and the per-user group index).
+     *
+     * @throws IllegalStateException if no Context has been bound
+     */
+    public synchronized GroupRepository getGroupRepository() {
+        if (groupRepository == null) {
+            groupRepository = new FirestoreGroupRepository(FirebaseFirestore.getInstance(), backgroundExecutor,
+                    getDeleteCheckpointStore());
+        }
+        return groupRepository;
+    }
+
+    /**
+     * Get the unread counter repository: sharded Firestore counters behind a short-lived
+     * cache of the summed totals (read by the chat list badges).
+     */
+    public synchronized CachingUnreadCounterRepository getUnreadCounterRepository() {
+        if (unreadCounterRepository == null) {
+            unreadCounterRepository = new CachingUnreadCounterRepository(
+                    new FirestoreUnreadCounterRepository(FirebaseFirestore.getInstance(), backgroundExecutor));
+        }
+        return unreadCounterRepository;
+    }
+
+    /**
+     * Get the presence repository (isOnline/lastSeen writes and batched listeners).
+     */
+    public synchronized PresenceRepository getPresenceRepository() {
+        if (presenceRepository == null) {
+            presenceRepository = new FirestorePresenceRepository(FirebaseFirestore.getInstance(), backgroundExecutor);
+        }
+        return presenceRepository;
+    }
+
+    /**
+     * Get the presence service that debounces transitions and coalesces heartbeats.
+     * Its timers run on the main looper.
+     */
+    public synchronized PresenceService getPresenceService() {
+        if (presenceService == null) {
+            presenceService = new PresenceService(getPresenceRepository(),
+                    Scheduler.fromHandler(new Handler(Looper.getMainLooper())));
+        }
+        return presenceService;
+    }
+
+    /**
+     * Get the typing indicator repository.
+     */
+    public synchronized TypingRepository getTypingRepository() {
+        if (typingRepository == null) {
+            typingRepository = new FirestoreTypingRepository(FirebaseFirestore.getInstance(), backgroundExecutor);
+        }
+        return typingRepository;
+    }
+
+    /**
+     * Get the media uploader that downscales attachments before they reach Firebase Storage.
+     *
+     * @throws IllegalStateException if no Context has been bound
+     */
+    public synchronized MediaUploader getMediaUploader() {
+        if (mediaUploader == null) {
+            ImageCompressor compressor = new ImageCompressor(requireContext(), Constants.MEDIA_MAX_DIMENSION,
+                    Constants.MEDIA_JPEG_QUALITY, Constants.MEDIA_THUMBNAIL_DIMENSION,
+                    Constants.MEDIA_THUMBNAIL_QUALITY, Constants.MEDIA_THUMBNAIL_MAX_CHARS);
+            mediaUploader = new MediaUploader(compressor,
+                    new FirebaseStorageMediaRepository(FirebaseStorage.getInstance(), backgroundExecutor),
+                    mediaExecutor);
+        }
+        return mediaUploader;
+    }
+
+    /**
+     * Get the store that records the progress of cascading deletes.
+     *
+     * @throws IllegalStateException if no Context has been bound
+     */
+    public synchronized DeleteCheckpointStore getDeleteCheckpointStore() {
+        if (deleteCheckpointStore == null) {
+            deleteCheckpointStore = new SharedPrefsDeleteCheckpointStore(requireContext());
+        }
+        return deleteCheckpointStore;
+    }
+
+    private Context requireContext() {
+        if (appContext == null) {
+            throw new IllegalStateException("AppModule.getInstance(Context) must be called first");
+        }
+        return appContext;
+    }
+
+    /**
+     * Thread factory producing named threads at background priority,
+     * so repository work never competes with the UI thread for CPU.
+     */
+    private static class BackgroundThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger();
+
+        BackgroundThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(() -> {
+                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                runnable.run();
+            }, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
     // TODO: Add getter methods for repositories and services
     // public FirebaseService getFirebaseService() { return firebaseService; }
-    // public UserRepository getUserRepository() { return userRepository; }
-    // public MessageRepository getMessageRepository() { return messageRepository; }
 }
-
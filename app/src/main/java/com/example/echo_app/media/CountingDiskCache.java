@@ -0,0 +1,75 @@
+package com.example.echo_app.media;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.engine.cache.DiskCache;
+
+import java.io.File;
+
+/**
+ * CountingDiskCache.java
+ *
+ * Role: DiskCache decorator that records hits and misses in MediaCacheStats.
+ *
+ * Part of: Media Layer (MVVM Architecture)
+ */
+class CountingDiskCache implements DiskCache {
+
+    private final DiskCache delegate;
+    private final MediaCacheStats stats;
+
+    /**
+     * @param delegate The disk cache that stores the files
+     * @param stats Counters to record lookups in
+     */
+    CountingDiskCache(DiskCache delegate, MediaCacheStats stats) {
+        this.delegate = delegate;
+        this.stats = stats;
+    }
+
+    @Nullable
+    @Override
+    public File get(Key key) {
+        File file = delegate.get(key);
+        stats.recordDiskLookup(file != null);
+        return file;
+    }
+
+    @Override
+    public void put(Key key, Writer writer) {
+        delegate.put(key, writer);
+    }
+
+    @Override
+    public void delete(Key key) {
+        delegate.delete(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    /**
+     * Factory wrapping the disk caches built by another factory.
+     */
+    static final class Factory implements DiskCache.Factory {
+
+        private final DiskCache.Factory delegate;
+        private final MediaCacheStats stats;
+
+        Factory(@NonNull DiskCache.Factory delegate, @NonNull MediaCacheStats stats) {
+            this.delegate = delegate;
+            this.stats = stats;
+        }
+
+        @Nullable
+        @Override
+        public DiskCache build() {
+            DiskCache cache = delegate.build();
+            return cache != null ? new CountingDiskCache(cache, stats) : null;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.echo_app.media;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.load.engine.cache.LruResourceCache;
+
+/**
+ * CountingMemoryCache.java
+ *
+ * Role: Glide LRU memory cache that records hits and misses in MediaCacheStats.
+ *
+ * Glide's engine looks up a cached resource by removing it from the memory cache
+ * (it becomes an active resource while displayed), so every remove() is one lookup.
+ *
+ * Part of: Media Layer (MVVM Architecture)
+ */
+class CountingMemoryCache extends LruResourceCache {
+
+    private final MediaCacheStats stats;
+
+    /**
+     * @param sizeBytes Maximum size of the cache in bytes
+     * @param stats Counters to record lookups in
+     */
+    CountingMemoryCache(long sizeBytes, MediaCacheStats stats) {
+        super(sizeBytes);
+        this.stats = stats;
+    }
+
+    @Nullable
+    @Override
+    public synchronized Resource<?> remove(@NonNull Key key) {
+        Resource<?> resource = super.remove(key);
+        stats.recordMemoryLookup(resource != null);
+        return resource;
+    }
+}
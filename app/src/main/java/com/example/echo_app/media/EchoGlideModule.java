@@ -0,0 +1,76 @@
+package com.example.echo_app.media;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.Registry;
+import com.bumptech.glide.annotation.GlideModule;
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.engine.bitmap_recycle.LruBitmapPool;
+import com.bumptech.glide.load.engine.cache.InternalCacheDiskCacheFactory;
+import com.bumptech.glide.module.AppGlideModule;
+import com.bumptech.glide.request.RequestOptions;
+
+import java.io.InputStream;
+
+/**
+ * EchoGlideModule.java
+ *
+ * Role: App-wide Glide configuration for chat media, avatars and group images.
+ *
+ * Configures (see MediaCacheBudget for the numbers):
+ * - Memory cache, bitmap pool and disk cache sized by device class instead of
+ *   Glide's screen-based defaults
+ * - RGB_565 decoding on LOW devices
+ * - Firebase Storage URL strings are loaded as StableGlideUrl, so a rotated download
+ *   token does not invalidate the disk cache
+ * - Hit/miss counting for the memory and disk caches (MediaCacheStats)
+ *
+ * Discovered at compile time by Glide's annotation processor (glide compiler);
+ * manifest module parsing is disabled.
+ *
+ * Part of: Media Layer (MVVM Architecture)
+ *
+ * @see MediaCacheBudget
+ * @see StableGlideUrl
+ * @see MediaCacheStats
+ */
+@GlideModule
+public final class EchoGlideModule extends AppGlideModule {
+
+    private static final String TAG = "EchoGlideModule";
+    private static final String DISK_CACHE_NAME = "echo_media";
+
+    @Override
+    public void applyOptions(@NonNull Context context, @NonNull GlideBuilder builder) {
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        MediaCacheBudget budget = MediaCacheBudget.forDevice(activityManager.getMemoryClass(),
+                activityManager.isLowRamDevice());
+        MediaCacheStats stats = MediaCacheStats.getInstance();
+
+        builder.setMemoryCache(new CountingMemoryCache(budget.getMemoryCacheBytes(), stats));
+        builder.setBitmapPool(new LruBitmapPool(budget.getBitmapPoolBytes()));
+        builder.setDiskCache(new CountingDiskCache.Factory(
+                new InternalCacheDiskCacheFactory(context, DISK_CACHE_NAME, budget.getDiskCacheBytes()), stats));
+        if (budget.getDeviceClass() == MediaCacheBudget.DeviceClass.LOW) {
+            builder.setDefaultRequestOptions(new RequestOptions().format(DecodeFormat.PREFER_RGB_565));
+        }
+
+        Log.d(TAG, "Image caches configured: " + budget);
+    }
+
+    @Override
+    public void registerComponents(@NonNull Context context, @NonNull Glide glide, @NonNull Registry registry) {
+        registry.prepend(String.class, InputStream.class, new FirebaseStorageUrlLoader.Factory());
+    }
+
+    @Override
+    public boolean isManifestParsingEnabled() {
+        return false;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.echo_app.media;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.load.Options;
+import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.load.model.ModelLoader;
+import com.bumptech.glide.load.model.ModelLoaderFactory;
+import com.bumptech.glide.load.model.MultiModelLoaderFactory;
+
+import java.io.InputStream;
+
+/**
+ * FirebaseStorageUrlLoader.java
+ *
+ * Role: Glide ModelLoader that loads Firebase Storage URL strings as StableGlideUrl.
+ *
+ * Registered for String models by EchoGlideModule so that
+ * Glide.with(view).load(message.getMediaUrl()) keys the disk cache without the
+ * download token. Other strings are left to Glide's default loaders.
+ *
+ * Part of: Media Layer (MVVM Architecture)
+ */
+class FirebaseStorageUrlLoader implements ModelLoader<String, InputStream> {
+
+    private final ModelLoader<GlideUrl, InputStream> urlLoader;
+
+    FirebaseStorageUrlLoader(ModelLoader<GlideUrl, InputStream> urlLoader) {
+        this.urlLoader = urlLoader;
+    }
+
+    @Nullable
+    @Override
+    public LoadData<InputStream> buildLoadData(@NonNull String model, int width, int height,
+                                               @NonNull Options options) {
+        return urlLoader.buildLoadData(new StableGlideUrl(model), width, height, options);
+    }
+
+    @Override
+    public boolean handles(@NonNull String model) {
+        return MediaCacheKeys.isFirebaseStorageUrl(model);
+    }
+
+    /**
+     * Factory delegating the actual download to the registered GlideUrl loader.
+     */
+    static final class Factory implements ModelLoaderFactory<String, InputStream> {
+
+        @NonNull
+        @Override
+        public ModelLoader<String, InputStream> build(@NonNull MultiModelLoaderFactory multiFactory) {
+            return new FirebaseStorageUrlLoader(multiFactory.build(GlideUrl.class, InputStream.class));
+        }
+
+        @Override
+        public void teardown() {
+            // No resources
+        }
+    }
+}
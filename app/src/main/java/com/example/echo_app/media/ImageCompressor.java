@@ -0,0 +1,260 @@
+package com.example.echo_app.media;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.media.ExifInterface;
+import android.media.MediaMetadataRetriever;
+import android.net.Uri;
+import android.os.Build;
+import android.util.Base64;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * ImageCompressor.java
+ *
+ * Role: Decodes, downscales and re-encodes media on a background thread.
+ *
+ * Images:
+ * 1. Read only the bounds (inJustDecodeBounds)
+ * 2. Decode with the power-of-two inSampleSize from ImageSampling, so the decoded
+ *    bitmap is at most four times the target pixel count
+ * 3. Scale to the exact target size and apply the EXIF orientation
+ * 4. Encode as JPEG, plus a tiny JPEG thumbnail as base64
+ *
+ * Videos are not transcoded; only a poster thumbnail is taken from the first frame,
+ * decoded at (or scaled straight down to) thumbnail size.
+ *
+ * Every intermediate bitmap is recycled as soon as it is no longer needed. Methods
+ * block and must not run on the main thread.
+ *
+ * Part of: Media Layer (MVVM Architecture)
+ *
+ * @see ImageSampling
+ * @see MediaUploader
+ */
+public class ImageCompressor {
+
+    private static final String JPEG = "image/jpeg";
+
+    private final Context context;
+    private final int maxDimension;
+    private final int quality;
+    private final int thumbnailDimension;
+    private final int thumbnailQuality;
+    private final int thumbnailMaxChars;
+
+    /**
+     * Constructor.
+     *
+     * @param context Any context; the application context is retained
+     * @param maxDimension Longest side of uploaded images in pixels
+     * @param quality JPEG quality of uploaded images (0-100)
+     * @param thumbnailDimension Longest side of thumbnails in pixels
+     * @param thumbnailQuality JPEG quality of thumbnails (0-100)
+     * @param thumbnailMaxChars Thumbnails whose base64 form is longer are dropped
+     */
+    public ImageCompressor(Context context, int maxDimension, int quality, int thumbnailDimension,
+                           int thumbnailQuality, int thumbnailMaxChars) {
+        this.context = context.getApplicationContext();
+        this.maxDimension = maxDimension;
+        this.quality = quality;
+        this.thumbnailDimension = thumbnailDimension;
+        this.thumbnailQuality = thumbnailQuality;
+        this.thumbnailMaxChars = thumbnailMaxChars;
+    }
+
+    /**
+     * Downscale and re-encode an image.
+     *
+     * @param source Content or file URI of the image
+     * @return The JPEG bytes to upload and the inline thumbnail
+     * @throws IOException if the image cannot be read or decoded
+     */
+    public ProcessedMedia compressImage(Uri source) throws IOException {
+        ContentResolver resolver = context.getContentResolver();
+
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        try (InputStream in = open(resolver, source)) {
+            BitmapFactory.decodeStream(in, null, bounds);
+        }
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+            throw new IOException("Not a decodable image: " + source);
+        }
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = ImageSampling.calculateInSampleSize(bounds.outWidth, bounds.outHeight, maxDimension);
+        Bitmap decoded;
+        try (InputStream in = open(resolver, source)) {
+            decoded = BitmapFactory.decodeStream(in, null, options);
+        }
+        if (decoded == null) {
+            throw new IOException("Failed to decode image: " + source);
+        }
+
+        Bitmap scaled = scale(decoded, maxDimension);
+        Bitmap oriented = rotate(scaled, readRotation(resolver, source));
+        try {
+            byte[] data = encode(oriented, quality);
+            return new ProcessedMedia(data, null, JPEG, thumbnail(oriented),
+                    oriented.getWidth(), oriented.getHeight());
+        } finally {
+            oriented.recycle();
+        }
+    }
+
+    /**
+     * Prepare a video: the file is uploaded as is, with a poster thumbnail.
+     *
+     * The poster frame is decoded at thumbnail size where the platform allows it (API 27+),
+     * so a 4K video does not cost a full-resolution bitmap; the reported dimensions come
+     * from the video's metadata.
+     *
+     * @param source Content or file URI of the video
+     * @return The upload source and the inline thumbnail (null if no frame could be read)
+     */
+    public ProcessedMedia prepareVideo(Uri source) throws IOException {
+        String contentType = context.getContentResolver().getType(source);
+        MediaMetadataRetriever retriever = new MediaMetadataRetriever();
+        try {
+            retriever.setDataSource(context, source);
+            Bitmap frame = posterFrame(retriever);
+            if (frame == null) {
+                return new ProcessedMedia(null, source, contentType != null ? contentType : "video/mp4", null, 0, 0);
+            }
+            int[] size = videoSize(retriever, frame);
+            String thumbnail = thumbnail(frame);
+            frame.recycle();
+            return new ProcessedMedia(null, source, contentType != null ? contentType : "video/mp4", thumbnail,
+                    size[0], size[1]);
+        } catch (RuntimeException e) {
+            throw new IOException("Failed to read video: " + source, e);
+        } finally {
+            retriever.release();
+        }
+    }
+
+    /**
+     * Read the first frame at no more than thumbnail size. Before API 27 the retriever
+     * only returns full-resolution frames, so the frame is scaled down (and the full one
+     * recycled) straight away.
+     */
+    private Bitmap posterFrame(MediaMetadataRetriever retriever) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O_MR1) {
+            return retriever.getScaledFrameAtTime(0, MediaMetadataRetriever.OPTION_CLOSEST_SYNC,
+                    thumbnailDimension, thumbnailDimension);
+        }
+        Bitmap frame = retriever.getFrameAtTime(0);
+        return frame != null ? scale(frame, thumbnailDimension) : null;
+    }
+
+    /**
+     * Display width and height of a video from its metadata, falling back to the
+     * poster frame's aspect when the metadata is missing.
+     */
+    private static int[] videoSize(MediaMetadataRetriever retriever, Bitmap frame) {
+        int width = parseDimension(retriever.extractMetadata(MediaMetadataRetriever.METADATA_KEY_VIDEO_WIDTH));
+        int height = parseDimension(retriever.extractMetadata(MediaMetadataRetriever.METADATA_KEY_VIDEO_HEIGHT));
+        if (width <= 0 || height <= 0) {
+            return new int[] {frame.getWidth(), frame.getHeight()};
+        }
+        int rotation = parseDimension(retriever.extractMetadata(MediaMetadataRetriever.METADATA_KEY_VIDEO_ROTATION));
+        return rotation == 90 || rotation == 270 ? new int[] {height, width} : new int[] {width, height};
+    }
+
+    private static int parseDimension(String value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private String thumbnail(Bitmap bitmap) {
+        int[] size = ImageSampling.scaledSize(bitmap.getWidth(), bitmap.getHeight(), thumbnailDimension);
+        Bitmap small = Bitmap.createScaledBitmap(bitmap, size[0], size[1], true);
+        try {
+            String encoded = Base64.encodeToString(encode(small, thumbnailQuality), Base64.NO_WRAP);
+            // Keep message documents small; a missing thumbnail only costs the blurred preview
+            return encoded.length() <= thumbnailMaxChars ? encoded : null;
+        } finally {
+            if (small != bitmap) {
+                small.recycle();
+            }
+        }
+    }
+
+    /**
+     * Scale to fit maxDimension, recycling the input if a new bitmap was created.
+     */
+    private static Bitmap scale(Bitmap bitmap, int maxDimension) {
+        int[] size = ImageSampling.scaledSize(bitmap.getWidth(), bitmap.getHeight(), maxDimension);
+        if (size[0] == bitmap.getWidth() && size[1] == bitmap.getHeight()) {
+            return bitmap;
+        }
+        Bitmap scaled = Bitmap.createScaledBitmap(bitmap, size[0], size[1], true);
+        if (scaled != bitmap) {
+            bitmap.recycle();
+        }
+        return scaled;
+    }
+
+    /**
+     * Rotate by the given degrees, recycling the input if a new bitmap was created.
+     */
+    private static Bitmap rotate(Bitmap bitmap, int degrees) {
+        if (degrees == 0) {
+            return bitmap;
+        }
+        Matrix matrix = new Matrix();
+        matrix.postRotate(degrees);
+        Bitmap rotated = Bitmap.createBitmap(bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight(), matrix, true);
+        if (rotated != bitmap) {
+            bitmap.recycle();
+        }
+        return rotated;
+    }
+
+    private static int readRotation(ContentResolver resolver, Uri source) {
+        try (InputStream in = open(resolver, source)) {
+            int orientation = new ExifInterface(in).getAttributeInt(
+                    ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL);
+            switch (orientation) {
+                case ExifInterface.ORIENTATION_ROTATE_90:
+                    return 90;
+                case ExifInterface.ORIENTATION_ROTATE_180:
+                    return 180;
+                case ExifInterface.ORIENTATION_ROTATE_270:
+                    return 270;
+                default:
+                    return 0;
+            }
+        } catch (IOException e) {
+            // Formats without EXIF (PNG, WebP) are already upright
+            return 0;
+        }
+    }
+
+    private static byte[] encode(Bitmap bitmap, int quality) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bitmap.compress(Bitmap.CompressFormat.JPEG, quality, out);
+        return out.toByteArray();
+    }
+
+    private static InputStream open(ContentResolver resolver, Uri source) throws IOException {
+        InputStream in = resolver.openInputStream(source);
+        if (in == null) {
+            throw new IOException("Cannot open " + source);
+        }
+        return in;
+    }
+}
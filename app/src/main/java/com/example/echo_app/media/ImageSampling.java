@@ -0,0 +1,63 @@
+package com.example.echo_app.media;
+
+/**
+ * ImageSampling.java
+ *
+ * Role: Size arithmetic for decoding and downscaling images.
+ *
+ * Decoding a 12 MP camera photo at full size takes ~48 MB of ARGB_8888 pixels. The
+ * upload pipeline first reads only the bounds, then decodes with a power-of-two
+ * inSampleSize chosen so that the decoded image is still at least the target size
+ * (and therefore at most four times its pixel count), and finally scales to the exact
+ * target. Kept free of Android types so the math is unit-testable.
+ *
+ * Part of: Media Layer (MVVM Architecture)
+ *
+ * @see ImageCompressor
+ */
+public final class ImageSampling {
+
+    private ImageSampling() {
+    }
+
+    /**
+     * Largest power-of-two sample size whose decoded longest side is still at least
+     * maxDimension (BitmapFactory.Options.inSampleSize).
+     *
+     * @param width Source width in pixels
+     * @param height Source height in pixels
+     * @param maxDimension Target length of the longest side
+     * @return Sample size (1 if the source is already small enough or sizes are invalid)
+     */
+    public static int calculateInSampleSize(int width, int height, int maxDimension) {
+        int longest = Math.max(width, height);
+        if (longest <= 0 || maxDimension <= 0) {
+            return 1;
+        }
+        int sampleSize = 1;
+        while (longest / (sampleSize * 2) >= maxDimension) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    /**
+     * Size after scaling down so the longest side is at most maxDimension, keeping the
+     * aspect ratio. Images that already fit are not scaled up.
+     *
+     * @param width Width in pixels
+     * @param height Height in pixels
+     * @param maxDimension Maximum length of the longest side
+     * @return {width, height}, each at least 1
+     */
+    public static int[] scaledSize(int width, int height, int maxDimension) {
+        int longest = Math.max(width, height);
+        if (longest <= maxDimension || longest <= 0) {
+            return new int[]{Math.max(width, 1), Math.max(height, 1)};
+        }
+        double scale = (double) maxDimension / longest;
+        return new int[]{
+                Math.max(1, (int) Math.round(width * scale)),
+                Math.max(1, (int) Math.round(height * scale))};
+    }
+}
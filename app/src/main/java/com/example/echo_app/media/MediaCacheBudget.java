@@ -0,0 +1,105 @@
+package com.example.echo_app.media;
+
+/**
+ * MediaCacheBudget.java
+ *
+ * Role: Chooses image cache sizes for a device class.
+ *
+ * Glide's defaults size caches from the screen only. Chat screens show many small
+ * avatars and thumbnails, so the budgets here are explicit and scale with the app's
+ * heap limit (ActivityManager.getMemoryClass()):
+ *
+ * | Class    | Condition                        | Memory cache | Bitmap pool | Disk   |
+ * |----------|----------------------------------|--------------|-------------|--------|
+ * | LOW      | low-RAM device or heap <= 128 MB | heap / 16    | heap / 32   | 64 MB  |
+ * | STANDARD | otherwise                        | heap / 8     | heap / 16   | 192 MB |
+ * | HIGH     | heap >= 384 MB                   | heap / 6     | heap / 12   | 384 MB |
+ *
+ * LOW devices also decode as RGB_565 (half the memory of ARGB_8888), see EchoGlideModule.
+ *
+ * Part of: Media Layer (MVVM Architecture)
+ */
+public final class MediaCacheBudget {
+
+    private static final long MB = 1024L * 1024L;
+    private static final int LOW_HEAP_MB = 128;
+    private static final int HIGH_HEAP_MB = 384;
+
+    /**
+     * Device classes with separate budgets.
+     */
+    public enum DeviceClass {
+        LOW, STANDARD, HIGH
+    }
+
+    private final DeviceClass deviceClass;
+    private final long memoryCacheBytes;
+    private final long bitmapPoolBytes;
+    private final long diskCacheBytes;
+
+    private MediaCacheBudget(DeviceClass deviceClass, long memoryCacheBytes, long bitmapPoolBytes,
+                             long diskCacheBytes) {
+        this.deviceClass = deviceClass;
+        this.memoryCacheBytes = memoryCacheBytes;
+        this.bitmapPoolBytes = bitmapPoolBytes;
+        this.diskCacheBytes = diskCacheBytes;
+    }
+
+    /**
+     * Classify a device.
+     *
+     * @param memoryClassMb Per-app heap limit in MB (ActivityManager.getMemoryClass())
+     * @param lowRamDevice ActivityManager.isLowRamDevice()
+     */
+    public static DeviceClass classify(int memoryClassMb, boolean lowRamDevice) {
+        if (lowRamDevice || memoryClassMb <= LOW_HEAP_MB) {
+            return DeviceClass.LOW;
+        }
+        return memoryClassMb >= HIGH_HEAP_MB ? DeviceClass.HIGH : DeviceClass.STANDARD;
+    }
+
+    /**
+     * Compute the budget for a device.
+     *
+     * @param memoryClassMb Per-app heap limit in MB (ActivityManager.getMemoryClass())
+     * @param lowRamDevice ActivityManager.isLowRamDevice()
+     */
+    public static MediaCacheBudget forDevice(int memoryClassMb, boolean lowRamDevice) {
+        long heapBytes = Math.max(memoryClassMb, 16) * MB;
+        DeviceClass deviceClass = classify(memoryClassMb, lowRamDevice);
+        switch (deviceClass) {
+            case LOW:
+                return new MediaCacheBudget(deviceClass, heapBytes / 16, heapBytes / 32, 64 * MB);
+            case HIGH:
+                return new MediaCacheBudget(deviceClass, heapBytes / 6, heapBytes / 12, 384 * MB);
+            default:
+                return new MediaCacheBudget(deviceClass, heapBytes / 8, heapBytes / 16, 192 * MB);
+        }
+    }
+
+    public DeviceClass getDeviceClass() {
+        return deviceClass;
+    }
+
+    public long getMemoryCacheBytes() {
+        return memoryCacheBytes;
+    }
+
+    public long getBitmapPoolBytes() {
+        return bitmapPoolBytes;
+    }
+
+    public long getDiskCacheBytes() {
+        return diskCacheBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "MediaCacheBudget{" +
+                "deviceClass=" + deviceClass +
+                ", memoryCacheBytes=" + memoryCacheBytes +
+                ", bitmapPoolBytes=" + bitmapPoolBytes +
+                ", diskCacheBytes=" + diskCacheBytes +
+                '}';
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.echo_app.media;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+
+/**
+ * MediaCacheKeys.java
+ *
+ * Role: Derives stable image cache keys from media URLs.
+ *
+ * Firebase Storage download URLs carry an access token as a query parameter
+ * (…/o/chats%2Fa.jpg?alt=media&token=…). The token changes whenever it is revoked or
+ * regenerated, although the object behind it is the same. Keying the image caches on
+ * the full URL would re-download every image after such a rotation, so for Storage
+ * URLs the token is removed from the key. The token is still used for the download
+ * itself. Other URLs are used unchanged.
+ *
+ * Part of: Media Layer (MVVM Architecture)
+ *
+ * @see StableGlideUrl
+ */
+public final class MediaCacheKeys {
+
+    private static final String STORAGE_HOST = "firebasestorage.googleapis.com";
+    private static final String STORAGE_HOST_SUFFIX = ".firebasestorage.app";
+    private static final String TOKEN_PARAM = "token=";
+
+    private MediaCacheKeys() {
+    }
+
+    /**
+     * Check whether a URL points to Firebase Storage.
+     *
+     * @param url The URL (may be null)
+     * @return true for Firebase Storage download URLs
+     */
+    public static boolean isFirebaseStorageUrl(String url) {
+        if (url == null) {
+            return false;
+        }
+        try {
+            String host = new URI(url).getHost();
+            return host != null && (host.equals(STORAGE_HOST) || host.endsWith(STORAGE_HOST_SUFFIX));
+        } catch (URISyntaxException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Compute the cache key of a media URL.
+     *
+     * @param url The download URL
+     * @return The URL without its "token" query parameter for Firebase Storage URLs,
+     *         otherwise the URL unchanged
+     */
+    public static String stableKey(String url) {
+        if (!isFirebaseStorageUrl(url)) {
+            return url;
+        }
+        int queryStart = url.indexOf('?');
+        if (queryStart < 0) {
+            return url;
+        }
+        int fragmentStart = url.indexOf('#', queryStart);
+        String query = fragmentStart < 0 ? url.substring(queryStart + 1) : url.substring(queryStart + 1, fragmentStart);
+        String fragment = fragmentStart < 0 ? "" : url.substring(fragmentStart);
+
+        StringBuilder key = new StringBuilder(url.length()).append(url, 0, queryStart);
+        char separator = '?';
+        for (String param : query.split("&")) {
+            if (param.isEmpty() || param.startsWith(TOKEN_PARAM)) {
+                continue;
+            }
+            key.append(separator).append(param);
+            separator = '&';
+        }
+        return key.append(fragment).toString();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.echo_app.media;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * MediaCacheStats.java
+ *
+ * Role: Hit/miss counters for the image memory and disk caches.
+ *
+ * Filled by CountingMemoryCache and CountingDiskCache, which EchoGlideModule installs.
+ * Counts are per lookup, not per image load: Glide checks the disk cache for the
+ * transformed resource and then for the source data, so one load may record a miss
+ * followed by a hit. Memory lookups only count the LRU cache; images still shown on
+ * screen are served from Glide's active resources without a lookup.
+ *
+ * Usage:
+ * MediaCacheStats stats = MediaCacheStats.getInstance();
+ * Log.d(TAG, "Image memory hit rate: " + stats.getMemoryHitRate());
+ *
+ * Part of: Media Layer (MVVM Architecture)
+ */
+public class MediaCacheStats {
+
+    private static final MediaCacheStats INSTANCE = new MediaCacheStats();
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong memoryMisses = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong diskMisses = new AtomicLong();
+
+    MediaCacheStats() {
+    }
+
+    /**
+     * Get the process-wide statistics used by the Glide caches.
+     */
+    public static MediaCacheStats getInstance() {
+        return INSTANCE;
+    }
+
+    void recordMemoryLookup(boolean hit) {
+        (hit ? memoryHits : memoryMisses).incrementAndGet();
+    }
+
+    void recordDiskLookup(boolean hit) {
+        (hit ? diskHits : diskMisses).incrementAndGet();
+    }
+
+    public long getMemoryHits() {
+        return memoryHits.get();
+    }
+
+    public long getMemoryMisses() {
+        return memoryMisses.get();
+    }
+
+    public long getDiskHits() {
+        return diskHits.get();
+    }
+
+    public long getDiskMisses() {
+        return diskMisses.get();
+    }
+
+    /**
+     * Fraction of memory cache lookups that hit, or 0 if none were made.
+     */
+    public double getMemoryHitRate() {
+        return rate(memoryHits.get(), memoryMisses.get());
+    }
+
+    /**
+     * Fraction of disk cache lookups that hit, or 0 if none were made.
+     */
+    public double getDiskHitRate() {
+        return rate(diskHits.get(), diskMisses.get());
+    }
+
+    /**
+     * Reset all counters (e.g. at the start of a measurement).
+     */
+    public void reset() {
+        memoryHits.set(0);
+        memoryMisses.set(0);
+        diskHits.set(0);
+        diskMisses.set(0);
+    }
+
+    private static double rate(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return "MediaCacheStats{" +
+                "memory=" + memoryHits.get() + "/" + (memoryHits.get() + memoryMisses.get()) +
+                ", disk=" + diskHits.get() + "/" + (diskHits.get() + diskMisses.get()) +
+                '}';
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.echo_app.media;
+
+import android.net.Uri;
+import android.util.Log;
+
+import com.example.echo_app.repository.MediaRepository;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import java.util.concurrent.Executor;
+
+/**
+ * MediaUploader.java
+ *
+ * Role: Turns a picked image or video into an uploaded attachment.
+ *
+ * Sending media is split in two steps so the UI can show a blurred placeholder
+ * as soon as the thumbnail exists, before the upload starts:
+ * 1. prepare() - downscale and re-encode images, take a poster frame of videos
+ * 2. upload() - store the prepared media and resolve its download URL
+ *
+ * Preparation runs on a dedicated media executor. AppModule provides a single
+ * thread, so at most one full-size bitmap is decoded at any time.
+ *
+ * Storage Path: chats/{chatId}/media/{messageId}[.jpg]
+ *
+ * Part of: Media Layer (MVVM Architecture)
+ *
+ * Usage:
+ * uploader.prepare(uri, "image")
+ *         .onSuccessTask(media -> uploader.upload(chatId, messageId, media));
+ *
+ * @see ImageCompressor
+ * @see MediaRepository
+ */
+public class MediaUploader {
+
+    private static final String TAG = "MediaUploader";
+    private static final String TYPE_IMAGE = "image";
+    private static final String TYPE_VIDEO = "video";
+
+    private final ImageCompressor compressor;
+    private final MediaRepository repository;
+    private final Executor mediaExecutor;
+
+    /**
+     * Constructor.
+     *
+     * @param compressor Decoder/encoder for picked media
+     * @param repository Destination of the uploads
+     * @param mediaExecutor Executor for decoding; must not be the main thread executor
+     */
+    public MediaUploader(ImageCompressor compressor, MediaRepository repository, Executor mediaExecutor) {
+        this.compressor = compressor;
+        this.repository = repository;
+        this.mediaExecutor = mediaExecutor;
+    }
+
+    /**
+     * Prepare a picked file for upload.
+     *
+     * @param source Content or file URI chosen by the user
+     * @param messageType "image" or "video"
+     * @return Task<ProcessedMedia> - The encoded image (or video source) and its thumbnail
+     */
+    public Task<ProcessedMedia> prepare(Uri source, String messageType) {
+        if (source == null) {
+            Log.e(TAG, "Cannot prepare media: source is null");
+            return Tasks.forException(new IllegalArgumentException("source must not be null"));
+        }
+        if (!TYPE_IMAGE.equals(messageType) && !TYPE_VIDEO.equals(messageType)) {
+            Log.e(TAG, "Cannot prepare media: unsupported type " + messageType);
+            return Tasks.forException(new IllegalArgumentException("messageType must be image or video"));
+        }
+
+        return Tasks.call(mediaExecutor, () -> {
+            ProcessedMedia media = TYPE_IMAGE.equals(messageType)
+                    ? compressor.compressImage(source)
+                    : compressor.prepareVideo(source);
+            Log.d(TAG, "Prepared " + media);
+            return media;
+        });
+    }
+
+    /**
+     * Upload prepared media for a message.
+     *
+     * @param chatId The chat the message belongs to
+     * @param messageId The message the media is attached to
+     * @param media Output of prepare()
+     * @return Task<String> - A Task containing the download URL
+     */
+    public Task<String> upload(String chatId, String messageId, ProcessedMedia media) {
+        if (chatId == null || chatId.isEmpty() || messageId == null || messageId.isEmpty() || media == null) {
+            Log.e(TAG, "Cannot upload media: chatId, messageId or media is missing");
+            return Tasks.forException(new IllegalArgumentException("chatId, messageId and media must not be null"));
+        }
+
+        String path = "chats/" + chatId + "/media/" + messageId;
+        if (media.getData() != null) {
+            return repository.uploadBytes(path + ".jpg", media.getData(), media.getContentType());
+        }
+        return repository.uploadFile(path, media.getSourceUri(), media.getContentType());
+    }
+}
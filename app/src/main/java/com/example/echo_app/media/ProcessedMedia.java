@@ -0,0 +1,76 @@
+package com.example.echo_app.media;
+
+import android.net.Uri;
+
+/**
+ * ProcessedMedia.java
+ *
+ * Result of preparing an image or video for upload.
+ *
+ * Images are re-encoded in memory (data is set); videos are uploaded from their
+ * source (sourceUri is set). Both carry the inline thumbnail for the message.
+ *
+ * Part of: Media Layer (MVVM Architecture)
+ *
+ * @see MediaUploader
+ */
+public class ProcessedMedia {
+
+    private final byte[] data;
+    private final Uri sourceUri;
+    private final String contentType;
+    private final String thumbnail;
+    private final int width;
+    private final int height;
+
+    /**
+     * @param data Encoded bytes to upload, or null to upload sourceUri
+     * @param sourceUri File to upload when data is null
+     * @param contentType MIME type of the upload
+     * @param thumbnail Base64 JPEG preview, or null
+     * @param width Width of the uploaded media in pixels (0 if unknown)
+     * @param height Height of the uploaded media in pixels (0 if unknown)
+     */
+    public ProcessedMedia(byte[] data, Uri sourceUri, String contentType, String thumbnail, int width, int height) {
+        this.data = data;
+        this.sourceUri = sourceUri;
+        this.contentType = contentType;
+        this.thumbnail = thumbnail;
+        this.width = width;
+        this.height = height;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    public Uri getSourceUri() {
+        return sourceUri;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getThumbnail() {
+        return thumbnail;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public String toString() {
+        return "ProcessedMedia{" +
+                "bytes=" + (data != null ? data.length : -1) +
+                ", contentType='" + contentType + '\'' +
+                ", size=" + width + "x" + height +
+                ", thumbnailChars=" + (thumbnail != null ? thumbnail.length() : 0) +
+                '}';
+    }
+}
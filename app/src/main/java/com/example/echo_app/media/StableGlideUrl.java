@@ -0,0 +1,53 @@
+package com.example.echo_app.media;
+
+import com.bumptech.glide.load.model.GlideUrl;
+
+/**
+ * StableGlideUrl.java
+ *
+ * Role: Glide model for media URLs whose cache key ignores Firebase Storage tokens.
+ *
+ * GlideUrl uses its cache key for equals(), hashCode() and the disk cache key, so
+ * overriding getCacheKey() makes both the memory and the disk cache treat two
+ * download URLs of the same object as one image. The full URL (with token) is still
+ * what gets fetched.
+ *
+ * Plain String URLs of Firebase Storage are converted automatically by
+ * EchoGlideModule, which makes the disk cache stable. Passing a StableGlideUrl as the
+ * model also makes the memory cache stable, because Glide keys memory entries on the
+ * model itself:
+ *
+ * Usage:
+ * Glide.with(imageView).load(StableGlideUrl.of(message.getMediaUrl())).into(imageView);
+ *
+ * Part of: Media Layer (MVVM Architecture)
+ *
+ * @see MediaCacheKeys
+ */
+public class StableGlideUrl extends GlideUrl {
+
+    private final String cacheKey;
+
+    /**
+     * @param url The download URL (must not be null or empty)
+     */
+    public StableGlideUrl(String url) {
+        super(url);
+        this.cacheKey = MediaCacheKeys.stableKey(url);
+    }
+
+    /**
+     * Wrap a URL for loading, or return null for a missing URL so Glide shows
+     * its fallback/placeholder instead of failing.
+     *
+     * @param url The download URL (may be null or empty)
+     */
+    public static StableGlideUrl of(String url) {
+        return url == null || url.isEmpty() ? null : new StableGlideUrl(url);
+    }
+
+    @Override
+    public String getCacheKey() {
+        return cacheKey;
+    }
+}
@@ -66,6 +66,12 @@ public class Chat {
      */
     public boolean isGroup;
 
+    /**
+     * Broadcast mode flag, mirrored from the linked Group.
+     * true = no per-recipient delivery status; reads are aggregated in sharded counters
+     */
+    public boolean broadcast;
+
     /**
      * Timestamp when this chat was last updated
      * Includes message additions and metadata changes
@@ -143,6 +149,14 @@ public class Chat {
         isGroup = group;
     }
 
+    public boolean isBroadcast() {
+        return broadcast;
+    }
+
+    public void setBroadcast(boolean broadcast) {
+        this.broadcast = broadcast;
+    }
+
     public long getUpdatedAt() {
         return updatedAt;
     }
@@ -159,6 +173,7 @@ public class Chat {
                 ", lastMessageId='" + lastMessageId + '\'' +
                 ", lastMessageText='" + lastMessageText + '\'' +
                 ", isGroup=" + isGroup +
+                ", broadcast=" + broadcast +
                 ", updatedAt=" + updatedAt +
                 '}';
     }
@@ -0,0 +1,130 @@
+package com.example.echo_app.model;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * DeliveryStatus.java
+ *
+ * Constants and ordering for Message.deliveryStatus values.
+ *
+ * Delivery status only ever moves forward: "sent" → "delivered" → "seen".
+ * The rank helpers let callers coalesce acknowledgements and refuse downgrades
+ * (e.g. a late "delivered" ack must not overwrite "seen").
+ *
+ * Used for: Batched delivery acknowledgements, receipt rendering
+ *
+ * @see Message
+ * @see ReadReceipt
+ */
+public final class DeliveryStatus {
+
+    public static final String SENT = "sent";
+    public static final String DELIVERED = "delivered";
+    public static final String SEEN = "seen";
+
+    private DeliveryStatus() {
+    }
+
+    /**
+     * Get the progression rank of a status.
+     *
+     * @param status The status value
+     * @return 0 for "sent", 1 for "delivered", 2 for "seen", -1 for unknown or null
+     */
+    public static int rank(String status) {
+        if (SENT.equals(status)) {
+            return 0;
+        }
+        if (DELIVERED.equals(status)) {
+            return 1;
+        }
+        if (SEEN.equals(status)) {
+            return 2;
+        }
+        return -1;
+    }
+
+    /**
+     * Check whether a value is a known status.
+     */
+    public static boolean isValid(String status) {
+        return rank(status) >= 0;
+    }
+
+    /**
+     * Check whether a value is an acknowledgement a recipient may write
+     * ("delivered" or "seen"). "sent" is set by the sender when the message is created.
+     */
+    public static boolean isAcknowledgement(String status) {
+        return DELIVERED.equals(status) || SEEN.equals(status);
+    }
+
+    /**
+     * Return the more advanced of two statuses ("seen" beats "delivered" beats "sent").
+     *
+     * @param a First status (may be null)
+     * @param b Second status (may be null)
+     * @return The status with the higher rank
+     */
+    public static String max(String a, String b) {
+        return rank(b) > rank(a) ? b : a;
+    }
+
+    /**
+     * Derive the status of a message from the participants' read-receipt watermarks.
+     *
+     * Every participant except the sender must have acknowledged the message: it is
+     * "seen" once each of their seenUpTo watermarks covers its timestamp, and
+     * "delivered" once each deliveredUpTo does. A participant without a receipt
+     * (e.g. a group member who never opened the chat) counts as watermark 0, so one
+     * member reading a group does not make the message seen for everyone. Receipts
+     * of users who are not participants are ignored. A status already stored on the
+     * message (legacy per-message writes) is never downgraded.
+     *
+     * Not meaningful for broadcast chats, whose receipt listeners are capped; those
+     * show ReceiptRepository.getReadCount() instead.
+     *
+     * @param message The message to resolve
+     * @param participantIds The chat's participants (Chat.participantIds; the sender is skipped)
+     * @param receipts Receipts of the chat participants (may include the sender's)
+     * @return "seen", "delivered" or "sent"
+     */
+    public static String resolve(Message message, Collection<String> participantIds,
+                                 Collection<ReadReceipt> receipts) {
+        Map<String, ReadReceipt> receiptsByUser = new HashMap<>();
+        for (ReadReceipt receipt : receipts) {
+            if (receipt != null && receipt.getUserId() != null) {
+                receiptsByUser.put(receipt.getUserId(), receipt);
+            }
+        }
+
+        boolean anyRecipient = false;
+        boolean allDelivered = true;
+        boolean allSeen = true;
+        for (String participantId : participantIds) {
+            if (participantId == null || participantId.equals(message.getSenderId())) {
+                continue;
+            }
+            anyRecipient = true;
+            ReadReceipt receipt = receiptsByUser.get(participantId);
+            if (receipt == null) {
+                // No receipt yet: both watermarks are 0
+                allDelivered &= message.getTimestamp() <= 0L;
+                allSeen &= message.getTimestamp() <= 0L;
+            } else {
+                allDelivered &= receipt.hasDelivered(message.getTimestamp());
+                allSeen &= receipt.hasSeen(message.getTimestamp());
+            }
+        }
+
+        String derived = SENT;
+        if (anyRecipient && allSeen) {
+            derived = SEEN;
+        } else if (anyRecipient && allDelivered) {
+            derived = DELIVERED;
+        }
+        return max(derived, message.getDeliveryStatus());
+    }
+}
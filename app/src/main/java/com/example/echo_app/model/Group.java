@@ -85,6 +85,14 @@ public class Group {
      */
     public long updatedAt;
 
+    /**
+     * Broadcast mode flag, set automatically once the group reaches
+     * Constants.BROADCAST_MEMBER_THRESHOLD members (see BroadcastPolicy).
+     * Broadcast groups track no per-recipient delivery status; reads are
+     * counted with sharded counters instead.
+     */
+    public boolean broadcast;
+
     /**
      * Default constructor required for Firestore deserialization
      * Do not use directly - use constructor with parameters instead
@@ -175,6 +183,14 @@ public class Group {
         this.updatedAt = updatedAt;
     }
 
+    public boolean isBroadcast() {
+        return broadcast;
+    }
+
+    public void setBroadcast(boolean broadcast) {
+        this.broadcast = broadcast;
+    }
+
     /**
      * Check if a user is an admin of this group
      *
@@ -204,6 +220,7 @@ public class Group {
                 ", adminId='" + adminId + '\'' +
                 ", memberCount=" + (memberIds != null ? memberIds.size() : 0) +
                 ", createdAt=" + createdAt +
+                ", broadcast=" + broadcast +
                 ", updatedAt=" + updatedAt +
                 '}';
     }
@@ -16,8 +16,8 @@ package com.example.echo_app.model;
  *
  * Message Types:
  * - "text": Plain text message
- * - "image": Image message with mediaUrl
- * - "video": Video message with mediaUrl
+ * - "image": Image message with mediaUrl (and an inline thumbnail)
+ * - "video": Video message with mediaUrl (and an inline poster thumbnail)
  * - "audio": Audio message with mediaUrl
  *
  * Delivery Status:
@@ -66,6 +66,13 @@ public class Message {
      */
     public String mediaUrl;
 
+    /**
+     * Tiny base64-encoded JPEG preview of an image or video (a few hundred bytes),
+     * shown blurred while the full media loads
+     * Null for text messages and when no preview could be made
+     */
+    public String thumbnail;
+
     /**
      * Type of message content
      * Possible values: "text", "image", "video", "audio"
@@ -83,6 +90,13 @@ public class Message {
      */
     public long timestamp;
 
+    /**
+     * Server time (epoch millis) of the sender's last write of this message.
+     * Assigned by Firestore, so unlike timestamp it orders messages by when they
+     * reached the server; 0 until the message has been read back from Firestore
+     */
+    public long receivedAt;
+
     /**
      * Default constructor required for Firestore deserialization
      * Do not use directly - use constructor with parameters instead
@@ -159,6 +173,14 @@ public class Message {
         this.mediaUrl = mediaUrl;
     }
 
+    public String getThumbnail() {
+        return thumbnail;
+    }
+
+    public void setThumbnail(String thumbnail) {
+        this.thumbnail = thumbnail;
+    }
+
     public String getMessageType() {
         return messageType;
     }
@@ -183,6 +205,14 @@ public class Message {
         this.timestamp = timestamp;
     }
 
+    public long getReceivedAt() {
+        return receivedAt;
+    }
+
+    public void setReceivedAt(long receivedAt) {
+        this.receivedAt = receivedAt;
+    }
+
     @Override
     public String toString() {
         return "Message{" +
@@ -0,0 +1,88 @@
+package com.example.echo_app.model;
+
+/**
+ * Presence.java
+ *
+ * Data model for the presence subset of a user profile.
+ *
+ * Presence is stored on the user document (users/{userId}: isOnline, lastSeen) but
+ * written and observed on its own, so heartbeats never rewrite the rest of the
+ * profile and presence observers do not need the full User.
+ *
+ * Used for: Online dots, "last seen" labels
+ * Stored in Firestore collection: "users" (fields isOnline, lastSeen)
+ * Document ID: presence.userId
+ *
+ * @see User
+ */
+public class Presence {
+
+    /**
+     * User ID (the Firestore document ID of the user)
+     */
+    public String userId;
+
+    /**
+     * Whether the user's app is in the foreground
+     */
+    public boolean isOnline;
+
+    /**
+     * Timestamp of the user's last presence write (transition or heartbeat)
+     */
+    public long lastSeen;
+
+    /**
+     * Default constructor
+     */
+    public Presence() {
+    }
+
+    /**
+     * Constructor
+     *
+     * @param userId User ID
+     * @param isOnline Whether the user is online
+     * @param lastSeen Timestamp of the last presence write
+     */
+    public Presence(String userId, boolean isOnline, long lastSeen) {
+        this.userId = userId;
+        this.isOnline = isOnline;
+        this.lastSeen = lastSeen;
+    }
+
+    // Getters and Setters
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public boolean isOnline() {
+        return isOnline;
+    }
+
+    public void setOnline(boolean online) {
+        isOnline = online;
+    }
+
+    public long getLastSeen() {
+        return lastSeen;
+    }
+
+    public void setLastSeen(long lastSeen) {
+        this.lastSeen = lastSeen;
+    }
+
+    @Override
+    public String toString() {
+        return "Presence{" +
+                "userId='" + userId + '\'' +
+                ", isOnline=" + isOnline +
+                ", lastSeen=" + lastSeen +
+                '}';
+    }
+}
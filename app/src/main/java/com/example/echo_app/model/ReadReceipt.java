@@ -0,0 +1,144 @@
+package com.example.echo_app.model;
+
+/**
+ * ReadReceipt.java
+ *
+ * Data model representing one participant's read progress in a chat.
+ *
+ * Instead of writing Message.deliveryStatus on every message document, each
+ * participant keeps a single pair of timestamp watermarks per chat:
+ * - deliveredUpTo: every message with timestamp <= this value reached the device
+ * - seenUpTo: every message with timestamp <= this value was displayed
+ *
+ * The per-message status is derived on the client by comparing the watermarks
+ * of the other participants with Message.timestamp (see DeliveryStatus.resolve()).
+ * Opening a chat therefore costs one write, regardless of how many messages were read.
+ *
+ * Invariants:
+ * - Watermarks only move forward
+ * - seenUpTo <= deliveredUpTo (a seen message is also delivered)
+ *
+ * Used for: Read receipts, delivery ticks, unread detection
+ * Stored in Firestore subcollection: "chats/{chatId}/receipts"
+ * Document ID: receipt.userId
+ *
+ * @see Message
+ * @see DeliveryStatus
+ */
+public class ReadReceipt {
+
+    /**
+     * User ID of the participant (also the Firestore document ID)
+     */
+    public String userId;
+
+    /**
+     * Chat/Conversation ID the receipt belongs to
+     */
+    public String chatId;
+
+    /**
+     * Newest Message.timestamp delivered to this participant, 0 if none
+     */
+    public long deliveredUpTo;
+
+    /**
+     * Newest Message.timestamp seen by this participant, 0 if none
+     */
+    public long seenUpTo;
+
+    /**
+     * Timestamp when the receipt was last advanced
+     */
+    public long updatedAt;
+
+    /**
+     * Default constructor required for Firestore deserialization
+     * Do not use directly - use constructor with parameters instead
+     */
+    public ReadReceipt() {
+    }
+
+    /**
+     * Constructor for creating a receipt
+     *
+     * @param userId ID of the participant
+     * @param chatId ID of the chat/conversation
+     * @param deliveredUpTo Delivered watermark
+     * @param seenUpTo Seen watermark
+     */
+    public ReadReceipt(String userId, String chatId, long deliveredUpTo, long seenUpTo) {
+        this.userId = userId;
+        this.chatId = chatId;
+        this.deliveredUpTo = Math.max(deliveredUpTo, seenUpTo);
+        this.seenUpTo = seenUpTo;
+        this.updatedAt = System.currentTimeMillis();
+    }
+
+    // Getters and Setters
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getChatId() {
+        return chatId;
+    }
+
+    public void setChatId(String chatId) {
+        this.chatId = chatId;
+    }
+
+    public long getDeliveredUpTo() {
+        return deliveredUpTo;
+    }
+
+    public void setDeliveredUpTo(long deliveredUpTo) {
+        this.deliveredUpTo = deliveredUpTo;
+    }
+
+    public long getSeenUpTo() {
+        return seenUpTo;
+    }
+
+    public void setSeenUpTo(long seenUpTo) {
+        this.seenUpTo = seenUpTo;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * Check whether a message timestamp is covered by the delivered watermark.
+     */
+    public boolean hasDelivered(long messageTimestamp) {
+        return Math.max(deliveredUpTo, seenUpTo) >= messageTimestamp;
+    }
+
+    /**
+     * Check whether a message timestamp is covered by the seen watermark.
+     */
+    public boolean hasSeen(long messageTimestamp) {
+        return seenUpTo >= messageTimestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "ReadReceipt{" +
+                "userId='" + userId + '\'' +
+                ", chatId='" + chatId + '\'' +
+                ", deliveredUpTo=" + deliveredUpTo +
+                ", seenUpTo=" + seenUpTo +
+                ", updatedAt=" + updatedAt +
+                '}';
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.echo_app.model;
+
+/**
+ * TypingStatus.java
+ *
+ * Data model representing one participant typing in a chat.
+ *
+ * A typing document is never cleaned up by readers: it carries the time until which
+ * it is valid, and readers simply ignore it afterwards. The typist refreshes the
+ * expiry while typing (throttled) and may delete the document when they stop.
+ *
+ * Used for: "Alice is typing…" indicators
+ * Stored in Firestore subcollection: "chats/{chatId}/typing"
+ * Document ID: typingStatus.userId
+ *
+ * @see Chat
+ */
+public class TypingStatus {
+
+    /**
+     * User ID of the typist (also the Firestore document ID)
+     */
+    public String userId;
+
+    /**
+     * Chat/Conversation ID the status belongs to
+     */
+    public String chatId;
+
+    /**
+     * Timestamp (typist's clock) after which the status is no longer shown
+     */
+    public long expiresAt;
+
+    /**
+     * Default constructor
+     */
+    public TypingStatus() {
+    }
+
+    /**
+     * Constructor
+     *
+     * @param userId Typist's user ID
+     * @param chatId Chat ID
+     * @param expiresAt Timestamp after which the status is ignored
+     */
+    public TypingStatus(String userId, String chatId, long expiresAt) {
+        this.userId = userId;
+        this.chatId = chatId;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters and Setters
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getChatId() {
+        return chatId;
+    }
+
+    public void setChatId(String chatId) {
+        this.chatId = chatId;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public String toString() {
+        return "TypingStatus{" +
+                "userId='" + userId + '\'' +
+                ", chatId='" + chatId + '\'' +
+                ", expiresAt=" + expiresAt +
+                '}';
+    }
+}
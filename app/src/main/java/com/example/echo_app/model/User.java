@@ -2,6 +2,8 @@ package com.example.echo_app.model;
 
 import com.google.firebase.Timestamp;
 
+import java.util.Locale;
+
 /**
  * User.java
  *
@@ -12,6 +14,7 @@ import com.google.firebase.Timestamp;
  * - Profile information (displayName, email, profileImageUrl)
  * - Online status tracking (isOnline, lastSeen)
  * - Timestamps for creation and updates
+ * - Normalized search keys (displayNameLower, emailLower) kept in sync by the setters
  *
  * Used for: User authentication, profile display, contact lists, etc.
  * Stored in Firestore collection: "users"
@@ -38,6 +41,18 @@ public class User {
      */
     public String email;
 
+    /**
+     * Normalized (trimmed, lowercase) display name used for prefix search and ordering
+     * Maintained by setDisplayName(); do not set directly
+     */
+    public String displayNameLower;
+
+    /**
+     * Normalized (trimmed, lowercase) email used for prefix search
+     * Maintained by setEmail(); do not set directly
+     */
+    public String emailLower;
+
     /**
      * URL to user's profile picture (stored in Firebase Storage)
      */
@@ -81,8 +96,8 @@ public class User {
      */
     public User(String id, String displayName, String email) {
         this.id = id;
-        this.displayName = displayName;
-        this.email = email;
+        setDisplayName(displayName);
+        setEmail(email);
         this.isOnline = false;
         this.lastSeen = System.currentTimeMillis();
         this.createdAt = System.currentTimeMillis();
@@ -105,6 +120,15 @@ public class User {
 
     public void setDisplayName(String displayName) {
         this.displayName = displayName;
+        this.displayNameLower = normalize(displayName);
+    }
+
+    public String getDisplayNameLower() {
+        return displayNameLower;
+    }
+
+    public void setDisplayNameLower(String displayNameLower) {
+        this.displayNameLower = displayNameLower;
     }
 
     public String getEmail() {
@@ -113,6 +137,15 @@ public class User {
 
     public void setEmail(String email) {
         this.email = email;
+        this.emailLower = normalize(email);
+    }
+
+    public String getEmailLower() {
+        return emailLower;
+    }
+
+    public void setEmailLower(String emailLower) {
+        this.emailLower = emailLower;
     }
 
     public String getProfileImageUrl() {
@@ -155,6 +188,16 @@ public class User {
         this.updatedAt = updatedAt;
     }
 
+    /**
+     * Normalize a value for case-insensitive prefix search: trimmed and lowercased.
+     *
+     * @param value The raw value (may be null)
+     * @return The normalized value, or null if value is null
+     */
+    public static String normalize(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
     @Override
     public String toString() {
         return "User{" +
@@ -0,0 +1,319 @@
+package com.example.echo_app.repository;
+
+import android.util.Log;
+
+import com.example.echo_app.data.LocalMessageStore;
+import com.example.echo_app.model.Message;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * CachingMessageRepository.java
+ *
+ * MessageRepository decorator that serves messages from a LocalMessageStore and
+ * synchronizes it with a remote MessageRepository by delta queries.
+ *
+ * For each chat the store keeps a high-water mark: the newest Message.receivedAt
+ * (server write time) received from the server. syncMessages() asks the remote
+ * repository only for messages received at or after that mark and merges them into
+ * the store. The mark is a server time rather than the client timestamp, so a message
+ * an outbox delivers late, with an old client timestamp, is still picked up by other
+ * devices' next delta. Reopening a chat therefore costs one local read and one small
+ * query instead of re-downloading and re-deserializing the newest page.
+ *
+ * A chat's first sync downloads its full history, unless its newest page was loaded
+ * through getMessagesPage() first: that page seeds the mark, since every message
+ * received before it is either in the page or older than it (and so reachable by paging).
+ *
+ * Features:
+ * - Delta sync on Message.receivedAt (inclusive bound, de-duplicated by message ID)
+ * - Instant local reads via getCachedPage() and getCachedMessages()
+ * - Offline fallback to cached data when the remote query fails
+ * - Write-through for status updates and deletions
+ * - All store I/O runs on the supplied executor, never on the caller's thread
+ *
+ * Limitations:
+ * - Deletions made by other clients are not observed by delta queries; they are
+ *   picked up by listenToMessages() (which writes through to the store) or by
+ *   clearing the chat cache
+ *
+ * Usage:
+ * CachingMessageRepository messageRepository = new CachingMessageRepository(
+ *         new FirestoreMessageRepository(db, backgroundExecutor), new SqliteMessageStore(context), diskExecutor);
+ * messageRepository.getCachedPage("chatId123", 50)
+ *     .addOnSuccessListener(page -> { /* newest cached window, no network * });
+ * messageRepository.syncMessages("chatId123")
+ *     .addOnSuccessListener(delta -> { /* only what arrived since the last sync * });
+ */
+public class CachingMessageRepository implements MessageRepository {
+
+    private static final String TAG = "CachingMessageRepository";
+
+    private final MessageRepository remote;
+    private final LocalMessageStore store;
+    private final Executor executor;
+
+    /**
+     * Constructor.
+     *
+     * @param remote The remote repository used for delta queries and writes
+     * @param store The on-device message store
+     * @param executor Executor for blocking store I/O (must not be the main thread)
+     */
+    public CachingMessageRepository(MessageRepository remote, LocalMessageStore store, Executor executor) {
+        this.remote = remote;
+        this.store = store;
+        this.executor = executor;
+    }
+
+    /**
+     * Read the cached messages of a chat without touching the network.
+     *
+     * @param chatId The unique identifier of the chat
+     * @return Task<List<Message>> - Task that completes with cached messages ordered by timestamp
+     */
+    public Task<List<Message>> getCachedMessages(String chatId) {
+        if (chatId == null || chatId.isEmpty()) {
+            Log.e(TAG, "Cannot get cached messages: chatId is null or empty");
+            return Tasks.forException(new IllegalArgumentException("chatId must not be null or empty"));
+        }
+
+        return Tasks.call(executor, () -> store.getMessages(chatId));
+    }
+
+    /**
+     * Read the newest cached messages of a chat as a page, without touching the network.
+     *
+     * The next cursor points below the oldest cached message, so getMessagesPage()
+     * continues from there; it is null when nothing is cached.
+     *
+     * @param chatId The unique identifier of the chat
+     * @param pageSize Maximum number of messages in the page (must be positive)
+     * @return Task<Page<Message>> - Task that completes with the cached window, oldest first
+     */
+    public Task<Page<Message>> getCachedPage(String chatId, int pageSize) {
+        if (chatId == null || chatId.isEmpty()) {
+            Log.e(TAG, "Cannot get cached page: chatId is null or empty");
+            return Tasks.forException(new IllegalArgumentException("chatId must not be null or empty"));
+        }
+
+        if (pageSize <= 0) {
+            Log.e(TAG, "Cannot get cached page: invalid pageSize " + pageSize);
+            return Tasks.forException(new IllegalArgumentException("pageSize must be positive"));
+        }
+
+        return Tasks.call(executor, () -> {
+            List<Message> messages = store.getNewestMessages(chatId, pageSize);
+            if (messages.isEmpty()) {
+                return new Page<>(messages, null);
+            }
+            Message oldest = messages.get(0);
+            return new Page<>(messages, PageCursor.forTimestamp(oldest.getTimestamp(), oldest.getId()).encode());
+        });
+    }
+
+    /**
+     * Synchronize a chat with the server and return only the downloaded messages.
+     *
+     * The first sync downloads the full history by timestamp (which also covers
+     * messages written before receivedAt existed); later syncs download only messages
+     * received at or after the chat's high-water mark. The delta is merged into the
+     * store before the task completes. A remote failure is passed through unchanged.
+     *
+     * @param chatId The unique identifier of the chat
+     * @return Task<List<Message>> - Task that completes with the delta, ordered by receivedAt
+     *         (by timestamp on the first sync)
+     */
+    public Task<List<Message>> syncMessages(String chatId) {
+        if (chatId == null || chatId.isEmpty()) {
+            Log.e(TAG, "Cannot sync messages: chatId is null or empty");
+            return Tasks.forException(new IllegalArgumentException("chatId must not be null or empty"));
+        }
+
+        return Tasks.call(executor, () -> store.getHighWaterMark(chatId))
+                .onSuccessTask(executor, mark -> {
+                    Task<List<Message>> fetch = mark == LocalMessageStore.NO_HIGH_WATER_MARK
+                            ? remote.getMessagesSince(chatId, 0L)
+                            : remote.getMessagesReceivedSince(chatId, mark);
+
+                    return fetch.onSuccessTask(executor, delta -> {
+                        long newMark = Math.max(mark, 0L);
+                        for (Message message : delta) {
+                            newMark = Math.max(newMark, message.getReceivedAt());
+                        }
+
+                        store.upsertMessages(chatId, delta, newMark);
+                        Log.d(TAG, "Synced " + delta.size() + " messages for chat: " + chatId
+                                + " (mark " + mark + " -> " + newMark + ")");
+                        return Tasks.forResult(delta);
+                    });
+                });
+    }
+
+    /**
+     * Synchronize a chat with the server and return everything cached for it.
+     *
+     * See syncMessages(). If the remote query fails and the chat has been synchronized
+     * before, the cached messages are returned instead of the error.
+     *
+     * @param chatId The unique identifier of the chat
+     * @return Task<List<Message>> - Task that completes with the cached messages ordered by timestamp
+     */
+    @Override
+    public Task<List<Message>> getMessagesByChatId(String chatId) {
+        if (chatId == null || chatId.isEmpty()) {
+            Log.e(TAG, "Cannot get messages: chatId is null or empty");
+            return Tasks.forException(new IllegalArgumentException("chatId must not be null or empty"));
+        }
+
+        return syncMessages(chatId)
+                .continueWith(executor, syncTask -> {
+                    if (!syncTask.isSuccessful()) {
+                        Exception exception = syncTask.getException();
+                        if (store.getHighWaterMark(chatId) == LocalMessageStore.NO_HIGH_WATER_MARK) {
+                            Log.e(TAG, "Initial sync failed for chat: " + chatId, exception);
+                            throw exception != null ? exception : new Exception("Unknown error");
+                        }
+                        Log.w(TAG, "Delta sync failed for chat: " + chatId + ", serving cache", exception);
+                    }
+                    return store.getMessages(chatId);
+                });
+    }
+
+    /**
+     * Fetch a page from the remote repository and cache its messages.
+     * Older pages are historical windows and leave the high-water mark untouched; the
+     * newest page (null cursor) seeds the mark of a chat that has none yet, so the
+     * next syncMessages() downloads only what arrived after it.
+     * A remote failure is passed through unchanged and nothing is cached.
+     */
+    @Override
+    public Task<Page<Message>> getMessagesPage(String chatId, int pageSize, String cursor) {
+        return remote.getMessagesPage(chatId, pageSize, cursor)
+                .onSuccessTask(executor, page -> {
+                    if (cursor == null && store.getHighWaterMark(chatId) == LocalMessageStore.NO_HIGH_WATER_MARK) {
+                        long mark = 0L;
+                        for (Message message : page.getItems()) {
+                            mark = Math.max(mark, message.getReceivedAt());
+                        }
+                        store.upsertMessages(chatId, page.getItems(), mark);
+                    } else {
+                        store.cacheMessages(chatId, page.getItems());
+                    }
+                    return Tasks.forResult(page);
+                });
+    }
+
+    /**
+     * Delegates to the remote repository; results are not cached because the
+     * caller controls the lower bound.
+     */
+    @Override
+    public Task<List<Message>> getMessagesSince(String chatId, long sinceTimestamp) {
+        return remote.getMessagesSince(chatId, sinceTimestamp);
+    }
+
+    /**
+     * Delegates to the remote repository; results are not cached because the
+     * caller controls the lower bound.
+     */
+    @Override
+    public Task<List<Message>> getMessagesReceivedSince(String chatId, long receivedSince) {
+        return remote.getMessagesReceivedSince(chatId, receivedSince);
+    }
+
+    /**
+     * Delegates to the remote listener and writes each change batch through to the store,
+     * so live additions, edits and remote deletions are reflected in the cache.
+     * The high-water mark is left to syncMessages().
+     */
+    @Override
+    public ListenerRegistration listenToMessages(String chatId, long sinceTimestamp,
+                                                 ChangeListener<Message> listener) {
+        return remote.listenToMessages(chatId, sinceTimestamp, new ChangeListener<Message>() {
+            @Override
+            public void onChanges(List<Change<Message>> changes) {
+                executor.execute(() -> {
+                    List<Message> upserts = new ArrayList<>();
+                    for (Change<Message> change : changes) {
+                        if (change.getType() == Change.Type.REMOVED) {
+                            store.deleteMessage(chatId, change.getItem().getId());
+                        } else {
+                            upserts.add(change.getItem());
+                        }
+                    }
+                    store.cacheMessages(chatId, upserts);
+                });
+                listener.onChanges(changes);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                listener.onError(e);
+            }
+        });
+    }
+
+    /**
+     * Delegates to the remote repository. The message enters the cache on the next sync.
+     */
+    @Override
+    public Task<Void> sendMessage(Message message) {
+        return remote.sendMessage(message);
+    }
+
+    /**
+     * Delegates to the remote repository. The messages enter the cache on the next sync.
+     */
+    @Override
+    public Task<Void> sendMessages(List<Message> messages) {
+        return remote.sendMessages(messages);
+    }
+
+    /**
+     * Update the status remotely, then write it through to the cache.
+     */
+    @Override
+    public Task<Void> updateMessageStatus(String messageId, String newStatus) {
+        return remote.updateMessageStatus(messageId, newStatus)
+                .onSuccessTask(executor, aVoid -> {
+                    String[] parts = messageId.split("/");
+                    store.updateDeliveryStatus(parts[0], parts[1], newStatus);
+                    return Tasks.forResult(null);
+                });
+    }
+
+    /**
+     * Update statuses remotely in batches, then write them through to the cache.
+     */
+    @Override
+    public Task<Void> updateMessageStatuses(Map<String, String> statusByMessageId) {
+        return remote.updateMessageStatuses(statusByMessageId)
+                .onSuccessTask(executor, aVoid -> {
+                    for (Map.Entry<String, String> entry : statusByMessageId.entrySet()) {
+                        String[] parts = entry.getKey().split("/");
+                        store.updateDeliveryStatus(parts[0], parts[1], entry.getValue());
+                    }
+                    return Tasks.forResult(null);
+                });
+    }
+
+    /**
+     * Delete the message remotely, then remove it from the cache.
+     */
+    @Override
+    public Task<Void> deleteMessage(String messageId) {
+        return remote.deleteMessage(messageId)
+                .onSuccessTask(executor, aVoid -> {
+                    String[] parts = messageId.split("/");
+                    store.deleteMessage(parts[0], parts[1]);
+                    return Tasks.forResult(null);
+                });
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.echo_app.repository;
+
+import android.util.Log;
+
+import com.example.echo_app.utils.Clock;
+import com.example.echo_app.utils.CollectionUtils;
+import com.example.echo_app.utils.Constants;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CachingUnreadCounterRepository.java
+ *
+ * UnreadCounterRepository decorator that caches summed unread counts for the chat list.
+ *
+ * Reading a sharded counter costs one read per shard; rebinding the inbox would pay
+ * that for every visible row. This decorator keeps each (user, chat) total for a short
+ * TTL and reads only stale or unknown counters.
+ *
+ * Features:
+ * - TTL-based staleness: totals older than the TTL are re-read
+ * - getUnreadCounts() reads only the uncached chats from the wrapped repository
+ * - markRead() sets the cached total to zero at once; a failed reset drops it
+ * - invalidate() for callers that know a counter changed (e.g. a new inbox message)
+ * - Hit/miss counters for diagnostics and tests
+ *
+ * Usage:
+ * UnreadCounterRepository unread = new CachingUnreadCounterRepository(new FirestoreUnreadCounterRepository(db, backgroundExecutor));
+ */
+public class CachingUnreadCounterRepository implements UnreadCounterRepository {
+
+    private static final String TAG = "CachingUnreadCounterRepository";
+
+    private final UnreadCounterRepository delegate;
+    private final long ttlMillis;
+    private final Clock clock;
+
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    private long generation;
+    private long hitCount;
+    private long missCount;
+
+    /**
+     * Constructor using the default TTL from Constants.
+     *
+     * @param delegate The repository that reads and writes the shards
+     */
+    public CachingUnreadCounterRepository(UnreadCounterRepository delegate) {
+        this(delegate, Constants.UNREAD_CACHE_TTL_MS, Clock.SYSTEM);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param delegate The repository that reads and writes the shards
+     * @param ttlMillis Time after which a cached total is considered stale
+     * @param clock Time source used for expiry
+     */
+    public CachingUnreadCounterRepository(UnreadCounterRepository delegate, long ttlMillis, Clock clock) {
+        this.delegate = delegate;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Delegates and drops the cached totals of the recipients.
+     *
+     * @deprecated Sends count unread in their own transaction; see UnreadCounterRepository.
+     */
+    @Deprecated
+    @Override
+    public Task<Void> incrementUnread(String chatId, Collection<String> recipientIds) {
+        if (chatId != null && recipientIds != null) {
+            synchronized (this) {
+                generation++;
+                for (String userId : recipientIds) {
+                    entries.remove(key(userId, chatId));
+                }
+            }
+        }
+        return delegate.incrementUnread(chatId, recipientIds);
+    }
+
+    /**
+     * Reset the counter, showing zero immediately.
+     */
+    @Override
+    public Task<Void> markRead(String userId, String chatId) {
+        if (userId == null || chatId == null) {
+            return delegate.markRead(userId, chatId);
+        }
+        synchronized (this) {
+            generation++;
+            entries.put(key(userId, chatId), new Entry(0L, clock.now()));
+        }
+        return delegate.markRead(userId, chatId)
+                .addOnFailureListener(Runnable::run, e -> invalidate(userId, chatId));
+    }
+
+    @Override
+    public Task<Long> getUnreadCount(String userId, String chatId) {
+        if (userId == null || userId.isEmpty() || chatId == null || chatId.isEmpty()) {
+            Log.e(TAG, "Cannot get unread count: userId or chatId is null or empty");
+            return Tasks.forException(new IllegalArgumentException("userId and chatId must not be null or empty"));
+        }
+        return getUnreadCounts(userId, Collections.singletonList(chatId))
+                .onSuccessTask(Runnable::run, counts -> Tasks.forResult(counts.get(chatId)));
+    }
+
+    /**
+     * Serve fresh totals from the cache and read the rest in one delegate call.
+     * Totals read while an invalidation happened are returned but not cached.
+     */
+    @Override
+    public Task<Map<String, Long>> getUnreadCounts(String userId, Collection<String> chatIds) {
+        if (userId == null || userId.isEmpty() || chatIds == null) {
+            Log.e(TAG, "Cannot get unread counts: userId or chatIds is null");
+            return Tasks.forException(new IllegalArgumentException("userId and chatIds must not be null"));
+        }
+
+        List<String> ids = CollectionUtils.distinctIds(chatIds);
+        Map<String, Long> cached = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        long requestGeneration;
+
+        synchronized (this) {
+            long currentTime = clock.now();
+            for (String chatId : ids) {
+                Entry entry = entries.get(key(userId, chatId));
+                if (entry != null && currentTime - entry.loadedAt < ttlMillis) {
+                    cached.put(chatId, entry.count);
+                    hitCount++;
+                } else {
+                    missing.add(chatId);
+                    missCount++;
+                }
+            }
+            requestGeneration = generation;
+        }
+
+        if (missing.isEmpty()) {
+            return Tasks.forResult(orderedResult(ids, cached, null));
+        }
+
+        return delegate.getUnreadCounts(userId, missing)
+                .onSuccessTask(Runnable::run, fetched -> {
+                    synchronized (this) {
+                        if (generation == requestGeneration) {
+                            long currentTime = clock.now();
+                            for (Map.Entry<String, Long> found : fetched.entrySet()) {
+                                entries.put(key(userId, found.getKey()), new Entry(found.getValue(), currentTime));
+                            }
+                        }
+                    }
+                    return Tasks.forResult(orderedResult(ids, cached, fetched));
+                });
+    }
+
+    private static Map<String, Long> orderedResult(List<String> ids, Map<String, Long> cached,
+                                                   Map<String, Long> fetched) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (String id : ids) {
+            Long count = cached.get(id);
+            if (count == null && fetched != null) {
+                count = fetched.get(id);
+            }
+            result.put(id, count != null ? count : 0L);
+        }
+        return result;
+    }
+
+    /**
+     * Drop the cached total of one counter.
+     */
+    public synchronized void invalidate(String userId, String chatId) {
+        generation++;
+        entries.remove(key(userId, chatId));
+    }
+
+    /**
+     * Drop every cached total (e.g. on sign-out).
+     */
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    /**
+     * Number of totals served from the cache.
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Number of totals read from the wrapped repository.
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    private static String key(String userId, String chatId) {
+        return userId + "/" + chatId;
+    }
+
+    private static final class Entry {
+        final long count;
+        final long loadedAt;
+
+        Entry(long count, long loadedAt) {
+            this.count = count;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
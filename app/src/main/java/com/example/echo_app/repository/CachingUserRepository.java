@@ -0,0 +1,380 @@
+package com.example.echo_app.repository;
+
+import android.util.Log;
+
+import com.example.echo_app.model.User;
+import com.example.echo_app.utils.Clock;
+import com.example.echo_app.utils.CollectionUtils;
+import com.example.echo_app.utils.Constants;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CachingUserRepository.java
+ *
+ * UserRepository decorator that keeps recently used profiles in a bounded in-memory LRU.
+ *
+ * Rendering a chat or member list resolves the same sender many times; with this
+ * decorator only the first lookup of a user reaches Firestore until the entry expires.
+ *
+ * Features:
+ * - Bounded LRU (access order), evicting the least recently used profile
+ * - TTL-based staleness: entries older than the TTL are re-fetched
+ * - In-flight de-duplication: concurrent lookups of one uid share a single Task
+ * - Invalidation on addUser(), both updateUser() variants and deleteUser()
+ * - getUsersByIds() reads only the uncached IDs from the wrapped repository
+ * - Hit/miss counters for diagnostics and tests
+ *
+ * Cached User instances are shared between callers and must be treated as read-only.
+ * Failed lookups (e.g. user not found) are not cached.
+ *
+ * Usage:
+ * UserRepository users = new CachingUserRepository(new FirestoreUserRepository(db, backgroundExecutor));
+ * users.getUserById(message.getSenderId()).addOnSuccessListener(sender -> bind(sender));
+ */
+public class CachingUserRepository implements UserRepository {
+
+    private static final String TAG = "CachingUserRepository";
+
+    private final UserRepository delegate;
+    private final long ttlMillis;
+    private final Clock clock;
+
+    private final LinkedHashMap<String, Entry> entries;
+    private final Map<String, Task<User>> inFlight = new HashMap<>();
+    private final Map<String, Object> inFlightTokens = new HashMap<>();
+
+    private long generation;
+    private long hitCount;
+    private long missCount;
+
+    /**
+     * Constructor using the default size and TTL from Constants.
+     *
+     * @param delegate The repository that performs the actual reads and writes
+     */
+    public CachingUserRepository(UserRepository delegate) {
+        this(delegate, Constants.USER_CACHE_MAX_ENTRIES, Constants.USER_CACHE_TTL_MS, Clock.SYSTEM);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param delegate The repository that performs the actual reads and writes
+     * @param maxEntries Maximum number of cached profiles (must be positive)
+     * @param ttlMillis Time after which a cached profile is considered stale
+     * @param clock Time source used for expiry
+     */
+    public CachingUserRepository(UserRepository delegate, int maxEntries, long ttlMillis, Clock clock) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.delegate = delegate;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Retrieve a user, serving fresh cached profiles without a remote read.
+     *
+     * A lookup for a uid that is already being fetched joins the pending Task
+     * instead of issuing a second read.
+     */
+    @Override
+    public synchronized Task<User> getUserById(String userId) {
+        if (userId == null || userId.isEmpty()) {
+            Log.e(TAG, "Cannot get user: userId is null or empty");
+            return Tasks.forException(new IllegalArgumentException("userId must not be null or empty"));
+        }
+
+        Entry entry = entries.get(userId);
+        if (entry != null && clock.now() - entry.loadedAt < ttlMillis) {
+            hitCount++;
+            return Tasks.forResult(entry.user);
+        }
+
+        Task<User> pending = inFlight.get(userId);
+        if (pending != null) {
+            hitCount++;
+            return pending;
+        }
+
+        missCount++;
+        Object token = new Object();
+        inFlightTokens.put(userId, token);
+        // The continuation takes this lock, so it cannot finish before the task is registered below
+        Task<User> task = delegate.getUserById(userId)
+                .continueWith(Runnable::run, result -> onLoaded(userId, token, result));
+        if (!task.isComplete()) {
+            inFlight.put(userId, task);
+        }
+        return task;
+    }
+
+    private synchronized User onLoaded(String userId, Object token, Task<User> result) throws Exception {
+        boolean current = inFlightTokens.get(userId) == token;
+        if (current) {
+            inFlightTokens.remove(userId);
+            inFlight.remove(userId);
+        }
+
+        if (!result.isSuccessful()) {
+            Exception exception = result.getException();
+            throw exception != null ? exception : new Exception("Unknown error");
+        }
+
+        User user = result.getResult();
+        // A lookup that was invalidated while in flight may carry stale data; return it but do not cache it
+        if (current && user != null) {
+            entries.put(userId, new Entry(user, clock.now()));
+        }
+        return user;
+    }
+
+    /**
+     * Resolve many users, reading only IDs that are not freshly cached.
+     * Each ID served from the cache counts as a hit, each fetched ID as a miss.
+     * Fetched profiles are cached unless an invalidation happened while they were in flight.
+     */
+    @Override
+    public Task<Map<String, User>> getUsersByIds(Collection<String> userIds) {
+        if (userIds == null) {
+            Log.e(TAG, "Cannot get users: userIds is null");
+            return Tasks.forException(new IllegalArgumentException("userIds must not be null"));
+        }
+
+        List<String> ids = CollectionUtils.distinctIds(userIds);
+        Map<String, User> cached = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        long requestGeneration;
+
+        synchronized (this) {
+            long currentTime = clock.now();
+            for (String id : ids) {
+                Entry entry = entries.get(id);
+                if (entry != null && currentTime - entry.loadedAt < ttlMillis) {
+                    cached.put(id, entry.user);
+                    hitCount++;
+                } else {
+                    missing.add(id);
+                    missCount++;
+                }
+            }
+            requestGeneration = generation;
+        }
+
+        if (missing.isEmpty()) {
+            return Tasks.forResult(orderedResult(ids, cached, null));
+        }
+
+        return delegate.getUsersByIds(missing)
+                .onSuccessTask(Runnable::run, fetched -> {
+                    synchronized (this) {
+                        if (generation == requestGeneration) {
+                            long currentTime = clock.now();
+                            for (Map.Entry<String, User> found : fetched.entrySet()) {
+                                if (found.getValue() != null && !inFlightTokens.containsKey(found.getKey())) {
+                                    entries.put(found.getKey(), new Entry(found.getValue(), currentTime));
+                                }
+                            }
+                        }
+                    }
+                    return Tasks.forResult(orderedResult(ids, cached, fetched));
+                });
+    }
+
+    private static Map<String, User> orderedResult(List<String> ids, Map<String, User> cached,
+                                                   Map<String, User> fetched) {
+        Map<String, User> result = new LinkedHashMap<>();
+        for (String id : ids) {
+            User user = cached.get(id);
+            if (user == null && fetched != null) {
+                user = fetched.get(id);
+            }
+            result.put(id, user);
+        }
+        return result;
+    }
+
+    /**
+     * Delegates to the wrapped repository; pages are not cached.
+     */
+    @Override
+    public Task<Page<User>> getUsersPage(int pageSize, String cursor) {
+        return delegate.getUsersPage(pageSize, cursor);
+    }
+
+    /**
+     * Delegates to the wrapped repository; search results are not cached.
+     */
+    @Override
+    public Task<Page<User>> searchUsers(String prefix, int pageSize, String cursor) {
+        return delegate.searchUsers(prefix, pageSize, cursor);
+    }
+
+    /**
+     * Delegates to the wrapped repository. Cached profiles stay valid: decoding
+     * already derives the search fields the backfill writes.
+     */
+    @Override
+    public Task<Integer> backfillSearchKeys() {
+        return delegate.backfillSearchKeys();
+    }
+
+    /**
+     * Delegates to the wrapped repository; results are not cached.
+     *
+     * @deprecated Use getUsersPage() or searchUsers().
+     */
+    @Deprecated
+    @Override
+    public Task<List<User>> getAllUsers() {
+        return delegate.getAllUsers();
+    }
+
+    /**
+     * Add a user and drop any cached profile for its id.
+     */
+    @Override
+    public Task<Void> addUser(User user) {
+        if (user != null) {
+            invalidate(user.getId());
+        }
+        return delegate.addUser(user);
+    }
+
+    /**
+     * Update a user and drop the cached profile, both before the write (so it is not
+     * served while the write is pending) and after it completes.
+     */
+    @Override
+    public Task<Void> updateUser(User user) {
+        if (user == null || user.getId() == null) {
+            return delegate.updateUser(user);
+        }
+        String userId = user.getId();
+        invalidate(userId);
+        return delegate.updateUser(user)
+                .continueWithTask(Runnable::run, task -> {
+                    invalidate(userId);
+                    return task;
+                });
+    }
+
+    /**
+     * Update the changed fields of a user and drop the cached profile, as updateUser(User).
+     */
+    @Override
+    public Task<Void> updateUser(User previous, User updated) {
+        if (updated == null || updated.getId() == null) {
+            return delegate.updateUser(previous, updated);
+        }
+        String userId = updated.getId();
+        invalidate(userId);
+        return delegate.updateUser(previous, updated)
+                .continueWithTask(Runnable::run, task -> {
+                    invalidate(userId);
+                    return task;
+                });
+    }
+
+    /**
+     * Delete a user and drop the cached profile.
+     */
+    @Override
+    public Task<Void> deleteUser(String userId) {
+        invalidate(userId);
+        return delegate.deleteUser(userId)
+                .continueWithTask(Runnable::run, task -> {
+                    invalidate(userId);
+                    return task;
+                });
+    }
+
+    /**
+     * Delegates to the wrapped repository and caches the found profile by id.
+     */
+    @Override
+    public Task<User> getUserByEmail(String email) {
+        return delegate.getUserByEmail(email)
+                .onSuccessTask(Runnable::run, user -> {
+                    if (user != null && user.getId() != null) {
+                        synchronized (this) {
+                            if (!inFlightTokens.containsKey(user.getId())) {
+                                entries.put(user.getId(), new Entry(user, clock.now()));
+                            }
+                        }
+                    }
+                    return Tasks.forResult(user);
+                });
+    }
+
+    /**
+     * Drop the cached profile of a user and detach any in-flight lookup from the cache.
+     *
+     * @param userId The user to invalidate (null is ignored)
+     */
+    public synchronized void invalidate(String userId) {
+        if (userId == null) {
+            return;
+        }
+        generation++;
+        entries.remove(userId);
+        inFlight.remove(userId);
+        inFlightTokens.remove(userId);
+    }
+
+    /**
+     * Drop every cached profile (e.g. on sign-out).
+     */
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+        inFlight.clear();
+        inFlightTokens.clear();
+    }
+
+    /**
+     * Number of lookups served from the cache or joined to an in-flight request.
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Number of lookups that issued a read to the wrapped repository.
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Number of profiles currently cached.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static final class Entry {
+        final User user;
+        final long loadedAt;
+
+        Entry(User user, long loadedAt) {
+            this.user = user;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
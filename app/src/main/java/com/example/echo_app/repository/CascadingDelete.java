@@ -0,0 +1,110 @@
+package com.example.echo_app.repository;
+
+import android.util.Log;
+
+import com.example.echo_app.data.DeleteCheckpointStore;
+import com.example.echo_app.data.DeleteCheckpointStore.Checkpoint;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * CascadingDelete.java
+ *
+ * Resumable engine for deletes that span many documents and subcollections.
+ *
+ * A job is an ordered list of steps (e.g. messages, then members, then the parent
+ * documents). The engine asks the current step to delete one page at a time until it
+ * reports that nothing is left, then moves on to the next step. The position is saved
+ * to a DeleteCheckpointStore after every page, so a run that fails or is killed can be
+ * started again with the same job ID and continues at the step it was in. Parent
+ * documents are deleted last, which keeps a half-deleted job discoverable.
+ *
+ * Features:
+ * - Page-at-a-time deletion; memory use is bounded by the page size, not the job size
+ * - Checkpoint after every page, cleared when the job completes
+ * - A failed page fails the run and leaves the checkpoint at the failing step
+ * - Continuations run on an injected background executor
+ *
+ * Usage:
+ * new CascadingDelete(groupId, steps, checkpointStore, executor).run()
+ *         .addOnSuccessListener(pages -> Log.d(TAG, "Deleted in " + pages + " pages"));
+ */
+public class CascadingDelete {
+
+    private static final String TAG = "CascadingDelete";
+
+    /**
+     * One phase of a cascading delete.
+     */
+    public interface Step {
+
+        /**
+         * Delete the next page of this step's documents.
+         *
+         * @return Task resolving to true if more documents may remain, false once the step is done
+         */
+        Task<Boolean> deleteNextPage();
+    }
+
+    private final String jobId;
+    private final List<Step> steps;
+    private final DeleteCheckpointStore checkpoints;
+    private final Executor executor;
+
+    /**
+     * Constructor.
+     *
+     * @param jobId Stable identifier of the job; resuming requires the same ID and steps
+     * @param steps The steps, in the order they must run
+     * @param checkpoints Store that persists progress between runs
+     * @param executor Executor for continuations; must not be the main thread executor
+     */
+    public CascadingDelete(String jobId, List<Step> steps, DeleteCheckpointStore checkpoints, Executor executor) {
+        this.jobId = jobId;
+        this.steps = new ArrayList<>(steps);
+        this.checkpoints = checkpoints;
+        this.executor = executor;
+    }
+
+    /**
+     * Run the job, starting from its saved checkpoint if there is one.
+     *
+     * @return Task resolving to the total number of pages deleted across all runs
+     */
+    public Task<Integer> run() {
+        Checkpoint checkpoint = checkpoints.load(jobId);
+        if (checkpoint == null) {
+            checkpoint = new Checkpoint(0, 0);
+            checkpoints.save(jobId, checkpoint);
+        } else {
+            Log.d(TAG, "Resuming delete " + jobId + " at step " + checkpoint.getStep()
+                    + " after " + checkpoint.getPages() + " pages");
+        }
+        return runFrom(checkpoint)
+                .addOnFailureListener(executor, e -> {
+                    Log.e(TAG, "Delete " + jobId + " stopped; it resumes from its checkpoint on the next run", e);
+                });
+    }
+
+    private Task<Integer> runFrom(Checkpoint checkpoint) {
+        if (checkpoint.getStep() >= steps.size()) {
+            checkpoints.clear(jobId);
+            Log.d(TAG, "Delete " + jobId + " finished after " + checkpoint.getPages() + " pages");
+            return Tasks.forResult(checkpoint.getPages());
+        }
+
+        return steps.get(checkpoint.getStep())
+                .deleteNextPage()
+                .onSuccessTask(executor, hasMore -> {
+                    Checkpoint next = Boolean.TRUE.equals(hasMore)
+                            ? new Checkpoint(checkpoint.getStep(), checkpoint.getPages() + 1)
+                            : new Checkpoint(checkpoint.getStep() + 1, checkpoint.getPages() + 1);
+                    checkpoints.save(jobId, next);
+                    return runFrom(next);
+                });
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.echo_app.repository;
+
+/**
+ * Change.java
+ *
+ * A single incremental change to a live query result.
+ *
+ * Real-time listeners emit lists of Change objects derived from Firestore
+ * DocumentChange events instead of rebuilt result lists, so consumers can
+ * update their state in time proportional to the number of changes rather
+ * than the size of the result set.
+ *
+ * Change Types:
+ * - ADDED: The item entered the result set
+ * - MODIFIED: An item already in the result set changed
+ * - REMOVED: The item left the result set (deleted or no longer matching)
+ *
+ * @param <T> The type of item that changed
+ * @see ChangeListener
+ */
+public final class Change<T> {
+
+    /**
+     * Kind of change, mirroring com.google.firebase.firestore.DocumentChange.Type.
+     */
+    public enum Type {
+        ADDED,
+        MODIFIED,
+        REMOVED
+    }
+
+    private final Type type;
+    private final T item;
+
+    /**
+     * Constructor for a change.
+     *
+     * @param type The kind of change
+     * @param item The item after the change (or its last known state for REMOVED)
+     */
+    public Change(Type type, T item) {
+        this.type = type;
+        this.item = item;
+    }
+
+    public static <T> Change<T> added(T item) {
+        return new Change<>(Type.ADDED, item);
+    }
+
+    public static <T> Change<T> modified(T item) {
+        return new Change<>(Type.MODIFIED, item);
+    }
+
+    public static <T> Change<T> removed(T item) {
+        return new Change<>(Type.REMOVED, item);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public T getItem() {
+        return item;
+    }
+
+    @Override
+    public String toString() {
+        return "Change{" +
+                "type=" + type +
+                ", item=" + item +
+                '}';
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.echo_app.repository;
+
+import java.util.List;
+
+/**
+ * ChangeListener.java
+ *
+ * Callback for real-time repository listeners that deliver incremental changes.
+ *
+ * Each callback carries only the items that were added, modified or removed since
+ * the previous callback. The first callback contains the initial result set as
+ * ADDED changes. Empty change batches are never delivered.
+ *
+ * Callbacks may arrive on a background thread (one at a time, in order); consumers
+ * hand results to the main thread at the LiveData boundary.
+ *
+ * Usage:
+ * ListenerRegistration registration = messageRepository.listenToMessages(chatId, since,
+ *         new ChangeListener<Message>() {
+ *             public void onChanges(List<Change<Message>> changes) { timeline.apply(changes); }
+ *             public void onError(Exception e) { showError(e); }
+ *         });
+ * // Later: registration.remove();
+ *
+ * @param <T> The type of item being observed
+ * @see Change
+ */
+public interface ChangeListener<T> {
+
+    /**
+     * Called with a non-empty batch of changes, in the order reported by Firestore.
+     *
+     * @param changes The changes since the previous callback
+     */
+    void onChanges(List<Change<T>> changes);
+
+    /**
+     * Called when the listener fails. No further callbacks are delivered afterwards.
+     *
+     * @param e The error reported by the backend
+     */
+    void onError(Exception e);
+}
@@ -0,0 +1,109 @@
+package com.example.echo_app.repository;
+
+import com.example.echo_app.model.Chat;
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.ListenerRegistration;
+
+/**
+ * ChatRepository.java
+ *
+ * Repository interface for chat (conversation) data operations.
+ *
+ * Defines contracts for reading and creating Chat documents and for the user's
+ * inbox: the list of chats the user participates in, newest activity first.
+ * Chat documents carry denormalized last-message fields (kept in sync by
+ * MessageRepository.sendMessage()), so the inbox is rendered from the chats
+ * collection alone, without a per-chat message query.
+ *
+ * All methods are asynchronous and return Task<T> for non-blocking operations.
+ * Task objects support listeners, continuations, and can be awaited using Tasks.await().
+ *
+ * Data Structure:
+ * - Chat documents: chats/{chatId}
+ * - Private chats use the canonical ID ChatIds.privateChatId(uidA, uidB)
+ * - Inbox query: chats where participantIds array-contains uid,
+ *   ordered by lastMessageTimestamp desc (ties by document ID desc)
+ *
+ * @see Chat
+ * @see com.example.echo_app.viewmodel.ChatInbox
+ */
+public interface ChatRepository {
+
+    /**
+     * Retrieve a chat by its unique ID.
+     *
+     * @param chatId The unique identifier of the chat
+     * @return Task<Chat> - A Task that completes with the Chat, or fails if not found
+     *
+     * Firestore Path: chats/{chatId}
+     * Query Type: Document read (single document)
+     */
+    Task<Chat> getChatById(String chatId);
+
+    /**
+     * Create or overwrite a chat document.
+     *
+     * @param chat The chat to write (id and participantIds must be set)
+     * @return Task<Void> - A Task that completes when the chat is written
+     *
+     * Firestore Path: chats/{chat.id}
+     * Operation: Set
+     */
+    Task<Void> createChat(Chat chat);
+
+    /**
+     * Get the private chat between two users, creating it if it does not exist yet.
+     *
+     * The chat ID is ChatIds.privateChatId(userId, otherUserId), so the lookup is a single
+     * document read. The read and the create run in one transaction: if both users open
+     * the conversation at the same moment, exactly one document is created and both
+     * calls resolve to it.
+     *
+     * @param userId The current user
+     * @param otherUserId The other participant
+     * @return Task<Chat> - A Task that completes with the existing or newly created chat
+     *
+     * Firestore Path: chats/{privateChatId}
+     * Operation: Transaction - one read, then one set() only if the chat is missing
+     *
+     * @see com.example.echo_app.utils.ChatIds
+     */
+    Task<Chat> getOrCreatePrivateChat(String userId, String otherUserId);
+
+    /**
+     * Retrieve one page of a user's inbox, most recently active chat first.
+     *
+     * The first call (cursor == null) returns the pageSize most recently active chats.
+     * Each following call with the returned cursor returns the next older window.
+     *
+     * @param userId The user whose chats are listed
+     * @param pageSize Maximum number of chats in the page (must be positive)
+     * @param cursor Opaque cursor from a previous Page, or null for the first page
+     * @return Task<Page<Chat>> - A Task that completes with the page of chats;
+     *         Page.getNextCursor() is null once the last chat has been returned
+     *
+     * Firestore Path: chats/
+     * Query: whereArrayContains(participantIds, userId)
+     *        .orderBy(lastMessageTimestamp desc, documentId desc).startAfter(cursor).limit(pageSize)
+     * Index Required: Composite index on (participantIds array-contains, lastMessageTimestamp desc, __name__ desc)
+     */
+    Task<Page<Chat>> getInboxPage(String userId, int pageSize, String cursor);
+
+    /**
+     * Listen to the most recently active chats of a user.
+     *
+     * The first callback contains the current window as ADDED changes; later callbacks
+     * carry only the chats that were added, modified (e.g. a new last message) or removed
+     * (including chats pushed out of the window by newer activity).
+     *
+     * @param userId The user whose chats are observed
+     * @param limit Size of the live window (must be positive)
+     * @param listener Callback receiving change batches (Chat.id is populated)
+     * @return ListenerRegistration - Handle that detaches the listener when remove() is called
+     *
+     * Firestore Path: chats/
+     * Query: whereArrayContains(participantIds, userId).orderBy(lastMessageTimestamp desc).limit(limit)
+     * Operation: addSnapshotListener (real-time)
+     */
+    ListenerRegistration listenToInbox(String userId, int limit, ChangeListener<Chat> listener);
+}
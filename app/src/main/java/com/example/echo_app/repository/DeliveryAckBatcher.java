@@ -0,0 +1,169 @@
+package com.example.echo_app.repository;
+
+import android.util.Log;
+
+import com.example.echo_app.data.FirestoreErrors;
+import com.example.echo_app.model.DeliveryStatus;
+import com.example.echo_app.utils.Constants;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * DeliveryAckBatcher.java
+ *
+ * Collects delivery acknowledgements and flushes them as one bulk status update.
+ *
+ * Instead of one updateMessageStatus() round-trip per message, callers record
+ * acknowledgements as messages are received or displayed and call flush() once
+ * (e.g. after a page is bound or when the chat screen pauses).
+ *
+ * Guarantees:
+ * - Duplicate acknowledgements for one message are coalesced into a single write
+ * - Status never moves backwards: "seen" beats "delivered", both within a pending
+ *   batch and against statuses already flushed by this batcher
+ * - Transiently failed flushes are re-queued and merged with newer acknowledgements,
+ *   up to DELIVERY_ACK_MAX_ATTEMPTS flushes per message; permanently failed ones
+ *   (rules, invalid data) are dropped, since retrying them cannot succeed
+ *
+ * The stored status is protected by the repository as well (updateMessageStatuses()
+ * never moves a status backwards and skips deleted messages); the in-memory checks
+ * here only avoid writes that would be no-ops.
+ *
+ * One instance is intended per open chat session; the memory of flushed statuses
+ * grows with the number of distinct messages acknowledged in that session.
+ *
+ * Usage:
+ * DeliveryAckBatcher acks = new DeliveryAckBatcher(messageRepository);
+ * for (Message m : visibleMessages) acks.acknowledge(chatId + "/" + m.getId(), DeliveryStatus.SEEN);
+ * acks.flush();
+ *
+ * @see MessageRepository#updateMessageStatuses(Map)
+ */
+public class DeliveryAckBatcher {
+
+    private static final String TAG = "DeliveryAckBatcher";
+
+    private final MessageRepository messageRepository;
+    private final Map<String, String> pending = new LinkedHashMap<>();
+    private final Map<String, String> flushed = new HashMap<>();
+    private final Map<String, Integer> failedAttempts = new HashMap<>();
+    private final int maxAttempts;
+
+    /**
+     * Constructor using DELIVERY_ACK_MAX_ATTEMPTS from Constants.
+     *
+     * @param messageRepository Repository used to write the batched updates
+     */
+    public DeliveryAckBatcher(MessageRepository messageRepository) {
+        this(messageRepository, Constants.DELIVERY_ACK_MAX_ATTEMPTS);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param messageRepository Repository used to write the batched updates
+     * @param maxAttempts Number of failed flushes after which an acknowledgement is dropped
+     */
+    public DeliveryAckBatcher(MessageRepository messageRepository, int maxAttempts) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("maxAttempts must be positive");
+        }
+        this.messageRepository = messageRepository;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Record an acknowledgement.
+     *
+     * @param messageId Message identifier in format "chatId/messageId"
+     * @param status "delivered" or "seen"
+     * @return true if the acknowledgement will produce a write, false if it was
+     *         redundant (already pending or flushed at the same or a higher status)
+     */
+    public synchronized boolean acknowledge(String messageId, String status) {
+        if (messageId == null || !DeliveryStatus.isAcknowledgement(status)) {
+            throw new IllegalArgumentException("messageId and a \"delivered\" or \"seen\" status are required");
+        }
+
+        String known = DeliveryStatus.max(pending.get(messageId), flushed.get(messageId));
+        if (DeliveryStatus.rank(status) <= DeliveryStatus.rank(known)) {
+            return false;
+        }
+
+        pending.put(messageId, status);
+        return true;
+    }
+
+    /**
+     * Get the number of acknowledgements waiting to be flushed.
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Write all pending acknowledgements in one bulk update.
+     *
+     * @return Task<Void> - Task that completes when the update is committed;
+     *         completes immediately when nothing is pending
+     */
+    public Task<Void> flush() {
+        Map<String, String> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return Tasks.forResult(null);
+            }
+            batch = new LinkedHashMap<>(pending);
+            pending.clear();
+            flushed.putAll(batch);
+        }
+
+        Log.d(TAG, "Flushing " + batch.size() + " delivery acknowledgements");
+
+        // Re-queue inline, before the returned task completes, so callers observe a consistent state
+        return messageRepository.updateMessageStatuses(batch)
+                .continueWithTask(Runnable::run, task -> {
+                    if (task.isSuccessful()) {
+                        clearAttempts(batch);
+                    } else {
+                        requeue(batch, task.getException());
+                    }
+                    return task;
+                });
+    }
+
+    private synchronized void clearAttempts(Map<String, String> batch) {
+        failedAttempts.keySet().removeAll(batch.keySet());
+    }
+
+    /**
+     * Return a failed batch to the pending set, keeping whichever status is higher.
+     * Permanent failures drop the whole batch; transient ones re-queue each
+     * acknowledgement until it has failed maxAttempts times.
+     */
+    private synchronized void requeue(Map<String, String> batch, Exception e) {
+        boolean permanent = FirestoreErrors.isPermanent(e);
+        int dropped = 0;
+        for (Map.Entry<String, String> entry : batch.entrySet()) {
+            String messageId = entry.getKey();
+            // Forget the optimistic flushed status so the re-queued ack is not treated as redundant
+            if (entry.getValue().equals(flushed.get(messageId))) {
+                flushed.remove(messageId);
+            }
+
+            int attempts = failedAttempts.merge(messageId, 1, Integer::sum);
+            if (permanent || attempts >= maxAttempts) {
+                failedAttempts.remove(messageId);
+                dropped++;
+                continue;
+            }
+            pending.put(messageId, DeliveryStatus.max(pending.get(messageId), entry.getValue()));
+        }
+        Log.w(TAG, "Flush failed" + (permanent ? " permanently" : "") + ", re-queued "
+                + (batch.size() - dropped) + " and dropped " + dropped + " acknowledgements", e);
+    }
+}
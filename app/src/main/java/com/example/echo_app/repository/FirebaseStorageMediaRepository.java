@@ -0,0 +1,104 @@
+package com.example.echo_app.repository;
+
+import android.net.Uri;
+import android.util.Log;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.storage.FirebaseStorage;
+import com.google.firebase.storage.StorageMetadata;
+import com.google.firebase.storage.StorageReference;
+import com.google.firebase.storage.UploadTask;
+
+import java.util.concurrent.Executor;
+
+/**
+ * FirebaseStorageMediaRepository.java
+ *
+ * Implementation of MediaRepository using Firebase Storage as the backend.
+ *
+ * Features:
+ * - Content type stored as object metadata, so the CDN serves the right MIME type
+ * - Each upload resolves to its download URL in one chained Task
+ * - Continuations run on an injected background executor, never the main thread
+ *
+ * Usage:
+ * MediaRepository media = new FirebaseStorageMediaRepository(FirebaseStorage.getInstance(), backgroundExecutor);
+ * media.uploadBytes("chats/chatId123/media/msg456.jpg", jpeg, "image/jpeg");
+ */
+public class FirebaseStorageMediaRepository implements MediaRepository {
+
+    private static final String TAG = "FirebaseStorageMediaRepository";
+
+    private final FirebaseStorage storage;
+    private final Executor executor;
+
+    /**
+     * Constructor with injectable dependencies.
+     * AppModule supplies the shared instances; tests pass their own.
+     *
+     * @param storage Firebase Storage instance
+     * @param executor Executor for continuations; must not be the main thread executor
+     */
+    public FirebaseStorageMediaRepository(FirebaseStorage storage, Executor executor) {
+        this.storage = storage;
+        this.executor = executor;
+    }
+
+    /**
+     * Operation: putBytes() followed by getDownloadUrl()
+     */
+    @Override
+    public Task<String> uploadBytes(String path, byte[] data, String contentType) {
+        if (path == null || path.isEmpty() || data == null || data.length == 0) {
+            Log.e(TAG, "Cannot upload: path or data is empty");
+            return Tasks.forException(new IllegalArgumentException("path and data must not be null or empty"));
+        }
+
+        StorageReference ref = storage.getReference(path);
+        return downloadUrl(path, ref, ref.putBytes(data, metadata(contentType)), data.length);
+    }
+
+    /**
+     * Operation: putFile() followed by getDownloadUrl()
+     */
+    @Override
+    public Task<String> uploadFile(String path, Uri source, String contentType) {
+        if (path == null || path.isEmpty() || source == null) {
+            Log.e(TAG, "Cannot upload: path or source is null");
+            return Tasks.forException(new IllegalArgumentException("path and source must not be null or empty"));
+        }
+
+        StorageReference ref = storage.getReference(path);
+        return downloadUrl(path, ref, ref.putFile(source, metadata(contentType)), -1);
+    }
+
+    private Task<String> downloadUrl(String path, StorageReference ref, UploadTask upload, long size) {
+        return upload
+                .continueWithTask(executor, task -> {
+                    if (!task.isSuccessful()) {
+                        Exception exception = task.getException();
+                        Log.e(TAG, "Error uploading media to: " + path, exception);
+                        throw exception != null ? exception : new Exception("Unknown error");
+                    }
+                    Log.d(TAG, "Uploaded " + (size >= 0 ? size + " bytes" : "file") + " to: " + path);
+                    return ref.getDownloadUrl();
+                })
+                .continueWith(executor, task -> {
+                    if (!task.isSuccessful()) {
+                        Exception exception = task.getException();
+                        Log.e(TAG, "Error resolving download URL for: " + path, exception);
+                        throw exception != null ? exception : new Exception("Unknown error");
+                    }
+                    return task.getResult().toString();
+                });
+    }
+
+    private static StorageMetadata metadata(String contentType) {
+        StorageMetadata.Builder builder = new StorageMetadata.Builder();
+        if (contentType != null) {
+            builder.setContentType(contentType);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,301 @@
+package com.example.echo_app.repository;
+
+import android.util.Log;
+
+import com.example.echo_app.data.mapper.ChatMapper;
+import com.example.echo_app.model.Chat;
+import com.example.echo_app.utils.ChatIds;
+import com.example.echo_app.utils.SerialExecutor;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * FirestoreChatRepository.java
+ *
+ * Implementation of ChatRepository using Firebase Firestore as the backend.
+ *
+ * The inbox is a single query over the chats collection; the last-message
+ * preview fields it sorts on are written atomically with each message by
+ * FirestoreMessageRepository.sendMessage().
+ *
+ * Features:
+ * - O(1) private chat lookup via canonical IDs, created transactionally
+ * - Cursor-based inbox pagination (most recent activity first)
+ * - Live inbox window emitting incremental changes
+ * - Continuations run on an injected background executor, never the main thread
+ * - Reflection-free encoding via ChatMapper
+ *
+ * Usage:
+ * ChatRepository chats = AppModule.getInstance().getChatRepository();
+ * ListenerRegistration registration = chats.listenToInbox(uid, 50, inboxListener);
+ */
+public class FirestoreChatRepository implements ChatRepository {
+
+    private static final String TAG = "FirestoreChatRepository";
+    private static final String CHATS_COLLECTION = "chats";
+
+    private final FirebaseFirestore db;
+    private final Executor executor;
+
+    /**
+     * Constructor with injectable dependencies.
+     * AppModule supplies the shared instances; tests pass their own.
+     *
+     * @param db Firestore instance
+     * @param executor Executor for mapping continuations; must not be the main thread executor
+     */
+    public FirestoreChatRepository(FirebaseFirestore db, Executor executor) {
+        this.db = db;
+        this.executor = executor;
+    }
+
+    /**
+     * Retrieve a chat by its unique ID.
+     *
+     * Firestore Path: chats/{chatId}
+     */
+    @Override
+    public Task<Chat> getChatById(String chatId) {
+        if (chatId == null || chatId.isEmpty()) {
+            Log.e(TAG, "Cannot get chat: chatId is null or empty");
+            return Tasks.forException(new IllegalArgumentException("chatId must not be null or empty"));
+        }
+
+        return chats().document(chatId)
+                .get()
+                .continueWith(executor, task -> {
+                    if (!task.isSuccessful()) {
+                        Exception exception = task.getException();
+                        Log.e(TAG, "Error fetching chat: " + chatId, exception);
+                        throw exception != null ? exception : new Exception("Unknown error");
+                    }
+
+                    Chat chat = ChatMapper.fromSnapshot(task.getResult());
+                    if (chat == null) {
+                        throw new Exception("Chat not found: " + chatId);
+                    }
+                    return chat;
+                });
+    }
+
+    /**
+     * Create or overwrite a chat document.
+     *
+     * Firestore Path: chats/{chat.id}
+     * Operation: Set
+     */
+    @Override
+    public Task<Void> createChat(Chat chat) {
+        if (chat == null || chat.getId() == null || chat.getId().isEmpty()
+                || chat.getParticipantIds() == null || chat.getParticipantIds().isEmpty()) {
+            Log.e(TAG, "Cannot create chat: chat, id or participantIds is missing");
+            return Tasks.forException(new IllegalArgumentException("Chat id and participantIds must not be null or empty"));
+        }
+
+        return chats().document(chat.getId())
+                .set(ChatMapper.toMap(chat))
+                .addOnSuccessListener(executor, aVoid -> {
+                    Log.d(TAG, "Chat created: " + chat.getId());
+                })
+                .addOnFailureListener(executor, e -> {
+                    Log.e(TAG, "Error creating chat: " + chat.getId(), e);
+                });
+    }
+
+    /**
+     * Get or create the private chat between two users inside a transaction.
+     *
+     * Firestore retries the transaction if the document changes between the read and
+     * the commit, so two concurrent first openers converge on a single chat.
+     *
+     * Firestore Path: chats/{privateChatId}
+     * Operation: Transaction - get(), then set() only if missing
+     */
+    @Override
+    public Task<Chat> getOrCreatePrivateChat(String userId, String otherUserId) {
+        String chatId;
+        try {
+            chatId = ChatIds.privateChatId(userId, otherUserId);
+        } catch (IllegalArgumentException e) {
+            Log.e(TAG, "Cannot resolve private chat for " + userId + " and " + otherUserId, e);
+            return Tasks.forException(e);
+        }
+
+        DocumentReference chatRef = chats().document(chatId);
+
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot snapshot = transaction.get(chatRef);
+            Chat existing = ChatMapper.fromSnapshot(snapshot);
+            if (existing != null) {
+                return existing;
+            }
+
+            List<String> participants = new ArrayList<>(2);
+            participants.add(userId);
+            participants.add(otherUserId);
+            Collections.sort(participants);
+
+            Chat chat = new Chat(chatId, participants, false);
+            transaction.set(chatRef, ChatMapper.toMap(chat));
+            return chat;
+        }).continueWith(executor, task -> {
+            if (!task.isSuccessful()) {
+                Exception exception = task.getException();
+                Log.e(TAG, "Error resolving private chat: " + chatId, exception);
+                throw exception != null ? exception : new Exception("Unknown error");
+            }
+            Log.d(TAG, "Resolved private chat: " + chatId);
+            return task.getResult();
+        });
+    }
+
+    /**
+     * Retrieve one page of a user's inbox.
+     *
+     * Fetches pageSize + 1 documents to learn whether another page exists without
+     * an extra query.
+     *
+     * Firestore Path: chats/
+     * Query: whereArrayContains(participantIds, userId)
+     *        .orderBy(lastMessageTimestamp desc, documentId desc).startAfter(cursor).limit(pageSize + 1)
+     */
+    @Override
+    public Task<Page<Chat>> getInboxPage(String userId, int pageSize, String cursor) {
+        if (userId == null || userId.isEmpty()) {
+            Log.e(TAG, "Cannot get inbox: userId is null or empty");
+            return Tasks.forException(new IllegalArgumentException("userId must not be null or empty"));
+        }
+
+        if (pageSize <= 0) {
+            Log.e(TAG, "Cannot get inbox: invalid pageSize " + pageSize);
+            return Tasks.forException(new IllegalArgumentException("pageSize must be positive"));
+        }
+
+        Query query = inboxQuery(userId);
+        if (cursor != null) {
+            try {
+                PageCursor pageCursor = PageCursor.decode(cursor);
+                query = query.startAfter(pageCursor.getTimestamp(), pageCursor.getDocumentId());
+            } catch (IllegalArgumentException e) {
+                Log.e(TAG, "Cannot get inbox: invalid cursor " + cursor, e);
+                return Tasks.forException(e);
+            }
+        }
+
+        return query.limit(pageSize + 1L)
+                .get()
+                .continueWith(executor, task -> {
+                    if (!task.isSuccessful()) {
+                        Exception exception = task.getException();
+                        Log.e(TAG, "Error fetching inbox for user: " + userId, exception);
+                        throw exception != null ? exception : new Exception("Unknown error");
+                    }
+
+                    QuerySnapshot querySnapshot = task.getResult();
+                    if (querySnapshot == null) {
+                        throw new Exception("QuerySnapshot is null");
+                    }
+
+                    List<DocumentSnapshot> documents = querySnapshot.getDocuments();
+                    boolean hasMore = documents.size() > pageSize;
+                    int count = Math.min(documents.size(), pageSize);
+
+                    List<Chat> chatList = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        Chat chat = ChatMapper.fromSnapshot(documents.get(i));
+                        if (chat != null) {
+                            chatList.add(chat);
+                        }
+                    }
+
+                    String nextCursor = null;
+                    if (hasMore) {
+                        DocumentSnapshot last = documents.get(count - 1);
+                        Long timestamp = last.getLong(ChatMapper.FIELD_LAST_MESSAGE_TIMESTAMP);
+                        nextCursor = PageCursor.forTimestamp(
+                                timestamp != null ? timestamp : 0L, last.getId()).encode();
+                    }
+
+                    Log.d(TAG, "Fetched inbox page of " + chatList.size() + " chats for user: " + userId);
+                    return new Page<>(chatList, nextCursor);
+                });
+    }
+
+    /**
+     * Listen to the most recently active chats of a user.
+     * Callbacks run on the background executor, serialized per listener.
+     *
+     * Firestore Path: chats/
+     * Query: whereArrayContains(participantIds, userId).orderBy(lastMessageTimestamp desc).limit(limit)
+     */
+    @Override
+    public ListenerRegistration listenToInbox(String userId, int limit, ChangeListener<Chat> listener) {
+        if (userId == null || userId.isEmpty() || listener == null) {
+            throw new IllegalArgumentException("userId and listener must not be null or empty");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+
+        Log.d(TAG, "Listening to inbox for user: " + userId + " (limit " + limit + ")");
+
+        return inboxQuery(userId)
+                .limit(limit)
+                .addSnapshotListener(new SerialExecutor(executor), (querySnapshot, error) -> {
+                    if (error != null) {
+                        Log.e(TAG, "Inbox listener failed for user: " + userId, error);
+                        listener.onError(error);
+                        return;
+                    }
+
+                    if (querySnapshot == null || querySnapshot.getDocumentChanges().isEmpty()) {
+                        return;
+                    }
+
+                    List<Change<Chat>> changes = new ArrayList<>();
+                    for (DocumentChange documentChange : querySnapshot.getDocumentChanges()) {
+                        Chat chat = ChatMapper.fromSnapshot(documentChange.getDocument());
+                        if (chat == null) {
+                            continue;
+                        }
+                        switch (documentChange.getType()) {
+                            case REMOVED:
+                                changes.add(Change.removed(chat));
+                                break;
+                            case MODIFIED:
+                                changes.add(Change.modified(chat));
+                                break;
+                            default:
+                                changes.add(Change.added(chat));
+                                break;
+                        }
+                    }
+                    listener.onChanges(changes);
+                });
+    }
+
+    private Query inboxQuery(String userId) {
+        return chats()
+                .whereArrayContains(ChatMapper.FIELD_PARTICIPANT_IDS, userId)
+                .orderBy(ChatMapper.FIELD_LAST_MESSAGE_TIMESTAMP, Query.Direction.DESCENDING)
+                .orderBy(FieldPath.documentId(), Query.Direction.DESCENDING);
+    }
+
+    private CollectionReference chats() {
+        return db.collection(CHATS_COLLECTION);
+    }
+}
@@ -0,0 +1,644 @@
+package com.example.echo_app.repository;
+
+import android.util.Log;
+
+import com.example.echo_app.data.DeleteCheckpointStore;
+import com.example.echo_app.data.FirestoreConstants;
+import com.example.echo_app.data.ShardedCounter;
+import com.example.echo_app.data.mapper.ChatMapper;
+import com.example.echo_app.data.mapper.GroupMapper;
+import com.example.echo_app.data.mapper.MembershipMapper;
+import com.example.echo_app.model.Chat;
+import com.example.echo_app.model.Group;
+import com.example.echo_app.model.Membership;
+import com.example.echo_app.utils.BroadcastPolicy;
+import com.example.echo_app.utils.CollectionUtils;
+import com.example.echo_app.utils.Constants;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+
+/**
+ * FirestoreGroupRepository.java
+ *
+ * Implementation of GroupRepository using Firebase Firestore as the backend.
+ *
+ * Every membership is stored twice, in the same WriteBatch:
+ * - groups/{groupId}/members/{userId} (member list of a group)
+ * - users/{userId}/groups/{groupId}   (per-user group index)
+ *
+ * Listing a user's groups is then a read of one small subcollection followed by
+ * chunked whereIn lookups, instead of an array-contains query over all groups.
+ * Group.memberIds is kept for compatibility but changed only with
+ * FieldValue.arrayUnion/arrayRemove, never rewritten as a whole.
+ *
+ * Features:
+ * - Group, linked chat and memberships created in one WriteBatch
+ * - Bulk member import in 249-member batch chunks
+ * - Broadcast mode selected automatically on create and bulk import (BroadcastPolicy)
+ * - Per-user group index maintained atomically with membership changes
+ * - Resumable, paged cascading delete of a group's chat, messages and memberships
+ * - Group documents fetched in whereIn chunks of 30 IDs
+ * - Continuations run on an injected background executor, never the main thread
+ * - Reflection-free encoding via GroupMapper and MembershipMapper
+ *
+ * Usage:
+ * GroupRepository groups = AppModule.getInstance().getGroupRepository();
+ * groups.getGroupsForUser(currentUserId).addOnSuccessListener(list -> adapter.submit(list));
+ */
+public class FirestoreGroupRepository implements GroupRepository {
+
+    private static final String TAG = "FirestoreGroupRepository";
+    private static final String GROUPS_COLLECTION = "groups";
+    private static final String USERS_COLLECTION = "users";
+    private static final String CHATS_COLLECTION = "chats";
+    private static final String MEMBERS_SUBCOLLECTION = "members";
+    private static final String USER_GROUPS_SUBCOLLECTION = "groups";
+    private static final String MESSAGES_SUBCOLLECTION = "messages";
+    private static final String RECEIPTS_SUBCOLLECTION = "receipts";
+    private static final String READ_SHARDS_SUBCOLLECTION = "readShards";
+    private static final String TYPING_SUBCOLLECTION = "typing";
+
+    /**
+     * Prefix of the DeleteCheckpointStore job IDs used by deleteGroup().
+     */
+    public static final String DELETE_JOB_PREFIX = "group/";
+
+    private final FirebaseFirestore db;
+    private final Executor executor;
+    private final DeleteCheckpointStore deleteCheckpoints;
+
+    /**
+     * Constructor with injectable dependencies.
+     * AppModule supplies the shared instances; tests pass their own.
+     *
+     * @param db Firestore instance
+     * @param executor Executor for mapping continuations; must not be the main thread executor
+     * @param deleteCheckpoints Store that records deleteGroup() progress so it can be resumed
+     */
+    public FirestoreGroupRepository(FirebaseFirestore db, Executor executor, DeleteCheckpointStore deleteCheckpoints) {
+        this.db = db;
+        this.executor = executor;
+        this.deleteCheckpoints = deleteCheckpoints;
+    }
+
+    /**
+     * Retrieve a group by its unique ID.
+     *
+     * Firestore Path: groups/{groupId}
+     */
+    @Override
+    public Task<Group> getGroupById(String groupId) {
+        if (groupId == null || groupId.isEmpty()) {
+            Log.e(TAG, "Cannot get group: groupId is null or empty");
+            return Tasks.forException(new IllegalArgumentException("groupId must not be null or empty"));
+        }
+
+        return groups().document(groupId)
+                .get()
+                .continueWith(executor, task -> {
+                    if (!task.isSuccessful()) {
+                        Exception exception = task.getException();
+                        Log.e(TAG, "Error fetching group: " + groupId, exception);
+                        throw exception != null ? exception : new Exception("Unknown error");
+                    }
+
+                    Group group = GroupMapper.fromSnapshot(task.getResult());
+                    if (group == null) {
+                        throw new Exception("Group not found: " + groupId);
+                    }
+                    return group;
+                });
+    }
+
+    /**
+     * Retrieve all groups a user belongs to via the per-user index.
+     *
+     * Reads users/{userId}/groups, then fetches the referenced group documents with
+     * whereIn(documentId) queries of at most 30 IDs each, issued concurrently.
+     * Groups are returned most recently joined first; index entries whose group no
+     * longer exists are skipped.
+     *
+     * Firestore Path: users/{userId}/groups/, then groups/
+     * Query: Subcollection read + whereIn(documentId, chunk) per 30 groups
+     */
+    @Override
+    public Task<List<Group>> getGroupsForUser(String userId) {
+        if (userId == null || userId.isEmpty()) {
+            Log.e(TAG, "Cannot get groups: userId is null or empty");
+            return Tasks.forException(new IllegalArgumentException("userId must not be null or empty"));
+        }
+
+        return userGroups(userId)
+                .get()
+                .continueWithTask(executor, task -> {
+                    if (!task.isSuccessful()) {
+                        Exception exception = task.getException();
+                        Log.e(TAG, "Error fetching group index for user: " + userId, exception);
+                        throw exception != null ? exception : new Exception("Unknown error");
+                    }
+
+                    List<Membership> memberships = new ArrayList<>();
+                    for (DocumentSnapshot document : task.getResult().getDocuments()) {
+                        Membership membership = MembershipMapper.fromSnapshot(document);
+                        if (membership != null) {
+                            memberships.add(membership);
+                        }
+                    }
+                    memberships.sort((a, b) -> Long.compare(b.getJoinedAt(), a.getJoinedAt()));
+
+                    List<String> groupIds = new ArrayList<>(memberships.size());
+                    for (Membership membership : memberships) {
+                        groupIds.add(membership.getId());
+                    }
+                    return fetchGroups(groupIds);
+                });
+    }
+
+    /**
+     * Fetch group documents by ID, preserving the given order.
+     */
+    private Task<List<Group>> fetchGroups(List<String> groupIds) {
+        if (groupIds.isEmpty()) {
+            return Tasks.forResult(new ArrayList<>());
+        }
+
+        List<Task<QuerySnapshot>> chunkTasks = new ArrayList<>();
+        for (List<String> chunk : CollectionUtils.partition(groupIds, FirestoreConstants.MAX_IN_QUERY_VALUES)) {
+            chunkTasks.add(groups().whereIn(FieldPath.documentId(), chunk).get());
+        }
+
+        Log.d(TAG, "Fetching " + groupIds.size() + " groups in " + chunkTasks.size() + " queries");
+
+        return Tasks.<QuerySnapshot>whenAllSuccess(chunkTasks)
+                .continueWith(executor, task -> {
+                    if (!task.isSuccessful()) {
+                        Exception exception = task.getException();
+                        Log.e(TAG, "Error fetching groups by IDs", exception);
+                        throw exception != null ? exception : new Exception("Unknown error");
+                    }
+
+                    Map<String, Group> groupsById = new HashMap<>();
+                    for (QuerySnapshot chunkSnapshot : task.getResult()) {
+                        for (DocumentSnapshot document : chunkSnapshot.getDocuments()) {
+                            Group group = GroupMapper.fromSnapshot(document);
+                            if (group != null) {
+                                groupsById.put(document.getId(), group);
+                            }
+                        }
+                    }
+
+                    List<Group> groupList = new ArrayList<>(groupIds.size());
+                    for (String groupId : groupIds) {
+                        Group group = groupsById.get(groupId);
+                        if (group != null) {
+                            groupList.add(group);
+                        }
+                    }
+                    return groupList;
+                });
+    }
+
+    /**
+     * Create a group, its linked chat and its memberships.
+     *
+     * The first batch holds the group, the chat and the memberships of up to 249 members,
+     * so small and medium groups are created atomically. Memberships beyond that are
+     * committed afterwards in further batches (the group and chat documents already list
+     * every member, so no array update is needed for them).
+     *
+     * Firestore Path: groups/{group.id}, chats/{group.id},
+     *                 groups/{group.id}/members/{uid}, users/{uid}/groups/{group.id}
+     * Operation: WriteBatch - set(group) + set(chat) + 2 set(membership) per member
+     */
+    @Override
+    public Task<Void> createGroup(Group group) {
+        if (group == null || group.getId() == null || group.getId().isEmpty()
+                || group.getAdminId() == null || group.getAdminId().isEmpty()) {
+            Log.e(TAG, "Cannot create group: group, id or adminId is missing");
+            return Tasks.forException(new IllegalArgumentException("Group id and adminId must not be null or empty"));
+        }
+
+        List<String> memberIds = new ArrayList<>();
+        memberIds.add(group.getAdminId());
+        if (group.getMemberIds() != null) {
+            memberIds.addAll(group.getMemberIds());
+        }
+        memberIds = CollectionUtils.distinctIds(memberIds);
+        group.setMemberIds(memberIds);
+
+        group.setBroadcast(group.isBroadcast() || BroadcastPolicy.isBroadcast(memberIds.size()));
+
+        Chat chat = new Chat(group.getId(), new ArrayList<>(memberIds), true);
+        chat.setUpdatedAt(group.getUpdatedAt());
+        chat.setBroadcast(group.isBroadcast());
+
+        int firstChunk = Math.min(memberIds.size(), (FirestoreConstants.MAX_BATCH_OPERATIONS - 2) / 2);
+        WriteBatch batch = db.batch();
+        batch.set(groups().document(group.getId()), GroupMapper.toMap(group));
+        batch.set(db.collection(CHATS_COLLECTION).document(group.getId()), ChatMapper.toMap(chat));
+        for (String memberId : memberIds.subList(0, firstChunk)) {
+            putMembership(batch, group.getId(), memberId, memberId.equals(group.getAdminId()));
+        }
+
+        List<String> remaining = memberIds.subList(firstChunk, memberIds.size());
+        Log.d(TAG, "Creating group " + group.getId() + " with " + memberIds.size() + " members");
+
+        return batch.commit()
+                .onSuccessTask(executor, aVoid -> {
+                    List<Task<Void>> commits = new ArrayList<>();
+                    for (List<String> chunk : CollectionUtils.partition(remaining,
+                            FirestoreConstants.MAX_BATCH_OPERATIONS / 2)) {
+                        WriteBatch memberBatch = db.batch();
+                        for (String memberId : chunk) {
+                            putMembership(memberBatch, group.getId(), memberId, false);
+                        }
+                        commits.add(memberBatch.commit());
+                    }
+                    return Tasks.whenAll(commits);
+                })
+                .addOnSuccessListener(executor, aVoid -> {
+                    Log.d(TAG, "Group created: " + group.getId());
+                })
+                .addOnFailureListener(executor, e -> {
+                    Log.e(TAG, "Error creating group: " + group.getId(), e);
+                });
+    }
+
+    /**
+     * Update a group's editable metadata.
+     * Only name, description, groupImageUrl, adminId and updatedAt are written;
+     * membership is changed through addMemberToGroup()/removeMemberFromGroup().
+     *
+     * Firestore Path: groups/{group.id}
+     * Operation: Update (selected fields)
+     */
+    @Override
+    public Task<Void> updateGroup(Group group) {
+        if (group == null || group.getId() == null || group.getId().isEmpty()) {
+            Log.e(TAG, "Cannot update group: group or id is null");
+            return Tasks.forException(new IllegalArgumentException("Group and id must not be null"));
+        }
+
+        Map<String, Object> updates = new HashMap<>();
+        updates.put(GroupMapper.FIELD_NAME, group.getName());
+        updates.put(GroupMapper.FIELD_DESCRIPTION, group.getDescription());
+        updates.put(GroupMapper.FIELD_GROUP_IMAGE_URL, group.getGroupImageUrl());
+        updates.put(GroupMapper.FIELD_ADMIN_ID, group.getAdminId());
+        updates.put(GroupMapper.FIELD_UPDATED_AT, System.currentTimeMillis());
+
+        return groups().document(group.getId())
+                .update(updates)
+                .addOnSuccessListener(executor, aVoid -> {
+                    Log.d(TAG, "Group updated: " + group.getId());
+                })
+                .addOnFailureListener(executor, e -> {
+                    Log.e(TAG, "Error updating group: " + group.getId(), e);
+                });
+    }
+
+    /**
+     * Delete a group and everything that belongs to it, resumably.
+     *
+     * Runs as a CascadingDelete with job ID "group/{groupId}", in this order:
+     * 1. chats/{groupId}/messages, in broadcast groups together with each message's
+     *    readShards (fixed shard IDs, so no extra reads)
+     * 2. chats/{groupId}/receipts
+     * 3. chats/{groupId}/typing
+     * 4. groups/{groupId}/members together with users/{uid}/groups/{groupId} and the
+     *    member's unread counter users/{uid}/unread/{groupId}/shards/*
+     * 5. chats/{groupId} and groups/{groupId}
+     *
+     * Each page reads up to GROUP_DELETE_CONCURRENCY batches' worth of documents and
+     * commits them as that many concurrent 500-operation WriteBatches. Progress is
+     * checkpointed after every page; calling deleteGroup() again (e.g. from
+     * GroupDeleteWorker after a failure or process death) continues where it stopped.
+     * The group document goes last, so an interrupted delete stays visible. It is read
+     * first to learn whether the group is broadcast, i.e. whether its messages can have
+     * read counters.
+     *
+     * Firestore Path: chats/{groupId}/**, groups/{groupId}/members/*, users/{uid}/groups/{groupId},
+     *                 users/{uid}/unread/{groupId}/shards/*, chats/{groupId}, groups/{groupId}
+     * Operation: Group read, then paged subcollection reads + concurrent WriteBatch deletes
+     */
+    @Override
+    public Task<Void> deleteGroup(String groupId) {
+        if (groupId == null || groupId.isEmpty()) {
+            Log.e(TAG, "Cannot delete group: groupId is null or empty");
+            return Tasks.forException(new IllegalArgumentException("groupId must not be null or empty"));
+        }
+
+        return groups().document(groupId)
+                .get()
+                .continueWithTask(executor, task -> {
+                    if (!task.isSuccessful()) {
+                        Exception exception = task.getException();
+                        Log.e(TAG, "Error reading group before delete: " + groupId, exception);
+                        throw exception != null ? exception : new Exception("Unknown error");
+                    }
+                    // A missing group means an earlier run got to the last step; the checkpoint finishes it
+                    Group group = GroupMapper.fromSnapshot(task.getResult());
+                    return new CascadingDelete(DELETE_JOB_PREFIX + groupId,
+                            deleteSteps(groupId, group != null && group.isBroadcast()), deleteCheckpoints, executor)
+                            .run();
+                })
+                .onSuccessTask(executor, pages -> {
+                    Log.d(TAG, "Group deleted: " + groupId + " (" + pages + " pages)");
+                    return Tasks.forResult((Void) null);
+                });
+    }
+
+    /**
+     * Build the steps of deleteGroup(). The step list has the same length for every
+     * group, so a checkpoint stays valid whatever the broadcast flag.
+     *
+     * @param broadcast Whether messages may carry sharded read counters
+     */
+    private List<CascadingDelete.Step> deleteSteps(String groupId, boolean broadcast) {
+        CollectionReference messageDocs = db.collection(CHATS_COLLECTION).document(groupId)
+                .collection(MESSAGES_SUBCOLLECTION);
+        CollectionReference receiptDocs = db.collection(CHATS_COLLECTION).document(groupId)
+                .collection(RECEIPTS_SUBCOLLECTION);
+        CollectionReference typingDocs = db.collection(CHATS_COLLECTION).document(groupId)
+                .collection(TYPING_SUBCOLLECTION);
+
+        List<CascadingDelete.Step> steps = new ArrayList<>();
+        if (broadcast) {
+            steps.add(deletePageStep(messageDocs, 1 + Constants.BROADCAST_READ_COUNTER_SHARDS, (batch, document) -> {
+                for (DocumentReference shard : readShards(document.getReference()).getShardReferences()) {
+                    batch.delete(shard);
+                }
+                batch.delete(document.getReference());
+            }));
+        } else {
+            steps.add(deletePageStep(messageDocs, 1, (batch, document) -> batch.delete(document.getReference())));
+        }
+        steps.add(deletePageStep(receiptDocs, 1, (batch, document) -> batch.delete(document.getReference())));
+        steps.add(deletePageStep(typingDocs, 1, (batch, document) -> batch.delete(document.getReference())));
+        steps.add(deletePageStep(members(groupId), 2 + Constants.UNREAD_COUNTER_SHARDS, (batch, document) -> {
+            batch.delete(document.getReference());
+            batch.delete(userGroups(document.getId()).document(groupId));
+            deleteUnreadCounter(batch, document.getId(), groupId);
+        }));
+        steps.add(() -> {
+            WriteBatch batch = db.batch();
+            batch.delete(db.collection(CHATS_COLLECTION).document(groupId));
+            batch.delete(groups().document(groupId));
+            return batch.commit().onSuccessTask(executor, aVoid -> Tasks.forResult(false));
+        });
+        return steps;
+    }
+
+    /**
+     * Add the deletes of a member's unread counter shards (fixed shard IDs) to a batch.
+     */
+    private void deleteUnreadCounter(WriteBatch batch, String userId, String groupId) {
+        for (DocumentReference shard
+                : FirestoreUnreadCounterRepository.unreadCounter(db, userId, groupId).getShardReferences()) {
+            batch.delete(shard);
+        }
+    }
+
+    /**
+     * The sharded read counter of a broadcast message (see FirestoreReceiptRepository).
+     */
+    private ShardedCounter readShards(DocumentReference message) {
+        return new ShardedCounter(message.collection(READ_SHARDS_SUBCOLLECTION),
+                Constants.BROADCAST_READ_COUNTER_SHARDS);
+    }
+
+    /**
+     * Build a delete step that pages through a subcollection.
+     *
+     * A page holds enough documents for GROUP_DELETE_CONCURRENCY full batches; its
+     * batches are committed concurrently. The step reports more work while pages come
+     * back full.
+     *
+     * @param opsPerDocument Number of deletes issued per document read
+     */
+    private CascadingDelete.Step deletePageStep(CollectionReference collection, int opsPerDocument,
+                                                BiConsumer<WriteBatch, DocumentSnapshot> deleteOps) {
+        int documentsPerBatch = FirestoreConstants.MAX_BATCH_OPERATIONS / opsPerDocument;
+        int pageSize = documentsPerBatch * Constants.GROUP_DELETE_CONCURRENCY;
+
+        return () -> collection
+                .limit(pageSize)
+                .get()
+                .continueWithTask(executor, task -> {
+                    if (!task.isSuccessful()) {
+                        Exception exception = task.getException();
+                        Log.e(TAG, "Error reading " + collection.getPath() + " for delete", exception);
+                        throw exception != null ? exception : new Exception("Unknown error");
+                    }
+
+                    List<DocumentSnapshot> documents = task.getResult().getDocuments();
+                    List<Task<Void>> commits = new ArrayList<>();
+                    for (List<DocumentSnapshot> chunk : CollectionUtils.partition(documents, documentsPerBatch)) {
+                        WriteBatch batch = db.batch();
+                        for (DocumentSnapshot document : chunk) {
+                            deleteOps.accept(batch, document);
+                        }
+                        commits.add(batch.commit());
+                    }
+
+                    boolean hasMore = documents.size() == pageSize;
+                    Log.d(TAG, "Deleting " + documents.size() + " documents from " + collection.getPath());
+                    return Tasks.whenAll(commits).onSuccessTask(executor, aVoid -> Tasks.forResult(hasMore));
+                });
+    }
+
+    /**
+     * Add a member: membership doc, index entry, group memberIds and chat participantIds
+     * are all written in one batch.
+     *
+     * Firestore Path: groups/{groupId}/members/{userId}, users/{userId}/groups/{groupId},
+     *                 groups/{groupId}, chats/{groupId}
+     * Operation: WriteBatch - 2 set(membership) + 2 update(arrayUnion)
+     */
+    @Override
+    public Task<Void> addMemberToGroup(String groupId, String userId, boolean isAdmin) {
+        if (groupId == null || groupId.isEmpty() || userId == null || userId.isEmpty()) {
+            Log.e(TAG, "Cannot add member: groupId or userId is null or empty");
+            return Tasks.forException(new IllegalArgumentException("groupId and userId must not be null or empty"));
+        }
+
+        WriteBatch batch = db.batch();
+        putMembership(batch, groupId, userId, isAdmin);
+        batch.update(groups().document(groupId),
+                GroupMapper.FIELD_MEMBER_IDS, FieldValue.arrayUnion(userId),
+                GroupMapper.FIELD_UPDATED_AT, System.currentTimeMillis());
+        batch.update(db.collection(CHATS_COLLECTION).document(groupId),
+                ChatMapper.FIELD_PARTICIPANT_IDS, FieldValue.arrayUnion(userId));
+
+        return batch.commit()
+                .addOnSuccessListener(executor, aVoid -> {
+                    Log.d(TAG, "Added member " + userId + " to group: " + groupId);
+                })
+                .addOnFailureListener(executor, e -> {
+                    Log.e(TAG, "Error adding member " + userId + " to group: " + groupId, e);
+                });
+    }
+
+    /**
+     * Add many regular members in concurrent WriteBatch chunks.
+     *
+     * Each chunk of up to 249 users uses 2 operations per user plus one arrayUnion on the
+     * group and one on the chat, staying within the 500-operation batch limit. The group
+     * is read first: users already in memberIds are skipped, so re-adding an admin never
+     * overwrites their membership (isAdmin, joinedAt); if the import takes the group to
+     * the broadcast threshold, the first chunk also sets the broadcast flag on the group
+     * and the chat.
+     *
+     * Firestore Path: groups/{groupId}/members/{uid}, users/{uid}/groups/{groupId},
+     *                 groups/{groupId}, chats/{groupId}
+     * Operation: Group read, then WriteBatch per chunk - 2 set(membership) per new user + 2 update(arrayUnion(chunk))
+     */
+    @Override
+    public Task<Void> addMembersToGroup(String groupId, Collection<String> userIds) {
+        if (groupId == null || groupId.isEmpty() || userIds == null) {
+            Log.e(TAG, "Cannot add members: groupId or userIds is null");
+            return Tasks.forException(new IllegalArgumentException("groupId and userIds must not be null"));
+        }
+
+        List<String> ids = CollectionUtils.distinctIds(userIds);
+        if (ids.isEmpty()) {
+            return Tasks.forResult(null);
+        }
+
+        return groups().document(groupId)
+                .get()
+                .continueWithTask(executor, task -> {
+                    if (!task.isSuccessful()) {
+                        Exception exception = task.getException();
+                        Log.e(TAG, "Error reading group before adding members: " + groupId, exception);
+                        throw exception != null ? exception : new Exception("Unknown error");
+                    }
+                    Group group = GroupMapper.fromSnapshot(task.getResult());
+                    if (group == null) {
+                        throw new Exception("Group not found: " + groupId);
+                    }
+
+                    // Existing members keep their membership document (admin flag, join time)
+                    List<String> newIds = new ArrayList<>(ids);
+                    List<String> allMembers = new ArrayList<>();
+                    if (group.getMemberIds() != null) {
+                        newIds.removeAll(group.getMemberIds());
+                        allMembers.addAll(group.getMemberIds());
+                    }
+                    if (newIds.isEmpty()) {
+                        Log.d(TAG, "All " + ids.size() + " users are already members of group " + groupId);
+                        return Tasks.forResult(null);
+                    }
+                    allMembers.addAll(newIds);
+                    boolean enableBroadcast = !group.isBroadcast()
+                            && BroadcastPolicy.isBroadcast(CollectionUtils.distinctIds(allMembers).size());
+
+                    long now = System.currentTimeMillis();
+                    List<Task<Void>> commits = new ArrayList<>();
+                    for (List<String> chunk : CollectionUtils.partition(newIds,
+                            (FirestoreConstants.MAX_BATCH_OPERATIONS - 2) / 2)) {
+                        Object[] chunkIds = chunk.toArray();
+                        WriteBatch batch = db.batch();
+                        for (String userId : chunk) {
+                            putMembership(batch, groupId, userId, false);
+                        }
+
+                        Map<String, Object> groupUpdate = new HashMap<>();
+                        groupUpdate.put(GroupMapper.FIELD_MEMBER_IDS, FieldValue.arrayUnion(chunkIds));
+                        groupUpdate.put(GroupMapper.FIELD_UPDATED_AT, now);
+                        Map<String, Object> chatUpdate = new HashMap<>();
+                        chatUpdate.put(ChatMapper.FIELD_PARTICIPANT_IDS, FieldValue.arrayUnion(chunkIds));
+                        if (enableBroadcast && commits.isEmpty()) {
+                            groupUpdate.put(GroupMapper.FIELD_BROADCAST, true);
+                            chatUpdate.put(ChatMapper.FIELD_BROADCAST, true);
+                        }
+                        batch.update(groups().document(groupId), groupUpdate);
+                        batch.update(db.collection(CHATS_COLLECTION).document(groupId), chatUpdate);
+                        commits.add(batch.commit());
+                    }
+
+                    Log.d(TAG, "Adding " + newIds.size() + " members to group " + groupId + " in "
+                            + commits.size() + " batch(es)" + (enableBroadcast ? ", switching to broadcast" : ""));
+                    return Tasks.whenAll(commits);
+                })
+                .addOnSuccessListener(executor, aVoid -> {
+                    Log.d(TAG, "Added " + ids.size() + " members to group: " + groupId);
+                })
+                .addOnFailureListener(executor, e -> {
+                    Log.e(TAG, "Error adding members to group: " + groupId, e);
+                });
+    }
+
+    /**
+     * Remove a member: membership doc, index entry and the member's unread counter are
+     * deleted, and the user is removed from group memberIds and chat participantIds,
+     * all in one batch.
+     *
+     * Firestore Path: groups/{groupId}/members/{userId}, users/{userId}/groups/{groupId},
+     *                 users/{userId}/unread/{groupId}/shards/*, groups/{groupId}, chats/{groupId}
+     * Operation: WriteBatch - (2 + UNREAD_COUNTER_SHARDS) delete + 2 update(arrayRemove)
+     */
+    @Override
+    public Task<Void> removeMemberFromGroup(String groupId, String userId) {
+        if (groupId == null || groupId.isEmpty() || userId == null || userId.isEmpty()) {
+            Log.e(TAG, "Cannot remove member: groupId or userId is null or empty");
+            return Tasks.forException(new IllegalArgumentException("groupId and userId must not be null or empty"));
+        }
+
+        WriteBatch batch = db.batch();
+        batch.delete(members(groupId).document(userId));
+        batch.delete(userGroups(userId).document(groupId));
+        deleteUnreadCounter(batch, userId, groupId);
+        batch.update(groups().document(groupId),
+                GroupMapper.FIELD_MEMBER_IDS, FieldValue.arrayRemove(userId),
+                GroupMapper.FIELD_UPDATED_AT, System.currentTimeMillis());
+        batch.update(db.collection(CHATS_COLLECTION).document(groupId),
+                ChatMapper.FIELD_PARTICIPANT_IDS, FieldValue.arrayRemove(userId));
+
+        return batch.commit()
+                .addOnSuccessListener(executor, aVoid -> {
+                    Log.d(TAG, "Removed member " + userId + " from group: " + groupId);
+                })
+                .addOnFailureListener(executor, e -> {
+                    Log.e(TAG, "Error removing member " + userId + " from group: " + groupId, e);
+                });
+    }
+
+    /**
+     * Add the member document and the matching per-user index entry to a batch.
+     */
+    private void putMembership(WriteBatch batch, String groupId, String userId, boolean isAdmin) {
+        Membership member = new Membership(userId, userId, groupId, isAdmin);
+        Membership indexEntry = new Membership(groupId, userId, groupId, isAdmin);
+        indexEntry.setJoinedAt(member.getJoinedAt());
+        batch.set(members(groupId).document(userId), MembershipMapper.toMap(member));
+        batch.set(userGroups(userId).document(groupId), MembershipMapper.toMap(indexEntry));
+    }
+
+    private CollectionReference groups() {
+        return db.collection(GROUPS_COLLECTION);
+    }
+
+    private CollectionReference members(String groupId) {
+        return groups().document(groupId).collection(MEMBERS_SUBCOLLECTION);
+    }
+
+    private CollectionReference userGroups(String userId) {
+        return db.collection(USERS_COLLECTION).document(userId).collection(USER_GROUPS_SUBCOLLECTION);
+    }
+}
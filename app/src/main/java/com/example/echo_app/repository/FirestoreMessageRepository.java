@@ -2,16 +2,37 @@ package com.example.echo_app.repository;
 
 import android.util.Log;
 
+import com.example.echo_app.data.FirestoreConstants;
+import com.example.echo_app.data.mapper.ChatMapper;
+import com.example.echo_app.data.mapper.MessageMapper;
+import com.example.echo_app.model.Chat;
+import com.example.echo_app.model.DeliveryStatus;
 import com.example.echo_app.model.Message;
+import com.example.echo_app.utils.CollectionUtils;
+import com.example.echo_app.utils.MessageIdGenerator;
+import com.example.echo_app.utils.SerialExecutor;
 import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.ListenerRegistration;
 import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * FirestoreMessageRepository.java
@@ -26,13 +47,23 @@ import java.util.List;
  * - Firebase Firestore as data source
  * - Subcollection queries for message organization
  * - Message ordering by timestamp
+ * - Cursor-based pagination (newest window first)
+ * - Real-time listeners emitting incremental changes
+ * - Client-generated, time-ordered message IDs (idempotent set() instead of add())
+ * - Message and chat preview (lastMessage*) written in one transaction; the preview only moves forward
+ * - Recipients' unread counters incremented in the same transaction, from the chat's participants
+ * - Sends are transactions rather than WriteBatches because they read first (chat preview,
+ *   participants, whether the message exists); offline they fail at once and the
+ *   MessageOutbox retries them
+ * - Batched, monotonic delivery-status updates (one transaction per 500 messages)
  * - Asynchronous operations using Task API
- * - Automatic serialization/deserialization of Message POJOs
+ * - Continuations run on an injected background executor, never the main thread
+ * - Reflection-free encoding via MessageMapper (no toObject()/set(pojo))
  * - Comprehensive error handling and logging
  * - Collection reference constants for maintainability
  *
  * Usage:
- * MessageRepository messageRepository = new FirestoreMessageRepository();
+ * MessageRepository messageRepository = AppModule.getInstance().getMessageRepository();
  * messageRepository.getMessagesByChatId("chatId123")
  *     .addOnSuccessListener(messages -> { /* handle messages * })
  *     .addOnFailureListener(e -> { /* handle error *});
@@ -44,13 +75,19 @@ public class FirestoreMessageRepository implements MessageRepository {
     private static final String MESSAGES_SUBCOLLECTION = "messages";
 
     private final FirebaseFirestore db;
+    private final Executor executor;
 
     /**
-     * Default constructor.
-     * Initializes Firebase Firestore instance for database operations.
+     * Constructor with injectable dependencies.
+     * AppModule supplies the shared instances; tests pass their own.
+     *
+     * @param db Firestore instance
+     * @param executor Executor for deserialization and mapping continuations;
+     *                 must not be the main thread executor
      */
-    public FirestoreMessageRepository() {
-        this.db = FirebaseFirestore.getInstance();
+    public FirestoreMessageRepository(FirebaseFirestore db, Executor executor) {
+        this.db = db;
+        this.executor = executor;
     }
 
     /**
@@ -58,7 +95,7 @@ public class FirestoreMessageRepository implements MessageRepository {
      *
      * Fetches all message documents from a chat's subcollection.
      * Messages are ordered by timestamp in ascending order (oldest first).
-     * For large message volumes, consider implementing pagination.
+     * For large message volumes, use getMessagesPage() instead.
      *
      * @param chatId The unique identifier of the chat
      * @return Task<List<Message>> - Task that completes with a list of Message objects
@@ -82,7 +119,7 @@ public class FirestoreMessageRepository implements MessageRepository {
                 .collection(MESSAGES_SUBCOLLECTION)
                 .orderBy("timestamp", Query.Direction.ASCENDING)
                 .get()
-                .continueWith(task -> {
+                .continueWith(executor, task -> {
                     if (!task.isSuccessful()) {
                         Exception exception = task.getException();
                         Log.e(TAG, "Error fetching messages for chat: " + chatId, exception);
@@ -98,7 +135,7 @@ public class FirestoreMessageRepository implements MessageRepository {
                     List<Message> messageList = new ArrayList<>();
 
                     for (DocumentSnapshot document : querySnapshot.getDocuments()) {
-                        Message message = document.toObject(Message.class);
+                        Message message = MessageMapper.fromSnapshot(document);
                         if (message != null) {
                             messageList.add(message);
                         }
@@ -110,18 +147,294 @@ public class FirestoreMessageRepository implements MessageRepository {
     }
 
     /**
-     * Send a new message to a chat.
+     * Retrieve one page of messages for a chat, newest window first.
+     *
+     * Queries in descending (timestamp, documentId) order so the first page holds the
+     * most recent messages, then reverses each page so callers receive oldest first.
+     * One extra document is requested to detect whether an older page exists without
+     * issuing a trailing empty query.
+     *
+     * @param chatId The unique identifier of the chat
+     * @param pageSize Maximum number of messages in the page (must be positive)
+     * @param cursor Opaque cursor from a previous page, or null for the newest page
+     * @return Task<Page<Message>> - Task that completes with the page of messages,
+     *         or fails with an exception on error
+     *
+     * Firestore Path: chats/{chatId}/messages/
+     * Query: orderBy(timestamp desc, documentId desc).startAfter(cursor).limit(pageSize + 1)
+     * Index Required: Composite index on (timestamp desc, __name__ desc)
+     */
+    @Override
+    public Task<Page<Message>> getMessagesPage(String chatId, int pageSize, String cursor) {
+        if (chatId == null || chatId.isEmpty()) {
+            Log.e(TAG, "Cannot get message page: chatId is null or empty");
+            return Tasks.forException(new IllegalArgumentException("chatId must not be null or empty"));
+        }
+
+        if (pageSize <= 0) {
+            Log.e(TAG, "Cannot get message page: invalid pageSize " + pageSize);
+            return Tasks.forException(new IllegalArgumentException("pageSize must be positive"));
+        }
+
+        Query query = db.collection(CHATS_COLLECTION)
+                .document(chatId)
+                .collection(MESSAGES_SUBCOLLECTION)
+                .orderBy("timestamp", Query.Direction.DESCENDING)
+                .orderBy(FieldPath.documentId(), Query.Direction.DESCENDING);
+
+        if (cursor != null) {
+            try {
+                PageCursor pageCursor = PageCursor.decode(cursor);
+                query = query.startAfter(pageCursor.getTimestamp(), pageCursor.getDocumentId());
+            } catch (IllegalArgumentException e) {
+                Log.e(TAG, "Cannot get message page: invalid cursor " + cursor, e);
+                return Tasks.forException(e);
+            }
+        }
+
+        Log.d(TAG, "Fetching message page for chat: " + chatId + " (size " + pageSize + ")");
+
+        return query.limit(pageSize + 1L)
+                .get()
+                .continueWith(executor, task -> {
+                    if (!task.isSuccessful()) {
+                        Exception exception = task.getException();
+                        Log.e(TAG, "Error fetching message page for chat: " + chatId, exception);
+                        throw exception != null ? exception : new Exception("Unknown error");
+                    }
+
+                    QuerySnapshot querySnapshot = task.getResult();
+                    if (querySnapshot == null) {
+                        Log.e(TAG, "QuerySnapshot is null for chat: " + chatId);
+                        throw new Exception("QuerySnapshot is null");
+                    }
+
+                    List<DocumentSnapshot> documents = querySnapshot.getDocuments();
+                    boolean hasMore = documents.size() > pageSize;
+                    int count = Math.min(documents.size(), pageSize);
+
+                    List<Message> messageList = new ArrayList<>(count);
+                    String nextCursor = null;
+
+                    // Documents arrive newest first; walk backwards to return oldest first
+                    for (int i = count - 1; i >= 0; i--) {
+                        DocumentSnapshot document = documents.get(i);
+                        Message message = MessageMapper.fromSnapshot(document);
+                        if (message != null) {
+                            messageList.add(message);
+                        }
+                    }
+
+                    if (hasMore) {
+                        DocumentSnapshot oldest = documents.get(count - 1);
+                        Long timestamp = oldest.getLong("timestamp");
+                        nextCursor = PageCursor.forTimestamp(
+                                timestamp != null ? timestamp : 0L, oldest.getId()).encode();
+                    }
+
+                    Log.d(TAG, "Fetched page of " + messageList.size() + " messages for chat: "
+                            + chatId + (hasMore ? " (more available)" : " (end of history)"));
+                    return new Page<>(messageList, nextCursor);
+                });
+    }
+
+    /**
+     * Retrieve messages of a chat at or after a timestamp.
+     *
+     * Fetches only documents whose timestamp is greater than or equal to sinceTimestamp.
+     * Used by CachingMessageRepository to download new traffic since its high-water mark.
+     *
+     * @param chatId The unique identifier of the chat
+     * @param sinceTimestamp Inclusive lower bound on the timestamp field
+     * @return Task<List<Message>> - Task that completes with the matching messages
+     *         ordered by timestamp ascending, or fails with an exception on error
+     *
+     * Firestore Path: chats/{chatId}/messages/
+     * Query: whereGreaterThanOrEqualTo("timestamp", sinceTimestamp).orderBy("timestamp")
+     */
+    @Override
+    public Task<List<Message>> getMessagesSince(String chatId, long sinceTimestamp) {
+        if (chatId == null || chatId.isEmpty()) {
+            Log.e(TAG, "Cannot get messages: chatId is null or empty");
+            return Tasks.forException(new IllegalArgumentException("chatId must not be null or empty"));
+        }
+
+        Log.d(TAG, "Fetching messages for chat: " + chatId + " since " + sinceTimestamp);
+
+        return db.collection(CHATS_COLLECTION)
+                .document(chatId)
+                .collection(MESSAGES_SUBCOLLECTION)
+                .whereGreaterThanOrEqualTo("timestamp", sinceTimestamp)
+                .orderBy("timestamp", Query.Direction.ASCENDING)
+                .get()
+                .continueWith(executor, task -> {
+                    if (!task.isSuccessful()) {
+                        Exception exception = task.getException();
+                        Log.e(TAG, "Error fetching messages since " + sinceTimestamp + " for chat: " + chatId, exception);
+                        throw exception != null ? exception : new Exception("Unknown error");
+                    }
+
+                    QuerySnapshot querySnapshot = task.getResult();
+                    if (querySnapshot == null) {
+                        Log.e(TAG, "QuerySnapshot is null for chat: " + chatId);
+                        throw new Exception("QuerySnapshot is null");
+                    }
+
+                    List<Message> messageList = new ArrayList<>();
+
+                    for (DocumentSnapshot document : querySnapshot.getDocuments()) {
+                        Message message = MessageMapper.fromSnapshot(document);
+                        if (message != null) {
+                            messageList.add(message);
+                        }
+                    }
+
+                    Log.d(TAG, "Fetched " + messageList.size() + " new messages for chat: " + chatId);
+                    return messageList;
+                });
+    }
+
+    /**
+     * Retrieve messages of a chat that reached the server at or after a server time.
+     *
+     * @param chatId The unique identifier of the chat
+     * @param receivedSince Inclusive lower bound on Message.receivedAt (epoch millis)
+     * @return Task<List<Message>> - Task that completes with the matching messages ordered by receivedAt
+     *
+     * Firestore Path: chats/{chatId}/messages
+     * Operation: Query - whereGreaterThanOrEqualTo(receivedAt).orderBy(receivedAt) (single-field index)
+     */
+    @Override
+    public Task<List<Message>> getMessagesReceivedSince(String chatId, long receivedSince) {
+        if (chatId == null || chatId.isEmpty()) {
+            Log.e(TAG, "Cannot get messages: chatId is null or empty");
+            return Tasks.forException(new IllegalArgumentException("chatId must not be null or empty"));
+        }
+
+        Log.d(TAG, "Fetching messages for chat: " + chatId + " received since " + receivedSince);
+
+        return db.collection(CHATS_COLLECTION)
+                .document(chatId)
+                .collection(MESSAGES_SUBCOLLECTION)
+                .whereGreaterThanOrEqualTo(MessageMapper.FIELD_RECEIVED_AT, new Timestamp(new Date(receivedSince)))
+                .orderBy(MessageMapper.FIELD_RECEIVED_AT, Query.Direction.ASCENDING)
+                .get()
+                .continueWith(executor, task -> {
+                    if (!task.isSuccessful()) {
+                        Exception exception = task.getException();
+                        Log.e(TAG, "Error fetching messages received since " + receivedSince + " for chat: " + chatId,
+                                exception);
+                        throw exception != null ? exception : new Exception("Unknown error");
+                    }
+
+                    List<Message> messageList = new ArrayList<>();
+                    for (DocumentSnapshot document : task.getResult().getDocuments()) {
+                        Message message = MessageMapper.fromSnapshot(document);
+                        if (message != null) {
+                            messageList.add(message);
+                        }
+                    }
+
+                    Log.d(TAG, "Fetched " + messageList.size() + " newly received messages for chat: " + chatId);
+                    return messageList;
+                });
+    }
+
+    /**
+     * Listen to real-time message changes in a chat.
+     *
+     * Wraps addSnapshotListener and converts each snapshot's DocumentChange list into
+     * Change<Message> objects, so only the delta is deserialized and delivered.
+     * Snapshots without document changes (e.g. metadata-only) are not forwarded.
+     * Callbacks run on the background executor, serialized per listener so change
+     * batches are never reordered.
+     *
+     * @param chatId The unique identifier of the chat
+     * @param sinceTimestamp Inclusive lower bound on the timestamp field
+     * @param listener Callback receiving change batches
+     * @return ListenerRegistration - Handle used to detach the listener
+     *
+     * Firestore Path: chats/{chatId}/messages/
+     * Query: whereGreaterThanOrEqualTo("timestamp", sinceTimestamp).orderBy("timestamp")
+     */
+    @Override
+    public ListenerRegistration listenToMessages(String chatId, long sinceTimestamp,
+                                                 ChangeListener<Message> listener) {
+        if (chatId == null || chatId.isEmpty() || listener == null) {
+            throw new IllegalArgumentException("chatId and listener must not be null or empty");
+        }
+
+        Log.d(TAG, "Listening to messages for chat: " + chatId + " since " + sinceTimestamp);
+
+        return db.collection(CHATS_COLLECTION)
+                .document(chatId)
+                .collection(MESSAGES_SUBCOLLECTION)
+                .whereGreaterThanOrEqualTo("timestamp", sinceTimestamp)
+                .orderBy("timestamp", Query.Direction.ASCENDING)
+                .addSnapshotListener(new SerialExecutor(executor), (querySnapshot, error) -> {
+                    if (error != null) {
+                        Log.e(TAG, "Message listener failed for chat: " + chatId, error);
+                        listener.onError(error);
+                        return;
+                    }
+
+                    if (querySnapshot == null) {
+                        return;
+                    }
+
+                    List<DocumentChange> documentChanges = querySnapshot.getDocumentChanges();
+                    if (documentChanges.isEmpty()) {
+                        return;
+                    }
+
+                    List<Change<Message>> changes = new ArrayList<>(documentChanges.size());
+                    for (DocumentChange documentChange : documentChanges) {
+                        DocumentSnapshot document = documentChange.getDocument();
+                        Message message = MessageMapper.fromSnapshot(document);
+                        if (message == null) {
+                            continue;
+                        }
+                        changes.add(new Change<>(toChangeType(documentChange.getType()), message));
+                    }
+
+                    Log.d(TAG, "Delivering " + changes.size() + " message changes for chat: " + chatId);
+                    listener.onChanges(changes);
+                });
+    }
+
+    /**
+     * Send a new message to a chat and update the chat's preview atomically.
      *
-     * Creates a new message document in the chat's messages subcollection.
-     * The message ID is auto-generated by Firestore.
-     * The deliveryStatus should be set to "sent" in the Message object before calling.
+     * The message is written to a client-generated document ID with set(merge). If the
+     * message has no ID yet, one is generated with MessageIdGenerator and stored in
+     * message.id before the write is issued, so the caller can key optimistic UI on it
+     * immediately. Re-sending the same message overwrites the document instead of
+     * creating a duplicate. deliveryStatus is not written (a missing status reads as
+     * "sent"), so a re-send never resets an acknowledgement.
+     *
+     * In the same transaction, the parent chat's lastMessageId, lastMessageText,
+     * lastMessageTimestamp and updatedAt are updated, so the chat list can be rendered
+     * from the chats collection alone. Either both writes land or neither does. The
+     * preview is only moved forward: a message older than the chat's current
+     * lastMessageTimestamp (a late retry) leaves it alone. A missing chat fails the
+     * send with NOT_FOUND instead of creating an orphaned chat document.
+     *
+     * Unless the chat is a broadcast, the transaction also increments the unread
+     * counter of every participant listed in the chat document other than the sender,
+     * unless the message document already exists (a re-send counts nothing).
+     *
+     * These reads are why the send is a transaction and not a WriteBatch. The cost is
+     * that it is not queued offline: runTransaction() fails while the device is offline,
+     * so nothing is written locally and the caller (MessageOutbox) retries later.
      *
      * @param message The Message object to send
-     * @return Task<Void> - Task that completes when the message is successfully added,
+     * @return Task<Void> - Task that completes when the transaction is committed,
      *         or fails with an exception on error
      *
-     * Firestore Path: chats/{message.chatId}/messages/
-     * Operation: Add (create new document with auto-generated ID)
+     * Firestore Path: chats/{message.chatId}/messages/{message.id} and chats/{message.chatId}
+     * Operation: Transaction - get(chat) + get(message), set(message without deliveryStatus, merge)
+     *            + update(preview fields)
+     *            + unread shard increment per recipient
      * Prerequisites: message.chatId must reference an existing chat
      */
     @Override
@@ -131,26 +444,207 @@ public class FirestoreMessageRepository implements MessageRepository {
             return Tasks.forException(new IllegalArgumentException("Message and chatId must not be null"));
         }
 
-        Log.d(TAG, "Sending message to chat: " + message.getChatId());
+        if (message.getId() == null || message.getId().isEmpty()) {
+            message.setId(MessageIdGenerator.getInstance().next());
+        }
+        String messageId = message.getId();
+
+        Log.d(TAG, "Sending message " + messageId + " to chat: " + message.getChatId());
+
+        return commitChunk(Collections.singletonList(message))
+                .addOnSuccessListener(executor, aVoid -> {
+                    Log.d(TAG, "Message sent successfully with ID: " + messageId);
+                })
+                .addOnFailureListener(executor, e -> {
+                    Log.e(TAG, "Error sending message to chat: " + message.getChatId(), e);
+                });
+    }
+
+    /**
+     * Write client-identified messages in sequential transactional chunks.
+     *
+     * All messages are validated before any write is issued. Chunks are committed one
+     * after another, so a failure never leaves a later message written ahead of an
+     * earlier one; because every write is a set(merge) on a fixed document ID that
+     * leaves deliveryStatus alone, retrying the whole list is idempotent and never
+     * undoes an acknowledgement.
+     *
+     * Each chunk is one transaction that also updates the preview fields of every chat
+     * it touches from that chat's newest message in the chunk, unless the chat already
+     * shows a newer message. A chunk holds at most half of the batch limit in messages,
+     * so messages plus chat previews never exceed 500 operations. A chunk addressed to a
+     * missing chat fails with NOT_FOUND.
+     *
+     * The same transaction increments the unread counter of every participant of a
+     * non-broadcast chat other than the sender, taking the participants from the chat
+     * document it read. It also reads each message document and counts only messages
+     * that do not exist yet, so a retry after a timeout or a lost commit response does
+     * not count a message twice. Increments that would exceed the batch limit are written in
+     * follow-up batches once the chunk has committed.
+     *
+     * @param messages Messages to write (each must have id and chatId set)
+     * @return Task<Void> - Task that completes when every chunk has been committed,
+     *         or fails with the first chunk error
+     *
+     * Firestore Path: chats/{message.chatId}/messages/{message.id} and chats/{message.chatId}
+     * Operation: Transaction per 250 messages - get(chat) per chat, get + set(message, merge) per message,
+     *            update(preview) per chat where it moves forward, unread shard increment per recipient
+     */
+    @Override
+    public Task<Void> sendMessages(List<Message> messages) {
+        if (messages == null) {
+            Log.e(TAG, "Cannot send messages: list is null");
+            return Tasks.forException(new IllegalArgumentException("messages must not be null"));
+        }
+
+        for (Message message : messages) {
+            if (message == null || message.getChatId() == null || message.getChatId().isEmpty()
+                    || message.getId() == null || message.getId().isEmpty()) {
+                Log.e(TAG, "Cannot send messages: a message is null or has no id/chatId");
+                return Tasks.forException(new IllegalArgumentException("Every message must have an id and chatId"));
+            }
+        }
+
+        int chunkSize = FirestoreConstants.MAX_BATCH_OPERATIONS / 2;
+        Task<Void> chain = Tasks.forResult(null);
+        for (List<Message> chunk : CollectionUtils.partition(messages, chunkSize)) {
+            chain = chain.onSuccessTask(Runnable::run, ignored -> commitChunk(chunk));
+        }
 
+        Log.d(TAG, "Sending " + messages.size() + " message(s)");
+
+        return chain
+                .addOnSuccessListener(executor, aVoid -> {
+                    Log.d(TAG, "Messages sent successfully: " + messages.size());
+                })
+                .addOnFailureListener(executor, e -> {
+                    Log.e(TAG, "Error sending messages", e);
+                });
+    }
+
+    /**
+     * Commit one chunk of messages together with the preview of each chat it touches.
+     */
+    private Task<Void> commitChunk(List<Message> chunk) {
+        Map<String, Message> newestByChat = new HashMap<>();
+        for (Message message : chunk) {
+            Message newest = newestByChat.get(message.getChatId());
+            if (newest == null || message.getTimestamp() >= newest.getTimestamp()) {
+                newestByChat.put(message.getChatId(), message);
+            }
+        }
+
+        return db.runTransaction(transaction -> {
+            // Firestore transactions require every read before the first write
+            Map<String, DocumentSnapshot> chats = new HashMap<>();
+            for (String chatId : newestByChat.keySet()) {
+                DocumentSnapshot chat = transaction.get(db.collection(CHATS_COLLECTION).document(chatId));
+                if (!chat.exists()) {
+                    throw new FirebaseFirestoreException("Chat not found: " + chatId,
+                            FirebaseFirestoreException.Code.NOT_FOUND);
+                }
+                chats.put(chatId, chat);
+            }
+            // Only messages not stored yet are counted, so a retried send is not counted twice
+            List<Message> fresh = new ArrayList<>(chunk.size());
+            for (Message message : chunk) {
+                if (!transaction.get(messageRef(message)).exists()) {
+                    fresh.add(message);
+                }
+            }
+
+            for (Message message : chunk) {
+                transaction.set(messageRef(message), MessageMapper.toSendMap(message), SetOptions.merge());
+            }
+            for (Message newest : newestByChat.values()) {
+                DocumentSnapshot chat = chats.get(newest.getChatId());
+                Long shown = chat.getLong(ChatMapper.FIELD_LAST_MESSAGE_TIMESTAMP);
+                if (shown == null || newest.getTimestamp() >= shown) {
+                    transaction.update(chat.getReference(), ChatMapper.toPreviewMap(newest));
+                }
+            }
+
+            // Recipients come from the chat documents just read, so they match the membership
+            // at commit time; increments that do not fit the batch limit follow the commit
+            int budget = FirestoreConstants.MAX_BATCH_OPERATIONS - chunk.size() - chats.size();
+            Map<String, Map<String, Long>> deferred = new HashMap<>();
+            for (DocumentSnapshot snapshot : chats.values()) {
+                Chat chat = ChatMapper.fromSnapshot(snapshot);
+                Map<String, Long> deltas = unreadDeltas(chat, fresh);
+                if (deltas.size() <= budget) {
+                    for (Map.Entry<String, Long> delta : deltas.entrySet()) {
+                        FirestoreUnreadCounterRepository.unreadCounter(db, delta.getKey(), chat.getId())
+                                .increment(transaction, delta.getValue());
+                    }
+                    budget -= deltas.size();
+                } else {
+                    deferred.put(chat.getId(), deltas);
+                }
+            }
+            return deferred;
+        }).onSuccessTask(executor, this::incrementDeferred);
+    }
+
+    private DocumentReference messageRef(Message message) {
         return db.collection(CHATS_COLLECTION)
                 .document(message.getChatId())
                 .collection(MESSAGES_SUBCOLLECTION)
-                .add(message)
-                .continueWith(task -> {
-                    if (!task.isSuccessful()) {
-                        Exception exception = task.getException();
-                        Log.e(TAG, "Error sending message to chat: " + message.getChatId(), exception);
-                        throw exception != null ? exception : new Exception("Unknown error");
-                    }
+                .document(message.getId());
+    }
 
-                    com.google.firebase.firestore.DocumentReference result = task.getResult();
-                    if (result != null) {
-                        String messageId = result.getId();
-                        Log.d(TAG, "Message sent successfully with ID: " + messageId);
-                    }
-                    return null;
-                });
+    /**
+     * Count, per recipient, the given messages in a chat that someone else sent.
+     * Broadcast chats keep no unread counters.
+     */
+    private static Map<String, Long> unreadDeltas(Chat chat, List<Message> chunk) {
+        Map<String, Long> deltas = new HashMap<>();
+        if (chat == null || chat.isBroadcast() || chat.getParticipantIds() == null) {
+            return deltas;
+        }
+        for (Message message : chunk) {
+            if (!chat.getId().equals(message.getChatId())) {
+                continue;
+            }
+            for (String participantId : chat.getParticipantIds()) {
+                if (!participantId.equals(message.getSenderId())) {
+                    deltas.merge(participantId, 1L, Long::sum);
+                }
+            }
+        }
+        return deltas;
+    }
+
+    /**
+     * Write the unread increments that did not fit into a chunk's transaction, 500 per batch.
+     *
+     * A failure here is logged rather than reported: the messages are already committed,
+     * and failing the send would make the outbox re-send them and count them twice.
+     */
+    private Task<Void> incrementDeferred(Map<String, Map<String, Long>> deferred) {
+        if (deferred.isEmpty()) {
+            return Tasks.forResult(null);
+        }
+
+        List<Task<Void>> commits = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Long>> chat : deferred.entrySet()) {
+            List<Map.Entry<String, Long>> deltas = new ArrayList<>(chat.getValue().entrySet());
+            for (List<Map.Entry<String, Long>> part
+                    : CollectionUtils.partition(deltas, FirestoreConstants.MAX_BATCH_OPERATIONS)) {
+                WriteBatch batch = db.batch();
+                for (Map.Entry<String, Long> delta : part) {
+                    FirestoreUnreadCounterRepository.unreadCounter(db, delta.getKey(), chat.getKey())
+                            .increment(batch, delta.getValue());
+                }
+                commits.add(batch.commit());
+            }
+        }
+
+        return Tasks.whenAll(commits).continueWith(executor, task -> {
+            if (!task.isSuccessful()) {
+                Log.e(TAG, "Error incrementing unread counters after send", task.getException());
+            }
+            return null;
+        });
     }
 
     /**
@@ -198,14 +692,122 @@ public class FirestoreMessageRepository implements MessageRepository {
                 .collection(MESSAGES_SUBCOLLECTION)
                 .document(actualMessageId)
                 .update("deliveryStatus", newStatus)
-                .addOnSuccessListener(aVoid -> {
+                .addOnSuccessListener(executor, aVoid -> {
                     Log.d(TAG, "Message status updated successfully: " + messageId);
                 })
-                .addOnFailureListener(e -> {
+                .addOnFailureListener(executor, e -> {
                     Log.e(TAG, "Error updating message status: " + messageId, e);
                 });
     }
 
+    /**
+     * Advance the delivery status of many messages, never moving one backwards.
+     *
+     * All IDs and statuses are validated before any write is issued. Entries are split
+     * into chunks of at most 500, each applied in one transaction that reads the current
+     * statuses and updates only messages whose status actually advances. A late
+     * "delivered" from another device therefore cannot overwrite "seen", and messages
+     * deleted in the meantime are skipped instead of failing the whole chunk.
+     * Chunks are committed concurrently.
+     *
+     * @param statusByMessageId Map of "chatId/messageId" → new status ("delivered" or "seen")
+     * @return Task<Void> - Task that completes when every chunk has been committed,
+     *         or fails with the first chunk error
+     *
+     * Firestore Path: chats/{chatId}/messages/{messageId}
+     * Operation: Transaction per 500 messages - get() each, update("deliveryStatus")
+     *            only where the status rank increases
+     */
+    @Override
+    public Task<Void> updateMessageStatuses(Map<String, String> statusByMessageId) {
+        if (statusByMessageId == null) {
+            Log.e(TAG, "Cannot update message statuses: map is null");
+            return Tasks.forException(new IllegalArgumentException("statusByMessageId must not be null"));
+        }
+
+        if (statusByMessageId.isEmpty()) {
+            return Tasks.forResult(null);
+        }
+
+        List<DocumentReference> references = new ArrayList<>(statusByMessageId.size());
+        List<String> statuses = new ArrayList<>(statusByMessageId.size());
+
+        for (Map.Entry<String, String> entry : statusByMessageId.entrySet()) {
+            String[] parts = entry.getKey() != null ? entry.getKey().split("/") : new String[0];
+            if (parts.length != 2) {
+                Log.e(TAG, "Invalid messageId format. Expected: 'chatId/messageId', got: " + entry.getKey());
+                return Tasks.forException(new IllegalArgumentException("messageId must be in format: 'chatId/messageId'"));
+            }
+
+            if (!DeliveryStatus.isAcknowledgement(entry.getValue())) {
+                Log.e(TAG, "Invalid acknowledgement for " + entry.getKey() + ": " + entry.getValue());
+                return Tasks.forException(new IllegalArgumentException("Invalid acknowledgement: " + entry.getValue()));
+            }
+
+            references.add(db.collection(CHATS_COLLECTION)
+                    .document(parts[0])
+                    .collection(MESSAGES_SUBCOLLECTION)
+                    .document(parts[1]));
+            statuses.add(entry.getValue());
+        }
+
+        List<Task<Integer>> commits = new ArrayList<>();
+        for (int start = 0; start < references.size(); start += FirestoreConstants.MAX_BATCH_OPERATIONS) {
+            int end = Math.min(start + FirestoreConstants.MAX_BATCH_OPERATIONS, references.size());
+            commits.add(advanceStatuses(references.subList(start, end), statuses.subList(start, end)));
+        }
+
+        Log.d(TAG, "Updating " + references.size() + " message statuses in " + commits.size() + " transaction(s)");
+
+        return Tasks.<Integer>whenAllSuccess(commits)
+                .continueWith(executor, task -> {
+                    if (!task.isSuccessful()) {
+                        Exception exception = task.getException();
+                        Log.e(TAG, "Error updating message statuses", exception);
+                        throw exception != null ? exception : new Exception("Unknown error");
+                    }
+
+                    int written = 0;
+                    for (Integer count : task.getResult()) {
+                        written += count;
+                    }
+                    Log.d(TAG, "Message statuses updated: " + written + " of " + references.size()
+                            + " (others missing or already at that status)");
+                    return null;
+                });
+    }
+
+    /**
+     * Apply one chunk of status updates in a transaction, skipping missing messages and
+     * updates that would not advance the stored status.
+     *
+     * @return Task<Integer> - Number of messages actually updated
+     */
+    private Task<Integer> advanceStatuses(List<DocumentReference> references, List<String> statuses) {
+        return db.runTransaction(transaction -> {
+            // Firestore transactions require every read before the first write
+            List<DocumentSnapshot> snapshots = new ArrayList<>(references.size());
+            for (DocumentReference reference : references) {
+                snapshots.add(transaction.get(reference));
+            }
+
+            int written = 0;
+            for (int i = 0; i < references.size(); i++) {
+                DocumentSnapshot snapshot = snapshots.get(i);
+                if (!snapshot.exists()) {
+                    continue;
+                }
+                String current = snapshot.getString(MessageMapper.FIELD_DELIVERY_STATUS);
+                if (DeliveryStatus.rank(statuses.get(i)) <= DeliveryStatus.rank(current)) {
+                    continue;
+                }
+                transaction.update(references.get(i), MessageMapper.FIELD_DELIVERY_STATUS, statuses.get(i));
+                written++;
+            }
+            return written;
+        });
+    }
+
     /**
      * Delete a message from a chat.
      *
@@ -245,12 +847,26 @@ public class FirestoreMessageRepository implements MessageRepository {
                 .collection(MESSAGES_SUBCOLLECTION)
                 .document(actualMessageId)
                 .delete()
-                .addOnSuccessListener(aVoid -> {
+                .addOnSuccessListener(executor, aVoid -> {
                     Log.d(TAG, "Message deleted successfully: " + messageId);
                 })
-                .addOnFailureListener(e -> {
+                .addOnFailureListener(executor, e -> {
                     Log.e(TAG, "Error deleting message: " + messageId, e);
                 });
     }
-}
 
+    /**
+     * Map a Firestore DocumentChange type to the repository Change type.
+     */
+    private static Change.Type toChangeType(DocumentChange.Type type) {
+        switch (type) {
+            case ADDED:
+                return Change.Type.ADDED;
+            case REMOVED:
+                return Change.Type.REMOVED;
+            case MODIFIED:
+            default:
+                return Change.Type.MODIFIED;
+        }
+    }
+}
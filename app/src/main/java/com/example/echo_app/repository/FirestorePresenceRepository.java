@@ -0,0 +1,122 @@
+package com.example.echo_app.repository;
+
+import android.util.Log;
+
+import com.example.echo_app.data.FirestoreConstants;
+import com.example.echo_app.data.mapper.PresenceMapper;
+import com.example.echo_app.model.Presence;
+import com.example.echo_app.utils.CollectionUtils;
+import com.example.echo_app.utils.SerialExecutor;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * FirestorePresenceRepository.java
+ *
+ * Implementation of PresenceRepository using Firebase Firestore as the backend.
+ *
+ * Features:
+ * - Presence writes touch only isOnline and lastSeen (update(), never set())
+ * - One whereIn listener per 30 watched users, combined into a single registration
+ * - Callbacks run on the background executor, serialized across all chunks
+ *
+ * Usage:
+ * PresenceRepository presence = AppModule.getInstance().getPresenceRepository();
+ * ListenerRegistration registration = presence.listenToPresence(chat.getParticipantIds(), listener);
+ */
+public class FirestorePresenceRepository implements PresenceRepository {
+
+    private static final String TAG = "FirestorePresenceRepository";
+    private static final String USERS_COLLECTION = "users";
+
+    private final FirebaseFirestore db;
+    private final Executor executor;
+
+    /**
+     * Constructor with injectable dependencies.
+     * AppModule supplies the shared instances; tests pass their own.
+     *
+     * @param db Firestore instance
+     * @param executor Executor for listener callbacks; must not be the main thread executor
+     */
+    public FirestorePresenceRepository(FirebaseFirestore db, Executor executor) {
+        this.db = db;
+        this.executor = executor;
+    }
+
+    @Override
+    public Task<Void> setPresence(String userId, boolean online, long lastSeen) {
+        if (userId == null || userId.isEmpty()) {
+            Log.e(TAG, "Cannot set presence: userId is null or empty");
+            return Tasks.forException(new IllegalArgumentException("userId must not be null or empty"));
+        }
+
+        return db.collection(USERS_COLLECTION).document(userId)
+                .update(PresenceMapper.toMap(online, lastSeen))
+                .addOnFailureListener(executor, e -> {
+                    Log.e(TAG, "Error writing presence for user: " + userId, e);
+                });
+    }
+
+    @Override
+    public ListenerRegistration listenToPresence(Collection<String> userIds, ChangeListener<Presence> listener) {
+        if (userIds == null || listener == null) {
+            throw new IllegalArgumentException("userIds and listener must not be null");
+        }
+
+        // One serial executor for all chunks keeps callbacks ordered and non-overlapping
+        SerialExecutor callbackExecutor = new SerialExecutor(executor);
+        List<ListenerRegistration> registrations = new ArrayList<>();
+        for (List<String> chunk : CollectionUtils.partition(CollectionUtils.distinctIds(userIds),
+                FirestoreConstants.MAX_IN_QUERY_VALUES)) {
+            registrations.add(db.collection(USERS_COLLECTION)
+                    .whereIn(FieldPath.documentId(), chunk)
+                    .addSnapshotListener(callbackExecutor, (querySnapshot, error) -> {
+                        if (error != null) {
+                            Log.e(TAG, "Presence listener failed", error);
+                            listener.onError(error);
+                            return;
+                        }
+
+                        if (querySnapshot == null || querySnapshot.getDocumentChanges().isEmpty()) {
+                            return;
+                        }
+
+                        List<Change<Presence>> changes = new ArrayList<>();
+                        for (DocumentChange documentChange : querySnapshot.getDocumentChanges()) {
+                            Presence presence = PresenceMapper.fromSnapshot(documentChange.getDocument());
+                            if (presence == null) {
+                                continue;
+                            }
+                            switch (documentChange.getType()) {
+                                case REMOVED:
+                                    changes.add(Change.removed(presence));
+                                    break;
+                                case MODIFIED:
+                                    changes.add(Change.modified(presence));
+                                    break;
+                                default:
+                                    changes.add(Change.added(presence));
+                                    break;
+                            }
+                        }
+                        listener.onChanges(changes);
+                    }));
+        }
+
+        return () -> {
+            for (ListenerRegistration registration : registrations) {
+                registration.remove();
+            }
+        };
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.echo_app.repository;
+
+import android.util.Log;
+
+import com.example.echo_app.data.ShardedCounter;
+import com.example.echo_app.data.mapper.ReadReceiptMapper;
+import com.example.echo_app.model.ReadReceipt;
+import com.example.echo_app.utils.Constants;
+import com.example.echo_app.utils.SerialExecutor;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * FirestoreReceiptRepository.java
+ *
+ * Implementation of ReceiptRepository using Firebase Firestore as the backend.
+ *
+ * Each participant owns one document per chat: chats/{chatId}/receipts/{userId}.
+ * Watermarks are advanced inside a transaction so they stay monotonic even when
+ * several devices of the same user acknowledge concurrently, and a call that would
+ * not move a watermark forward performs no write at all.
+ *
+ * Features:
+ * - One write per chat open instead of one write per message
+ * - Monotonic watermarks (seen implies delivered)
+ * - Real-time receipt listener emitting incremental changes, capped for broadcast chats
+ * - Sharded per-message read counters for broadcast chats
+ * - Continuations run on an injected background executor, never the main thread
+ * - Reflection-free encoding via ReadReceiptMapper
+ *
+ * Usage:
+ * ReceiptRepository receipts = AppModule.getInstance().getReceiptRepository();
+ * receipts.markSeen("chatId123", currentUserId, newestVisibleMessage.getTimestamp());
+ */
+public class FirestoreReceiptRepository implements ReceiptRepository {
+
+    private static final String TAG = "FirestoreReceiptRepository";
+    private static final String CHATS_COLLECTION = "chats";
+    private static final String RECEIPTS_SUBCOLLECTION = "receipts";
+    private static final String MESSAGES_SUBCOLLECTION = "messages";
+    private static final String READ_SHARDS_SUBCOLLECTION = "readShards";
+
+    private final FirebaseFirestore db;
+    private final Executor executor;
+
+    /**
+     * Constructor with injectable dependencies.
+     * AppModule supplies the shared instances; tests pass their own.
+     *
+     * @param db Firestore instance
+     * @param executor Executor for mapping continuations; must not be the main thread executor
+     */
+    public FirestoreReceiptRepository(FirebaseFirestore db, Executor executor) {
+        this.db = db;
+        this.executor = executor;
+    }
+
+    @Override
+    public Task<Void> markDelivered(String chatId, String userId, long upToTimestamp) {
+        return advance(chatId, userId, upToTimestamp, false, null);
+    }
+
+    @Override
+    public Task<Void> markSeen(String chatId, String userId, long upToTimestamp) {
+        return advance(chatId, userId, upToTimestamp, true, null);
+    }
+
+    @Override
+    public Task<Void> markSeenBroadcast(String chatId, String userId, String messageId, long timestamp) {
+        if (messageId == null || messageId.isEmpty()) {
+            Log.e(TAG, "Cannot count read: messageId is null or empty");
+            return Tasks.forException(new IllegalArgumentException("messageId must not be null or empty"));
+        }
+        return advance(chatId, userId, timestamp, true, messageId);
+    }
+
+    /**
+     * Sum the read counter shards of a broadcast message.
+     *
+     * Firestore Path: chats/{chatId}/messages/{messageId}/readShards/
+     */
+    @Override
+    public Task<Long> getReadCount(String chatId, String messageId) {
+        if (chatId == null || chatId.isEmpty() || messageId == null || messageId.isEmpty()) {
+            Log.e(TAG, "Cannot get read count: chatId or messageId is null or empty");
+            return Tasks.forException(new IllegalArgumentException("chatId and messageId must not be null or empty"));
+        }
+        return readCounter(chatId, messageId).getCount(executor);
+    }
+
+    /**
+     * Advance the watermarks of one receipt inside a transaction.
+     *
+     * @param seen true to advance seenUpTo as well as deliveredUpTo
+     * @param readMessageId Broadcast message whose read counter is incremented when
+     *                      seenUpTo moves forward, or null to count nothing
+     *
+     * Firestore Path: chats/{chatId}/receipts/{userId}
+     * Operation: Transaction - one read, then one set() only if a watermark moves forward
+     *            (plus one shard increment for broadcast reads)
+     */
+    private Task<Void> advance(String chatId, String userId, long upToTimestamp, boolean seen,
+                               String readMessageId) {
+        if (chatId == null || chatId.isEmpty() || userId == null || userId.isEmpty()) {
+            Log.e(TAG, "Cannot update receipt: chatId or userId is null or empty");
+            return Tasks.forException(new IllegalArgumentException("chatId and userId must not be null or empty"));
+        }
+        if (upToTimestamp <= 0) {
+            Log.e(TAG, "Cannot update receipt: invalid timestamp " + upToTimestamp);
+            return Tasks.forException(new IllegalArgumentException("upToTimestamp must be positive"));
+        }
+
+        DocumentReference receiptRef = receipts(chatId).document(userId);
+
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot snapshot = transaction.get(receiptRef);
+            ReadReceipt current = ReadReceiptMapper.fromSnapshot(snapshot);
+            if (current == null) {
+                current = new ReadReceipt(userId, chatId, 0L, 0L);
+            }
+
+            long delivered = Math.max(current.getDeliveredUpTo(), upToTimestamp);
+            long seenUpTo = seen ? Math.max(current.getSeenUpTo(), upToTimestamp) : current.getSeenUpTo();
+            if (snapshot.exists() && delivered == current.getDeliveredUpTo() && seenUpTo == current.getSeenUpTo()) {
+                // Already at or past this point; no write
+                return false;
+            }
+
+            transaction.set(receiptRef, ReadReceiptMapper.toMap(new ReadReceipt(userId, chatId, delivered, seenUpTo)));
+            if (readMessageId != null && seenUpTo > current.getSeenUpTo()) {
+                readCounter(chatId, readMessageId).increment(transaction, 1L);
+            }
+            return true;
+        }).continueWith(executor, task -> {
+            if (!task.isSuccessful()) {
+                Exception exception = task.getException();
+                Log.e(TAG, "Error updating receipt for user: " + userId + " in chat: " + chatId, exception);
+                throw exception != null ? exception : new Exception("Unknown error");
+            }
+
+            if (Boolean.TRUE.equals(task.getResult())) {
+                Log.d(TAG, "Advanced " + (seen ? "seen" : "delivered") + " receipt to " + upToTimestamp
+                        + " for user: " + userId + " in chat: " + chatId);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Retrieve the receipts of all participants of a chat.
+     *
+     * Firestore Path: chats/{chatId}/receipts/
+     */
+    @Override
+    public Task<List<ReadReceipt>> getReceipts(String chatId) {
+        if (chatId == null || chatId.isEmpty()) {
+            Log.e(TAG, "Cannot get receipts: chatId is null or empty");
+            return Tasks.forException(new IllegalArgumentException("chatId must not be null or empty"));
+        }
+
+        return receipts(chatId)
+                .get()
+                .continueWith(executor, task -> {
+                    if (!task.isSuccessful()) {
+                        Exception exception = task.getException();
+                        Log.e(TAG, "Error fetching receipts for chat: " + chatId, exception);
+                        throw exception != null ? exception : new Exception("Unknown error");
+                    }
+
+                    QuerySnapshot querySnapshot = task.getResult();
+                    List<ReadReceipt> receiptList = new ArrayList<>();
+                    if (querySnapshot != null) {
+                        for (DocumentSnapshot document : querySnapshot.getDocuments()) {
+                            ReadReceipt receipt = ReadReceiptMapper.fromSnapshot(document);
+                            if (receipt != null) {
+                                receiptList.add(receipt);
+                            }
+                        }
+                    }
+                    return receiptList;
+                });
+    }
+
+    /**
+     * Listen to receipt changes in a chat.
+     * Callbacks run on the background executor, serialized per listener.
+     *
+     * Firestore Path: chats/{chatId}/receipts/
+     * Query Type: All receipts, or the RECEIPT_LISTENER_LIMIT furthest-seen ones in broadcast chats
+     */
+    @Override
+    public ListenerRegistration listenToReceipts(String chatId, boolean broadcast,
+                                                 ChangeListener<ReadReceipt> listener) {
+        if (chatId == null || chatId.isEmpty() || listener == null) {
+            throw new IllegalArgumentException("chatId and listener must not be null or empty");
+        }
+
+        Query query = receipts(chatId);
+        if (broadcast) {
+            query = query.orderBy(ReadReceiptMapper.FIELD_SEEN_UP_TO, Query.Direction.DESCENDING)
+                    .limit(Constants.RECEIPT_LISTENER_LIMIT);
+        }
+        return query.addSnapshotListener(new SerialExecutor(executor), (querySnapshot, error) -> {
+                    if (error != null) {
+                        Log.e(TAG, "Receipt listener failed for chat: " + chatId, error);
+                        listener.onError(error);
+                        return;
+                    }
+
+                    if (querySnapshot == null || querySnapshot.getDocumentChanges().isEmpty()) {
+                        return;
+                    }
+
+                    List<Change<ReadReceipt>> changes = new ArrayList<>();
+                    for (DocumentChange documentChange : querySnapshot.getDocumentChanges()) {
+                        ReadReceipt receipt = ReadReceiptMapper.fromSnapshot(documentChange.getDocument());
+                        if (receipt == null) {
+                            continue;
+                        }
+                        switch (documentChange.getType()) {
+                            case REMOVED:
+                                changes.add(Change.removed(receipt));
+                                break;
+                            case MODIFIED:
+                                changes.add(Change.modified(receipt));
+                                break;
+                            default:
+                                changes.add(Change.added(receipt));
+                                break;
+                        }
+                    }
+                    listener.onChanges(changes);
+                });
+    }
+
+    private CollectionReference receipts(String chatId) {
+        return db.collection(CHATS_COLLECTION).document(chatId).collection(RECEIPTS_SUBCOLLECTION);
+    }
+
+    private ShardedCounter readCounter(String chatId, String messageId) {
+        return new ShardedCounter(db.collection(CHATS_COLLECTION).document(chatId)
+                .collection(MESSAGES_SUBCOLLECTION).document(messageId)
+                .collection(READ_SHARDS_SUBCOLLECTION), Constants.BROADCAST_READ_COUNTER_SHARDS);
+    }
+}
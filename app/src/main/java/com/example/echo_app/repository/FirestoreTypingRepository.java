@@ -0,0 +1,125 @@
+package com.example.echo_app.repository;
+
+import android.util.Log;
+
+import com.example.echo_app.data.mapper.TypingStatusMapper;
+import com.example.echo_app.model.TypingStatus;
+import com.example.echo_app.utils.SerialExecutor;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * FirestoreTypingRepository.java
+ *
+ * Implementation of TypingRepository using Firebase Firestore as the backend.
+ *
+ * Features:
+ * - One tiny document per typist (userId, expiresAt); no cleanup writes by readers
+ * - One listener per open chat on the typing subcollection
+ * - Callbacks run on the background executor, serialized per listener
+ *
+ * Usage:
+ * TypingRepository typing = AppModule.getInstance().getTypingRepository();
+ * ListenerRegistration registration = typing.listenToTyping("chatId123", listener);
+ */
+public class FirestoreTypingRepository implements TypingRepository {
+
+    private static final String TAG = "FirestoreTypingRepository";
+    private static final String CHATS_COLLECTION = "chats";
+    private static final String TYPING_SUBCOLLECTION = "typing";
+
+    private final FirebaseFirestore db;
+    private final Executor executor;
+
+    /**
+     * Constructor with injectable dependencies.
+     * AppModule supplies the shared instances; tests pass their own.
+     *
+     * @param db Firestore instance
+     * @param executor Executor for listener callbacks; must not be the main thread executor
+     */
+    public FirestoreTypingRepository(FirebaseFirestore db, Executor executor) {
+        this.db = db;
+        this.executor = executor;
+    }
+
+    @Override
+    public Task<Void> setTyping(String chatId, String userId, long expiresAt) {
+        if (chatId == null || chatId.isEmpty() || userId == null || userId.isEmpty()) {
+            Log.e(TAG, "Cannot set typing: chatId or userId is null or empty");
+            return Tasks.forException(new IllegalArgumentException("chatId and userId must not be null or empty"));
+        }
+
+        return typing(chatId).document(userId)
+                .set(TypingStatusMapper.toMap(new TypingStatus(userId, chatId, expiresAt)))
+                .addOnFailureListener(executor, e -> {
+                    Log.e(TAG, "Error writing typing status for user: " + userId + " in chat: " + chatId, e);
+                });
+    }
+
+    @Override
+    public Task<Void> clearTyping(String chatId, String userId) {
+        if (chatId == null || chatId.isEmpty() || userId == null || userId.isEmpty()) {
+            Log.e(TAG, "Cannot clear typing: chatId or userId is null or empty");
+            return Tasks.forException(new IllegalArgumentException("chatId and userId must not be null or empty"));
+        }
+
+        return typing(chatId).document(userId)
+                .delete()
+                .addOnFailureListener(executor, e -> {
+                    Log.e(TAG, "Error clearing typing status for user: " + userId + " in chat: " + chatId, e);
+                });
+    }
+
+    @Override
+    public ListenerRegistration listenToTyping(String chatId, ChangeListener<TypingStatus> listener) {
+        if (chatId == null || chatId.isEmpty() || listener == null) {
+            throw new IllegalArgumentException("chatId and listener must not be null or empty");
+        }
+
+        return typing(chatId)
+                .addSnapshotListener(new SerialExecutor(executor), (querySnapshot, error) -> {
+                    if (error != null) {
+                        Log.e(TAG, "Typing listener failed for chat: " + chatId, error);
+                        listener.onError(error);
+                        return;
+                    }
+
+                    if (querySnapshot == null || querySnapshot.getDocumentChanges().isEmpty()) {
+                        return;
+                    }
+
+                    List<Change<TypingStatus>> changes = new ArrayList<>();
+                    for (DocumentChange documentChange : querySnapshot.getDocumentChanges()) {
+                        TypingStatus status = TypingStatusMapper.fromSnapshot(chatId, documentChange.getDocument());
+                        if (status == null) {
+                            continue;
+                        }
+                        switch (documentChange.getType()) {
+                            case REMOVED:
+                                changes.add(Change.removed(status));
+                                break;
+                            case MODIFIED:
+                                changes.add(Change.modified(status));
+                                break;
+                            default:
+                                changes.add(Change.added(status));
+                                break;
+                        }
+                    }
+                    listener.onChanges(changes);
+                });
+    }
+
+    private CollectionReference typing(String chatId) {
+        return db.collection(CHATS_COLLECTION).document(chatId).collection(TYPING_SUBCOLLECTION);
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.echo_app.repository;
+
+import android.util.Log;
+
+import com.example.echo_app.data.FirestoreConstants;
+import com.example.echo_app.data.ShardedCounter;
+import com.example.echo_app.utils.CollectionUtils;
+import com.example.echo_app.utils.Constants;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * FirestoreUnreadCounterRepository.java
+ *
+ * Implementation of UnreadCounterRepository using sharded counters in Firestore.
+ *
+ * Features:
+ * - Increments spread over Constants.UNREAD_COUNTER_SHARDS shards per (user, chat)
+ * - Fan-out increments batched 500 recipients per WriteBatch
+ * - Transactional reset that zeroes only shards holding a count
+ * - Counts for many chats read concurrently
+ * - Continuations run on an injected background executor, never the main thread
+ *
+ * Usage:
+ * UnreadCounterRepository unread = AppModule.getInstance().getUnreadCounterRepository();
+ * unread.getUnreadCount(currentUserId, chatId).addOnSuccessListener(count -> badge.setCount(count));
+ */
+public class FirestoreUnreadCounterRepository implements UnreadCounterRepository {
+
+    private static final String TAG = "FirestoreUnreadCounterRepository";
+    private static final String USERS_COLLECTION = "users";
+    private static final String UNREAD_SUBCOLLECTION = "unread";
+    private static final String SHARDS_SUBCOLLECTION = "shards";
+
+    private final FirebaseFirestore db;
+    private final Executor executor;
+
+    /**
+     * Constructor with injectable dependencies.
+     * AppModule supplies the shared instances; tests pass their own.
+     *
+     * @param db Firestore instance
+     * @param executor Executor for continuations; must not be the main thread executor
+     */
+    public FirestoreUnreadCounterRepository(FirebaseFirestore db, Executor executor) {
+        this.db = db;
+        this.executor = executor;
+    }
+
+    /**
+     * @deprecated Sends count unread in their own transaction; see UnreadCounterRepository.
+     */
+    @Deprecated
+    @Override
+    public Task<Void> incrementUnread(String chatId, Collection<String> recipientIds) {
+        if (chatId == null || chatId.isEmpty() || recipientIds == null) {
+            Log.e(TAG, "Cannot increment unread: chatId or recipientIds is null");
+            return Tasks.forException(new IllegalArgumentException("chatId and recipientIds must not be null"));
+        }
+
+        List<String> ids = CollectionUtils.distinctIds(recipientIds);
+        List<Task<Void>> commits = new ArrayList<>();
+        for (List<String> chunk : CollectionUtils.partition(ids, FirestoreConstants.MAX_BATCH_OPERATIONS)) {
+            WriteBatch batch = db.batch();
+            for (String userId : chunk) {
+                counter(userId, chatId).increment(batch, 1L);
+            }
+            commits.add(batch.commit());
+        }
+
+        return Tasks.whenAll(commits)
+                .addOnFailureListener(executor, e -> {
+                    Log.e(TAG, "Error incrementing unread counters of chat: " + chatId, e);
+                });
+    }
+
+    @Override
+    public Task<Void> markRead(String userId, String chatId) {
+        if (userId == null || userId.isEmpty() || chatId == null || chatId.isEmpty()) {
+            Log.e(TAG, "Cannot mark read: userId or chatId is null or empty");
+            return Tasks.forException(new IllegalArgumentException("userId and chatId must not be null or empty"));
+        }
+
+        List<DocumentReference> shardRefs = counter(userId, chatId).getShardReferences();
+        return db.runTransaction(transaction -> {
+            List<DocumentSnapshot> shards = new ArrayList<>(shardRefs.size());
+            for (DocumentReference shardRef : shardRefs) {
+                shards.add(transaction.get(shardRef));
+            }
+            for (DocumentSnapshot shard : shards) {
+                Long count = shard.getLong(ShardedCounter.FIELD_COUNT);
+                if (count != null && count != 0L) {
+                    transaction.set(shard.getReference(),
+                            Collections.singletonMap(ShardedCounter.FIELD_COUNT, 0L), SetOptions.merge());
+                }
+            }
+            return ShardedCounter.sum(shards);
+        }).continueWith(executor, task -> {
+            if (!task.isSuccessful()) {
+                Exception exception = task.getException();
+                Log.e(TAG, "Error resetting unread counter of user: " + userId + " in chat: " + chatId, exception);
+                throw exception != null ? exception : new Exception("Unknown error");
+            }
+            Log.d(TAG, "Cleared " + task.getResult() + " unread for user: " + userId + " in chat: " + chatId);
+            return null;
+        });
+    }
+
+    @Override
+    public Task<Long> getUnreadCount(String userId, String chatId) {
+        if (userId == null || userId.isEmpty() || chatId == null || chatId.isEmpty()) {
+            Log.e(TAG, "Cannot get unread count: userId or chatId is null or empty");
+            return Tasks.forException(new IllegalArgumentException("userId and chatId must not be null or empty"));
+        }
+
+        return counter(userId, chatId)
+                .getCount(executor)
+                .continueWith(executor, task -> {
+                    if (!task.isSuccessful()) {
+                        Exception exception = task.getException();
+                        throw exception != null ? exception : new Exception("Unknown error");
+                    }
+                    return Math.max(0L, task.getResult());
+                });
+    }
+
+    /**
+     * Read the counters of many chats concurrently (one shard query per chat).
+     */
+    @Override
+    public Task<Map<String, Long>> getUnreadCounts(String userId, Collection<String> chatIds) {
+        if (userId == null || userId.isEmpty() || chatIds == null) {
+            Log.e(TAG, "Cannot get unread counts: userId or chatIds is null");
+            return Tasks.forException(new IllegalArgumentException("userId and chatIds must not be null"));
+        }
+
+        List<String> ids = CollectionUtils.distinctIds(chatIds);
+        List<Task<Long>> reads = new ArrayList<>(ids.size());
+        for (String chatId : ids) {
+            reads.add(getUnreadCount(userId, chatId));
+        }
+
+        return Tasks.whenAllSuccess(reads)
+                .continueWith(executor, task -> {
+                    if (!task.isSuccessful()) {
+                        Exception exception = task.getException();
+                        Log.e(TAG, "Error reading unread counts of user: " + userId, exception);
+                        throw exception != null ? exception : new Exception("Unknown error");
+                    }
+
+                    Map<String, Long> counts = new LinkedHashMap<>();
+                    for (int i = 0; i < ids.size(); i++) {
+                        counts.put(ids.get(i), reads.get(i).getResult());
+                    }
+                    return counts;
+                });
+    }
+
+    private ShardedCounter counter(String userId, String chatId) {
+        return unreadCounter(db, userId, chatId);
+    }
+
+    /**
+     * The unread counter of one user in one chat.
+     * Shared with the repositories that write or delete it alongside their own documents.
+     *
+     * Firestore Path: users/{userId}/unread/{chatId}/shards/{0..UNREAD_COUNTER_SHARDS-1}
+     */
+    static ShardedCounter unreadCounter(FirebaseFirestore db, String userId, String chatId) {
+        return new ShardedCounter(db.collection(USERS_COLLECTION).document(userId)
+                .collection(UNREAD_SUBCOLLECTION).document(chatId)
+                .collection(SHARDS_SUBCOLLECTION), Constants.UNREAD_COUNTER_SHARDS);
+    }
+}
@@ -2,16 +2,27 @@ package com.example.echo_app.repository;
 
 import android.util.Log;
 
+import com.example.echo_app.data.FirestoreConstants;
+import com.example.echo_app.data.mapper.UserMapper;
 import com.example.echo_app.model.User;
+import com.example.echo_app.utils.CollectionUtils;
 import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.firestore.CollectionReference;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * FirestoreUserRepository.java
@@ -23,13 +34,19 @@ import java.util.List;
  *
  * Features:
  * - Firebase Firestore as data source
+ * - Batched multi-user lookups (parallel whereIn chunks)
+ * - Paged listing and prefix search on normalized name/email fields, which every
+ *   profile write stores; backfillSearchKeys() adds them to older documents
+ * - Profile updates never write presence (isOnline/lastSeen), which belongs to
+ *   PresenceRepository; updateUser(previous, updated) writes only the changed fields
  * - Asynchronous operations using Task API
- * - Automatic serialization/deserialization of User POJOs
+ * - Continuations run on an injected background executor, never the main thread
+ * - Reflection-free encoding via UserMapper (no toObject()/set(pojo))
  * - Comprehensive error handling and logging
  * - Collection reference constants for maintainability
  *
  * Usage:
- * UserRepository userRepository = new FirestoreUserRepository();
+ * UserRepository userRepository = AppModule.getInstance().getUserRepository();
  * userRepository.getUserById("uid123")
  *     .addOnSuccessListener(user -> { /* handle user */ })
  *     .addOnFailureListener(e -> { /* handle error */ });
@@ -40,13 +57,19 @@ public class FirestoreUserRepository implements UserRepository {
     private static final String USERS_COLLECTION = "users";
 
     private final FirebaseFirestore db;
+    private final Executor executor;
 
     /**
-     * Default constructor.
-     * Initializes Firebase Firestore instance for database operations.
+     * Constructor with injectable dependencies.
+     * AppModule supplies the shared instances; tests pass their own.
+     *
+     * @param db Firestore instance
+     * @param executor Executor for deserialization and mapping continuations;
+     *                 must not be the main thread executor
      */
-    public FirestoreUserRepository() {
-        this.db = FirebaseFirestore.getInstance();
+    public FirestoreUserRepository(FirebaseFirestore db, Executor executor) {
+        this.db = db;
+        this.executor = executor;
     }
 
     /**
@@ -70,7 +93,7 @@ public class FirestoreUserRepository implements UserRepository {
         return db.collection(USERS_COLLECTION)
                 .document(userId)
                 .get()
-                .continueWith(task -> {
+                .continueWith(executor, task -> {
                     if (!task.isSuccessful()) {
                         Exception exception = task.getException();
                         Log.e(TAG, "Error fetching user: " + userId, exception);
@@ -79,7 +102,7 @@ public class FirestoreUserRepository implements UserRepository {
 
                     DocumentSnapshot document = task.getResult();
                     if (document.exists()) {
-                        User user = document.toObject(User.class);
+                        User user = UserMapper.fromSnapshot(document);
                         Log.d(TAG, "User found: " + user.getDisplayName());
                         return user;
                     } else {
@@ -90,27 +113,266 @@ public class FirestoreUserRepository implements UserRepository {
                 });
     }
 
+    /**
+     * Retrieve many users by ID.
+     *
+     * Splits the distinct IDs into chunks of FirestoreConstants.MAX_IN_QUERY_VALUES
+     * and runs one whereIn(documentId) query per chunk in parallel.
+     *
+     * @param userIds The user IDs to resolve
+     * @return Task<Map<String, User>> - Task that completes with every requested ID in
+     *         request order (null for IDs without a document), or fails if any chunk fails
+     *
+     * Firestore Path: users/
+     * Query: whereIn(FieldPath.documentId(), chunk)
+     */
+    @Override
+    public Task<Map<String, User>> getUsersByIds(Collection<String> userIds) {
+        if (userIds == null) {
+            Log.e(TAG, "Cannot get users: userIds is null");
+            return Tasks.forException(new IllegalArgumentException("userIds must not be null"));
+        }
+
+        List<String> ids = CollectionUtils.distinctIds(userIds);
+        if (ids.isEmpty()) {
+            return Tasks.forResult(new LinkedHashMap<>());
+        }
+
+        List<Task<QuerySnapshot>> chunkTasks = new ArrayList<>();
+        for (List<String> chunk : CollectionUtils.partition(ids, FirestoreConstants.MAX_IN_QUERY_VALUES)) {
+            chunkTasks.add(db.collection(USERS_COLLECTION)
+                    .whereIn(FieldPath.documentId(), chunk)
+                    .get());
+        }
+
+        Log.d(TAG, "Fetching " + ids.size() + " users in " + chunkTasks.size() + " queries");
+
+        return Tasks.<QuerySnapshot>whenAllSuccess(chunkTasks)
+                .continueWith(executor, task -> {
+                    if (!task.isSuccessful()) {
+                        Exception exception = task.getException();
+                        Log.e(TAG, "Error fetching users by IDs", exception);
+                        throw exception != null ? exception : new Exception("Unknown error");
+                    }
+
+                    Map<String, User> usersById = new LinkedHashMap<>();
+                    for (String id : ids) {
+                        usersById.put(id, null);
+                    }
+
+                    for (QuerySnapshot chunkSnapshot : task.getResult()) {
+                        for (DocumentSnapshot document : chunkSnapshot.getDocuments()) {
+                            User user = UserMapper.fromSnapshot(document);
+                            if (user != null) {
+                                usersById.put(document.getId(), user);
+                            }
+                        }
+                    }
+                    return usersById;
+                });
+    }
+
+    /**
+     * Retrieve one page of users ordered by normalized display name.
+     *
+     * @param pageSize Maximum number of users in the page (must be positive)
+     * @param cursor Opaque cursor from a previous page, or null for the first page
+     * @return Task<Page<User>> - Task that completes with the page of users
+     *
+     * Firestore Path: users/
+     * Query: orderBy("displayNameLower").orderBy(documentId).startAfter(cursor).limit(pageSize + 1)
+     */
+    @Override
+    public Task<Page<User>> getUsersPage(int pageSize, String cursor) {
+        return queryPage(UserMapper.FIELD_DISPLAY_NAME_LOWER, null, pageSize, cursor);
+    }
+
+    /**
+     * Search users by case-insensitive prefix of display name or email.
+     *
+     * @param prefix The search prefix (matched against emailLower if it contains '@')
+     * @param pageSize Maximum number of users in the page (must be positive)
+     * @param cursor Opaque cursor from a previous page of the same search, or null
+     * @return Task<Page<User>> - Task that completes with the matching users
+     *
+     * Firestore Path: users/
+     * Query: whereGreaterThanOrEqualTo(field, prefix).whereLessThan(field, prefixEnd)
+     *        .orderBy(field).orderBy(documentId).startAfter(cursor).limit(pageSize + 1)
+     */
+    @Override
+    public Task<Page<User>> searchUsers(String prefix, int pageSize, String cursor) {
+        if (prefix == null) {
+            Log.e(TAG, "Cannot search users: prefix is null");
+            return Tasks.forException(new IllegalArgumentException("prefix must not be null"));
+        }
+
+        String normalized = User.normalize(prefix);
+        String field = normalized.indexOf('@') >= 0
+                ? UserMapper.FIELD_EMAIL_LOWER : UserMapper.FIELD_DISPLAY_NAME_LOWER;
+        return queryPage(field, normalized, pageSize, cursor);
+    }
+
+    /**
+     * Run a paged query over users ordered by a normalized string field,
+     * optionally restricted to values starting with a prefix.
+     * One extra document is requested to detect whether another page exists.
+     */
+    private Task<Page<User>> queryPage(String field, String prefix, int pageSize, String cursor) {
+        if (pageSize <= 0) {
+            Log.e(TAG, "Cannot query users: invalid pageSize " + pageSize);
+            return Tasks.forException(new IllegalArgumentException("pageSize must be positive"));
+        }
+
+        Query query = db.collection(USERS_COLLECTION);
+        if (prefix != null && !prefix.isEmpty()) {
+            query = query.whereGreaterThanOrEqualTo(field, prefix)
+                    .whereLessThan(field, prefixEnd(prefix));
+        }
+        query = query.orderBy(field).orderBy(FieldPath.documentId());
+
+        if (cursor != null) {
+            try {
+                PageCursor pageCursor = PageCursor.decode(cursor);
+                query = query.startAfter(pageCursor.getSortKey(), pageCursor.getDocumentId());
+            } catch (IllegalArgumentException e) {
+                Log.e(TAG, "Cannot query users: invalid cursor " + cursor, e);
+                return Tasks.forException(e);
+            }
+        }
+
+        Log.d(TAG, "Querying users by " + field + (prefix != null ? " with prefix '" + prefix + "'" : "")
+                + " (size " + pageSize + ")");
+
+        return query.limit(pageSize + 1L)
+                .get()
+                .continueWith(executor, task -> {
+                    if (!task.isSuccessful()) {
+                        Exception exception = task.getException();
+                        Log.e(TAG, "Error querying users by " + field, exception);
+                        throw exception != null ? exception : new Exception("Unknown error");
+                    }
+
+                    List<DocumentSnapshot> documents = task.getResult().getDocuments();
+                    boolean hasMore = documents.size() > pageSize;
+                    int count = Math.min(documents.size(), pageSize);
+
+                    List<User> userList = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        DocumentSnapshot document = documents.get(i);
+                        User user = UserMapper.fromSnapshot(document);
+                        if (user != null) {
+                            userList.add(user);
+                        }
+                    }
+
+                    String nextCursor = null;
+                    if (hasMore) {
+                        DocumentSnapshot last = documents.get(count - 1);
+                        String sortKey = last.getString(field);
+                        nextCursor = new PageCursor(sortKey != null ? sortKey : "", last.getId()).encode();
+                    }
+                    return new Page<>(userList, nextCursor);
+                });
+    }
+
+    /**
+     * Add the normalized search fields to user documents created before they existed.
+     *
+     * @return Task<Integer> - Task that completes with the number of documents updated,
+     *         or fails with the first failed page (earlier pages stay committed)
+     *
+     * Firestore Path: users/
+     * Query: orderBy(documentId).startAfter(last).limit(MAX_BATCH_OPERATIONS)
+     * Operation: One WriteBatch of update()s per page, only for documents missing a field
+     */
+    @Override
+    public Task<Integer> backfillSearchKeys() {
+        Log.d(TAG, "Backfilling user search fields");
+        return backfillPage(null, 0);
+    }
+
+    /**
+     * Backfill one page of users, then continue after its last document.
+     */
+    private Task<Integer> backfillPage(DocumentSnapshot after, int updatedSoFar) {
+        Query query = db.collection(USERS_COLLECTION)
+                .orderBy(FieldPath.documentId())
+                .limit(FirestoreConstants.MAX_BATCH_OPERATIONS);
+        if (after != null) {
+            query = query.startAfter(after);
+        }
+
+        return query.get()
+                .continueWithTask(executor, task -> {
+                    if (!task.isSuccessful()) {
+                        Exception exception = task.getException();
+                        Log.e(TAG, "Error reading users for search field backfill", exception);
+                        throw exception != null ? exception : new Exception("Unknown error");
+                    }
+
+                    List<DocumentSnapshot> documents = task.getResult().getDocuments();
+                    WriteBatch batch = db.batch();
+                    int updated = 0;
+                    for (DocumentSnapshot document : documents) {
+                        Map<String, Object> data = document.getData();
+                        Map<String, Object> missing = data != null
+                                ? UserMapper.searchKeysToBackfill(data) : new LinkedHashMap<>();
+                        if (!missing.isEmpty()) {
+                            batch.update(document.getReference(), missing);
+                            updated++;
+                        }
+                    }
+
+                    int total = updatedSoFar + updated;
+                    boolean lastPage = documents.size() < FirestoreConstants.MAX_BATCH_OPERATIONS;
+                    Task<Void> commit = updated > 0 ? batch.commit() : Tasks.forResult(null);
+                    return commit.onSuccessTask(executor, aVoid -> {
+                        if (lastPage) {
+                            Log.d(TAG, "Backfilled search fields of " + total + " users");
+                            return Tasks.forResult(total);
+                        }
+                        return backfillPage(documents.get(documents.size() - 1), total);
+                    });
+                });
+    }
+
+    /**
+     * Compute the smallest string greater than every string starting with prefix,
+     * by incrementing its last character. Used as the exclusive upper bound of a
+     * prefix range query.
+     *
+     * @param prefix A non-empty prefix
+     * @return Exclusive upper bound for the prefix range
+     */
+    static String prefixEnd(String prefix) {
+        char last = prefix.charAt(prefix.length() - 1);
+        if (last == Character.MAX_VALUE) {
+            return prefix + '\uffff';
+        }
+        return prefix.substring(0, prefix.length() - 1) + (char) (last + 1);
+    }
+
     /**
      * Retrieve all users from the database.
      *
      * Fetches all user documents from the "users" collection.
-     * Note: This operation can be slow for large user bases.
-     * Consider implementing pagination for production use.
      *
      * @return Task<List<User>> - Task that completes with a list of all User objects,
      *         or fails with an exception on error
      *
      * Firestore Path: users/
      * Operation: Collection query (all documents)
-     * Warning: Use with caution on large datasets
+     *
+     * @deprecated Downloads the entire collection. Use getUsersPage() or searchUsers().
      */
+    @Deprecated
     @Override
     public Task<List<User>> getAllUsers() {
         Log.d(TAG, "Fetching all users");
 
         return db.collection(USERS_COLLECTION)
                 .get()
-                .continueWith(task -> {
+                .continueWith(executor, task -> {
                     if (!task.isSuccessful()) {
                         Exception exception = task.getException();
                         Log.e(TAG, "Error fetching all users", exception);
@@ -121,7 +383,7 @@ public class FirestoreUserRepository implements UserRepository {
                     List<User> userList = new ArrayList<>();
 
                     for (DocumentSnapshot document : querySnapshot.getDocuments()) {
-                        User user = document.toObject(User.class);
+                        User user = UserMapper.fromSnapshot(document);
                         if (user != null) {
                             userList.add(user);
                         }
@@ -158,11 +420,11 @@ public class FirestoreUserRepository implements UserRepository {
 
         return db.collection(USERS_COLLECTION)
                 .document(user.getId())
-                .set(user)
-                .addOnSuccessListener(aVoid -> {
+                .set(UserMapper.toMap(user))
+                .addOnSuccessListener(executor, aVoid -> {
                     Log.d(TAG, "User added successfully: " + user.getId());
                 })
-                .addOnFailureListener(e -> {
+                .addOnFailureListener(executor, e -> {
                     Log.e(TAG, "Error adding user: " + user.getId(), e);
                 });
     }
@@ -170,8 +432,8 @@ public class FirestoreUserRepository implements UserRepository {
     /**
      * Update an existing user's information.
      *
-     * Modifies fields in an existing user document in the "users" collection.
-     * Only non-null fields are updated (partial update).
+     * Merges the profile fields into the user document. Presence (isOnline, lastSeen) is
+     * never sent, so a profile edit cannot overwrite the state PresenceService wrote.
      * The updatedAt timestamp should be set in the User object before calling.
      *
      * @param user The User object with updated information (user.id identifies the document)
@@ -179,7 +441,7 @@ public class FirestoreUserRepository implements UserRepository {
      *         or fails with an exception if user not found or on error
      *
      * Firestore Path: users/{user.id}
-     * Operation: Update (merge, not overwrite)
+     * Operation: set() with merge of the profile fields
      */
     @Override
     public Task<Void> updateUser(User user) {
@@ -192,15 +454,58 @@ public class FirestoreUserRepository implements UserRepository {
 
         return db.collection(USERS_COLLECTION)
                 .document(user.getId())
-                .set(user, com.google.firebase.firestore.SetOptions.merge())
-                .addOnSuccessListener(aVoid -> {
+                .set(UserMapper.toProfileMap(user), SetOptions.merge())
+                .addOnSuccessListener(executor, aVoid -> {
                     Log.d(TAG, "User updated successfully: " + user.getId());
                 })
-                .addOnFailureListener(e -> {
+                .addOnFailureListener(executor, e -> {
                     Log.e(TAG, "Error updating user: " + user.getId(), e);
                 });
     }
 
+    /**
+     * Update a user by writing only the fields that differ from the given previous state.
+     * The diff is taken against previous alone and never includes presence fields.
+     *
+     * @param previous The user as last read by the caller
+     * @param updated The user with the new values
+     * @return Task<Void> - Task that completes when the changed fields are written,
+     *         or immediately if nothing changed
+     *
+     * Firestore Path: users/{user.id}
+     * Operation: update() of the changed fields only (no write if none)
+     */
+    @Override
+    public Task<Void> updateUser(User previous, User updated) {
+        if (previous == null || updated == null || updated.getId() == null) {
+            Log.e(TAG, "Cannot update user: previous, updated or updated.id is null");
+            return Tasks.forException(new IllegalArgumentException("previous, updated and updated.id must not be null"));
+        }
+        if (!updated.getId().equals(previous.getId())) {
+            Log.e(TAG, "Cannot update user: previous.id " + previous.getId() + " != updated.id " + updated.getId());
+            return Tasks.forException(new IllegalArgumentException("previous and updated must be the same user"));
+        }
+
+        String userId = updated.getId();
+        Map<String, Object> changed = UserMapper.toUpdateMap(previous, updated);
+        if (changed.isEmpty()) {
+            Log.d(TAG, "No changes for user: " + userId + "; skipping write");
+            return Tasks.forResult(null);
+        }
+
+        Log.d(TAG, "Updating " + changed.size() + " field(s) of user: " + userId + " " + changed.keySet());
+
+        return db.collection(USERS_COLLECTION)
+                .document(userId)
+                .update(changed)
+                .addOnSuccessListener(executor, aVoid -> {
+                    Log.d(TAG, "User updated successfully: " + userId);
+                })
+                .addOnFailureListener(executor, e -> {
+                    Log.e(TAG, "Error updating user: " + userId, e);
+                });
+    }
+
     /**
      * Delete a user from the database.
      *
@@ -227,10 +532,10 @@ public class FirestoreUserRepository implements UserRepository {
         return db.collection(USERS_COLLECTION)
                 .document(userId)
                 .delete()
-                .addOnSuccessListener(aVoid -> {
+                .addOnSuccessListener(executor, aVoid -> {
                     Log.d(TAG, "User deleted successfully: " + userId);
                 })
-                .addOnFailureListener(e -> {
+                .addOnFailureListener(executor, e -> {
                     Log.e(TAG, "Error deleting user: " + userId, e);
                 });
     }
@@ -262,7 +567,7 @@ public class FirestoreUserRepository implements UserRepository {
         return db.collection(USERS_COLLECTION)
                 .whereEqualTo("email", email)
                 .get()
-                .continueWith(task -> {
+                .continueWith(executor, task -> {
                     if (!task.isSuccessful()) {
                         Exception exception = task.getException();
                         Log.e(TAG, "Error querying user by email: " + email, exception);
@@ -282,7 +587,7 @@ public class FirestoreUserRepository implements UserRepository {
                     }
 
                     DocumentSnapshot document = querySnapshot.getDocuments().get(0);
-                    User user = document.toObject(User.class);
+                    User user = UserMapper.fromSnapshot(document);
                     Log.d(TAG, "User found by email: " + user.getDisplayName());
                     return user;
                 });
@@ -2,6 +2,7 @@ package com.example.echo_app.repository;
 
 import com.example.echo_app.model.Group;
 import com.google.android.gms.tasks.Task;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -25,6 +26,7 @@ import java.util.List;
  * Data Structure:
  * - Group documents: groups/{groupId}
  * - Member subcollection: groups/{groupId}/members/{userId}
+ * - Per-user group index: users/{userId}/groups/{groupId} (Membership, written with the member doc)
  * - Linked Chat: chats/{chatId} where isGroup=true and groupId matches
  *
  * @see Group
@@ -55,57 +57,48 @@ public interface GroupRepository {
     /**
      * Retrieve all groups that a user is a member of.
      *
-     * Fetches all group documents where the user is listed in memberIds.
-     * Returns complete Group objects for all groups the user belongs to.
-     * Used for populating user's group list in the UI.
+     * Reads the user's group index (one Membership document per group, maintained in
+     * the same batch as every membership change) and then loads the referenced group
+     * documents. Cost grows with the number of groups the user is in, not with the
+     * number or size of groups overall.
      *
      * @param userId The unique identifier of the user
-     * @return Task<List<Group>> - A Task that completes with a list of Group objects user belongs to
+     * @return Task<List<Group>> - A Task that completes with the user's groups,
+     *         most recently joined first
      *
-     * Firestore Path: groups/ with where clause
-     * Query Type: Collection query with filter
-     * Filter: memberIds array contains userId
-     * Performance: Requires index on memberIds field
-     *
-     * Optimization:
-     * - Consider denormalizing with user_groups subcollection for faster queries
-     * - Cache results locally
-     * - Consider pagination if user is in many groups
+     * Firestore Path: users/{userId}/groups/ (index), then groups/
+     * Query Type: Subcollection read + whereIn(documentId) in chunks of 30
+     * Performance: No array-contains query over groups; no composite index required
      *
      * Use Cases:
      * - Populate user's group list on app startup
-     * - Real-time listener for group updates
      * - Search/filter user's groups
-     *
-     * Note: Requires Firestore index on memberIds field
      */
     Task<List<Group>> getGroupsForUser(String userId);
 
     /**
-     * Create a new group.
+     * Create a new group together with its linked chat and initial memberships.
      *
-     * Creates a new group document in Firestore.
-     * Initializes group with creator as admin and only initial member.
-     * Also creates the linked chat document with isGroup=true.
+     * The group document, the linked Chat (same ID, isGroup=true, participantIds equal
+     * to the members) and the member and index documents of the first members are
+     * written in one WriteBatch, so a group never exists without its chat. The admin
+     * is always a member. Groups created with Constants.BROADCAST_MEMBER_THRESHOLD or
+     * more members start in broadcast mode (Group.broadcast and Chat.broadcast).
+     * Groups with more members than fit into one batch (249) receive the remaining
+     * member documents in follow-up batches.
      *
      * @param group The Group object to create
-     *             (should have: name, description, adminId, memberIds)
-     * @return Task<Void> - A Task that completes when the group is created, or fails on error
+     *             (should have: id, name, adminId, memberIds)
+     * @return Task<Void> - A Task that completes when every batch is committed, or fails on error
      *
-     * Firestore Path: groups/{group.id}
-     * Operation: Set (create new)
-     * Timestamps: createdAt and updatedAt set to current time
+     * Firestore Path: groups/{group.id}, chats/{group.id},
+     *                 groups/{group.id}/members/{uid}, users/{uid}/groups/{group.id}
+     * Operation: WriteBatch - set(group) + set(chat) + 2 set(membership) per member
      *
      * Prerequisites:
+     * - group.id must be set (e.g. db.collection("groups").document().getId())
      * - group.name must not be empty
      * - group.adminId must be valid user ID
-     * - group.memberIds should include adminId
-     * - group.id typically auto-generated (can be empty, Firestore will generate)
-     *
-     * Side Effects:
-     * - Creates corresponding Chat document (isGroup=true, groupId=group.id)
-     * - Initializes memberships subcollection or members array
-     * - Creates membership documents for all initial members
      *
      * Use Case:
      * - User creates new group chat
@@ -146,32 +139,30 @@ public interface GroupRepository {
     /**
      * Delete a group and all associated data.
      *
-     * Removes a group document from Firestore.
-     * Should also handle deletion of:
-     * - Related Chat document (isGroup=true)
-     * - Messages subcollection under the chat
-     * - Memberships subcollection
+     * Cascades to the linked Chat document, the messages (with their read counters),
+     * receipts and typing indicators under the chat, every membership document and
+     * every per-user index entry. Large groups are deleted
+     * page by page and progress is checkpointed, so a failed or interrupted delete can be
+     * resumed by calling deleteGroup() again with the same ID (see GroupDeleteWorker).
      * Only group admins should be able to delete groups.
      *
      * @param groupId The unique identifier of the group to delete
-     * @return Task<Void> - A Task that completes when the group is deleted, or fails if not found
+     * @return Task<Void> - A Task that completes when everything is deleted, or fails if a page fails
      *
      * Firestore Path: groups/{groupId}
-     * Operation: Delete document
-     * Related Deletions: Chat, Messages, Memberships
+     * Operation: Paged, resumable cascading delete
+     * Related Deletions: Chat, Messages, Read counters, Receipts, Typing, Memberships, User group index,
+     *                    Members' unread counters
      *
      * Prerequisites:
-     * - groupId must reference existing group
      * - Caller must be group admin (enforced by Security Rules)
      *
-     * Cascade Deletion:
-     * - Delete groups/{groupId} document
-     * - Delete groups/{groupId}/members/* (all membership docs)
+     * Cascade Deletion (in order):
+     * - Delete chats/{chatId}/messages/* (and their readShards), chats/{chatId}/receipts/*
+     *   and chats/{chatId}/typing/*
+     * - Delete groups/{groupId}/members/* and users/{uid}/groups/{groupId}
      * - Delete corresponding chat document
-     * - Delete chats/{chatId}/messages/* (all message docs)
-     *
-     * Note: Use Cloud Function for atomic cascading deletes
-     *       to ensure data consistency
+     * - Delete groups/{groupId} document (last, so an unfinished delete stays visible)
      */
     Task<Void> deleteGroup(String groupId);
 
@@ -187,10 +178,11 @@ public interface GroupRepository {
      * @param isAdmin Whether the new member should be an admin
      * @return Task<Void> - A Task that completes when member is added, or fails on error
      *
-     * Firestore Operations:
-     * - Update groups/{groupId}: Add userId to memberIds array
+     * Firestore Operations (one WriteBatch):
+     * - Update groups/{groupId}: Add userId to memberIds array (arrayUnion)
      * - Create groups/{groupId}/members/{userId}: New membership doc
-     * - Update chats/{chatId}: Add userId to participantIds
+     * - Create users/{userId}/groups/{groupId}: Group index entry
+     * - Update chats/{chatId}: Add userId to participantIds (arrayUnion)
      *
      * Prerequisites:
      * - groupId must reference existing group
@@ -210,6 +202,28 @@ public interface GroupRepository {
      */
     Task<Void> addMemberToGroup(String groupId, String userId, boolean isAdmin);
 
+    /**
+     * Add many members to a group, e.g. when importing a large group.
+     *
+     * Members are split into WriteBatch chunks of up to 249 users; each chunk writes the
+     * member and index documents and adds the chunk's IDs to memberIds and participantIds
+     * with a single arrayUnion each. Users who are already members are skipped, so their
+     * admin flag and join time are kept. Chunks are committed concurrently; a failed
+     * chunk fails the Task, and retrying the whole call is safe (members added by the
+     * first attempt are skipped).
+     * If the group reaches Constants.BROADCAST_MEMBER_THRESHOLD members, the group and
+     * its chat switch to broadcast mode.
+     *
+     * @param groupId The unique identifier of the group
+     * @param userIds The users to add; new members join as regular (non-admin) members
+     * @return Task<Void> - A Task that completes when every chunk is committed
+     *
+     * Firestore Operations (per chunk, one WriteBatch):
+     * - Create groups/{groupId}/members/{uid} and users/{uid}/groups/{groupId} per new user
+     * - Update groups/{groupId} and chats/{groupId}: arrayUnion(chunk)
+     */
+    Task<Void> addMembersToGroup(String groupId, Collection<String> userIds);
+
     /**
      * Remove a member from a group.
      *
@@ -221,10 +235,12 @@ public interface GroupRepository {
      * @param userId The unique identifier of the user to remove
      * @return Task<Void> - A Task that completes when member is removed, or fails on error
      *
-     * Firestore Operations:
-     * - Update groups/{groupId}: Remove userId from memberIds array
+     * Firestore Operations (one WriteBatch):
+     * - Update groups/{groupId}: Remove userId from memberIds array (arrayRemove)
      * - Delete groups/{groupId}/members/{userId}: Remove membership doc
-     * - Update chats/{chatId}: Remove userId from participantIds
+     * - Delete users/{userId}/groups/{groupId}: Group index entry
+     * - Delete users/{userId}/unread/{groupId}/shards/*: The user's unread counter
+     * - Update chats/{chatId}: Remove userId from participantIds (arrayRemove)
      *
      * Prerequisites:
      * - groupId must reference existing group
@@ -0,0 +1,43 @@
+package com.example.echo_app.repository;
+
+import android.net.Uri;
+
+import com.google.android.gms.tasks.Task;
+
+/**
+ * MediaRepository.java
+ *
+ * Repository interface for uploading message attachments.
+ *
+ * Callers are expected to upload already downscaled media (see MediaUploader);
+ * implementations store exactly what they are given.
+ *
+ * All methods are asynchronous and return Task<T> for non-blocking operations.
+ *
+ * Storage Pattern:
+ * chats/{chatId}/media/{messageId}
+ *
+ * @see com.example.echo_app.media.MediaUploader
+ */
+public interface MediaRepository {
+
+    /**
+     * Upload an in-memory attachment.
+     *
+     * @param path Storage path, e.g. chats/{chatId}/media/{messageId}.jpg
+     * @param data Encoded bytes
+     * @param contentType MIME type stored with the object
+     * @return Task<String> - A Task containing the download URL
+     */
+    Task<String> uploadBytes(String path, byte[] data, String contentType);
+
+    /**
+     * Upload an attachment by streaming it from a content or file URI.
+     *
+     * @param path Storage path, e.g. chats/{chatId}/media/{messageId}
+     * @param source URI of the file to upload
+     * @param contentType MIME type stored with the object
+     * @return Task<String> - A Task containing the download URL
+     */
+    Task<String> uploadFile(String path, Uri source, String contentType);
+}
@@ -0,0 +1,251 @@
+package com.example.echo_app.repository;
+
+import android.util.Log;
+
+import com.example.echo_app.data.FirestoreErrors;
+import com.example.echo_app.data.OutboxStore;
+import com.example.echo_app.model.DeliveryStatus;
+import com.example.echo_app.model.Message;
+import com.example.echo_app.utils.Constants;
+import com.example.echo_app.utils.MessageIdGenerator;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MessageOutbox.java
+ *
+ * Offline-first send path for outgoing messages.
+ *
+ * send() assigns the message its final document ID, records it in the durable
+ * OutboxStore and asks for a drain; it completes as soon as the message is on
+ * disk, whether or not the device is online. drain() (called by OutboxWorker)
+ * then pushes queued messages to the MessageRepository in enqueue order, in
+ * batches, and removes them only after the server has committed them.
+ *
+ * Delivery guarantees:
+ * - At-least-once: a message leaves the queue only after a successful commit
+ * - No duplicates: writes are set(merge) on client-generated IDs, so a retried batch overwrites
+ *   the content without touching deliveryStatus
+ * - Per-chat order: the queue is FIFO and a transient failure stops the drain
+ *
+ * Failures:
+ * - Transient (offline, UNAVAILABLE, timeouts): the batch stays at the head of the queue
+ *   and drain() rethrows so the worker retries with backoff
+ * - Permanent (rules, invalid document, see FirestoreErrors): the batch is retried one
+ *   message at a time and only the rejected message is marked failed; the drain goes on
+ * - A message that has taken part in OUTBOX_MAX_ATTEMPTS failed drains is marked failed
+ *   as well, so no single message can hold up the queue forever
+ * Failed messages are kept (getFailed()) and are queued again by send().
+ *
+ * Usage:
+ * MessageOutbox outbox = AppModule.getInstance(context).getMessageOutbox();
+ * outbox.send(message).addOnSuccessListener(queued -> timeline.addPending(queued));
+ *
+ * @see OutboxStore
+ * @see com.example.echo_app.data.OutboxWorker
+ */
+public class MessageOutbox {
+
+    private static final String TAG = "MessageOutbox";
+
+    private final OutboxStore store;
+    private final Executor diskExecutor;
+    private final Runnable drainScheduler;
+    private final int maxAttempts;
+
+    /**
+     * Constructor.
+     *
+     * @param store Durable queue of unsent messages
+     * @param diskExecutor Executor for blocking store I/O (must not be the main thread)
+     * @param drainScheduler Requests an asynchronous drain (e.g. enqueues OutboxWorker)
+     */
+    public MessageOutbox(OutboxStore store, Executor diskExecutor, Runnable drainScheduler) {
+        this(store, diskExecutor, drainScheduler, Constants.OUTBOX_MAX_ATTEMPTS);
+    }
+
+    /**
+     * Constructor with an explicit attempt cap.
+     *
+     * @param store Durable queue of unsent messages
+     * @param diskExecutor Executor for blocking store I/O (must not be the main thread)
+     * @param drainScheduler Requests an asynchronous drain (e.g. enqueues OutboxWorker)
+     * @param maxAttempts Failed drains after which a message is marked failed
+     */
+    public MessageOutbox(OutboxStore store, Executor diskExecutor, Runnable drainScheduler, int maxAttempts) {
+        this.store = store;
+        this.diskExecutor = diskExecutor;
+        this.drainScheduler = drainScheduler;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Queue a message for delivery.
+     *
+     * Missing fields are filled in before the message is persisted: a client-generated
+     * time-ordered ID, the current time as timestamp, and the "sent" delivery status.
+     * Sending a failed message again (same ID) puts it back in the queue.
+     *
+     * @param message The message to send (chatId must be set)
+     * @return Task<Message> - Task that completes with the queued message (id populated)
+     *         once it is durable, or fails if it could not be stored
+     */
+    public Task<Message> send(Message message) {
+        if (message == null || message.getChatId() == null || message.getChatId().isEmpty()) {
+            Log.e(TAG, "Cannot queue message: message or chatId is null");
+            return Tasks.forException(new IllegalArgumentException("Message and chatId must not be null"));
+        }
+
+        if (message.getId() == null || message.getId().isEmpty()) {
+            message.setId(MessageIdGenerator.getInstance().next());
+        }
+        if (message.getTimestamp() <= 0) {
+            message.setTimestamp(System.currentTimeMillis());
+        }
+        if (message.getDeliveryStatus() == null) {
+            message.setDeliveryStatus(DeliveryStatus.SENT);
+        }
+
+        return Tasks.call(diskExecutor, () -> {
+            store.enqueue(message);
+            Log.d(TAG, "Queued message " + message.getId() + " for chat: " + message.getChatId());
+            drainScheduler.run();
+            return message;
+        });
+    }
+
+    /**
+     * Get the messages of a chat that are still waiting to be sent.
+     *
+     * @param chatId The chat identifier
+     * @return Task<List<Message>> - Task that completes with pending messages in send order
+     */
+    public Task<List<Message>> getPending(String chatId) {
+        if (chatId == null || chatId.isEmpty()) {
+            Log.e(TAG, "Cannot get pending messages: chatId is null or empty");
+            return Tasks.forException(new IllegalArgumentException("chatId must not be null or empty"));
+        }
+
+        return Tasks.call(diskExecutor, () -> store.getPending(chatId));
+    }
+
+    /**
+     * Get the messages of a chat that were set aside as undeliverable.
+     *
+     * @param chatId The chat identifier
+     * @return Task<List<Message>> - Task that completes with failed messages in send order
+     */
+    public Task<List<Message>> getFailed(String chatId) {
+        if (chatId == null || chatId.isEmpty()) {
+            Log.e(TAG, "Cannot get failed messages: chatId is null or empty");
+            return Tasks.forException(new IllegalArgumentException("chatId must not be null or empty"));
+        }
+
+        return Tasks.call(diskExecutor, () -> store.getFailed(chatId));
+    }
+
+    /**
+     * Send every queued message, oldest first, in batches.
+     *
+     * Blocks until the queue is empty or a batch fails transiently. A transiently
+     * failed batch stays at the head of the queue, so later messages are never
+     * delivered ahead of it; the exception is rethrown for the caller to schedule a
+     * retry. Permanently rejected messages are marked failed and skipped.
+     *
+     * Must be called off the main thread (e.g. from OutboxWorker.doWork()).
+     *
+     * @param repository Repository used to write the messages
+     * @param batchSize Maximum number of messages per sendMessages() call
+     * @param timeoutMillis Maximum time to wait for one batch
+     * @return Number of messages delivered
+     * @throws Exception if a batch fails transiently or times out
+     */
+    public int drain(MessageRepository repository, int batchSize, long timeoutMillis) throws Exception {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+
+        int delivered = 0;
+        List<Message> batch;
+        while (!(batch = store.peek(batchSize)).isEmpty()) {
+            if (trySend(repository, batch, timeoutMillis)) {
+                delivered += batch.size();
+            } else if (batch.size() > 1) {
+                // The batch commits atomically, so one rejected message fails all of them: find it
+                for (Message message : batch) {
+                    if (trySend(repository, Collections.singletonList(message), timeoutMillis)) {
+                        delivered++;
+                    }
+                }
+            }
+        }
+
+        if (delivered > 0) {
+            Log.d(TAG, "Drained " + delivered + " queued message(s)");
+        }
+        return delivered;
+    }
+
+    /**
+     * Send one batch and remove it from the queue.
+     *
+     * @return true if the batch was delivered, false if it was permanently rejected
+     *         (a single rejected message is then marked failed)
+     * @throws Exception if the batch failed transiently; its messages stay queued
+     */
+    private boolean trySend(MessageRepository repository, List<Message> batch, long timeoutMillis)
+            throws Exception {
+        List<String> ids = new ArrayList<>(batch.size());
+        for (Message message : batch) {
+            ids.add(message.getId());
+        }
+
+        try {
+            Tasks.await(repository.sendMessages(batch), timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            if (!FirestoreErrors.isPermanent(e)) {
+                recordFailure(ids);
+                throw e;
+            }
+            if (ids.size() == 1) {
+                Log.e(TAG, "Message " + ids.get(0) + " was rejected, marking it failed", e);
+                store.markFailed(ids);
+            }
+            return false;
+        }
+
+        store.remove(ids);
+        return true;
+    }
+
+    /**
+     * Count a transient failure against each message of a batch and set aside those
+     * that have reached the attempt cap.
+     */
+    private void recordFailure(List<String> ids) {
+        List<String> exhausted = new ArrayList<>();
+        for (String id : ids) {
+            if (store.recordFailure(id) >= maxAttempts) {
+                exhausted.add(id);
+            }
+        }
+        if (!exhausted.isEmpty()) {
+            Log.e(TAG, "Giving up on " + exhausted.size() + " message(s) after " + maxAttempts + " attempts");
+            store.markFailed(exhausted);
+        }
+    }
+
+    /**
+     * Get the number of messages waiting to be sent.
+     * Blocking; must be called off the main thread.
+     */
+    public int size() {
+        return store.size();
+    }
+}
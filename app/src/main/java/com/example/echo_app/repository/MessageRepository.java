@@ -2,7 +2,9 @@ package com.example.echo_app.repository;
 
 import com.example.echo_app.model.Message;
 import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.ListenerRegistration;
 import java.util.List;
+import java.util.Map;
 
 /**
  * MessageRepository.java
@@ -17,7 +19,7 @@ import java.util.List;
  * Task objects support listeners, continuations, and can be awaited using Tasks.await().
  *
  * Message Lifecycle:
- * 1. sendMessage() - Create message with deliveryStatus: "sent"
+ * 1. sendMessage() - Create message (client-generated ID); no stored deliveryStatus reads as "sent"
  * 2. updateMessageStatus() - Update to "delivered" when received
  * 3. updateMessageStatus() - Update to "seen" when read
  * 4. deleteMessage() - Remove message (optional)
@@ -47,7 +49,7 @@ public interface MessageRepository {
      * Firestore Path: chats/{chatId}/messages/
      * Query Type: Subcollection query
      * Ordering: By timestamp (implementation determines order)
-     * Performance: Consider pagination for chats with many messages
+     * Performance: Downloads the whole history - prefer getMessagesPage() for large chats
      *
      * Optimization:
      * - Add real-time listener for active chat screens
@@ -60,22 +62,109 @@ public interface MessageRepository {
      */
     Task<List<Message>> getMessagesByChatId(String chatId);
 
+    /**
+     * Retrieve one page of messages for a chat, newest window first.
+     *
+     * The first call (cursor == null) returns the most recent pageSize messages.
+     * Each following call with the returned cursor returns the next older window.
+     * Within a page, messages are ordered oldest first so they can be prepended
+     * directly to a chat list.
+     *
+     * @param chatId The unique identifier of the chat/conversation
+     * @param pageSize Maximum number of messages in the page (must be positive)
+     * @param cursor Opaque cursor from a previous Page, or null for the newest page
+     * @return Task<Page<Message>> - A Task that completes with the page of messages;
+     *         Page.getNextCursor() is null once the oldest message has been returned
+     *
+     * Firestore Path: chats/{chatId}/messages/
+     * Query: orderBy(timestamp desc, documentId desc).startAfter(cursor).limit(pageSize)
+     * Cursor: Last (oldest) message's timestamp and document ID
+     *
+     * Use Case:
+     * - Initial chat load (latest messages only)
+     * - Loading older history on scroll-up
+     */
+    Task<Page<Message>> getMessagesPage(String chatId, int pageSize, String cursor);
+
+    /**
+     * Retrieve messages of a chat at or after a timestamp.
+     *
+     * Used for delta synchronization against a local message store: the caller passes
+     * its per-chat high-water mark and receives only messages it may not have seen.
+     * The lower bound is inclusive so messages sharing the mark's timestamp are not
+     * missed; callers must de-duplicate by message ID.
+     *
+     * @param chatId The unique identifier of the chat/conversation
+     * @param sinceTimestamp Inclusive lower bound on Message.timestamp (0 for full history)
+     * @return Task<List<Message>> - A Task that completes with matching messages,
+     *         ordered by timestamp ascending, with Message.id populated
+     *
+     * Firestore Path: chats/{chatId}/messages/
+     * Query: whereGreaterThanOrEqualTo(timestamp, sinceTimestamp).orderBy(timestamp)
+     * Cost: Proportional to new traffic, not history size
+     */
+    Task<List<Message>> getMessagesSince(String chatId, long sinceTimestamp);
+
+    /**
+     * Retrieve messages of a chat that reached the server at or after a server time.
+     *
+     * Unlike getMessagesSince(), the bound is on Message.receivedAt, which Firestore
+     * assigns on every send. A message queued offline and sent late keeps its old
+     * client timestamp but gets a new receivedAt, so delta sync by receivedAt never
+     * skips it. The bound is inclusive; callers must de-duplicate by message ID.
+     * Messages written before receivedAt existed have no such field and are only
+     * returned by getMessagesSince().
+     *
+     * @param chatId The unique identifier of the chat/conversation
+     * @param receivedSince Inclusive lower bound on Message.receivedAt (epoch millis)
+     * @return Task<List<Message>> - A Task that completes with matching messages,
+     *         ordered by receivedAt ascending
+     *
+     * Firestore Path: chats/{chatId}/messages/
+     * Query: whereGreaterThanOrEqualTo(receivedAt, Timestamp(receivedSince)).orderBy(receivedAt)
+     */
+    Task<List<Message>> getMessagesReceivedSince(String chatId, long receivedSince);
+
+    /**
+     * Listen to real-time message changes in a chat.
+     *
+     * Delivers only the messages that were added, modified or removed since the previous
+     * callback, derived from Firestore DocumentChange events. The first callback contains
+     * the messages at or after sinceTimestamp as ADDED changes, so passing the timestamp of
+     * the newest already-loaded message avoids replaying history.
+     *
+     * @param chatId The unique identifier of the chat/conversation
+     * @param sinceTimestamp Inclusive lower bound on Message.timestamp for the live window
+     * @param listener Callback receiving change batches (Message.id is populated)
+     * @return ListenerRegistration - Handle that detaches the listener when remove() is called
+     *
+     * Firestore Path: chats/{chatId}/messages/
+     * Query: whereGreaterThanOrEqualTo(timestamp, sinceTimestamp).orderBy(timestamp)
+     * Operation: addSnapshotListener (real-time)
+     *
+     * Use Case:
+     * - Live updates for an open chat screen
+     * - Must be removed when the screen is closed (e.g. in ViewModel.onCleared())
+     */
+    ListenerRegistration listenToMessages(String chatId, long sinceTimestamp, ChangeListener<Message> listener);
+
     /**
      * Send a new message to a chat.
      *
-     * Creates a new message document in the chat's subcollection.
-     * Initially sets deliveryStatus to "sent".
-     * The message should not have an ID (Firestore will auto-generate).
+     * Writes the message to a document whose ID is generated on the client.
+     * If message.id is empty, a time-ordered ID is generated and assigned to the
+     * passed object before the write, so callers can render the message optimistically
+     * under its final ID. Sending a message that already has an ID is idempotent:
+     * a retry overwrites the same document and never creates a duplicate.
      *
      * @param message The Message object to send
-     *               (should have: senderId, chatId, content, messageType)
-     *               (timestamp will be set on server)
-     * @return Task<Void> - A Task that completes when the message is created, or fails on error
+     *               (should have: senderId, chatId, content, messageType, timestamp;
+     *               id is optional and populated when missing)
+     * @return Task<Void> - A Task that completes when the message is written, or fails on error
      *
-     * Firestore Path: chats/{message.chatId}/messages/
-     * Operation: Add (create new with auto-generated ID)
-     * Timestamp: Set to current time on server
-     * DeliveryStatus: Set to "sent"
+     * Firestore Path: chats/{message.chatId}/messages/{message.id} and chats/{message.chatId}
+     * Operation: Transaction - document(id).set(merge) (idempotent) + chat preview update()
+     * DeliveryStatus: Not written, so it reads as "sent" and a re-send never resets an acknowledgement
      *
      * Prerequisites:
      * - message.chatId must reference existing chat
@@ -83,12 +172,58 @@ public interface MessageRepository {
      * - message.content must not be empty (for text messages)
      * - Sender must be participant of the chat (enforced by Security Rules)
      *
-     * Side Effects:
-     * - Update parent chat's lastMessageText and lastMessageTimestamp
-     * - May update unread message counts for other participants
+     * Side Effects (same transaction):
+     * - Parent chat's lastMessageId, lastMessageText, lastMessageTimestamp and updatedAt
+     *   are set from this message, so chat lists never need a per-chat message query,
+     *   unless the chat already shows a newer message
+     * - Unread counter of every chat participant except the sender incremented by one;
+     *   participants are read from the chat document, broadcast chats are skipped, and
+     *   a message that is already stored (a re-send) is not counted again
+     *
+     * Fails with NOT_FOUND if the chat does not exist; no chat document is created.
+     *
+     * Transaction, not WriteBatch: every side effect depends on the server's current
+     * state. The preview moves only forward (the chat's lastMessageTimestamp must be
+     * read), recipients come from the chat's participants, a missing chat must fail,
+     * and unread is counted only if the message document does not exist yet. A
+     * WriteBatch cannot read, so it could do none of this.
+     *
+     * Offline behaviour: unlike a WriteBatch, a transaction is not queued in the local
+     * cache. While the device is offline the Task fails at once (UNAVAILABLE) and
+     * nothing is written, locally or remotely. Sends that must survive being offline
+     * go through MessageOutbox, which keeps the message and retries with backoff.
+     *
+     * @see com.example.echo_app.utils.MessageIdGenerator
+     * @see com.example.echo_app.repository.MessageOutbox
      */
     Task<Void> sendMessage(Message message);
 
+    /**
+     * Write many messages whose IDs were generated on the client.
+     *
+     * Each message is written to its own document ID with set(merge), so repeating the
+     * call after a partial failure (e.g. an outbox retry) overwrites the documents
+     * already written instead of creating duplicates. deliveryStatus is left out of
+     * the write, so a retry never undoes a recipient's acknowledgement. Messages are
+     * committed in list order, in transactional chunks that also move the preview
+     * fields of each chat touched forward to that chat's newest message in the chunk.
+     * A chunk addressed to a missing chat fails with NOT_FOUND. Each chunk also
+     * increments the recipients' unread counters for its messages that were not
+     * stored yet, as sendMessage() does, so retrying the list never counts twice.
+     * Chunks are transactions for the same reasons as sendMessage(), and likewise
+     * fail at once while offline instead of being queued.
+     *
+     * @param messages Messages to write (each must have id and chatId set)
+     * @return Task<Void> - A Task that completes when every chunk is committed,
+     *         or fails with the first chunk error (later chunks are not attempted)
+     *
+     * Firestore Path: chats/{message.chatId}/messages/{message.id}
+     * Operation: Transaction per chunk - set(merge) per message + chat preview update(), chunks committed sequentially
+     *
+     * @see com.example.echo_app.repository.MessageOutbox
+     */
+    Task<Void> sendMessages(List<Message> messages);
+
     /**
      * Update a message's delivery status.
      *
@@ -117,6 +252,26 @@ public interface MessageRepository {
      */
     Task<Void> updateMessageStatus(String messageId, String newStatus);
 
+    /**
+     * Advance the delivery status of many messages in as few round-trips as possible.
+     *
+     * Updates are grouped into chunks of up to 500 messages, so marking 300 unread
+     * messages as seen costs one round-trip instead of 300. Each chunk reads the stored
+     * statuses first: a status is only ever moved forward ("seen" is never replaced by
+     * "delivered", even when the late ack comes from another device), and messages that
+     * no longer exist are skipped. Use DeliveryAckBatcher to coalesce acknowledgements.
+     *
+     * @param statusByMessageId Map of "chatId/messageId" → new status ("delivered" or "seen")
+     * @return Task<Void> - A Task that completes when every chunk is committed,
+     *         or fails if any chunk fails
+     *
+     * Firestore Path: chats/{chatId}/messages/{messageId}
+     * Operation: Transaction per 500 messages - read, then update(deliveryStatus) where it advances
+     *
+     * @see DeliveryAckBatcher
+     */
+    Task<Void> updateMessageStatuses(Map<String, String> statusByMessageId);
+
     /**
      * Delete a message from a chat.
      *
@@ -0,0 +1,64 @@
+package com.example.echo_app.repository;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Page.java
+ *
+ * A single page of results from a cursor-paginated repository query.
+ *
+ * Holds the items of the page together with the opaque cursor needed to fetch
+ * the following page. When there are no further pages, nextCursor is null.
+ *
+ * Usage:
+ * messageRepository.getMessagesPage("chatId123", 50, null)
+ *     .addOnSuccessListener(page -> {
+ *         adapter.prependAll(page.getItems());
+ *         olderCursor = page.getNextCursor(); // null when history is exhausted
+ *     });
+ *
+ * @param <T> The type of item contained in the page
+ * @see PageCursor
+ */
+public final class Page<T> {
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    /**
+     * Constructor for a page of results.
+     *
+     * @param items The items in this page
+     * @param nextCursor Opaque cursor for the next page, or null if this is the last page
+     */
+    public Page(List<T> items, String nextCursor) {
+        this.items = items != null ? Collections.unmodifiableList(items) : Collections.<T>emptyList();
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Check whether another page can be requested.
+     *
+     * @return true if nextCursor is available
+     */
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+
+    @Override
+    public String toString() {
+        return "Page{" +
+                "itemCount=" + items.size() +
+                ", nextCursor='" + nextCursor + '\'' +
+                '}';
+    }
+}
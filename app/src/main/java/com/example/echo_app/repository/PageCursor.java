@@ -0,0 +1,124 @@
+package com.example.echo_app.repository;
+
+/**
+ * PageCursor.java
+ *
+ * Opaque position marker for cursor-based pagination.
+ *
+ * A cursor captures the sort key and document ID of the last document in a page.
+ * The next page is fetched with Query.startAfter(sortKey, documentId), which is
+ * stable even when several documents share the same sort key (e.g. equal timestamps).
+ *
+ * Callers should treat the encoded form as opaque and only pass it back to the
+ * repository that produced it.
+ *
+ * Encoded Format:
+ * "{sortKey.length}:{sortKey}{documentId}"
+ * Length-prefixing keeps the format unambiguous for any characters in either part.
+ *
+ * @see Page
+ */
+public final class PageCursor {
+
+    private final String sortKey;
+    private final String documentId;
+
+    /**
+     * Constructor for a cursor positioned after a document.
+     *
+     * @param sortKey The value of the ordering field of the last document in the page
+     * @param documentId The Firestore document ID of the last document in the page
+     */
+    public PageCursor(String sortKey, String documentId) {
+        if (sortKey == null || documentId == null) {
+            throw new IllegalArgumentException("sortKey and documentId must not be null");
+        }
+        this.sortKey = sortKey;
+        this.documentId = documentId;
+    }
+
+    /**
+     * Create a cursor for a timestamp-ordered collection.
+     *
+     * @param timestamp The timestamp of the last document in the page
+     * @param documentId The Firestore document ID of the last document in the page
+     * @return PageCursor positioned after the given document
+     */
+    public static PageCursor forTimestamp(long timestamp, String documentId) {
+        return new PageCursor(Long.toString(timestamp), documentId);
+    }
+
+    /**
+     * Decode a cursor previously produced by {@link #encode()}.
+     *
+     * @param encoded The opaque cursor string
+     * @return The decoded PageCursor
+     * @throws IllegalArgumentException if the string is not a valid cursor
+     */
+    public static PageCursor decode(String encoded) {
+        if (encoded == null || encoded.isEmpty()) {
+            throw new IllegalArgumentException("cursor must not be null or empty");
+        }
+
+        int separator = encoded.indexOf(':');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Malformed cursor: " + encoded);
+        }
+
+        int keyLength;
+        try {
+            keyLength = Integer.parseInt(encoded.substring(0, separator));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cursor: " + encoded, e);
+        }
+
+        // Compared against the remaining length so a huge prefix cannot overflow keyStart + keyLength;
+        // at least one character must be left for the document ID
+        int keyStart = separator + 1;
+        if (keyLength < 0 || keyLength >= encoded.length() - keyStart) {
+            throw new IllegalArgumentException("Malformed cursor: " + encoded);
+        }
+
+        int keyEnd = keyStart + keyLength;
+        return new PageCursor(encoded.substring(keyStart, keyEnd), encoded.substring(keyEnd));
+    }
+
+    /**
+     * Encode this cursor into its opaque string form.
+     *
+     * @return Encoded cursor string
+     */
+    public String encode() {
+        return sortKey.length() + ":" + sortKey + documentId;
+    }
+
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    /**
+     * Get the sort key interpreted as a timestamp.
+     *
+     * @return The sort key as a long
+     * @throws IllegalArgumentException if the sort key is not numeric
+     */
+    public long getTimestamp() {
+        try {
+            return Long.parseLong(sortKey);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor is not timestamp-based: " + sortKey, e);
+        }
+    }
+
+    public String getDocumentId() {
+        return documentId;
+    }
+
+    @Override
+    public String toString() {
+        return "PageCursor{" +
+                "sortKey='" + sortKey + '\'' +
+                ", documentId='" + documentId + '\'' +
+                '}';
+    }
+}
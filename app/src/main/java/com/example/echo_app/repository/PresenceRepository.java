@@ -0,0 +1,56 @@
+package com.example.echo_app.repository;
+
+import com.example.echo_app.model.Presence;
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.util.Collection;
+
+/**
+ * PresenceRepository.java
+ *
+ * Repository interface for user presence (online flag and last-seen time).
+ *
+ * Presence is written as a field-level update of the user document and read with
+ * batched listeners, so it never rewrites or re-sends whole profiles.
+ *
+ * All methods are asynchronous and return Task<T> for non-blocking operations.
+ *
+ * Storage Pattern:
+ * Presence lives on the user document: users/{userId} (isOnline, lastSeen)
+ *
+ * @see Presence
+ * @see PresenceService
+ */
+public interface PresenceRepository {
+
+    /**
+     * Write a user's presence.
+     *
+     * @param userId The user
+     * @param online Whether the user is online
+     * @param lastSeen Timestamp to store as lastSeen
+     * @return Task<Void> - A Task that completes when the fields are written
+     *
+     * Firestore Path: users/{userId}
+     * Operation: update() of isOnline and lastSeen only
+     */
+    Task<Void> setPresence(String userId, boolean online, long lastSeen);
+
+    /**
+     * Listen to the presence of a set of users (e.g. the participants of a chat).
+     *
+     * The users are watched with whereIn listeners of up to 30 IDs each, so a whole
+     * chat costs one listener (or one per 30 participants) instead of one per user.
+     * The first callback contains every found user as ADDED; later callbacks contain
+     * only users whose document changed.
+     *
+     * @param userIds The users to watch
+     * @param listener Callback receiving change batches
+     * @return ListenerRegistration - Handle that detaches every underlying listener
+     *
+     * Firestore Path: users/ (whereIn documentId)
+     * Operation: addSnapshotListener (real-time)
+     */
+    ListenerRegistration listenToPresence(Collection<String> userIds, ChangeListener<Presence> listener);
+}
@@ -0,0 +1,194 @@
+package com.example.echo_app.repository;
+
+import android.util.Log;
+
+import com.example.echo_app.utils.Clock;
+import com.example.echo_app.utils.Constants;
+import com.example.echo_app.utils.Scheduler;
+
+/**
+ * PresenceService.java
+ *
+ * Keeps the signed-in user's presence (isOnline, lastSeen) up to date with few writes.
+ *
+ * The UI reports foreground/background transitions; the service decides when to write:
+ * - Transitions are debounced: a state must hold for the debounce interval before it is
+ *   written, so a rotation or a quick app switch writes nothing at all
+ * - A state that is already stored is not written again
+ * - While online, a heartbeat refreshes lastSeen once per heartbeat interval; any
+ *   presence write restarts the interval, so heartbeats never stack on transitions
+ * - Going offline stops the heartbeat and stores the time as lastSeen
+ *
+ * Writes go through PresenceRepository.setPresence(), which updates only the presence
+ * fields of the user document. A failed write leaves the stored state unknown, so the
+ * next transition or heartbeat writes again.
+ *
+ * Usage:
+ * presence.onForeground(currentUserId);   // Activity.onStart()
+ * presence.onBackground();                // Activity.onStop()
+ */
+public class PresenceService {
+
+    private static final String TAG = "PresenceService";
+
+    private final PresenceRepository repository;
+    private final Scheduler scheduler;
+    private final Clock clock;
+    private final long debounceMillis;
+    private final long heartbeatMillis;
+
+    private String userId;
+    private boolean wantOnline;
+    private Boolean storedOnline;
+    private long lastWriteAt;
+    private Scheduler.Cancellable pendingTransition;
+    private Scheduler.Cancellable pendingHeartbeat;
+    private int writeCount;
+
+    /**
+     * Constructor using the intervals from Constants.
+     *
+     * @param repository Repository used for the writes
+     * @param scheduler Scheduler for debounce and heartbeat timers
+     */
+    public PresenceService(PresenceRepository repository, Scheduler scheduler) {
+        this(repository, scheduler, Clock.SYSTEM, Constants.PRESENCE_DEBOUNCE_MS, Constants.PRESENCE_HEARTBEAT_MS);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param repository Repository used for the writes
+     * @param scheduler Scheduler for debounce and heartbeat timers
+     * @param clock Time source for lastSeen values
+     * @param debounceMillis How long a transition must hold before it is written
+     * @param heartbeatMillis Interval between lastSeen refreshes while online
+     */
+    public PresenceService(PresenceRepository repository, Scheduler scheduler, Clock clock,
+                           long debounceMillis, long heartbeatMillis) {
+        this.repository = repository;
+        this.scheduler = scheduler;
+        this.clock = clock;
+        this.debounceMillis = debounceMillis;
+        this.heartbeatMillis = heartbeatMillis;
+    }
+
+    /**
+     * Report that the app came to the foreground for a user.
+     * Switching to another user writes the previous user offline first.
+     *
+     * @param userId The signed-in user
+     */
+    public synchronized void onForeground(String userId) {
+        if (userId == null || userId.isEmpty()) {
+            return;
+        }
+        if (this.userId != null && !this.userId.equals(userId)) {
+            signOut();
+        }
+        this.userId = userId;
+        requestState(true);
+    }
+
+    /**
+     * Report that the app went to the background.
+     */
+    public synchronized void onBackground() {
+        if (userId == null) {
+            return;
+        }
+        requestState(false);
+    }
+
+    /**
+     * Write the current user offline immediately and forget them (e.g. on sign-out).
+     */
+    public synchronized void signOut() {
+        if (userId == null) {
+            return;
+        }
+        cancelTimers();
+        if (!Boolean.FALSE.equals(storedOnline)) {
+            write(false);
+        }
+        userId = null;
+        storedOnline = null;
+    }
+
+    /**
+     * Number of presence writes issued so far.
+     */
+    public synchronized int getWriteCount() {
+        return writeCount;
+    }
+
+    private void requestState(boolean online) {
+        wantOnline = online;
+        if (pendingTransition != null) {
+            pendingTransition.cancel();
+        }
+        pendingTransition = scheduler.schedule(this::settle, debounceMillis);
+    }
+
+    private synchronized void settle() {
+        pendingTransition = null;
+        if (userId == null) {
+            return;
+        }
+        if (storedOnline == null || storedOnline != wantOnline) {
+            write(wantOnline);
+        }
+        if (wantOnline) {
+            scheduleHeartbeat();
+        } else if (pendingHeartbeat != null) {
+            pendingHeartbeat.cancel();
+            pendingHeartbeat = null;
+        }
+    }
+
+    private synchronized void heartbeat() {
+        pendingHeartbeat = null;
+        if (userId == null || !wantOnline) {
+            return;
+        }
+        if (clock.now() - lastWriteAt >= heartbeatMillis) {
+            write(true);
+        }
+        scheduleHeartbeat();
+    }
+
+    private void scheduleHeartbeat() {
+        if (pendingHeartbeat != null) {
+            pendingHeartbeat.cancel();
+        }
+        long due = Math.max(0L, lastWriteAt + heartbeatMillis - clock.now());
+        pendingHeartbeat = scheduler.schedule(this::heartbeat, due);
+    }
+
+    private void write(boolean online) {
+        String writtenUserId = userId;
+        lastWriteAt = clock.now();
+        storedOnline = online;
+        writeCount++;
+        repository.setPresence(writtenUserId, online, lastWriteAt)
+                .addOnFailureListener(Runnable::run, e -> {
+                    Log.e(TAG, "Presence write failed for user: " + writtenUserId, e);
+                    synchronized (this) {
+                        if (writtenUserId.equals(userId)) {
+                            storedOnline = null;
+                        }
+                    }
+                });
+    }
+
+    private void cancelTimers() {
+        if (pendingTransition != null) {
+            pendingTransition.cancel();
+            pendingTransition = null;
+        }
+        if (pendingHeartbeat != null) {
+            pendingHeartbeat.cancel();
+            pendingHeartbeat = null;
+        }
+    }
+}
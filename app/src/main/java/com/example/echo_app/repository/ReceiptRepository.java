@@ -0,0 +1,133 @@
+package com.example.echo_app.repository;
+
+import com.example.echo_app.model.ReadReceipt;
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.util.List;
+
+/**
+ * ReceiptRepository.java
+ *
+ * Repository interface for per-chat read-receipt watermarks.
+ *
+ * Alternative to per-message deliveryStatus writes: each participant stores one
+ * ReadReceipt per chat holding "delivered up to" and "seen up to" timestamps.
+ * Marking an entire chat as seen is a single write, no matter how many messages
+ * it contains. Per-message status is derived client-side with DeliveryStatus.resolve().
+ *
+ * All methods are asynchronous and return Task<T> for non-blocking operations.
+ *
+ * Storage Pattern:
+ * Receipts are stored in: chats/{chatId}/receipts/{userId}
+ * Broadcast read counters: chats/{chatId}/messages/{messageId}/readShards/{0..N-1}
+ *
+ * Broadcast chats (Chat.broadcast) do not derive per-recipient status: receipt
+ * listeners are capped at Constants.RECEIPT_LISTENER_LIMIT documents, and reads are
+ * counted with markSeenBroadcast() / getReadCount() instead.
+ *
+ * @see ReadReceipt
+ * @see com.example.echo_app.model.DeliveryStatus#resolve
+ */
+public interface ReceiptRepository {
+
+    /**
+     * Advance a participant's delivered watermark.
+     *
+     * The watermark never moves backwards: calls with an older timestamp than the
+     * stored one are no-ops and do not write.
+     *
+     * @param chatId The unique identifier of the chat
+     * @param userId The participant whose receipt is advanced
+     * @param upToTimestamp Timestamp of the newest delivered message
+     * @return Task<Void> - A Task that completes when the receipt is up to date
+     *
+     * Firestore Path: chats/{chatId}/receipts/{userId}
+     * Operation: Transaction (read + at most one write)
+     */
+    Task<Void> markDelivered(String chatId, String userId, long upToTimestamp);
+
+    /**
+     * Advance a participant's seen watermark (and the delivered watermark with it).
+     *
+     * The watermark never moves backwards: calls with an older timestamp than the
+     * stored one are no-ops and do not write.
+     *
+     * @param chatId The unique identifier of the chat
+     * @param userId The participant whose receipt is advanced
+     * @param upToTimestamp Timestamp of the newest displayed message
+     * @return Task<Void> - A Task that completes when the receipt is up to date
+     *
+     * Firestore Path: chats/{chatId}/receipts/{userId}
+     * Operation: Transaction (read + at most one write)
+     *
+     * Use Case:
+     * - Opening a chat or scrolling to its bottom marks everything visible as seen
+     */
+    Task<Void> markSeen(String chatId, String userId, long upToTimestamp);
+
+    /**
+     * Advance a participant's seen watermark in a broadcast chat and count the read.
+     *
+     * Behaves like markSeen(); in addition, when the seen watermark actually moves,
+     * the read is added to the sharded read counter of the given message in the same
+     * transaction. Each member therefore contributes at most once per message, and a
+     * member jumping over several messages is counted on the newest one, so the readers
+     * of a message are the reads counted on it and on every newer message.
+     *
+     * @param chatId The unique identifier of the broadcast chat
+     * @param userId The participant whose receipt is advanced
+     * @param messageId ID of the newest displayed message
+     * @param timestamp Timestamp of that message
+     * @return Task<Void> - A Task that completes when the receipt is up to date
+     *
+     * Firestore Path: chats/{chatId}/receipts/{userId},
+     *                 chats/{chatId}/messages/{messageId}/readShards/{random shard}
+     * Operation: Transaction (read + at most two writes)
+     */
+    Task<Void> markSeenBroadcast(String chatId, String userId, String messageId, long timestamp);
+
+    /**
+     * Get the number of reads counted on a broadcast message.
+     *
+     * @param chatId The unique identifier of the broadcast chat
+     * @param messageId The message whose counter is read
+     * @return Task<Long> - The sum of the message's read counter shards
+     *
+     * Firestore Path: chats/{chatId}/messages/{messageId}/readShards/
+     * Query Type: Subcollection query (at most Constants.BROADCAST_READ_COUNTER_SHARDS documents)
+     */
+    Task<Long> getReadCount(String chatId, String messageId);
+
+    /**
+     * Retrieve the receipts of all participants of a chat.
+     *
+     * @param chatId The unique identifier of the chat
+     * @return Task<List<ReadReceipt>> - A Task that completes with one receipt per
+     *         participant that has acknowledged anything
+     *
+     * Firestore Path: chats/{chatId}/receipts/
+     * Query Type: Subcollection query (one document per participant)
+     */
+    Task<List<ReadReceipt>> getReceipts(String chatId);
+
+    /**
+     * Listen to receipt changes in a chat.
+     *
+     * The first callback contains every existing receipt as ADDED; later callbacks
+     * contain only receipts whose watermarks moved. In a non-broadcast chat every
+     * receipt is watched (there are fewer than Constants.BROADCAST_MEMBER_THRESHOLD),
+     * as DeliveryStatus.resolve() needs all of them. In a broadcast chat only the
+     * Constants.RECEIPT_LISTENER_LIMIT furthest-seen receipts are watched, e.g. for a
+     * "seen by" strip; read totals come from getReadCount().
+     *
+     * @param chatId The unique identifier of the chat
+     * @param broadcast Chat.isBroadcast() of the chat
+     * @param listener Callback receiving change batches
+     * @return ListenerRegistration - Handle that detaches the listener when remove() is called
+     *
+     * Firestore Path: chats/{chatId}/receipts/
+     * Operation: addSnapshotListener (real-time)
+     */
+    ListenerRegistration listenToReceipts(String chatId, boolean broadcast, ChangeListener<ReadReceipt> listener);
+}
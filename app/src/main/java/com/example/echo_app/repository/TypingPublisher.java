@@ -0,0 +1,136 @@
+package com.example.echo_app.repository;
+
+import android.util.Log;
+
+import com.example.echo_app.utils.Clock;
+import com.example.echo_app.utils.Constants;
+
+/**
+ * TypingPublisher.java
+ *
+ * Turns the local user's keystrokes into throttled typing writes.
+ *
+ * Writing on every keystroke would cost one document write per character. Instead:
+ * - The first keystroke writes immediately (leading edge), so the indicator appears
+ *   without delay for the other participants
+ * - While typing continues, at most one refresh is written per refresh interval; each
+ *   write moves expiresAt to now + TTL, so the indicator stays up between refreshes
+ * - When typing pauses, nothing is written: the document expires on its own
+ * - stop() deletes the document only if it has not expired yet (e.g. on send)
+ *
+ * The TTL must be at least the refresh interval; a TTL of about twice the interval
+ * keeps the indicator steady even if one refresh is delayed.
+ *
+ * Usage:
+ * typingPublisher.onTyping(chatId, currentUserId);   // on every text change
+ * typingPublisher.stop();                            // on send or when leaving the chat
+ */
+public class TypingPublisher {
+
+    private static final String TAG = "TypingPublisher";
+
+    private final TypingRepository repository;
+    private final Clock clock;
+    private final long refreshMillis;
+    private final long ttlMillis;
+
+    private String chatId;
+    private String userId;
+    private long lastWriteAt;
+    private long expiresAt;
+    private int writeCount;
+
+    /**
+     * Constructor using the intervals from Constants.
+     *
+     * @param repository Repository used for the writes
+     */
+    public TypingPublisher(TypingRepository repository) {
+        this(repository, Clock.SYSTEM, Constants.TYPING_REFRESH_MS, Constants.TYPING_TTL_MS);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param repository Repository used for the writes
+     * @param clock Time source for throttling and expiry
+     * @param refreshMillis Minimum time between two writes while typing (must be positive)
+     * @param ttlMillis Lifetime of one write (must be at least refreshMillis)
+     */
+    public TypingPublisher(TypingRepository repository, Clock clock, long refreshMillis, long ttlMillis) {
+        if (refreshMillis <= 0 || ttlMillis < refreshMillis) {
+            throw new IllegalArgumentException("refreshMillis must be positive and ttlMillis at least refreshMillis");
+        }
+        this.repository = repository;
+        this.clock = clock;
+        this.refreshMillis = refreshMillis;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Report a keystroke of a user in a chat.
+     * Typing in another chat (or as another user) first stops the previous indicator.
+     *
+     * @param chatId The chat being typed in
+     * @param userId The typist
+     */
+    public synchronized void onTyping(String chatId, String userId) {
+        if (chatId == null || chatId.isEmpty() || userId == null || userId.isEmpty()) {
+            return;
+        }
+        if (this.chatId != null && (!this.chatId.equals(chatId) || !this.userId.equals(userId))) {
+            stop();
+        }
+
+        long now = clock.now();
+        if (this.chatId != null && now - lastWriteAt < refreshMillis) {
+            // Throttled: the last write is still fresh
+            return;
+        }
+
+        this.chatId = chatId;
+        this.userId = userId;
+        lastWriteAt = now;
+        expiresAt = now + ttlMillis;
+        writeCount++;
+        repository.setTyping(chatId, userId, expiresAt)
+                .addOnFailureListener(Runnable::run, e -> onWriteFailed(chatId, userId, now, e));
+    }
+
+    /**
+     * Stop the indicator, deleting the typing document if it has not expired yet.
+     */
+    public synchronized void stop() {
+        if (chatId == null) {
+            return;
+        }
+        if (clock.now() < expiresAt) {
+            writeCount++;
+            String stoppedChatId = chatId;
+            String stoppedUserId = userId;
+            repository.clearTyping(stoppedChatId, stoppedUserId)
+                    .addOnFailureListener(Runnable::run, e ->
+                            Log.e(TAG, "Clearing typing failed in chat: " + stoppedChatId, e));
+        }
+        chatId = null;
+        userId = null;
+        expiresAt = 0L;
+    }
+
+    /**
+     * Number of typing writes (sets and deletes) issued so far.
+     */
+    public synchronized int getWriteCount() {
+        return writeCount;
+    }
+
+    private synchronized void onWriteFailed(String failedChatId, String failedUserId, long writtenAt, Exception e) {
+        Log.e(TAG, "Typing write failed in chat: " + failedChatId, e);
+        // Let the next keystroke retry instead of waiting out the refresh interval
+        if (failedChatId.equals(chatId) && failedUserId.equals(userId) && lastWriteAt == writtenAt) {
+            chatId = null;
+            userId = null;
+            expiresAt = 0L;
+        }
+    }
+}
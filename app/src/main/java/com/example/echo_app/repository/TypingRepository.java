@@ -0,0 +1,64 @@
+package com.example.echo_app.repository;
+
+import com.example.echo_app.model.TypingStatus;
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.ListenerRegistration;
+
+/**
+ * TypingRepository.java
+ *
+ * Repository interface for ephemeral typing indicators.
+ *
+ * Each typist owns one small document per chat holding an expiry timestamp. Readers
+ * treat expired documents as absent, so nobody has to write to hide an indicator.
+ * Write frequency is controlled by the caller (see TypingPublisher).
+ *
+ * All methods are asynchronous and return Task<T> for non-blocking operations.
+ *
+ * Storage Pattern:
+ * chats/{chatId}/typing/{userId}
+ *
+ * @see TypingStatus
+ * @see TypingPublisher
+ */
+public interface TypingRepository {
+
+    /**
+     * Mark a user as typing in a chat until a given time.
+     *
+     * @param chatId The chat
+     * @param userId The typist
+     * @param expiresAt Timestamp after which readers stop showing the indicator
+     * @return Task<Void> - A Task that completes when the document is written
+     *
+     * Firestore Path: chats/{chatId}/typing/{userId}
+     * Operation: set() (overwrite)
+     */
+    Task<Void> setTyping(String chatId, String userId, long expiresAt);
+
+    /**
+     * Remove a user's typing document early (e.g. the message was sent).
+     *
+     * @param chatId The chat
+     * @param userId The typist
+     * @return Task<Void> - A Task that completes when the document is deleted
+     *
+     * Firestore Path: chats/{chatId}/typing/{userId}
+     * Operation: Delete document
+     */
+    Task<Void> clearTyping(String chatId, String userId);
+
+    /**
+     * Listen to the typing documents of a chat; one listener covers every participant.
+     * Documents are delivered as written, including expired ones; callers filter by
+     * expiresAt.
+     *
+     * @param chatId The chat
+     * @param listener Callback receiving change batches
+     * @return ListenerRegistration - Handle to detach the listener
+     *
+     * Firestore Path: chats/{chatId}/typing/
+     * Operation: addSnapshotListener (real-time)
+     */
+    ListenerRegistration listenToTyping(String chatId, ChangeListener<TypingStatus> listener);
+}
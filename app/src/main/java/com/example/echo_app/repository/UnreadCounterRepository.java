@@ -0,0 +1,76 @@
+package com.example.echo_app.repository;
+
+import com.google.android.gms.tasks.Task;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * UnreadCounterRepository.java
+ *
+ * Repository interface for per-user, per-chat unread message counters.
+ *
+ * Each (user, chat) pair has a counter that is incremented when someone else sends
+ * a message to the chat and reset when the user reads it. The chat list badge reads
+ * the counter instead of scanning messages for an unseen status. Sends increment the
+ * counters themselves, in the same transaction as the message (see
+ * MessageRepository.sendMessage()).
+ *
+ * All methods are asynchronous and return Task<T> for non-blocking operations.
+ *
+ * Storage Pattern:
+ * Counters are sharded: users/{userId}/unread/{chatId}/shards/{0..N-1}, field "count".
+ * Increments go to a random shard with FieldValue.increment(), so a busy group chat
+ * does not run into the one-write-per-second limit of a single document.
+ *
+ * @see com.example.echo_app.data.ShardedCounter
+ */
+public interface UnreadCounterRepository {
+
+    /**
+     * Count one new message for each recipient.
+     *
+     * @param chatId The chat the message was sent to
+     * @param recipientIds Users whose counter is incremented (normally every participant except the sender)
+     * @return Task<Void> - A Task that completes when every increment is written
+     *
+     * Firestore Path: users/{uid}/unread/{chatId}/shards/{random shard}
+     * Operation: WriteBatch - one increment per recipient, 500 per batch
+     *
+     * @deprecated Sends count unread themselves, once per stored message (see
+     * MessageRepository.sendMessage()); a separate increment is not idempotent and
+     * double-counts on retry. Kept until the remaining callers are removed.
+     */
+    @Deprecated
+    Task<Void> incrementUnread(String chatId, Collection<String> recipientIds);
+
+    /**
+     * Reset a user's counter for a chat to zero.
+     *
+     * @param userId The reader
+     * @param chatId The chat that was read
+     * @return Task<Void> - A Task that completes when the counter is zero
+     *
+     * Firestore Path: users/{userId}/unread/{chatId}/shards/*
+     * Operation: Transaction - read every shard, zero the non-zero ones (no write if already zero)
+     */
+    Task<Void> markRead(String userId, String chatId);
+
+    /**
+     * Get a user's unread count for one chat.
+     *
+     * @return Task<Long> - The sum of the counter's shards (never negative)
+     *
+     * Firestore Path: users/{userId}/unread/{chatId}/shards/
+     */
+    Task<Long> getUnreadCount(String userId, String chatId);
+
+    /**
+     * Get a user's unread counts for many chats (e.g. the visible inbox rows).
+     *
+     * @param userId The user
+     * @param chatIds The chats to read
+     * @return Task<Map<String, Long>> - chatId → unread count, in the order of chatIds
+     */
+    Task<Map<String, Long>> getUnreadCounts(String userId, Collection<String> chatIds);
+}
@@ -2,7 +2,9 @@ package com.example.echo_app.repository;
 
 import com.example.echo_app.model.User;
 import com.google.android.gms.tasks.Task;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * UserRepository.java
@@ -49,19 +51,74 @@ public interface UserRepository {
      */
     Task<User> getUserById(String userId);
 
+    /**
+     * Retrieve many users by ID in as few reads as possible.
+     *
+     * IDs are de-duplicated and split into whereIn(documentId) queries of the maximum
+     * size Firestore allows; the chunks run in parallel. Use this instead of one
+     * getUserById() per participant when resolving Chat.participantIds or Group.memberIds.
+     *
+     * @param userIds The user IDs to resolve (null and empty IDs are ignored)
+     * @return Task<Map<String, User>> - A Task that completes with a map in request order
+     *         containing every requested ID; IDs without a user document map to null
+     *
+     * Firestore Path: users/
+     * Query: whereIn(FieldPath.documentId(), chunk) per chunk of up to 30 IDs
+     * Performance: ceil(n / 30) parallel queries instead of n document reads
+     */
+    Task<Map<String, User>> getUsersByIds(Collection<String> userIds);
+
+    /**
+     * Retrieve one page of users ordered by normalized display name.
+     *
+     * @param pageSize Maximum number of users in the page (must be positive)
+     * @param cursor Opaque cursor from a previous Page, or null for the first page
+     * @return Task<Page<User>> - A Task that completes with the page of users;
+     *         Page.getNextCursor() is null after the last page
+     *
+     * Firestore Path: users/
+     * Query: orderBy(displayNameLower, documentId).startAfter(cursor).limit(pageSize)
+     * Performance: Reads pageSize documents per call, independent of user count
+     * Note: Only users with a displayNameLower field are listed
+     */
+    Task<Page<User>> getUsersPage(int pageSize, String cursor);
+
+    /**
+     * Search users by case-insensitive prefix of display name or email.
+     *
+     * The prefix is normalized with User.normalize(). A prefix containing '@' is matched
+     * against emailLower, any other prefix against displayNameLower. Results are ordered
+     * by the matched field, then document ID.
+     *
+     * @param prefix The search prefix typed by the user
+     * @param pageSize Maximum number of users in the page (must be positive)
+     * @param cursor Opaque cursor from a previous Page of the same search, or null
+     * @return Task<Page<User>> - A Task that completes with the matching users
+     *
+     * Firestore Path: users/
+     * Query: where(field >= prefix).where(field < prefixEnd).orderBy(field, documentId).limit(pageSize)
+     * Index Required: Single-field indexes on displayNameLower and emailLower (automatic)
+     *
+     * Use Case:
+     * - Contact picker / "new chat" search
+     */
+    Task<Page<User>> searchUsers(String prefix, int pageSize, String cursor);
+
     /**
      * Retrieve all users from the database.
      *
      * Fetches all user documents from Firestore. Use with caution on large datasets.
-     * For better performance, consider filtering queries when possible.
      *
      * @return Task<List<User>> - A Task that completes with a list of all User objects
      *
      * Firestore Path: users/
      * Query Type: Collection query (all documents)
-     * Performance: Slow for large user bases - consider pagination
-     * Note: Consider adding pagination or filtering for production use
+     * Performance: Downloads the entire collection
+     *
+     * @deprecated Downloads every user document. Use getUsersPage() to list users
+     *             and searchUsers() to find contacts.
      */
+    @Deprecated
     Task<List<User>> getAllUsers();
 
     /**
@@ -88,7 +145,8 @@ public interface UserRepository {
      * Update an existing user's information.
      *
      * Modifies an existing user document in Firestore with new data.
-     * Only non-null fields are updated (partial update).
+     * The profile fields are merged; presence (isOnline, lastSeen) is never written
+     * here. To write only the fields that changed, use updateUser(User, User).
      * The user ID (User.id) must exist in Firestore.
      *
      * @param user The User object with updated information (id field identifies which user to update)
@@ -100,10 +158,28 @@ public interface UserRepository {
      *
      * Prerequisites:
      * - user.id must match an existing Firestore document
-     * - Typically used for: displayName, profileImageUrl, isOnline, lastSeen
+     * - Typically used for: displayName, profileImageUrl (presence is written by PresenceRepository)
      */
     Task<Void> updateUser(User user);
 
+    /**
+     * Update a user by writing only the fields that differ from a known previous state.
+     *
+     * Callers that hold the snapshot they loaded (e.g. a profile editor) pass it as
+     * previous; the write then touches only the edited fields, so listeners watching
+     * the user see a minimal change. Nothing is written if no field changed.
+     * Presence fields are never written, even if they differ.
+     *
+     * @param previous The user as last read (same id as updated)
+     * @param updated The user with the new values
+     * @return Task<Void> - A Task that completes when the changed fields are written,
+     *         or immediately if nothing changed
+     *
+     * Firestore Path: users/{user.id}
+     * Operation: update() of the changed fields only (no write if none)
+     */
+    Task<Void> updateUser(User previous, User updated);
+
     /**
      * Delete a user from the database.
      *
@@ -143,5 +219,23 @@ public interface UserRepository {
      * Note: Requires Firestore index on email field for performance
      */
     Task<User> getUserByEmail(String email);
+
+    /**
+     * Write the normalized search fields (displayNameLower, emailLower) to user
+     * documents that were created before they existed.
+     *
+     * Such documents are invisible to getUsersPage() and searchUsers(), which order
+     * and filter on those fields. Profile writes now always include them, so this is
+     * a one-off migration: it pages through the whole collection, so run it from a
+     * maintenance context with write access to every user document, not per client.
+     * It is idempotent; re-running after an interruption only writes what is still missing.
+     *
+     * @return Task<Integer> - A Task that completes with the number of documents updated
+     *
+     * Firestore Path: users/
+     * Query Type: Collection query ordered by document ID, one page per batch
+     * Writes: One update() per document missing a field, committed per page
+     */
+    Task<Integer> backfillSearchKeys();
 }
 
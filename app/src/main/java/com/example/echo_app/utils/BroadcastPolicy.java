@@ -0,0 +1,39 @@
+package com.example.echo_app.utils;
+
+/**
+ * BroadcastPolicy.java
+ *
+ * Decides when a group switches to broadcast mode.
+ *
+ * In a group with thousands of members, per-recipient delivery status means one
+ * receipt per member to write, listen to and fold for every message. Above
+ * Constants.BROADCAST_MEMBER_THRESHOLD members a group (and its linked chat) is
+ * flagged as broadcast: status is not tracked per recipient, receipt listeners are
+ * capped, and reads are aggregated in sharded counters.
+ *
+ * The switch is one-way; a broadcast group that later shrinks stays broadcast, so
+ * a group hovering around the threshold does not flip modes back and forth.
+ */
+public final class BroadcastPolicy {
+
+    private BroadcastPolicy() {
+    }
+
+    /**
+     * Check whether a group of the given size should use broadcast mode,
+     * using the threshold from Constants.
+     */
+    public static boolean isBroadcast(int memberCount) {
+        return isBroadcast(memberCount, Constants.BROADCAST_MEMBER_THRESHOLD);
+    }
+
+    /**
+     * Check whether a group of the given size should use broadcast mode.
+     *
+     * @param memberCount Number of distinct members, including the admin
+     * @param threshold Member count from which broadcast mode applies
+     */
+    public static boolean isBroadcast(int memberCount, int threshold) {
+        return memberCount >= threshold;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.echo_app.utils;
+
+/**
+ * ChatIds.java
+ *
+ * Role: Canonical document IDs for private (1:1) chats.
+ *
+ * A private chat's ID is derived from its two participants — the sorted pair of
+ * user IDs joined by a separator — so both users compute the same ID and the chat
+ * is found with a single document read instead of a participantIds query.
+ * Group chats keep generated IDs and never match this format.
+ *
+ * Format: "{smallerUid}_{largerUid}" (String.compareTo order)
+ * Firebase Auth UIDs are alphanumeric, so the separator cannot occur inside a UID;
+ * IDs containing it are rejected to keep the mapping unambiguous.
+ *
+ * Part of: Utils Layer (MVVM Architecture)
+ */
+public final class ChatIds {
+
+    private static final char SEPARATOR = '_';
+
+    private ChatIds() {
+    }
+
+    /**
+     * Get the canonical private chat ID for two users. The order of arguments does not matter.
+     *
+     * @param userId One participant
+     * @param otherUserId The other participant (must differ from userId)
+     * @return The private chat ID
+     * @throws IllegalArgumentException if an ID is null, empty, contains the separator or '/',
+     *         or both IDs are equal
+     */
+    public static String privateChatId(String userId, String otherUserId) {
+        requireValid(userId);
+        requireValid(otherUserId);
+        int order = userId.compareTo(otherUserId);
+        if (order == 0) {
+            throw new IllegalArgumentException("A private chat needs two different users");
+        }
+        return order < 0 ? userId + SEPARATOR + otherUserId : otherUserId + SEPARATOR + userId;
+    }
+
+    /**
+     * Check whether a chat ID has the private chat format.
+     */
+    public static boolean isPrivateChatId(String chatId) {
+        if (chatId == null) {
+            return false;
+        }
+        int separator = chatId.indexOf(SEPARATOR);
+        return separator > 0 && separator == chatId.lastIndexOf(SEPARATOR) && separator < chatId.length() - 1;
+    }
+
+    /**
+     * Get the other participant of a private chat.
+     *
+     * @param chatId A private chat ID
+     * @param userId One of its participants
+     * @return The other participant's ID
+     * @throws IllegalArgumentException if chatId is not a private chat ID of userId
+     */
+    public static String otherParticipant(String chatId, String userId) {
+        if (!isPrivateChatId(chatId)) {
+            throw new IllegalArgumentException("Not a private chat ID: " + chatId);
+        }
+        int separator = chatId.indexOf(SEPARATOR);
+        String first = chatId.substring(0, separator);
+        String second = chatId.substring(separator + 1);
+        if (first.equals(userId)) {
+            return second;
+        }
+        if (second.equals(userId)) {
+            return first;
+        }
+        throw new IllegalArgumentException(userId + " is not a participant of " + chatId);
+    }
+
+    private static void requireValid(String userId) {
+        if (userId == null || userId.isEmpty()) {
+            throw new IllegalArgumentException("userId must not be null or empty");
+        }
+        if (userId.indexOf(SEPARATOR) >= 0 || userId.indexOf('/') >= 0) {
+            throw new IllegalArgumentException("userId must not contain '" + SEPARATOR + "' or '/': " + userId);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.echo_app.utils;
+
+/**
+ * Clock.java
+ *
+ * Role: Source of the current wall-clock time in milliseconds.
+ *
+ * Components with time-based behavior (cache expiry, throttling, debouncing)
+ * take a Clock instead of calling System.currentTimeMillis() directly, so tests
+ * can advance time deterministically with a fake implementation.
+ *
+ * Part of: Utils Layer (MVVM Architecture)
+ */
+public interface Clock {
+
+    /**
+     * The system wall clock.
+     */
+    Clock SYSTEM = System::currentTimeMillis;
+
+    /**
+     * Get the current time in milliseconds since the epoch.
+     */
+    long now();
+}
@@ -0,0 +1,59 @@
+package com.example.echo_app.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * CollectionUtils.java
+ *
+ * Role: Utility class for collection helpers shared by the repositories.
+ *
+ * Responsibilities:
+ * - Split ID lists into chunks that fit Firestore query and batch limits
+ * - De-duplicate ID lists while preserving request order
+ *
+ * Part of: Utils Layer (MVVM Architecture)
+ */
+public class CollectionUtils {
+
+    // Private constructor to prevent instantiation
+    private CollectionUtils() {
+    }
+
+    /**
+     * Split a list into consecutive chunks of at most chunkSize elements.
+     *
+     * @param items The items to split
+     * @param chunkSize Maximum chunk size (must be positive)
+     * @return Chunks in order; empty if items is empty
+     */
+    public static <T> List<List<T>> partition(List<T> items, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+
+        List<List<T>> chunks = new ArrayList<>((items.size() + chunkSize - 1) / chunkSize);
+        for (int start = 0; start < items.size(); start += chunkSize) {
+            chunks.add(new ArrayList<>(items.subList(start, Math.min(start + chunkSize, items.size()))));
+        }
+        return chunks;
+    }
+
+    /**
+     * Remove null, empty and duplicate IDs, keeping first-occurrence order.
+     *
+     * @param ids The IDs to clean
+     * @return Distinct non-empty IDs
+     */
+    public static List<String> distinctIds(Collection<String> ids) {
+        LinkedHashSet<String> distinct = new LinkedHashSet<>();
+        for (String id : ids) {
+            if (id != null && !id.isEmpty()) {
+                distinct.add(id);
+            }
+        }
+        return new ArrayList<>(distinct);
+    }
+}
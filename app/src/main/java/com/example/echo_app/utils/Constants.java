@@ -33,6 +33,53 @@ public class Constants {
     // public static final String PREF_USER_ID = "user_id";
     // public static final String PREF_AUTH_TOKEN = "auth_token";
 
+    // User profile cache
+    public static final int USER_CACHE_MAX_ENTRIES = 500;
+    public static final long USER_CACHE_TTL_MS = 5 * 60 * 1000L;
+
+    // Chat list preview (Chat.lastMessageText) length
+    public static final int CHAT_PREVIEW_MAX_LENGTH = 100;
+
+    // Delivery acknowledgements (failed flushes are retried this many times, then dropped)
+    public static final int DELIVERY_ACK_MAX_ATTEMPTS = 3;
+
+    // Message outbox
+    public static final int OUTBOX_BATCH_SIZE = 50;
+    public static final long OUTBOX_SEND_TIMEOUT_MS = 30 * 1000L;
+    public static final long OUTBOX_BACKOFF_DELAY_MS = 10 * 1000L;
+    // Failed drains a queued message may take part in before it is set aside as failed
+    public static final int OUTBOX_MAX_ATTEMPTS = 10;
+
+    // Group delete
+    public static final int GROUP_DELETE_CONCURRENCY = 4;
+    public static final long GROUP_DELETE_BACKOFF_DELAY_MS = 30 * 1000L;
+
+    // Broadcast groups (no per-recipient status above this many members)
+    public static final int BROADCAST_MEMBER_THRESHOLD = 1000;
+    public static final int BROADCAST_READ_COUNTER_SHARDS = 10;
+    // Max receipt documents a broadcast chat's receipt listener watches (furthest-seen first);
+    // non-broadcast chats watch every receipt, since per-recipient status needs all of them
+    public static final int RECEIPT_LISTENER_LIMIT = 100;
+
+    // Unread counters
+    public static final int UNREAD_COUNTER_SHARDS = 5;
+    public static final long UNREAD_CACHE_TTL_MS = 60 * 1000L;
+
+    // Presence
+    public static final long PRESENCE_DEBOUNCE_MS = 5 * 1000L;
+    public static final long PRESENCE_HEARTBEAT_MS = 60 * 1000L;
+
+    // Typing indicators (TTL twice the refresh so one late refresh does not flicker)
+    public static final long TYPING_REFRESH_MS = 5 * 1000L;
+    public static final long TYPING_TTL_MS = 2 * TYPING_REFRESH_MS;
+
+    // Media upload (images are re-encoded as JPEG; thumbnails are stored inline on the message)
+    public static final int MEDIA_MAX_DIMENSION = 1600;
+    public static final int MEDIA_JPEG_QUALITY = 80;
+    public static final int MEDIA_THUMBNAIL_DIMENSION = 32;
+    public static final int MEDIA_THUMBNAIL_QUALITY = 50;
+    public static final int MEDIA_THUMBNAIL_MAX_CHARS = 2048;
+
     // Error codes
     // public static final int ERROR_NETWORK = 1001;
     // public static final int ERROR_AUTHENTICATION = 1002;
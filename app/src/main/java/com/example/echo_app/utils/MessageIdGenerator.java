@@ -0,0 +1,151 @@
+package com.example.echo_app.utils;
+
+import java.security.SecureRandom;
+import java.util.Random;
+
+/**
+ * MessageIdGenerator.java
+ *
+ * Role: Generates time-ordered, globally unique document IDs on the client (ULID layout).
+ *
+ * Knowing a message's ID before it is written lets the app write with
+ * document(id).set() — a retry overwrites itself instead of creating a duplicate —
+ * and lets the UI key an optimistic message on its final ID immediately.
+ *
+ * Format: 26 Crockford base32 characters
+ * - 10 characters: 48-bit millisecond timestamp
+ * - 16 characters: 80 bits of randomness
+ *
+ * IDs sort lexicographically in creation order. Within the same millisecond (or if
+ * the clock moves backwards) the random part of the previous ID is incremented, so
+ * IDs from one generator are strictly increasing.
+ *
+ * Part of: Utils Layer (MVVM Architecture)
+ */
+public class MessageIdGenerator {
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    /**
+     * Length of a generated ID.
+     */
+    public static final int ID_LENGTH = 26;
+
+    private static final int TIME_LENGTH = 10;
+    private static final long MAX_TIMESTAMP = (1L << 48) - 1;
+    private static final long RANDOM_HIGH_MASK = 0xFFFFL;
+
+    private static MessageIdGenerator instance;
+
+    private final Clock clock;
+    private final Random random;
+
+    private long lastTimestamp = -1L;
+    // 80 random bits: 16 in randomHigh, 64 in randomLow
+    private long randomHigh;
+    private long randomLow;
+
+    /**
+     * Constructor.
+     *
+     * @param clock Source of the timestamp component
+     * @param random Source of the random component
+     */
+    public MessageIdGenerator(Clock clock, Random random) {
+        this.clock = clock;
+        this.random = random;
+    }
+
+    /**
+     * Get the shared generator (system clock, SecureRandom).
+     */
+    public static synchronized MessageIdGenerator getInstance() {
+        if (instance == null) {
+            instance = new MessageIdGenerator(Clock.SYSTEM, new SecureRandom());
+        }
+        return instance;
+    }
+
+    /**
+     * Generate the next ID.
+     *
+     * @return A 26-character ID greater than every ID previously returned by this generator
+     */
+    public synchronized String next() {
+        long timestamp = clock.now();
+        if (timestamp > lastTimestamp) {
+            lastTimestamp = timestamp;
+            randomHigh = random.nextInt() & RANDOM_HIGH_MASK;
+            randomLow = random.nextLong();
+        } else {
+            increment();
+        }
+        return encode(lastTimestamp, randomHigh, randomLow);
+    }
+
+    /**
+     * Increment the 80-bit random component; on overflow, borrow the next millisecond.
+     */
+    private void increment() {
+        randomLow++;
+        if (randomLow == 0L) {
+            randomHigh = (randomHigh + 1) & RANDOM_HIGH_MASK;
+            if (randomHigh == 0L) {
+                lastTimestamp++;
+            }
+        }
+    }
+
+    /**
+     * Extract the creation time from an ID produced by this class.
+     *
+     * @param id A generated ID
+     * @return Milliseconds since the epoch
+     * @throws IllegalArgumentException if id is not a valid generated ID
+     */
+    public static long timestampOf(String id) {
+        if (id == null || id.length() != ID_LENGTH) {
+            throw new IllegalArgumentException("Not a generated ID: " + id);
+        }
+        long timestamp = 0L;
+        for (int i = 0; i < TIME_LENGTH; i++) {
+            int value = indexOf(id.charAt(i));
+            if (value < 0) {
+                throw new IllegalArgumentException("Not a generated ID: " + id);
+            }
+            timestamp = (timestamp << 5) | value;
+        }
+        return timestamp;
+    }
+
+    private static String encode(long timestamp, long randomHigh, long randomLow) {
+        if (timestamp < 0 || timestamp > MAX_TIMESTAMP) {
+            throw new IllegalStateException("Timestamp out of range: " + timestamp);
+        }
+
+        char[] chars = new char[ID_LENGTH];
+        for (int i = TIME_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (timestamp & 31)];
+            timestamp >>>= 5;
+        }
+
+        // 80 bits = 16 groups of 5; walk from the least significant group upwards
+        long high = randomHigh;
+        long low = randomLow;
+        for (int i = ID_LENGTH - 1; i >= TIME_LENGTH; i--) {
+            chars[i] = ALPHABET[(int) (low & 31)];
+            low = (low >>> 5) | ((high & 31) << 59);
+            high >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    private static int indexOf(char c) {
+        for (int i = 0; i < ALPHABET.length; i++) {
+            if (ALPHABET[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
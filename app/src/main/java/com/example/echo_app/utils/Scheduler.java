@@ -0,0 +1,47 @@
+package com.example.echo_app.utils;
+
+import android.os.Handler;
+
+/**
+ * Scheduler.java
+ *
+ * Role: Runs a task after a delay and lets the caller cancel it.
+ *
+ * Components that debounce or repeat work on a timer take a Scheduler instead of
+ * posting to a Handler directly, so tests can run delayed tasks deterministically
+ * together with a fake Clock.
+ *
+ * Part of: Utils Layer (MVVM Architecture)
+ */
+public interface Scheduler {
+
+    /**
+     * Handle to a scheduled task.
+     */
+    interface Cancellable {
+
+        /**
+         * Cancel the task if it has not run yet.
+         */
+        void cancel();
+    }
+
+    /**
+     * Run a task once after a delay.
+     *
+     * @param task The task to run
+     * @param delayMillis Delay in milliseconds
+     * @return Handle that cancels the task
+     */
+    Cancellable schedule(Runnable task, long delayMillis);
+
+    /**
+     * Scheduler posting to a Handler (e.g. the main looper).
+     */
+    static Scheduler fromHandler(Handler handler) {
+        return (task, delayMillis) -> {
+            handler.postDelayed(task, delayMillis);
+            return () -> handler.removeCallbacks(task);
+        };
+    }
+}
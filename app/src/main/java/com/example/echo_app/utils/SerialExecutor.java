@@ -0,0 +1,53 @@
+package com.example.echo_app.utils;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+
+/**
+ * SerialExecutor.java
+ *
+ * Role: Executor that runs tasks one at a time, in submission order, on a shared pool.
+ *
+ * Wraps a (possibly multi-threaded) delegate executor so that tasks submitted through
+ * this instance never run concurrently or out of order, while different SerialExecutor
+ * instances still run in parallel on the same pool. Used for real-time listener
+ * callbacks, where change batches must be applied in the order they were produced.
+ *
+ * Part of: Utils Layer (MVVM Architecture)
+ */
+public class SerialExecutor implements Executor {
+
+    private final Executor delegate;
+    private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+    private Runnable active;
+
+    /**
+     * Constructor.
+     *
+     * @param delegate The executor that actually runs the tasks
+     */
+    public SerialExecutor(Executor delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public synchronized void execute(Runnable command) {
+        tasks.offer(() -> {
+            try {
+                command.run();
+            } finally {
+                scheduleNext();
+            }
+        });
+        if (active == null) {
+            scheduleNext();
+        }
+    }
+
+    private synchronized void scheduleNext() {
+        active = tasks.poll();
+        if (active != null) {
+            delegate.execute(active);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.echo_app.viewmodel;
+
+import com.example.echo_app.model.Chat;
+import com.example.echo_app.repository.Change;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ChatInbox.java
+ *
+ * Role: Sorted, incrementally-updated chat list for the inbox screen.
+ *
+ * Keeps chats in display order (most recent activity first, ties by chat ID) in an
+ * array list with a HashMap index from chat ID to its current row value. A change
+ * locates the old row and the new position by binary search, so a new message moves
+ * exactly one row instead of re-sorting the whole list. Each applied change is
+ * reported as a RowUpdate that maps directly onto RecyclerView adapter notifications
+ * (notifyItemInserted/Removed/Changed/Moved).
+ *
+ * Chats handed to apply() become row values and must not be mutated afterwards;
+ * a changed chat is applied as a new MODIFIED instance.
+ *
+ * Thread-safety: all methods are synchronized; listener callbacks may apply changes
+ * on a background thread while the UI reads rows.
+ *
+ * Part of: ViewModel Layer (MVVM Architecture)
+ *
+ * @see com.example.echo_app.repository.ChatRepository#listenToInbox
+ */
+public class ChatInbox {
+
+    /**
+     * Display order, identical to the inbox query: lastMessageTimestamp desc, then id desc.
+     */
+    static final Comparator<Chat> ORDER = (a, b) -> {
+        int byTimestamp = Long.compare(b.getLastMessageTimestamp(), a.getLastMessageTimestamp());
+        return byTimestamp != 0 ? byTimestamp : b.getId().compareTo(a.getId());
+    };
+
+    private final List<Chat> rows = new ArrayList<>();
+    private final Map<String, Chat> rowsById = new HashMap<>();
+
+    /**
+     * Apply a batch of changes.
+     *
+     * ADDED and MODIFIED insert or replace by chat ID, moving the row if its sort key
+     * changed; REMOVED deletes by chat ID. Chats without an ID are ignored.
+     *
+     * @param changes The changes to apply
+     * @return The row operations performed, in order
+     */
+    public synchronized List<RowUpdate> apply(List<Change<Chat>> changes) {
+        List<RowUpdate> updates = new ArrayList<>(changes.size());
+        for (Change<Chat> change : changes) {
+            Chat chat = change.getItem();
+            if (chat == null || chat.getId() == null) {
+                continue;
+            }
+
+            int from = -1;
+            Chat previous = rowsById.remove(chat.getId());
+            if (previous != null) {
+                from = Collections.binarySearch(rows, previous, ORDER);
+                rows.remove(from);
+            }
+
+            if (change.getType() == Change.Type.REMOVED) {
+                if (from >= 0) {
+                    updates.add(new RowUpdate(RowUpdate.Type.REMOVED, from, from, previous));
+                }
+                continue;
+            }
+
+            int to = Collections.binarySearch(rows, chat, ORDER);
+            // Not present after removal, so binarySearch returns -(insertionPoint) - 1
+            to = -to - 1;
+            rows.add(to, chat);
+            rowsById.put(chat.getId(), chat);
+
+            if (from < 0) {
+                updates.add(new RowUpdate(RowUpdate.Type.INSERTED, to, to, chat));
+            } else if (from == to) {
+                updates.add(new RowUpdate(RowUpdate.Type.CHANGED, from, to, chat));
+            } else {
+                updates.add(new RowUpdate(RowUpdate.Type.MOVED, from, to, chat));
+            }
+        }
+        return updates;
+    }
+
+    /**
+     * Get the chat shown at a row.
+     */
+    public synchronized Chat get(int index) {
+        return rows.get(index);
+    }
+
+    /**
+     * Get the row of a chat, or -1 if it is not in the inbox. O(log n).
+     */
+    public synchronized int indexOf(String chatId) {
+        Chat chat = rowsById.get(chatId);
+        return chat != null ? Collections.binarySearch(rows, chat, ORDER) : -1;
+    }
+
+    /**
+     * Copy the current rows in display order. O(n); use when binding the UI.
+     */
+    public synchronized List<Chat> snapshot() {
+        return new ArrayList<>(rows);
+    }
+
+    public synchronized int size() {
+        return rows.size();
+    }
+
+    public synchronized void clear() {
+        rows.clear();
+        rowsById.clear();
+    }
+
+    /**
+     * One row operation resulting from an applied change.
+     * For MOVED, the row's content may also have changed.
+     */
+    public static final class RowUpdate {
+
+        public enum Type {
+            INSERTED,
+            CHANGED,
+            MOVED,
+            REMOVED
+        }
+
+        private final Type type;
+        private final int fromIndex;
+        private final int toIndex;
+        private final Chat chat;
+
+        RowUpdate(Type type, int fromIndex, int toIndex, Chat chat) {
+            this.type = type;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+            this.chat = chat;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        public int getFromIndex() {
+            return fromIndex;
+        }
+
+        public int getToIndex() {
+            return toIndex;
+        }
+
+        public Chat getChat() {
+            return chat;
+        }
+
+        @Override
+        public String toString() {
+            return type + "(" + fromIndex + "->" + toIndex + ", " + chat.getId() + ")";
+        }
+    }
+}
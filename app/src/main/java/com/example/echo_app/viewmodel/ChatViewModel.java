@@ -1,9 +1,44 @@
 package com.example.echo_app.viewmodel;
 
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+
 import androidx.lifecycle.ViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
+import com.example.echo_app.di.AppModule;
+import com.example.echo_app.media.MediaUploader;
+import com.example.echo_app.model.Chat;
+import com.example.echo_app.model.DeliveryStatus;
+import com.example.echo_app.model.Message;
+import com.example.echo_app.model.Presence;
+import com.example.echo_app.model.TypingStatus;
+import com.example.echo_app.repository.CachingMessageRepository;
+import com.example.echo_app.repository.Change;
+import com.example.echo_app.repository.ChangeListener;
+import com.example.echo_app.repository.DeliveryAckBatcher;
+import com.example.echo_app.repository.MessageOutbox;
+import com.example.echo_app.repository.Page;
+import com.example.echo_app.repository.PresenceRepository;
+import com.example.echo_app.repository.ReceiptRepository;
+import com.example.echo_app.repository.TypingPublisher;
+import com.example.echo_app.repository.TypingRepository;
+import com.example.echo_app.repository.UnreadCounterRepository;
+import com.example.echo_app.utils.ChatIds;
+import com.example.echo_app.utils.Clock;
+import com.example.echo_app.utils.Constants;
+import com.example.echo_app.utils.MessageIdGenerator;
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * ChatViewModel.java
  *
@@ -20,22 +55,602 @@ import androidx.lifecycle.MutableLiveData;
  * - Manage user-specific chat state
  * - Filter and format messages for UI display
  *
+ * Message State:
+ * - Opening a chat shows its newest cached window from the on-device store first, then
+ *   downloads only the messages received since the last sync (delta on the server
+ *   receive time) and attaches a live listener from the newest shown timestamp onwards
+ * - A chat without cached messages loads its newest page from the server instead,
+ *   which also seeds the cache's sync mark for the next open
+ * - Listener deltas are applied to a MessageTimeline in O(changes); messages the listener
+ *   re-delivers (its first snapshot overlaps the loaded page) are published as MODIFIED,
+ *   so only genuinely new messages reach the UI as ADDED
+ * - The UI observes getMessageChanges() to update its adapter incrementally and
+ *   calls getMessagesSnapshot() only when (re)binding
+ * - Sent messages appear at once under their client-generated ID and go through the
+ *   durable MessageOutbox (sendMessage()), so they survive being offline or process death;
+ *   opening a chat shows its still-queued messages, and getFailedMessages() the ones the
+ *   outbox had to set aside
+ * - Read receipts are a single per-chat watermark (markChatSeen()), not one write per message
+ * - In broadcast chats the seen watermark also bumps the newest message's sharded read counter
+ * - In private chats markChatSeen() also acknowledges the other participant's messages
+ *   as "seen" on the messages themselves, coalesced by DeliveryAckBatcher into one bulk
+ *   update per call (group status is derived from receipts instead, since one member
+ *   reading a message does not make it seen)
+ * - The send itself increments the other participants' sharded unread counters, taking
+ *   them from the chat document (not in broadcast chats); markChatSeen() resets the
+ *   reader's counter
+ * - Participant presence comes from one batched listener per open chat, re-attached
+ *   when openChat(Chat) is called again with a changed member list
+ * - Typing: keystrokes are throttled by TypingPublisher (leading-edge write, then at most
+ *   one refresh per TYPING_REFRESH_MS); one listener per open chat feeds TypingUsers,
+ *   which hides expired indicators locally without any cleanup writes
+ * - Media (sendMedia()): the picked file is downscaled off the main thread; the message
+ *   shows its inline thumbnail as a placeholder while the upload runs, and is written
+ *   to Firestore only once the download URL is known
+ *
  * Part of: ViewModel Layer (MVVM Architecture)
  */
 public class ChatViewModel extends ViewModel {
 
-    // TODO: Inject repositories using DI framework
-    // private MessageRepository messageRepository;
-    // private UserRepository userRepository;
+    private static final int PAGE_SIZE = 50;
+
+    private final CachingMessageRepository messageRepository;
+    private final MessageOutbox outbox;
+    private final ReceiptRepository receiptRepository;
+    private final UnreadCounterRepository unreadCounters;
+    private final PresenceRepository presenceRepository;
+    private final TypingRepository typingRepository;
+    private final TypingPublisher typingPublisher;
+    private final MediaUploader mediaUploader;
+    private final TypingUsers typingUsers = new TypingUsers(Constants.TYPING_TTL_MS);
+    private final Runnable typingExpiry = this::refreshTyping;
+    private final MessageTimeline timeline = new MessageTimeline();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private final MutableLiveData<List<Change<Message>>> messageChanges = new MutableLiveData<>();
+    private final MutableLiveData<Exception> errors = new MutableLiveData<>();
+    private final MutableLiveData<List<Message>> failedMessages = new MutableLiveData<>(Collections.emptyList());
+    private final MutableLiveData<Map<String, Presence>> presence = new MutableLiveData<>();
+    private final Map<String, Presence> presenceByUser = new HashMap<>();
+    private final MutableLiveData<List<String>> typingUserIds = new MutableLiveData<>(Collections.emptyList());
 
-    // TODO: Define LiveData for messages and chat state
-    // private MutableLiveData<List<Message>> messages = new MutableLiveData<>();
-    // public LiveData<List<Message>> getMessages() { return messages; }
+    private String chatId;
+    private boolean broadcast;
+    private List<String> participantIds = Collections.emptyList();
+    private String olderCursor;
+    private ListenerRegistration messageRegistration;
+    private ListenerRegistration presenceRegistration;
+    private ListenerRegistration typingRegistration;
+    private DeliveryAckBatcher deliveryAcks;
 
     public ChatViewModel() {
-        // TODO: Initialize ViewModel with dependencies
+        this(AppModule.getInstance().getMessageRepository(), AppModule.getInstance().getMessageOutbox(),
+                AppModule.getInstance().getReceiptRepository(), AppModule.getInstance().getUnreadCounterRepository(),
+                AppModule.getInstance().getPresenceRepository(), AppModule.getInstance().getTypingRepository(),
+                AppModule.getInstance().getMediaUploader());
     }
 
-    // TODO: Add methods for message operations (send, fetch, delete, etc.)
-}
+    public ChatViewModel(CachingMessageRepository messageRepository, MessageOutbox outbox,
+                         ReceiptRepository receiptRepository, UnreadCounterRepository unreadCounters,
+                         PresenceRepository presenceRepository, TypingRepository typingRepository,
+                         MediaUploader mediaUploader) {
+        this.messageRepository = messageRepository;
+        this.outbox = outbox;
+        this.receiptRepository = receiptRepository;
+        this.unreadCounters = unreadCounters;
+        this.presenceRepository = presenceRepository;
+        this.typingRepository = typingRepository;
+        this.typingPublisher = new TypingPublisher(typingRepository);
+        this.mediaUploader = mediaUploader;
+    }
+
+    /**
+     * LiveData of incremental change batches, in the order they were applied to the timeline.
+     * ADDED is only used for messages that were not in the timeline before.
+     */
+    public LiveData<List<Change<Message>>> getMessageChanges() {
+        return messageChanges;
+    }
+
+    /**
+     * LiveData of participant presence by user ID, for chats opened with openChat(Chat).
+     * Not populated for broadcast chats.
+     */
+    public LiveData<Map<String, Presence>> getPresence() {
+        return presence;
+    }
+
+    /**
+     * LiveData of the users currently typing in the open chat, sorted by ID.
+     * May include the current user typing on another device; the UI filters it out.
+     */
+    public LiveData<List<String>> getTypingUserIds() {
+        return typingUserIds;
+    }
+
+    /**
+     * LiveData of the open chat's messages that the outbox could not deliver (rejected by
+     * the server or out of attempts), oldest first. Pass one to resendMessage() to retry it.
+     */
+    public LiveData<List<Message>> getFailedMessages() {
+        return failedMessages;
+    }
+
+    /**
+     * LiveData of load and listener errors.
+     */
+    public LiveData<Exception> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Current messages ordered oldest first. O(n); use when binding the UI.
+     */
+    public List<Message> getMessagesSnapshot() {
+        return timeline.snapshot();
+    }
+
+    /**
+     * Open a chat: show the newest cached messages, sync the delta, then listen for
+     * live changes from there on. Calling again with the same chatId is a no-op.
+     *
+     * @param chatId The chat to open
+     */
+    public void openChat(String chatId) {
+        openChat(chatId, false);
+    }
+
+    /**
+     * Open a chat from its document, so that its participants' presence can be observed.
+     * Calling again with the same chat but a changed member list (e.g. from a chat list
+     * listener) re-attaches the presence listener to the new members.
+     *
+     * @param chat The chat to open
+     */
+    public void openChat(Chat chat) {
+        if (chat == null) {
+            return;
+        }
+        openChat(chat.getId(), chat.isBroadcast());
+        if (!chat.getId().equals(chatId) || chat.getParticipantIds() == null || chat.isBroadcast()) {
+            return;
+        }
+        if (presenceRegistration == null || !participantIds.equals(chat.getParticipantIds())) {
+            participantIds = new ArrayList<>(chat.getParticipantIds());
+            detachPresenceListener();
+            attachPresenceListener(participantIds);
+        }
+    }
+
+    /**
+     * Open a chat, taking its broadcast flag into account.
+     *
+     * @param chatId The chat to open
+     * @param broadcast Chat.isBroadcast() of the chat; reads are then counted with
+     *                  sharded counters instead of per-recipient status
+     */
+    public void openChat(String chatId, boolean broadcast) {
+        if (chatId == null || chatId.equals(this.chatId)) {
+            return;
+        }
+
+        detachListener();
+        timeline.clear();
+        this.chatId = chatId;
+        this.broadcast = broadcast;
+        this.participantIds = Collections.emptyList();
+        this.olderCursor = null;
+        this.deliveryAcks = new DeliveryAckBatcher(messageRepository);
+        failedMessages.postValue(Collections.emptyList());
+        attachTypingListener(chatId);
+
+        messageRepository.getCachedPage(chatId, PAGE_SIZE)
+                .addOnSuccessListener(cached -> {
+                    if (!chatId.equals(this.chatId)) {
+                        return;
+                    }
+                    if (cached.getItems().isEmpty()) {
+                        loadNewestPage(chatId);
+                        return;
+                    }
+                    applyPage(cached);
+                    syncDelta(chatId, cached.getItems().get(0).getTimestamp());
+                })
+                .addOnFailureListener(e -> {
+                    errors.postValue(e);
+                    if (chatId.equals(this.chatId)) {
+                        loadNewestPage(chatId);
+                    }
+                });
+    }
+
+    /**
+     * Load the newest page from the server, for chats with nothing cached yet.
+     */
+    private void loadNewestPage(String chatId) {
+        messageRepository.getMessagesPage(chatId, PAGE_SIZE, null)
+                .addOnSuccessListener(page -> {
+                    if (!chatId.equals(this.chatId)) {
+                        return;
+                    }
+                    applyPage(page);
+                    startLiveUpdates(chatId);
+                })
+                .addOnFailureListener(errors::postValue);
+    }
+
+    /**
+     * Download what arrived since the last sync and show the part of it that falls in
+     * the loaded window; older messages (e.g. sent late from an offline device) are now
+     * cached and appear when their page is loaded. A failed sync leaves the cached
+     * window on screen and the live listener still catches up from its newest message.
+     *
+     * @param oldestShown Timestamp of the oldest message in the cached window
+     */
+    private void syncDelta(String chatId, long oldestShown) {
+        messageRepository.syncMessages(chatId)
+                .addOnCompleteListener(task -> {
+                    if (!chatId.equals(this.chatId)) {
+                        return;
+                    }
+                    if (task.isSuccessful()) {
+                        List<Change<Message>> changes = new ArrayList<>();
+                        for (Message message : task.getResult()) {
+                            if (message.getTimestamp() >= oldestShown) {
+                                changes.add(Change.added(message));
+                            }
+                        }
+                        applyChanges(changes);
+                    } else {
+                        errors.postValue(task.getException());
+                    }
+                    startLiveUpdates(chatId);
+                });
+    }
+
+    private void startLiveUpdates(String chatId) {
+        Message newest = timeline.newest();
+        attachListener(chatId, newest != null ? newest.getTimestamp() : 0L);
+        loadQueuedMessages(chatId);
+    }
+
+    /**
+     * Show messages still waiting in the outbox (e.g. sent offline before a restart)
+     * and publish the ones it has set aside.
+     */
+    private void loadQueuedMessages(String chatId) {
+        outbox.getPending(chatId)
+                .addOnSuccessListener(pending -> {
+                    if (!chatId.equals(this.chatId) || pending.isEmpty()) {
+                        return;
+                    }
+                    List<Change<Message>> changes = new ArrayList<>(pending.size());
+                    for (Message message : pending) {
+                        changes.add(Change.added(message));
+                    }
+                    applyChanges(changes);
+                })
+                .addOnFailureListener(errors::postValue);
+        refreshFailedMessages(chatId);
+    }
+
+    private void refreshFailedMessages(String chatId) {
+        outbox.getFailed(chatId)
+                .addOnSuccessListener(failed -> {
+                    if (chatId.equals(this.chatId)) {
+                        failedMessages.postValue(failed);
+                    }
+                })
+                .addOnFailureListener(errors::postValue);
+    }
+
+    /**
+     * Load the next older page of history, if any.
+     */
+    public void loadOlderMessages() {
+        if (chatId == null || olderCursor == null) {
+            return;
+        }
+
+        String requestedChatId = chatId;
+        messageRepository.getMessagesPage(requestedChatId, PAGE_SIZE, olderCursor)
+                .addOnSuccessListener(page -> {
+                    if (requestedChatId.equals(chatId)) {
+                        applyPage(page);
+                    }
+                })
+                .addOnFailureListener(errors::postValue);
+    }
 
+    /**
+     * Check whether older history can be loaded.
+     */
+    public boolean hasOlderMessages() {
+        return olderCursor != null;
+    }
+
+    /**
+     * Send a message to the open chat, showing it immediately.
+     *
+     * The message is assigned its final ID up front, inserted into the timeline and
+     * queued in the MessageOutbox, which delivers it once the device is online; the
+     * listener's echo of the same ID replaces it rather than adding a second copy.
+     * If the message cannot even be queued, it is removed again and the error is posted.
+     *
+     * @param message The message to send (chatId defaults to the open chat)
+     */
+    public void sendMessage(Message message) {
+        if (message == null || chatId == null) {
+            return;
+        }
+        typingPublisher.stop();
+        if (message.getChatId() == null) {
+            message.setChatId(chatId);
+        }
+        if (message.getId() == null || message.getId().isEmpty()) {
+            message.setId(MessageIdGenerator.getInstance().next());
+        }
+        if (chatId.equals(message.getChatId())) {
+            applyChanges(Collections.singletonList(Change.added(message)));
+        }
+
+        outbox.send(message)
+                .addOnFailureListener(e -> {
+                    if (message.getChatId().equals(chatId)) {
+                        applyChanges(Collections.singletonList(Change.removed(message)));
+                    }
+                    errors.postValue(e);
+                });
+    }
+
+    /**
+     * Send an image or video message to the open chat.
+     *
+     * The draft appears at once without a thumbnail, is updated in place as soon as the
+     * media has been downscaled and its thumbnail exists, and is queued in the outbox
+     * after the upload completes. If preparing or uploading fails, the placeholder is
+     * removed and the error is posted; nothing is written to Firestore.
+     *
+     * The draft's chat is fixed when this is called, and the message is queued directly
+     * in the outbox rather than through the open chat's state, so it is still sent to
+     * the right chat if another chat has been opened (or this ViewModel cleared) by the
+     * time the upload finishes. Recipients and unread counts are derived by the send
+     * itself from the chat document.
+     *
+     * @param draft The message to send; its type must be "image" or "video"
+     * @param source Content or file URI picked by the user
+     */
+    public void sendMedia(Message draft, Uri source) {
+        if (draft == null || source == null || chatId == null) {
+            return;
+        }
+        if (draft.getChatId() == null) {
+            draft.setChatId(chatId);
+        }
+        if (draft.getId() == null || draft.getId().isEmpty()) {
+            draft.setId(MessageIdGenerator.getInstance().next());
+        }
+        applyMediaChange(Change.added(draft));
+
+        mediaUploader.prepare(source, draft.getMessageType())
+                .onSuccessTask(media -> {
+                    draft.setThumbnail(media.getThumbnail());
+                    applyMediaChange(Change.modified(draft));
+                    return mediaUploader.upload(draft.getChatId(), draft.getId(), media);
+                })
+                .onSuccessTask(url -> {
+                    draft.setMediaUrl(url);
+                    return outbox.send(draft);
+                })
+                .addOnFailureListener(e -> {
+                    applyMediaChange(Change.removed(draft));
+                    errors.postValue(e);
+                });
+    }
+
+    /**
+     * Queue a message from getFailedMessages() again.
+     *
+     * @param message The failed message (sent again under its own ID)
+     */
+    public void resendMessage(Message message) {
+        if (message == null || chatId == null || !chatId.equals(message.getChatId())) {
+            return;
+        }
+        String requestedChatId = chatId;
+        sendMessage(message);
+        // The outbox runs its store I/O in order, so this reads the list after the re-queue
+        refreshFailedMessages(requestedChatId);
+    }
+
+    private void applyMediaChange(Change<Message> change) {
+        // The chat may have been switched while the media was being prepared or uploaded
+        if (change.getItem().getChatId().equals(chatId)) {
+            applyChanges(Collections.singletonList(change));
+        }
+    }
+
+    /**
+     * Report a keystroke of the current user in the open chat.
+     * Cheap to call on every text change; writes are throttled by TypingPublisher.
+     *
+     * @param userId The current user's ID
+     */
+    public void onTyping(String userId) {
+        if (chatId != null) {
+            typingPublisher.onTyping(chatId, userId);
+        }
+    }
+
+    /**
+     * Stop the current user's typing indicator (e.g. the input was cleared).
+     */
+    public void stopTyping() {
+        typingPublisher.stop();
+    }
+
+    /**
+     * Mark everything currently loaded in the open chat as seen by a user.
+     * Advances the user's seen watermark to the newest message: one write per call,
+     * and none if the watermark is already there.
+     *
+     * @param userId The current user's ID
+     */
+    public void markChatSeen(String userId) {
+        Message newest = timeline.newest();
+        if (chatId == null || userId == null || newest == null) {
+            return;
+        }
+        Task<Void> task = broadcast
+                ? receiptRepository.markSeenBroadcast(chatId, userId, newest.getId(), newest.getTimestamp())
+                : receiptRepository.markSeen(chatId, userId, newest.getTimestamp());
+        task.addOnFailureListener(errors::postValue);
+        unreadCounters.markRead(userId, chatId)
+                .addOnFailureListener(errors::postValue);
+        if (!broadcast && ChatIds.isPrivateChatId(chatId)) {
+            acknowledgeSeen(userId);
+        }
+    }
+
+    /**
+     * Acknowledge the other participant's loaded messages as seen. Messages already
+     * acknowledged (stored or flushed earlier in this session) produce no write.
+     */
+    private void acknowledgeSeen(String userId) {
+        for (Message message : timeline.snapshot()) {
+            if (!userId.equals(message.getSenderId())
+                    && DeliveryStatus.rank(message.getDeliveryStatus()) < DeliveryStatus.rank(DeliveryStatus.SEEN)) {
+                deliveryAcks.acknowledge(chatId + "/" + message.getId(), DeliveryStatus.SEEN);
+            }
+        }
+        deliveryAcks.flush().addOnFailureListener(errors::postValue);
+    }
+
+    private void applyPage(Page<Message> page) {
+        olderCursor = page.getNextCursor();
+        List<Change<Message>> changes = new ArrayList<>(page.getItems().size());
+        for (Message message : page.getItems()) {
+            changes.add(Change.added(message));
+        }
+        applyChanges(changes);
+    }
+
+    private void attachListener(String chatId, long sinceTimestamp) {
+        messageRegistration = messageRepository.listenToMessages(chatId, sinceTimestamp,
+                new ChangeListener<Message>() {
+                    @Override
+                    public void onChanges(List<Change<Message>> changes) {
+                        applyChanges(changes);
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        errors.postValue(e);
+                    }
+                });
+    }
+
+    private void attachPresenceListener(List<String> userIds) {
+        presenceRegistration = presenceRepository.listenToPresence(userIds, new ChangeListener<Presence>() {
+            @Override
+            public void onChanges(List<Change<Presence>> changes) {
+                synchronized (presenceByUser) {
+                    for (Change<Presence> change : changes) {
+                        if (change.getType() == Change.Type.REMOVED) {
+                            presenceByUser.remove(change.getItem().getUserId());
+                        } else {
+                            presenceByUser.put(change.getItem().getUserId(), change.getItem());
+                        }
+                    }
+                    presence.postValue(new HashMap<>(presenceByUser));
+                }
+            }
+
+            @Override
+            public void onError(Exception e) {
+                errors.postValue(e);
+            }
+        });
+    }
+
+    private void detachPresenceListener() {
+        if (presenceRegistration != null) {
+            presenceRegistration.remove();
+            presenceRegistration = null;
+        }
+        synchronized (presenceByUser) {
+            presenceByUser.clear();
+        }
+    }
+
+    private void attachTypingListener(String chatId) {
+        typingRegistration = typingRepository.listenToTyping(chatId, new ChangeListener<TypingStatus>() {
+            @Override
+            public void onChanges(List<Change<TypingStatus>> changes) {
+                typingUsers.apply(changes, Clock.SYSTEM.now());
+                mainHandler.post(typingExpiry);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                errors.postValue(e);
+            }
+        });
+    }
+
+    /**
+     * Publish the active typists and re-run at the next expiry, so indicators
+     * disappear without any write from the typist. Runs on the main thread.
+     */
+    private void refreshTyping() {
+        long now = Clock.SYSTEM.now();
+        List<String> active = typingUsers.activeUserIds(now);
+        if (!active.equals(typingUserIds.getValue())) {
+            typingUserIds.setValue(active);
+        }
+        mainHandler.removeCallbacks(typingExpiry);
+        long next = typingUsers.nextExpiry(now);
+        if (next > 0L) {
+            mainHandler.postDelayed(typingExpiry, next - now);
+        }
+    }
+
+    private void applyChanges(List<Change<Message>> changes) {
+        // Re-delivered messages (listener start at the page boundary, send echoes) come back as MODIFIED
+        List<Change<Message>> applied = timeline.apply(changes);
+        if (applied.isEmpty()) {
+            return;
+        }
+        // postValue() would coalesce consecutive batches and drop deltas; post each one instead
+        mainHandler.post(() -> messageChanges.setValue(applied));
+    }
+
+    private void detachListener() {
+        if (deliveryAcks != null) {
+            // Re-queued acknowledgements of a closed chat are not retried further
+            deliveryAcks.flush();
+            deliveryAcks = null;
+        }
+        if (messageRegistration != null) {
+            messageRegistration.remove();
+            messageRegistration = null;
+        }
+        detachPresenceListener();
+        if (typingRegistration != null) {
+            typingRegistration.remove();
+            typingRegistration = null;
+        }
+        typingPublisher.stop();
+        typingUsers.clear();
+        mainHandler.removeCallbacks(typingExpiry);
+        typingUserIds.postValue(Collections.emptyList());
+    }
+
+    @Override
+    protected void onCleared() {
+        // Clearing chatId makes an in-flight first page drop its result instead of attaching
+        chatId = null;
+        detachListener();
+        super.onCleared();
+    }
+}
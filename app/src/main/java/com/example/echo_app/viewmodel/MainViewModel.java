@@ -1,9 +1,25 @@
 package com.example.echo_app.viewmodel;
 
+import android.os.Handler;
+import android.os.Looper;
+
 import androidx.lifecycle.ViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
+import com.example.echo_app.di.AppModule;
+import com.example.echo_app.model.Chat;
+import com.example.echo_app.repository.Change;
+import com.example.echo_app.repository.ChangeListener;
+import com.example.echo_app.repository.CachingUnreadCounterRepository;
+import com.example.echo_app.repository.ChatRepository;
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * MainViewModel.java
  *
@@ -20,21 +36,152 @@ import androidx.lifecycle.MutableLiveData;
  * - Handle user interactions from UI
  * - Survive configuration changes
  *
+ * Inbox State:
+ * - One live listener over the user's most recently active chats
+ * - Listener deltas are applied to a ChatInbox; a new message moves one row
+ * - The UI observes getInboxUpdates() to notify its adapter per row and calls
+ *   getInboxSnapshot() only when (re)binding
+ * - Unread badges come from sharded counters through a caching reader; a row whose
+ *   chat changed is re-read, other rows are served from the cache
+ *
  * Part of: ViewModel Layer (MVVM Architecture)
  */
 public class MainViewModel extends ViewModel {
 
-    // TODO: Inject repositories using DI framework
-    // private UserRepository userRepository;
+    private static final int INBOX_WINDOW = 100;
 
-    // TODO: Define LiveData objects to expose state to UI
-    // private MutableLiveData<String> appState = new MutableLiveData<>();
-    // public LiveData<String> getAppState() { return appState; }
+    private final ChatRepository chatRepository;
+    private final CachingUnreadCounterRepository unreadCounters;
+    private final ChatInbox inbox = new ChatInbox();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private final MutableLiveData<List<ChatInbox.RowUpdate>> inboxUpdates = new MutableLiveData<>();
+    private final MutableLiveData<Exception> errors = new MutableLiveData<>();
+    private final MutableLiveData<Map<String, Long>> unreadCounts = new MutableLiveData<>();
+    private final Map<String, Long> unreadByChat = new HashMap<>();
+
+    private String userId;
+    private ListenerRegistration inboxRegistration;
 
     public MainViewModel() {
-        // TODO: Initialize ViewModel with dependencies
+        this(AppModule.getInstance().getChatRepository(), AppModule.getInstance().getUnreadCounterRepository());
     }
 
-    // TODO: Add methods to handle business logic
-}
+    public MainViewModel(ChatRepository chatRepository, CachingUnreadCounterRepository unreadCounters) {
+        this.chatRepository = chatRepository;
+        this.unreadCounters = unreadCounters;
+    }
+
+    /**
+     * LiveData of row operations, in the order they were applied to the inbox.
+     */
+    public LiveData<List<ChatInbox.RowUpdate>> getInboxUpdates() {
+        return inboxUpdates;
+    }
+
+    /**
+     * LiveData of unread counts by chat ID for the inbox rows (broadcast chats are not counted).
+     */
+    public LiveData<Map<String, Long>> getUnreadCounts() {
+        return unreadCounts;
+    }
+
+    /**
+     * LiveData of listener errors.
+     */
+    public LiveData<Exception> getErrors() {
+        return errors;
+    }
 
+    /**
+     * Current inbox rows, most recent activity first. O(n); use when binding the UI.
+     */
+    public List<Chat> getInboxSnapshot() {
+        return inbox.snapshot();
+    }
+
+    /**
+     * Start observing a user's inbox. Calling again with the same userId is a no-op.
+     *
+     * @param userId The signed-in user's ID
+     */
+    public void openInbox(String userId) {
+        if (userId == null || userId.equals(this.userId)) {
+            return;
+        }
+
+        detachListener();
+        inbox.clear();
+        synchronized (unreadByChat) {
+            unreadByChat.clear();
+        }
+        this.userId = userId;
+
+        inboxRegistration = chatRepository.listenToInbox(userId, INBOX_WINDOW, new ChangeListener<Chat>() {
+            @Override
+            public void onChanges(List<Change<Chat>> changes) {
+                List<ChatInbox.RowUpdate> updates = inbox.apply(changes);
+                if (!updates.isEmpty()) {
+                    // postValue() would coalesce consecutive batches and drop updates; post each one instead
+                    mainHandler.post(() -> inboxUpdates.setValue(updates));
+                }
+                refreshUnread(userId, changes);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                errors.postValue(e);
+            }
+        });
+    }
+
+    /**
+     * Re-read the unread counts of the chats in a change batch.
+     * A modified chat has new activity, so its cached total is dropped first.
+     */
+    private void refreshUnread(String userId, List<Change<Chat>> changes) {
+        List<String> chatIds = new ArrayList<>();
+        synchronized (unreadByChat) {
+            for (Change<Chat> change : changes) {
+                Chat chat = change.getItem();
+                if (change.getType() == Change.Type.REMOVED || chat.isBroadcast()) {
+                    unreadByChat.remove(chat.getId());
+                    continue;
+                }
+                if (change.getType() == Change.Type.MODIFIED) {
+                    unreadCounters.invalidate(userId, chat.getId());
+                }
+                chatIds.add(chat.getId());
+            }
+        }
+        if (chatIds.isEmpty()) {
+            return;
+        }
+
+        unreadCounters.getUnreadCounts(userId, chatIds)
+                .addOnSuccessListener(counts -> {
+                    if (!userId.equals(this.userId)) {
+                        return;
+                    }
+                    synchronized (unreadByChat) {
+                        unreadByChat.putAll(counts);
+                        unreadCounts.postValue(new HashMap<>(unreadByChat));
+                    }
+                })
+                .addOnFailureListener(errors::postValue);
+    }
+
+    private void detachListener() {
+        if (inboxRegistration != null) {
+            inboxRegistration.remove();
+            inboxRegistration = null;
+        }
+    }
+
+    @Override
+    protected void onCleared() {
+        userId = null;
+        detachListener();
+        super.onCleared();
+    }
+}
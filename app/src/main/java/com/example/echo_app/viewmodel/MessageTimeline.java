@@ -0,0 +1,130 @@
+package com.example.echo_app.viewmodel;
+
+import com.example.echo_app.model.Message;
+import com.example.echo_app.repository.Change;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * MessageTimeline.java
+ *
+ * Role: Ordered, incrementally-updated message state for a single chat.
+ *
+ * Keeps messages sorted by (timestamp, id) in a TreeMap with a HashMap index from
+ * message ID to its sort key. Applying a batch of k changes costs O(k log n), so a
+ * live chat update never re-sorts or rebuilds the whole history.
+ *
+ * Thread-safety: all methods are synchronized; listener callbacks may apply changes
+ * on a background thread while the UI reads a snapshot.
+ *
+ * Part of: ViewModel Layer (MVVM Architecture)
+ *
+ * @see ChatViewModel
+ * @see Change
+ */
+public class MessageTimeline {
+
+    private static final Comparator<Message> ORDER = (a, b) -> {
+        int byTimestamp = Long.compare(a.getTimestamp(), b.getTimestamp());
+        return byTimestamp != 0 ? byTimestamp : a.getId().compareTo(b.getId());
+    };
+
+    private final TreeMap<Message, Message> sorted = new TreeMap<>(ORDER);
+    private final Map<String, Message> keysById = new HashMap<>();
+
+    /**
+     * Apply a batch of changes.
+     *
+     * ADDED and MODIFIED insert or replace by message ID (re-positioning the message if
+     * its timestamp changed); REMOVED deletes by message ID. Messages without an ID are ignored.
+     *
+     * The returned list describes what actually happened to the timeline: an ADDED change
+     * for a message that is already present is reported as MODIFIED. This covers the
+     * listener's first snapshot re-delivering the messages at the page boundary and the
+     * echo of an optimistically inserted send, neither of which is a new arrival.
+     *
+     * @param changes The changes to apply
+     * @return The applied changes, with re-delivered ADDED changes reported as MODIFIED
+     */
+    public synchronized List<Change<Message>> apply(List<Change<Message>> changes) {
+        List<Change<Message>> applied = new ArrayList<>(changes.size());
+        for (Change<Message> change : changes) {
+            Message message = change.getItem();
+            if (message == null || message.getId() == null) {
+                continue;
+            }
+
+            Message previousKey = keysById.remove(message.getId());
+            if (previousKey != null) {
+                sorted.remove(previousKey);
+            }
+
+            if (change.getType() != Change.Type.REMOVED) {
+                sorted.put(message, message);
+                keysById.put(message.getId(), message);
+            }
+
+            if (change.getType() == Change.Type.ADDED && previousKey != null) {
+                applied.add(Change.modified(message));
+            } else {
+                applied.add(change);
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Insert or replace a list of messages (e.g. a freshly loaded history page).
+     *
+     * @param messages The messages to add
+     */
+    public synchronized void addAll(List<Message> messages) {
+        List<Change<Message>> changes = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            changes.add(Change.added(message));
+        }
+        apply(changes);
+    }
+
+    /**
+     * Copy the current state as a list ordered oldest first.
+     * This is O(n); call it when binding the UI, not per change.
+     *
+     * @return Snapshot of all messages
+     */
+    public synchronized List<Message> snapshot() {
+        return new ArrayList<>(sorted.values());
+    }
+
+    /**
+     * Get the newest message, or null if the timeline is empty.
+     */
+    public synchronized Message newest() {
+        return sorted.isEmpty() ? null : sorted.lastKey();
+    }
+
+    /**
+     * Get the oldest message, or null if the timeline is empty.
+     */
+    public synchronized Message oldest() {
+        return sorted.isEmpty() ? null : sorted.firstKey();
+    }
+
+    public synchronized boolean contains(String messageId) {
+        return keysById.containsKey(messageId);
+    }
+
+    public synchronized int size() {
+        return sorted.size();
+    }
+
+    public synchronized void clear() {
+        sorted.clear();
+        keysById.clear();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.echo_app.viewmodel;
+
+import com.example.echo_app.model.TypingStatus;
+import com.example.echo_app.repository.Change;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TypingUsers.java
+ *
+ * Role: Reader-side typing state for a single chat.
+ *
+ * Typing documents expire by timestamp and are never cleaned up by readers, so this
+ * class decides locally who is still typing. expiresAt comes from the typist's clock;
+ * to stay correct when clocks disagree, an entry is also capped at the maximum TTL
+ * after it was received.
+ *
+ * Thread-safety: all methods are synchronized; listener callbacks may apply changes
+ * on a background thread while the UI reads the active list.
+ *
+ * Part of: ViewModel Layer (MVVM Architecture)
+ *
+ * @see ChatViewModel
+ * @see TypingStatus
+ */
+public class TypingUsers {
+
+    private final long maxTtlMillis;
+    private final Map<String, Long> activeUntil = new HashMap<>();
+
+    /**
+     * @param maxTtlMillis Longest time an entry is shown after it was received
+     */
+    public TypingUsers(long maxTtlMillis) {
+        this.maxTtlMillis = maxTtlMillis;
+    }
+
+    /**
+     * Apply a batch of typing changes received at a given time.
+     *
+     * @param changes The changes to apply
+     * @param now Local time of receipt
+     */
+    public synchronized void apply(List<Change<TypingStatus>> changes, long now) {
+        for (Change<TypingStatus> change : changes) {
+            TypingStatus status = change.getItem();
+            if (status == null || status.getUserId() == null) {
+                continue;
+            }
+            if (change.getType() == Change.Type.REMOVED) {
+                activeUntil.remove(status.getUserId());
+            } else {
+                activeUntil.put(status.getUserId(), Math.min(status.getExpiresAt(), now + maxTtlMillis));
+            }
+        }
+    }
+
+    /**
+     * Users typing at a given time, sorted by ID. Expired entries are dropped.
+     *
+     * @param now Local time
+     * @return Active typists (may include the current user typing on another device)
+     */
+    public synchronized List<String> activeUserIds(long now) {
+        List<String> active = new ArrayList<>();
+        Iterator<Map.Entry<String, Long>> iterator = activeUntil.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+            if (entry.getValue() > now) {
+                active.add(entry.getKey());
+            } else {
+                iterator.remove();
+            }
+        }
+        Collections.sort(active);
+        return active;
+    }
+
+    /**
+     * Time at which the next active entry expires, so the UI can re-evaluate then.
+     *
+     * @param now Local time
+     * @return The earliest expiry after now, or 0 if nobody is typing
+     */
+    public synchronized long nextExpiry(long now) {
+        long next = 0L;
+        for (long until : activeUntil.values()) {
+            if (until > now && (next == 0L || until < next)) {
+                next = until;
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Forget all entries (e.g. when switching chats).
+     */
+    public synchronized void clear() {
+        activeUntil.clear();
+    }
+}
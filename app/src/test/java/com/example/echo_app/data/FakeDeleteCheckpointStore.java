@@ -0,0 +1,48 @@
+package com.example.echo_app.data;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * FakeDeleteCheckpointStore.java
+ *
+ * In-memory fake implementation of DeleteCheckpointStore for unit testing.
+ *
+ * Mirrors SharedPrefsDeleteCheckpointStore semantics (one checkpoint per job,
+ * removed on clear) and counts saves.
+ */
+public class FakeDeleteCheckpointStore implements DeleteCheckpointStore {
+
+    private final Map<String, Checkpoint> checkpoints = new LinkedHashMap<>();
+    private int saveCount = 0;
+
+    @Override
+    public Checkpoint load(String jobId) {
+        return checkpoints.get(jobId);
+    }
+
+    @Override
+    public void save(String jobId, Checkpoint checkpoint) {
+        checkpoints.put(jobId, checkpoint);
+        saveCount++;
+    }
+
+    @Override
+    public void clear(String jobId) {
+        checkpoints.remove(jobId);
+    }
+
+    @Override
+    public List<String> getPendingJobIds() {
+        return new ArrayList<>(checkpoints.keySet());
+    }
+
+    /**
+     * Get the number of checkpoints saved so far.
+     */
+    public int getSaveCount() {
+        return saveCount;
+    }
+}
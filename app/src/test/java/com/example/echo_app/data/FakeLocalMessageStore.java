@@ -0,0 +1,89 @@
+package com.example.echo_app.data;
+
+import com.example.echo_app.model.DeliveryStatus;
+import com.example.echo_app.model.Message;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * FakeLocalMessageStore.java
+ *
+ * In-memory fake implementation of LocalMessageStore for unit testing.
+ *
+ * Mirrors SqliteMessageStore semantics (upsert by message ID, monotonic
+ * high-water mark, forward-only status updates, timestamp-ordered reads) without requiring an Android database.
+ */
+public class FakeLocalMessageStore implements LocalMessageStore {
+
+    private final Map<String, Map<String, Message>> messagesByChat = new HashMap<>();
+    private final Map<String, Long> highWaterMarks = new HashMap<>();
+
+    @Override
+    public List<Message> getMessages(String chatId) {
+        List<Message> messages = new ArrayList<>(chatMessages(chatId).values());
+        Collections.sort(messages, (a, b) -> Long.compare(a.getTimestamp(), b.getTimestamp()));
+        return messages;
+    }
+
+    @Override
+    public List<Message> getNewestMessages(String chatId, int limit) {
+        List<Message> messages = getMessages(chatId);
+        return new ArrayList<>(messages.subList(Math.max(0, messages.size() - limit), messages.size()));
+    }
+
+    @Override
+    public long getHighWaterMark(String chatId) {
+        Long mark = highWaterMarks.get(chatId);
+        return mark != null ? mark : NO_HIGH_WATER_MARK;
+    }
+
+    @Override
+    public void upsertMessages(String chatId, List<Message> messages, long highWaterMark) {
+        cacheMessages(chatId, messages);
+        if (highWaterMark > getHighWaterMark(chatId)) {
+            highWaterMarks.put(chatId, highWaterMark);
+        }
+    }
+
+    @Override
+    public void cacheMessages(String chatId, List<Message> messages) {
+        for (Message message : messages) {
+            if (message.getId() != null) {
+                chatMessages(chatId).put(message.getId(), message);
+            }
+        }
+    }
+
+    @Override
+    public void updateDeliveryStatus(String chatId, String messageId, String deliveryStatus) {
+        Message message = chatMessages(chatId).get(messageId);
+        if (message != null && DeliveryStatus.rank(deliveryStatus) > DeliveryStatus.rank(message.getDeliveryStatus())) {
+            message.setDeliveryStatus(deliveryStatus);
+        }
+    }
+
+    @Override
+    public void deleteMessage(String chatId, String messageId) {
+        chatMessages(chatId).remove(messageId);
+    }
+
+    @Override
+    public void clearChat(String chatId) {
+        messagesByChat.remove(chatId);
+        highWaterMarks.remove(chatId);
+    }
+
+    private Map<String, Message> chatMessages(String chatId) {
+        Map<String, Message> messages = messagesByChat.get(chatId);
+        if (messages == null) {
+            messages = new LinkedHashMap<>();
+            messagesByChat.put(chatId, messages);
+        }
+        return messages;
+    }
+}
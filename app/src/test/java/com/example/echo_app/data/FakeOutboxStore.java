@@ -0,0 +1,101 @@
+package com.example.echo_app.data;
+
+import com.example.echo_app.model.Message;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * FakeOutboxStore.java
+ *
+ * In-memory fake implementation of OutboxStore for unit testing.
+ *
+ * Mirrors SqliteOutboxStore semantics (FIFO order, re-enqueue keeps position and
+ * clears the failed state, failed messages are skipped) without requiring an
+ * Android database.
+ */
+public class FakeOutboxStore implements OutboxStore {
+
+    private final Map<String, Message> queue = new LinkedHashMap<>();
+    private final Map<String, Integer> attempts = new HashMap<>();
+    private final Set<String> failed = new HashSet<>();
+
+    @Override
+    public void enqueue(Message message) {
+        queue.put(message.getId(), message);
+        attempts.remove(message.getId());
+        failed.remove(message.getId());
+    }
+
+    @Override
+    public List<Message> peek(int limit) {
+        List<Message> messages = new ArrayList<>();
+        for (Message message : queue.values()) {
+            if (messages.size() == limit) {
+                break;
+            }
+            if (!failed.contains(message.getId())) {
+                messages.add(message);
+            }
+        }
+        return messages;
+    }
+
+    @Override
+    public List<Message> getPending(String chatId) {
+        return byChat(chatId, false);
+    }
+
+    @Override
+    public void remove(List<String> messageIds) {
+        for (String messageId : messageIds) {
+            queue.remove(messageId);
+            attempts.remove(messageId);
+            failed.remove(messageId);
+        }
+    }
+
+    @Override
+    public int recordFailure(String messageId) {
+        if (!queue.containsKey(messageId)) {
+            return 0;
+        }
+        int count = attempts.getOrDefault(messageId, 0) + 1;
+        attempts.put(messageId, count);
+        return count;
+    }
+
+    @Override
+    public void markFailed(List<String> messageIds) {
+        for (String messageId : messageIds) {
+            if (queue.containsKey(messageId)) {
+                failed.add(messageId);
+            }
+        }
+    }
+
+    @Override
+    public List<Message> getFailed(String chatId) {
+        return byChat(chatId, true);
+    }
+
+    @Override
+    public int size() {
+        return queue.size() - failed.size();
+    }
+
+    private List<Message> byChat(String chatId, boolean failedOnly) {
+        List<Message> messages = new ArrayList<>();
+        for (Message message : queue.values()) {
+            if (chatId.equals(message.getChatId()) && failed.contains(message.getId()) == failedOnly) {
+                messages.add(message);
+            }
+        }
+        return messages;
+    }
+}
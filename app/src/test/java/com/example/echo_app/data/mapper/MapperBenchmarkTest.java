@@ -0,0 +1,96 @@
+package com.example.echo_app.data.mapper;
+
+import static org.junit.Assert.*;
+
+import com.example.echo_app.model.Message;
+import com.google.firebase.firestore.util.CustomClassMapper;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MapperBenchmarkTest.java
+ *
+ * JVM micro-benchmark comparing MessageMapper with Firestore's reflective
+ * CustomClassMapper (the code path behind DocumentSnapshot.toObject()).
+ *
+ * Decodes the same batch of message maps with both codecs after a warm-up and
+ * prints the elapsed time per message. Only decode equivalence is asserted;
+ * timings are reported, not enforced, so the result stays stable on shared CI hosts.
+ *
+ * Opt-in: the class is @Ignore'd so the regular unit test run does not pay for the
+ * timing loop. To run it, remove the @Ignore locally and run:
+ * ./gradlew :app:testDebugUnitTest --tests "*MapperBenchmarkTest" -i
+ */
+@Ignore("Benchmark; run manually, see class comment")
+public class MapperBenchmarkTest {
+
+    private static final int MESSAGES = 2_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    @Test
+    public void benchmarkMessageDecoding() {
+        List<Map<String, Object>> documents = new ArrayList<>(MESSAGES);
+        for (int i = 0; i < MESSAGES; i++) {
+            Message message = new Message("m" + i, "user" + (i % 7), "chat1", "message body " + i, "text");
+            message.setTimestamp(1_700_000_000_000L + i);
+            // Firestore hands both codecs the same plain map of boxed values
+            documents.add(MessageMapper.toMap(message));
+        }
+
+        // Both codecs must agree before timing means anything
+        for (int i = 0; i < 50; i++) {
+            Message reflective = CustomClassMapper.convertToCustomClass(documents.get(i), Message.class, null);
+            Message handWritten = MessageMapper.fromMap("m" + i, documents.get(i));
+            assertEquals(reflective.getSenderId(), handWritten.getSenderId());
+            assertEquals(reflective.getChatId(), handWritten.getChatId());
+            assertEquals(reflective.getContent(), handWritten.getContent());
+            assertEquals(reflective.getMessageType(), handWritten.getMessageType());
+            assertEquals(reflective.getDeliveryStatus(), handWritten.getDeliveryStatus());
+            assertEquals(reflective.getTimestamp(), handWritten.getTimestamp());
+        }
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            decodeReflective(documents);
+            decodeHandWritten(documents);
+        }
+
+        long reflectiveNanos = 0;
+        long handWrittenNanos = 0;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            decodeReflective(documents);
+            reflectiveNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            decodeHandWritten(documents);
+            handWrittenNanos += System.nanoTime() - start;
+        }
+
+        long decoded = (long) MESSAGES * MEASURED_ROUNDS;
+        System.out.printf("Message decode: CustomClassMapper %d ns/msg, MessageMapper %d ns/msg (%.1fx)%n",
+                reflectiveNanos / decoded, handWrittenNanos / decoded,
+                (double) reflectiveNanos / Math.max(1, handWrittenNanos));
+    }
+
+    private static int decodeReflective(List<Map<String, Object>> documents) {
+        int checksum = 0;
+        for (Map<String, Object> document : documents) {
+            checksum += CustomClassMapper.convertToCustomClass(document, Message.class, null).getContent().length();
+        }
+        return checksum;
+    }
+
+    private static int decodeHandWritten(List<Map<String, Object>> documents) {
+        int checksum = 0;
+        for (Map<String, Object> document : documents) {
+            checksum += MessageMapper.fromMap(null, document).getContent().length();
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.echo_app.data.mapper;
+
+import static org.junit.Assert.*;
+
+import com.example.echo_app.model.Chat;
+import com.example.echo_app.model.Group;
+import com.example.echo_app.model.Membership;
+import com.example.echo_app.model.Message;
+import com.example.echo_app.model.ReadReceipt;
+import com.example.echo_app.model.User;
+import com.example.echo_app.utils.Constants;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * MapperRoundTripTest.java
+ *
+ * Unit tests for the hand-written Firestore codecs.
+ *
+ * Test Coverage:
+ * - toMap() followed by fromMap() preserves every field of every model
+ * - The document ID overrides a stored "id" field
+ * - Numbers of any boxed type are accepted for long fields
+ * - Legacy boolean keys written by reflective serialization are read
+ * - Missing fields decode to defaults
+ * - The sender's map omits deliveryStatus, which then decodes as "sent"
+ */
+public class MapperRoundTripTest {
+
+    @Test
+    public void testMessage_RoundTrip() {
+        Message message = new Message("m1", "alice", "chat1", "hello", "image");
+        message.setReceiverId("bob");
+        message.setMediaUrl("https://example.com/a.jpg");
+        message.setThumbnail("/9j/4AAQSkZJRg==");
+        message.setDeliveryStatus("seen");
+        message.setTimestamp(1234L);
+
+        Message decoded = MessageMapper.fromMap("m1", MessageMapper.toMap(message));
+
+        assertEquals("m1", decoded.getId());
+        assertEquals("alice", decoded.getSenderId());
+        assertEquals("bob", decoded.getReceiverId());
+        assertEquals("chat1", decoded.getChatId());
+        assertEquals("hello", decoded.getContent());
+        assertEquals("image", decoded.getMessageType());
+        assertEquals("https://example.com/a.jpg", decoded.getMediaUrl());
+        assertEquals("/9j/4AAQSkZJRg==", decoded.getThumbnail());
+        assertEquals("seen", decoded.getDeliveryStatus());
+        assertEquals(1234L, decoded.getTimestamp());
+    }
+
+    @Test
+    public void testMessage_SendMapLeavesStatusToRecipients() {
+        Message message = new Message("m1", "alice", "chat1", "hello", "text");
+        message.setDeliveryStatus("seen");
+
+        Map<String, Object> sent = MessageMapper.toSendMap(message);
+
+        assertFalse(sent.containsKey(MessageMapper.FIELD_DELIVERY_STATUS));
+        assertEquals("sent", MessageMapper.fromMap("m1", sent).getDeliveryStatus());
+    }
+
+    @Test
+    public void testMessage_ReceivedAtOnlyStampedOnSend() {
+        Message message = new Message("m1", "alice", "chat1", "hello", "text");
+
+        assertTrue(MessageMapper.toSendMap(message).containsKey(MessageMapper.FIELD_RECEIVED_AT));
+        assertFalse(MessageMapper.toMap(message).containsKey(MessageMapper.FIELD_RECEIVED_AT));
+    }
+
+    @Test
+    public void testMessage_ThumbnailOnlyWrittenWhenPresent() {
+        Message text = new Message("m1", "alice", "chat1", "hello", "text");
+        Message image = new Message("m2", "alice", "chat1", null, "image");
+        image.setThumbnail("/9j/4AAQSkZJRg==");
+
+        assertFalse(MessageMapper.toMap(text).containsKey(MessageMapper.FIELD_THUMBNAIL));
+        assertEquals("/9j/4AAQSkZJRg==",
+                MessageMapper.fromMap("m2", MessageMapper.toMap(image)).getThumbnail());
+    }
+
+    @Test
+    public void testUser_RoundTrip() {
+        User user = new User("u1", "Alice", "Alice@Example.com");
+        user.setProfileImageUrl("https://example.com/p.jpg");
+        user.setOnline(true);
+        user.setLastSeen(10L);
+
+        User decoded = UserMapper.fromMap("u1", UserMapper.toMap(user));
+
+        assertEquals("u1", decoded.getId());
+        assertEquals("Alice", decoded.getDisplayName());
+        assertEquals("Alice@Example.com", decoded.getEmail());
+        assertEquals("alice@example.com", decoded.getEmailLower());
+        assertEquals("alice", decoded.getDisplayNameLower());
+        assertEquals("https://example.com/p.jpg", decoded.getProfileImageUrl());
+        assertTrue(decoded.isOnline());
+        assertEquals(10L, decoded.getLastSeen());
+        assertEquals(user.getCreatedAt(), decoded.getCreatedAt());
+        assertEquals(user.getUpdatedAt(), decoded.getUpdatedAt());
+    }
+
+    @Test
+    public void testUser_LegacyOnlineKeyAndMissingSearchFields() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("displayName", "Bob");
+        data.put("email", "BOB@example.com");
+        data.put("online", true);
+        data.put("lastSeen", 42);
+
+        User decoded = UserMapper.fromMap("u2", data);
+
+        assertTrue(decoded.isOnline());
+        assertEquals(42L, decoded.getLastSeen());
+        assertEquals("bob", decoded.getDisplayNameLower());
+        assertEquals("bob@example.com", decoded.getEmailLower());
+    }
+
+    @Test
+    public void testChat_RoundTrip() {
+        Chat chat = new Chat("c1", Arrays.asList("alice", "bob"), true);
+        chat.setLastMessageId("m9");
+        chat.setLastMessageText("hi");
+        chat.setLastMessageTimestamp(99L);
+        chat.setBroadcast(true);
+
+        Chat decoded = ChatMapper.fromMap("c1", ChatMapper.toMap(chat));
+
+        assertEquals("c1", decoded.getId());
+        assertEquals(chat.getParticipantIds(), decoded.getParticipantIds());
+        assertEquals("m9", decoded.getLastMessageId());
+        assertEquals("hi", decoded.getLastMessageText());
+        assertEquals(99L, decoded.getLastMessageTimestamp());
+        assertEquals(chat.getUpdatedAt(), decoded.getUpdatedAt());
+        assertTrue(decoded.isGroup());
+        assertTrue(decoded.isBroadcast());
+    }
+
+    @Test
+    public void testChat_LegacyGroupKey() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("group", true);
+
+        assertTrue(ChatMapper.fromMap("c1", data).isGroup());
+    }
+
+    @Test
+    public void testChat_PreviewMapFromMessage() {
+        Message message = new Message("m1", "alice", "c1", "Hello", "text");
+        message.setTimestamp(5000L);
+
+        Map<String, Object> preview = ChatMapper.toPreviewMap(message);
+
+        assertEquals(4, preview.size());
+        assertEquals("m1", preview.get(ChatMapper.FIELD_LAST_MESSAGE_ID));
+        assertEquals("Hello", preview.get(ChatMapper.FIELD_LAST_MESSAGE_TEXT));
+        assertEquals(5000L, preview.get(ChatMapper.FIELD_LAST_MESSAGE_TIMESTAMP));
+        assertEquals(5000L, preview.get(ChatMapper.FIELD_UPDATED_AT));
+    }
+
+    @Test
+    public void testChat_PreviewTextTruncatedOrPlaceholder() {
+        StringBuilder longText = new StringBuilder();
+        for (int i = 0; i < Constants.CHAT_PREVIEW_MAX_LENGTH + 20; i++) {
+            longText.append('a');
+        }
+
+        assertEquals(Constants.CHAT_PREVIEW_MAX_LENGTH,
+                ChatMapper.previewText(new Message("m1", "alice", "c1", longText.toString(), "text")).length());
+        assertEquals("[image]", ChatMapper.previewText(new Message("m2", "alice", "c1", "", "image")));
+    }
+
+    @Test
+    public void testGroup_RoundTrip() {
+        Group group = new Group("g1", "Team", "alice", Arrays.asList("alice", "bob", "carol"));
+        group.setDescription("desc");
+        group.setGroupImageUrl("https://example.com/g.jpg");
+        group.setBroadcast(true);
+
+        Group decoded = GroupMapper.fromMap("g1", GroupMapper.toMap(group));
+
+        assertEquals("g1", decoded.getId());
+        assertEquals("Team", decoded.getName());
+        assertEquals("alice", decoded.getAdminId());
+        assertEquals(group.getMemberIds(), decoded.getMemberIds());
+        assertEquals("desc", decoded.getDescription());
+        assertEquals("https://example.com/g.jpg", decoded.getGroupImageUrl());
+        assertEquals(group.getCreatedAt(), decoded.getCreatedAt());
+        assertEquals(group.getUpdatedAt(), decoded.getUpdatedAt());
+        assertTrue(decoded.isBroadcast());
+    }
+
+    @Test
+    public void testMembership_RoundTripAndLegacyAdminKey() {
+        Membership membership = new Membership("alice_g1", "alice", "g1", true);
+
+        Membership decoded = MembershipMapper.fromMap("alice_g1", MembershipMapper.toMap(membership));
+        assertEquals("alice_g1", decoded.getId());
+        assertEquals("alice", decoded.getUserId());
+        assertEquals("g1", decoded.getGroupId());
+        assertTrue(decoded.isAdmin());
+        assertEquals(membership.getJoinedAt(), decoded.getJoinedAt());
+
+        Map<String, Object> legacy = new HashMap<>();
+        legacy.put("admin", true);
+        assertTrue(MembershipMapper.fromMap("x", legacy).isAdmin());
+    }
+
+    @Test
+    public void testReadReceipt_RoundTrip() {
+        ReadReceipt receipt = new ReadReceipt("bob", "chat1", 2000L, 1000L);
+
+        ReadReceipt decoded = ReadReceiptMapper.fromMap("bob", ReadReceiptMapper.toMap(receipt));
+
+        assertEquals("bob", decoded.getUserId());
+        assertEquals("chat1", decoded.getChatId());
+        assertEquals(2000L, decoded.getDeliveredUpTo());
+        assertEquals(1000L, decoded.getSeenUpTo());
+        assertEquals(receipt.getUpdatedAt(), decoded.getUpdatedAt());
+    }
+
+    @Test
+    public void testDocumentIdOverridesStoredId() {
+        Map<String, Object> data = MessageMapper.toMap(new Message("stale", "alice", "chat1", "hi", "text"));
+
+        assertEquals("doc1", MessageMapper.fromMap("doc1", data).getId());
+        assertEquals("stale", MessageMapper.fromMap(null, data).getId());
+    }
+
+    @Test
+    public void testMissingFields_DecodeToDefaults() {
+        Message decoded = MessageMapper.fromMap("m1", new HashMap<>());
+
+        assertNull(decoded.getContent());
+        assertEquals(0L, decoded.getTimestamp());
+        assertNull(ChatMapper.fromMap("c1", new HashMap<>()).getParticipantIds());
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.echo_app.data.mapper;
+
+import static org.junit.Assert.*;
+
+import com.example.echo_app.model.User;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * UserMapperDiffTest.java
+ *
+ * Unit tests for the field diff used by partial user updates.
+ *
+ * Test Coverage:
+ * - Unchanged users produce an empty diff
+ * - Only changed fields are included, plus the search keys so older documents gain them
+ * - updatedAt alone is not a change, but accompanies real changes
+ * - The ID and the presence fields (isOnline, lastSeen) are never included
+ * - Fields missing from the previous encoding count as changed
+ * - searchKeysToBackfill() returns only the search keys a stored document lacks
+ */
+public class UserMapperDiffTest {
+
+    private User previous;
+
+    @Before
+    public void setUp() {
+        previous = new User("u1", "Alice", "alice@example.com");
+        previous.setUpdatedAt(1000L);
+    }
+
+    @Test
+    public void testDiff_UnchangedIsEmpty() {
+        assertTrue(UserMapper.toUpdateMap(previous, copy(previous)).isEmpty());
+    }
+
+    @Test
+    public void testDiff_ChangedFieldOnly() {
+        // Arrange
+        User updated = copy(previous);
+        updated.setProfileImageUrl("https://example.com/a.jpg");
+
+        // Act
+        Map<String, Object> changed = UserMapper.toUpdateMap(previous, updated);
+
+        // Assert - the search keys ride along in case the document predates them
+        assertEquals(3, changed.size());
+        assertEquals("https://example.com/a.jpg", changed.get(UserMapper.FIELD_PROFILE_IMAGE_URL));
+        assertEquals("alice", changed.get(UserMapper.FIELD_DISPLAY_NAME_LOWER));
+        assertEquals("alice@example.com", changed.get(UserMapper.FIELD_EMAIL_LOWER));
+    }
+
+    @Test
+    public void testDiff_DisplayNameIncludesSearchKey() {
+        // Arrange
+        User updated = copy(previous);
+        updated.setDisplayName("Alicia");
+        updated.setUpdatedAt(2000L);
+
+        // Act
+        Map<String, Object> changed = UserMapper.toUpdateMap(previous, updated);
+
+        // Assert
+        assertEquals(4, changed.size());
+        assertEquals("Alicia", changed.get(UserMapper.FIELD_DISPLAY_NAME));
+        assertEquals("alicia", changed.get(UserMapper.FIELD_DISPLAY_NAME_LOWER));
+        assertEquals(2000L, changed.get(UserMapper.FIELD_UPDATED_AT));
+    }
+
+    @Test
+    public void testDiff_UpdatedAtAloneIsNoChange() {
+        // Arrange
+        User updated = copy(previous);
+        updated.setUpdatedAt(2000L);
+
+        // Act & Assert
+        assertTrue(UserMapper.toUpdateMap(previous, updated).isEmpty());
+    }
+
+    @Test
+    public void testDiff_IdNeverIncluded() {
+        // Arrange
+        Map<String, Object> before = UserMapper.toMap(previous);
+        before.remove(UserMapper.FIELD_ID);
+
+        // Act
+        Map<String, Object> changed = UserMapper.diff(before, UserMapper.toMap(previous));
+
+        // Assert
+        assertTrue(changed.isEmpty());
+    }
+
+    @Test
+    public void testDiff_PresenceNeverIncluded() {
+        // Arrange
+        User updated = copy(previous);
+        updated.setOnline(true);
+        updated.setLastSeen(5000L);
+        updated.setDisplayName("Alicia");
+
+        // Act
+        Map<String, Object> changed = UserMapper.toUpdateMap(previous, updated);
+
+        // Assert
+        assertFalse(changed.containsKey(UserMapper.FIELD_IS_ONLINE));
+        assertFalse(changed.containsKey(UserMapper.FIELD_LAST_SEEN));
+        assertEquals("Alicia", changed.get(UserMapper.FIELD_DISPLAY_NAME));
+        assertFalse(UserMapper.toProfileMap(updated).containsKey(UserMapper.FIELD_IS_ONLINE));
+    }
+
+    @Test
+    public void testDiff_MissingPreviousFieldCounts() {
+        // Arrange - a legacy document without the normalized email
+        Map<String, Object> before = new HashMap<>(UserMapper.toMap(previous));
+        before.remove(UserMapper.FIELD_EMAIL_LOWER);
+
+        // Act
+        Map<String, Object> changed = UserMapper.diff(before, UserMapper.toMap(previous));
+
+        // Assert
+        assertEquals(1, changed.size());
+        assertEquals("alice@example.com", changed.get(UserMapper.FIELD_EMAIL_LOWER));
+    }
+
+    @Test
+    public void testSearchKeysToBackfill_OnlyMissingKeys() {
+        // Arrange - a legacy document without either normalized field
+        Map<String, Object> legacy = new HashMap<>(UserMapper.toMap(previous));
+        legacy.remove(UserMapper.FIELD_DISPLAY_NAME_LOWER);
+        legacy.remove(UserMapper.FIELD_EMAIL_LOWER);
+
+        // Act
+        Map<String, Object> missing = UserMapper.searchKeysToBackfill(legacy);
+
+        // Assert
+        assertEquals(2, missing.size());
+        assertEquals("alice", missing.get(UserMapper.FIELD_DISPLAY_NAME_LOWER));
+        assertEquals("alice@example.com", missing.get(UserMapper.FIELD_EMAIL_LOWER));
+        assertTrue(UserMapper.searchKeysToBackfill(UserMapper.toMap(previous)).isEmpty());
+    }
+
+    private static User copy(User user) {
+        return UserMapper.fromMap(user.getId(), UserMapper.toMap(user));
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.echo_app.media;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * ImageSamplingTest.java
+ *
+ * Unit tests for the size arithmetic of the media upload pipeline.
+ *
+ * Test Coverage:
+ * - inSampleSize is the largest power of two that keeps the target resolution
+ * - The sampled decode never exceeds four times the target pixel count
+ * - Scaled sizes keep the aspect ratio and never upscale
+ */
+public class ImageSamplingTest {
+
+    @Test
+    public void testCalculateInSampleSize_12MegapixelPhoto() {
+        // 4000x3000 → 2000x1500 at sample size 2; 4 would give 1000 < 1600
+        assertEquals(2, ImageSampling.calculateInSampleSize(4000, 3000, 1600));
+        assertEquals(4, ImageSampling.calculateInSampleSize(8000, 6000, 1600));
+    }
+
+    @Test
+    public void testCalculateInSampleSize_SmallOrInvalidSource() {
+        assertEquals(1, ImageSampling.calculateInSampleSize(1600, 1200, 1600));
+        assertEquals(1, ImageSampling.calculateInSampleSize(800, 600, 1600));
+        assertEquals(1, ImageSampling.calculateInSampleSize(0, 0, 1600));
+        assertEquals(1, ImageSampling.calculateInSampleSize(4000, 3000, 0));
+    }
+
+    @Test
+    public void testCalculateInSampleSize_DecodeStaysBounded() {
+        int[][] sources = {{4000, 3000}, {3199, 100}, {12000, 9000}, {1601, 1601}, {6400, 4800}};
+        for (int[] source : sources) {
+            int sampleSize = ImageSampling.calculateInSampleSize(source[0], source[1], 1600);
+            int decodedLongest = Math.max(source[0], source[1]) / sampleSize;
+
+            assertTrue("Decode must keep the target resolution", decodedLongest >= 1600);
+            assertTrue("Decode must be at most twice the target side", decodedLongest < 2 * 1600);
+        }
+    }
+
+    @Test
+    public void testScaledSize_KeepsAspectRatio() {
+        assertArrayEquals(new int[]{1600, 1200}, ImageSampling.scaledSize(2000, 1500, 1600));
+        assertArrayEquals(new int[]{900, 1600}, ImageSampling.scaledSize(1080, 1920, 1600));
+        assertArrayEquals(new int[]{32, 24}, ImageSampling.scaledSize(1600, 1200, 32));
+    }
+
+    @Test
+    public void testScaledSize_NeverUpscales() {
+        assertArrayEquals(new int[]{640, 480}, ImageSampling.scaledSize(640, 480, 1600));
+    }
+
+    @Test
+    public void testScaledSize_MinimumOnePixel() {
+        // A 10000x10 panorama shrunk to a 32px thumbnail
+        assertArrayEquals(new int[]{32, 1}, ImageSampling.scaledSize(10000, 10, 32));
+    }
+}
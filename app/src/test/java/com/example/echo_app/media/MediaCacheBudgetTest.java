@@ -0,0 +1,61 @@
+package com.example.echo_app.media;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * MediaCacheBudgetTest.java
+ *
+ * Unit tests for device-class cache budgets and cache statistics.
+ *
+ * Test Coverage:
+ * - Device classification by heap limit and low-RAM flag
+ * - Budgets grow with the device class and stay within the heap
+ * - Hit rates of MediaCacheStats
+ */
+public class MediaCacheBudgetTest {
+
+    private static final long MB = 1024L * 1024L;
+
+    @Test
+    public void testClassify() {
+        assertEquals(MediaCacheBudget.DeviceClass.LOW, MediaCacheBudget.classify(512, true));
+        assertEquals(MediaCacheBudget.DeviceClass.LOW, MediaCacheBudget.classify(128, false));
+        assertEquals(MediaCacheBudget.DeviceClass.STANDARD, MediaCacheBudget.classify(256, false));
+        assertEquals(MediaCacheBudget.DeviceClass.HIGH, MediaCacheBudget.classify(512, false));
+    }
+
+    @Test
+    public void testForDevice_BudgetsScaleWithClass() {
+        MediaCacheBudget low = MediaCacheBudget.forDevice(128, false);
+        MediaCacheBudget standard = MediaCacheBudget.forDevice(256, false);
+        MediaCacheBudget high = MediaCacheBudget.forDevice(512, false);
+
+        assertEquals(8 * MB, low.getMemoryCacheBytes());
+        assertEquals(32 * MB, standard.getMemoryCacheBytes());
+        assertTrue(high.getMemoryCacheBytes() > standard.getMemoryCacheBytes());
+        assertTrue(low.getDiskCacheBytes() < standard.getDiskCacheBytes());
+        assertTrue(standard.getDiskCacheBytes() < high.getDiskCacheBytes());
+        assertTrue(high.getMemoryCacheBytes() + high.getBitmapPoolBytes() <= 512 * MB / 3);
+    }
+
+    @Test
+    public void testStats_HitRates() {
+        MediaCacheStats stats = new MediaCacheStats();
+        assertEquals(0.0, stats.getMemoryHitRate(), 0.0);
+
+        stats.recordMemoryLookup(true);
+        stats.recordMemoryLookup(true);
+        stats.recordMemoryLookup(true);
+        stats.recordMemoryLookup(false);
+        stats.recordDiskLookup(false);
+
+        assertEquals(0.75, stats.getMemoryHitRate(), 1e-9);
+        assertEquals(0.0, stats.getDiskHitRate(), 0.0);
+        assertEquals(1, stats.getDiskMisses());
+
+        stats.reset();
+        assertEquals(0, stats.getMemoryHits());
+    }
+}
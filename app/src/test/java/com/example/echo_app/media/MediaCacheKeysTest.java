@@ -0,0 +1,54 @@
+package com.example.echo_app.media;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * MediaCacheKeysTest.java
+ *
+ * Unit tests for token-free media cache keys.
+ *
+ * Test Coverage:
+ * - Firebase Storage hosts are recognized (legacy and .firebasestorage.app buckets)
+ * - The token parameter is removed wherever it appears in the query
+ * - Two URLs differing only in their token share a key
+ * - Other URLs and malformed input are left unchanged
+ */
+public class MediaCacheKeysTest {
+
+    private static final String STORAGE_URL =
+            "https://firebasestorage.googleapis.com/v0/b/echo.appspot.com/o/chats%2Fc1%2Fa.jpg";
+
+    @Test
+    public void testIsFirebaseStorageUrl() {
+        assertTrue(MediaCacheKeys.isFirebaseStorageUrl(STORAGE_URL + "?alt=media"));
+        assertTrue(MediaCacheKeys.isFirebaseStorageUrl("https://echo.firebasestorage.app/o/a.jpg"));
+        assertFalse(MediaCacheKeys.isFirebaseStorageUrl("https://example.com/a.jpg?token=x"));
+        assertFalse(MediaCacheKeys.isFirebaseStorageUrl("not a url"));
+        assertFalse(MediaCacheKeys.isFirebaseStorageUrl(null));
+    }
+
+    @Test
+    public void testStableKey_TokenRemoved() {
+        assertEquals(STORAGE_URL + "?alt=media",
+                MediaCacheKeys.stableKey(STORAGE_URL + "?alt=media&token=1111-2222"));
+        assertEquals(STORAGE_URL + "?alt=media",
+                MediaCacheKeys.stableKey(STORAGE_URL + "?token=1111-2222&alt=media"));
+        assertEquals(STORAGE_URL, MediaCacheKeys.stableKey(STORAGE_URL + "?token=1111-2222"));
+    }
+
+    @Test
+    public void testStableKey_RotatedTokensShareKey() {
+        assertEquals(MediaCacheKeys.stableKey(STORAGE_URL + "?alt=media&token=old"),
+                MediaCacheKeys.stableKey(STORAGE_URL + "?alt=media&token=new"));
+    }
+
+    @Test
+    public void testStableKey_OtherUrlsUnchanged() {
+        String url = "https://example.com/a.jpg?token=abc";
+        assertEquals(url, MediaCacheKeys.stableKey(url));
+        assertEquals(STORAGE_URL, MediaCacheKeys.stableKey(STORAGE_URL));
+        assertNull(MediaCacheKeys.stableKey(null));
+    }
+}
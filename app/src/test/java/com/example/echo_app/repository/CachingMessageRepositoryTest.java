@@ -0,0 +1,306 @@
+package com.example.echo_app.repository;
+
+import static org.junit.Assert.*;
+
+import com.example.echo_app.data.FakeLocalMessageStore;
+import com.example.echo_app.data.LocalMessageStore;
+import com.example.echo_app.model.Message;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * CachingMessageRepositoryTest.java
+ *
+ * Unit tests for CachingMessageRepository delta synchronization.
+ *
+ * Uses FakeFirestoreMessageRepository as the remote source and FakeLocalMessageStore
+ * as the on-device store. Store I/O runs inline on the test thread.
+ *
+ * Test Coverage:
+ * - Initial sync downloads full history and sets the high-water mark
+ * - Subsequent syncs only request messages received at or after the mark (server time)
+ * - A message sent late with an old client timestamp is still synchronized
+ * - Duplicate messages at the mark are merged, not repeated
+ * - Offline fallback to cached data
+ * - The cached window is served without the network, with a cursor for older pages
+ * - The newest remote page seeds the mark, so the next sync fetches only the delta
+ * - Page failures reach the caller as the original exception
+ * - Write-through of status updates (never downgrading the cached status) and deletions
+ */
+public class CachingMessageRepositoryTest {
+
+    private RecordingMessageRepository remote;
+    private FakeLocalMessageStore store;
+    private CachingMessageRepository repository;
+
+    @Before
+    public void setUp() {
+        remote = new RecordingMessageRepository();
+        store = new FakeLocalMessageStore();
+        repository = new CachingMessageRepository(remote, store, Runnable::run);
+    }
+
+    @Test
+    public void testInitialSync_DownloadsFullHistory() throws ExecutionException, InterruptedException {
+        // Arrange
+        sendRemote("msg1", 1000);
+        sendRemote("msg2", 2000);
+
+        // Act
+        List<Message> messages = Tasks.await(repository.getMessagesByChatId("chat1"));
+
+        // Assert
+        assertEquals(2, messages.size());
+        assertEquals(0L, remote.lastSinceTimestamp);
+        assertEquals(2000L, store.getHighWaterMark("chat1"));
+    }
+
+    @Test
+    public void testSecondSync_OnlyFetchesNewTraffic() throws ExecutionException, InterruptedException {
+        // Arrange
+        sendRemote("msg1", 1000);
+        sendRemote("msg2", 2000);
+        Tasks.await(repository.getMessagesByChatId("chat1"));
+        sendRemote("msg3", 3000);
+
+        // Act
+        List<Message> messages = Tasks.await(repository.getMessagesByChatId("chat1"));
+
+        // Assert - only msg2 (at the mark) and msg3 were transferred
+        assertEquals(2000L, remote.lastSinceTimestamp);
+        assertEquals(2, remote.lastDeltaSize);
+        assertEquals(3, messages.size());
+        assertEquals("msg3", messages.get(2).getId());
+        assertEquals(3000L, store.getHighWaterMark("chat1"));
+    }
+
+    @Test
+    public void testSync_SameTimestampAsMarkNotMissed() throws ExecutionException, InterruptedException {
+        // Arrange
+        sendRemote("msg1", 1000);
+        Tasks.await(repository.getMessagesByChatId("chat1"));
+        sendRemote("msg2", 1000);
+
+        // Act
+        List<Message> messages = Tasks.await(repository.getMessagesByChatId("chat1"));
+
+        // Assert
+        assertEquals(2, messages.size());
+    }
+
+    @Test
+    public void testSync_LateSentMessageNotMissed() throws ExecutionException, InterruptedException {
+        // Arrange
+        sendRemote("msg1", 1000);
+        sendRemote("msg2", 3000);
+        Tasks.await(repository.getMessagesByChatId("chat1"));
+
+        // Act - a message written offline at 2000 reaches the server after the sync
+        remote.setServerTime(4000);
+        sendRemote("msg-offline", 2000);
+        List<Message> messages = Tasks.await(repository.getMessagesByChatId("chat1"));
+
+        // Assert - found by its server time although its client timestamp is below the mark
+        assertEquals(3, messages.size());
+        assertEquals("msg-offline", messages.get(1).getId());
+        assertEquals(4000L, store.getHighWaterMark("chat1"));
+    }
+
+    @Test
+    public void testSync_RemoteFailureServesCache() throws ExecutionException, InterruptedException {
+        // Arrange
+        sendRemote("msg1", 1000);
+        Tasks.await(repository.getMessagesByChatId("chat1"));
+        remote.failNextDelta = true;
+
+        // Act
+        List<Message> messages = Tasks.await(repository.getMessagesByChatId("chat1"));
+
+        // Assert
+        assertEquals(1, messages.size());
+    }
+
+    @Test
+    public void testSync_InitialFailurePropagates() throws InterruptedException {
+        remote.failNextDelta = true;
+        try {
+            Tasks.await(repository.getMessagesByChatId("chat1"));
+            fail("Should fail when nothing is cached");
+        } catch (ExecutionException e) {
+            assertNotNull(e.getCause());
+        }
+        assertEquals(LocalMessageStore.NO_HIGH_WATER_MARK, store.getHighWaterMark("chat1"));
+    }
+
+    @Test
+    public void testCachedPage_NewestWindowWithCursor() throws ExecutionException, InterruptedException {
+        // Arrange
+        sendRemote("msg1", 1000);
+        sendRemote("msg2", 2000);
+        sendRemote("msg3", 3000);
+        Tasks.await(repository.getMessagesByChatId("chat1"));
+
+        // Act
+        Page<Message> page = Tasks.await(repository.getCachedPage("chat1", 2));
+
+        // Assert - oldest first, and older pages continue below msg2
+        assertEquals(2, page.getItems().size());
+        assertEquals("msg2", page.getItems().get(0).getId());
+        assertEquals("msg3", page.getItems().get(1).getId());
+        PageCursor cursor = PageCursor.decode(page.getNextCursor());
+        assertEquals(2000L, cursor.getTimestamp());
+        assertEquals("msg2", cursor.getDocumentId());
+    }
+
+    @Test
+    public void testCachedPage_EmptyCacheHasNoCursor() throws ExecutionException, InterruptedException {
+        Page<Message> page = Tasks.await(repository.getCachedPage("chat1", 20));
+
+        assertTrue(page.getItems().isEmpty());
+        assertFalse(page.hasMore());
+    }
+
+    @Test
+    public void testNewestPage_SeedsMarkSoSyncFetchesOnlyDelta() throws ExecutionException, InterruptedException {
+        // Arrange
+        sendRemote("msg1", 1000);
+        sendRemote("msg2", 2000);
+        sendRemote("msg3", 3000);
+        Tasks.await(repository.getMessagesPage("chat1", 2, null));
+        sendRemote("msg4", 4000);
+
+        // Act
+        List<Message> delta = Tasks.await(repository.syncMessages("chat1"));
+
+        // Assert - msg3 (at the mark) and msg4, not the full history
+        assertEquals(3000L, remote.lastSinceTimestamp);
+        assertEquals(2, delta.size());
+        assertEquals("msg4", delta.get(1).getId());
+        assertEquals(4000L, store.getHighWaterMark("chat1"));
+    }
+
+    @Test
+    public void testOlderPage_LeavesMarkAlone() throws ExecutionException, InterruptedException {
+        // Arrange
+        sendRemote("msg1", 1000);
+        sendRemote("msg2", 2000);
+        sendRemote("msg3", 3000);
+        String cursor = PageCursor.forTimestamp(2000L, "msg2").encode();
+
+        // Act
+        Tasks.await(repository.getMessagesPage("chat1", 2, cursor));
+
+        // Assert
+        assertEquals(LocalMessageStore.NO_HIGH_WATER_MARK, store.getHighWaterMark("chat1"));
+        assertEquals(1, Tasks.await(repository.getCachedMessages("chat1")).size());
+    }
+
+    @Test
+    public void testGetMessagesPage_FailurePassedThrough() throws InterruptedException {
+        // Arrange
+        FirebaseFirestoreException unavailable = new FirebaseFirestoreException("offline",
+                FirebaseFirestoreException.Code.UNAVAILABLE);
+        remote.nextPageFailure = unavailable;
+
+        // Act
+        try {
+            Tasks.await(repository.getMessagesPage("chat1", 20, null));
+            fail("Expected the page to fail");
+        } catch (ExecutionException e) {
+            // Assert - not wrapped in a RuntimeExecutionException
+            assertSame(unavailable, e.getCause());
+        }
+    }
+
+    @Test
+    public void testWriteThrough_StatusAndDelete() throws ExecutionException, InterruptedException {
+        // Arrange
+        sendRemote("msg1", 1000);
+        sendRemote("msg2", 2000);
+        Tasks.await(repository.getMessagesByChatId("chat1"));
+
+        // Act
+        Tasks.await(repository.updateMessageStatus("chat1/msg1", "seen"));
+        Tasks.await(repository.deleteMessage("chat1/msg2"));
+
+        // Assert
+        List<Message> cached = Tasks.await(repository.getCachedMessages("chat1"));
+        assertEquals(1, cached.size());
+        assertEquals("seen", cached.get(0).getDeliveryStatus());
+    }
+
+    @Test
+    public void testWriteThrough_LateAckDoesNotDowngrade() throws ExecutionException, InterruptedException {
+        // Arrange
+        sendRemote("msg1", 1000);
+        Tasks.await(repository.getMessagesByChatId("chat1"));
+        Tasks.await(repository.updateMessageStatus("chat1/msg1", "seen"));
+
+        // Act - a "delivered" ack that was queued earlier arrives last
+        Map<String, String> lateAck = new HashMap<>();
+        lateAck.put("chat1/msg1", "delivered");
+        Tasks.await(repository.updateMessageStatuses(lateAck));
+
+        // Assert - the cache agrees with the server, which refused the downgrade
+        assertEquals("seen", Tasks.await(repository.getCachedMessages("chat1")).get(0).getDeliveryStatus());
+    }
+
+    private void sendRemote(String id, long timestamp) throws ExecutionException, InterruptedException {
+        Message message = new Message(id, "user1", "chat1", "Message " + id, "text");
+        message.setTimestamp(timestamp);
+        Tasks.await(remote.sendMessage(message));
+    }
+
+    /**
+     * Fake remote that records delta query arguments.
+     */
+    private static class RecordingMessageRepository extends FakeFirestoreMessageRepository {
+        long lastSinceTimestamp = -1L;
+        int lastDeltaSize = -1;
+        boolean failNextDelta;
+        Exception nextPageFailure;
+
+        @Override
+        public Task<Page<Message>> getMessagesPage(String chatId, int pageSize, String cursor) {
+            if (nextPageFailure != null) {
+                Exception failure = nextPageFailure;
+                nextPageFailure = null;
+                return Tasks.forException(failure);
+            }
+            return super.getMessagesPage(chatId, pageSize, cursor);
+        }
+
+        @Override
+        public Task<List<Message>> getMessagesSince(String chatId, long sinceTimestamp) {
+            if (failNextDelta) {
+                failNextDelta = false;
+                return Tasks.forException(new Exception("Network unavailable"));
+            }
+            lastSinceTimestamp = sinceTimestamp;
+            Task<List<Message>> task = super.getMessagesSince(chatId, sinceTimestamp);
+            lastDeltaSize = task.getResult().size();
+            return task;
+        }
+
+        @Override
+        public Task<List<Message>> getMessagesReceivedSince(String chatId, long receivedSince) {
+            if (failNextDelta) {
+                failNextDelta = false;
+                return Tasks.forException(new Exception("Network unavailable"));
+            }
+            lastSinceTimestamp = receivedSince;
+            Task<List<Message>> task = super.getMessagesReceivedSince(chatId, receivedSince);
+            lastDeltaSize = task.getResult().size();
+            return task;
+        }
+    }
+}
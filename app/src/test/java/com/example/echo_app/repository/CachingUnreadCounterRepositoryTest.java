@@ -0,0 +1,117 @@
+package com.example.echo_app.repository;
+
+import static org.junit.Assert.*;
+
+import com.google.android.gms.tasks.Tasks;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * CachingUnreadCounterRepositoryTest.java
+ *
+ * Unit tests for the cached unread-count reader used by the chat list badges.
+ *
+ * Uses FakeUnreadCounterRepository as the backing store and a fake clock to control expiry.
+ *
+ * Test Coverage:
+ * - Repeated reads are served from the cache until the TTL expires
+ * - Bulk reads only fetch uncached chats and keep the requested order
+ * - markRead() shows zero immediately; incrementUnread() (deprecated) and invalidate() force a re-read
+ */
+public class CachingUnreadCounterRepositoryTest {
+
+    private static final long TTL = 60_000L;
+
+    private FakeUnreadCounterRepository remote;
+    private long now;
+    private CachingUnreadCounterRepository repository;
+
+    @Before
+    @SuppressWarnings("deprecation")
+    public void setUp() throws ExecutionException, InterruptedException {
+        remote = new FakeUnreadCounterRepository();
+        now = 1_000_000L;
+        repository = new CachingUnreadCounterRepository(remote, TTL, () -> now);
+
+        Tasks.await(remote.incrementUnread("chat1", Arrays.asList("alice", "bob")));
+        Tasks.await(remote.incrementUnread("chat1", Arrays.asList("alice")));
+        Tasks.await(remote.incrementUnread("chat2", Arrays.asList("alice")));
+    }
+
+    @Test
+    public void testGetUnreadCount_CachedUntilTtl() throws ExecutionException, InterruptedException {
+        // Act
+        long first = Tasks.await(repository.getUnreadCount("alice", "chat1"));
+        long second = Tasks.await(repository.getUnreadCount("alice", "chat1"));
+
+        // Assert
+        assertEquals(2L, first);
+        assertEquals(2L, second);
+        assertEquals(1, remote.getReadCount());
+
+        // Act - expire
+        now += TTL;
+        Tasks.await(repository.getUnreadCount("alice", "chat1"));
+
+        // Assert
+        assertEquals(2, remote.getReadCount());
+    }
+
+    @Test
+    public void testGetUnreadCounts_FetchesOnlyUncachedChats() throws ExecutionException, InterruptedException {
+        // Arrange
+        Tasks.await(repository.getUnreadCount("alice", "chat1"));
+
+        // Act
+        Map<String, Long> counts = Tasks.await(repository.getUnreadCounts("alice", Arrays.asList("chat2", "chat1", "chat3")));
+
+        // Assert
+        assertEquals(Arrays.asList("chat2", "chat1", "chat3"), Arrays.asList(counts.keySet().toArray()));
+        assertEquals(Long.valueOf(1L), counts.get("chat2"));
+        assertEquals(Long.valueOf(2L), counts.get("chat1"));
+        assertEquals(Long.valueOf(0L), counts.get("chat3"));
+        assertEquals(3, remote.getReadCount());
+        assertEquals(1, repository.getHitCount());
+    }
+
+    @Test
+    public void testMarkRead_ShowsZeroWithoutRead() throws ExecutionException, InterruptedException {
+        // Arrange
+        Tasks.await(repository.getUnreadCount("alice", "chat1"));
+
+        // Act
+        Tasks.await(repository.markRead("alice", "chat1"));
+
+        // Assert
+        assertEquals(Long.valueOf(0L), Tasks.await(repository.getUnreadCount("alice", "chat1")));
+        assertEquals(1, remote.getReadCount());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testIncrementAndInvalidate_ForceReread() throws ExecutionException, InterruptedException {
+        // Arrange
+        Tasks.await(repository.getUnreadCount("alice", "chat1"));
+        Tasks.await(repository.getUnreadCount("bob", "chat1"));
+
+        // Act - a message sent through the cache drops alice's entry
+        Tasks.await(repository.incrementUnread("chat1", Arrays.asList("alice")));
+        long alice = Tasks.await(repository.getUnreadCount("alice", "chat1"));
+
+        // A message the cache did not see is picked up after invalidate()
+        Tasks.await(remote.incrementUnread("chat1", Arrays.asList("bob")));
+        long bobCached = Tasks.await(repository.getUnreadCount("bob", "chat1"));
+        repository.invalidate("bob", "chat1");
+        long bob = Tasks.await(repository.getUnreadCount("bob", "chat1"));
+
+        // Assert
+        assertEquals(3L, alice);
+        assertEquals(1L, bobCached);
+        assertEquals(2L, bob);
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.echo_app.repository;
+
+import static org.junit.Assert.*;
+
+import com.example.echo_app.model.User;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * CachingUserRepositoryTest.java
+ *
+ * Unit tests for the CachingUserRepository LRU profile cache.
+ *
+ * Uses FakeFirestoreUserRepository as the backing store (wrapped to count reads and
+ * optionally hold them pending) and a fake clock to control expiry.
+ *
+ * Test Coverage:
+ * - Repeated lookups are served from the cache
+ * - Entries expire after the TTL
+ * - Least recently used entries are evicted first
+ * - Concurrent lookups share a single in-flight Task
+ * - updateUser()/deleteUser() invalidate cached profiles
+ * - getUsersByIds() only fetches uncached IDs
+ */
+public class CachingUserRepositoryTest {
+
+    private static final long TTL = 60_000L;
+
+    private CountingUserRepository remote;
+    private long now;
+    private CachingUserRepository repository;
+
+    @Before
+    public void setUp() throws ExecutionException, InterruptedException {
+        remote = new CountingUserRepository();
+        now = 1_000_000L;
+        repository = new CachingUserRepository(remote, 2, TTL, () -> now);
+
+        Tasks.await(remote.addUser(new User("alice", "Alice", "alice@example.com")));
+        Tasks.await(remote.addUser(new User("bob", "Bob", "bob@example.com")));
+        Tasks.await(remote.addUser(new User("carol", "Carol", "carol@example.com")));
+    }
+
+    @Test
+    public void testGetUserById_SecondLookupIsHit() throws ExecutionException, InterruptedException {
+        // Act
+        User first = Tasks.await(repository.getUserById("alice"));
+        User second = Tasks.await(repository.getUserById("alice"));
+
+        // Assert
+        assertEquals("Alice", first.getDisplayName());
+        assertSame(first, second);
+        assertEquals(1, remote.reads);
+        assertEquals(1, repository.getHitCount());
+        assertEquals(1, repository.getMissCount());
+    }
+
+    @Test
+    public void testGetUserById_ExpiredEntryRefetched() throws ExecutionException, InterruptedException {
+        // Arrange
+        Tasks.await(repository.getUserById("alice"));
+
+        // Act
+        now += TTL;
+        Tasks.await(repository.getUserById("alice"));
+
+        // Assert
+        assertEquals(2, remote.reads);
+        assertEquals(2, repository.getMissCount());
+    }
+
+    @Test
+    public void testGetUserById_EvictsLeastRecentlyUsed() throws ExecutionException, InterruptedException {
+        // Arrange - capacity is 2; touching alice makes bob the eldest
+        Tasks.await(repository.getUserById("alice"));
+        Tasks.await(repository.getUserById("bob"));
+        Tasks.await(repository.getUserById("alice"));
+
+        // Act
+        Tasks.await(repository.getUserById("carol"));
+        Tasks.await(repository.getUserById("alice"));
+        Tasks.await(repository.getUserById("bob"));
+
+        // Assert - alice stayed cached, bob was evicted and re-read
+        assertEquals(2, repository.size());
+        assertEquals(4, remote.reads);
+    }
+
+    @Test
+    public void testGetUserById_ConcurrentLookupsShareTask() throws ExecutionException, InterruptedException {
+        // Arrange
+        TaskCompletionSource<User> source = new TaskCompletionSource<>();
+        remote.pending = source;
+
+        // Act
+        Task<User> first = repository.getUserById("alice");
+        Task<User> second = repository.getUserById("alice");
+        source.setResult(new User("alice", "Alice", "alice@example.com"));
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(1, remote.reads);
+        assertEquals("Alice", Tasks.await(second).getDisplayName());
+        assertEquals(1, repository.size());
+    }
+
+    @Test
+    public void testUpdateUser_InvalidatesEntry() throws ExecutionException, InterruptedException {
+        // Arrange
+        Tasks.await(repository.getUserById("alice"));
+
+        // Act
+        User update = new User("alice", "Alice Cooper", "alice@example.com");
+        Tasks.await(repository.updateUser(update));
+        User reloaded = Tasks.await(repository.getUserById("alice"));
+
+        // Assert
+        assertEquals("Alice Cooper", reloaded.getDisplayName());
+        assertEquals(2, remote.reads);
+    }
+
+    @Test
+    public void testUpdateUser_InFlightLookupNotCached() throws ExecutionException, InterruptedException {
+        // Arrange - a read is pending when the profile changes
+        TaskCompletionSource<User> source = new TaskCompletionSource<>();
+        remote.pending = source;
+        Task<User> stale = repository.getUserById("alice");
+
+        // Act
+        Tasks.await(repository.updateUser(new User("alice", "Alice Cooper", "alice@example.com")));
+        source.setResult(new User("alice", "Alice", "alice@example.com"));
+
+        // Assert - the stale result completes its caller but is not cached
+        assertEquals("Alice", Tasks.await(stale).getDisplayName());
+        assertEquals(0, repository.size());
+    }
+
+    @Test
+    public void testDeleteUser_InvalidatesEntry() throws ExecutionException, InterruptedException {
+        // Arrange
+        Tasks.await(repository.getUserById("alice"));
+
+        // Act
+        Tasks.await(repository.deleteUser("alice"));
+        Task<User> task = repository.getUserById("alice");
+
+        // Assert
+        assertFalse(task.isSuccessful());
+        assertEquals(0, repository.size());
+    }
+
+    @Test
+    public void testGetUserById_FailureNotCached() {
+        // Act
+        Task<User> first = repository.getUserById("unknown");
+        Task<User> second = repository.getUserById("unknown");
+
+        // Assert
+        assertFalse(first.isSuccessful());
+        assertFalse(second.isSuccessful());
+        assertEquals(2, remote.reads);
+    }
+
+    @Test
+    public void testGetUsersByIds_FetchesOnlyUncachedIds() throws ExecutionException, InterruptedException {
+        // Arrange
+        Tasks.await(repository.getUserById("alice"));
+
+        // Act
+        Map<String, User> users = Tasks.await(repository.getUsersByIds(Arrays.asList("alice", "bob", "ghost")));
+
+        // Assert
+        assertEquals(Arrays.asList("bob", "ghost"), remote.lastBulkIds);
+        assertEquals("Alice", users.get("alice").getDisplayName());
+        assertEquals("Bob", users.get("bob").getDisplayName());
+        assertNull(users.get("ghost"));
+
+        // Bob is now cached
+        Tasks.await(repository.getUserById("bob"));
+        assertEquals(1, remote.reads);
+    }
+
+    /**
+     * Fake repository that counts getUserById() reads and can hold the next read pending.
+     */
+    private static class CountingUserRepository extends FakeFirestoreUserRepository {
+        int reads;
+        TaskCompletionSource<User> pending;
+        Collection<String> lastBulkIds;
+
+        @Override
+        public Task<Map<String, User>> getUsersByIds(Collection<String> userIds) {
+            lastBulkIds = userIds;
+            return super.getUsersByIds(userIds);
+        }
+
+        @Override
+        public Task<User> getUserById(String userId) {
+            reads++;
+            if (pending != null) {
+                Task<User> task = pending.getTask();
+                pending = null;
+                return task;
+            }
+            return super.getUserById(userId);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.echo_app.repository;
+
+import static org.junit.Assert.*;
+
+import com.example.echo_app.data.DeleteCheckpointStore.Checkpoint;
+import com.example.echo_app.data.FakeDeleteCheckpointStore;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * CascadingDeleteTest.java
+ *
+ * Unit tests for the resumable CascadingDelete engine.
+ *
+ * Steps are in-memory "collections" that delete a fixed number of documents per page
+ * and can be told to fail, so interruption and resumption can be simulated.
+ *
+ * Test Coverage:
+ * - Steps run in order, each paging until it is empty
+ * - Progress is checkpointed per page and cleared on completion
+ * - A failed page leaves the checkpoint at the failing step
+ * - A second run resumes at that step without repeating finished steps
+ */
+public class CascadingDeleteTest {
+
+    private FakeDeleteCheckpointStore checkpoints;
+    private List<String> log;
+    private PagedStep messages;
+    private PagedStep members;
+    private PagedStep documents;
+
+    @Before
+    public void setUp() {
+        checkpoints = new FakeDeleteCheckpointStore();
+        log = new ArrayList<>();
+        messages = new PagedStep("messages", 1200, 500);
+        members = new PagedStep("members", 3, 250);
+        documents = new PagedStep("documents", 2, 500);
+    }
+
+    @Test
+    public void testRun_DeletesStepsInOrder() throws ExecutionException, InterruptedException {
+        // Act
+        int pages = Tasks.await(newJob().run());
+
+        // Assert - 3 message pages, 1 member page, 1 document page
+        assertEquals(5, pages);
+        assertEquals(Arrays.asList("messages", "messages", "messages", "members", "documents"), log);
+        assertEquals(0, messages.remaining + members.remaining + documents.remaining);
+        assertNull("Checkpoint is cleared on completion", checkpoints.load("group/g1"));
+        assertEquals("Initial save plus one per page", 6, checkpoints.getSaveCount());
+    }
+
+    @Test
+    public void testRun_FailureKeepsCheckpointAtFailingStep() {
+        // Arrange
+        members.failNext = true;
+
+        // Act
+        Task<Integer> task = newJob().run();
+
+        // Assert
+        assertFalse(task.isSuccessful());
+        Checkpoint checkpoint = checkpoints.load("group/g1");
+        assertEquals(1, checkpoint.getStep());
+        assertEquals(3, checkpoint.getPages());
+        assertEquals(2, documents.remaining);
+    }
+
+    @Test
+    public void testRun_ResumesWithoutRepeatingFinishedSteps() throws ExecutionException, InterruptedException {
+        // Arrange - first run dies in the member step
+        members.failNext = true;
+        newJob().run();
+        log.clear();
+
+        // Act
+        int pages = Tasks.await(newJob().run());
+
+        // Assert
+        assertEquals(Arrays.asList("members", "documents"), log);
+        assertEquals(5, pages);
+        assertTrue(checkpoints.getPendingJobIds().isEmpty());
+    }
+
+    private CascadingDelete newJob() {
+        return new CascadingDelete("group/g1", Arrays.asList(messages, members, documents), checkpoints, Runnable::run);
+    }
+
+    /**
+     * Step deleting up to pageSize of its remaining documents per call.
+     */
+    private class PagedStep implements CascadingDelete.Step {
+        final String name;
+        final int pageSize;
+        int remaining;
+        boolean failNext;
+
+        PagedStep(String name, int count, int pageSize) {
+            this.name = name;
+            this.remaining = count;
+            this.pageSize = pageSize;
+        }
+
+        @Override
+        public Task<Boolean> deleteNextPage() {
+            if (failNext) {
+                failNext = false;
+                return Tasks.forException(new Exception("Network error"));
+            }
+            log.add(name);
+            int deleted = Math.min(pageSize, remaining);
+            remaining -= deleted;
+            return Tasks.forResult(deleted == pageSize);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.echo_app.repository;
+
+import static org.junit.Assert.*;
+
+import com.example.echo_app.model.Chat;
+import com.google.android.gms.tasks.Tasks;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * ChatRepositoryTest.java
+ *
+ * Unit tests for private chat resolution using FakeChatRepository.
+ *
+ * Test Coverage:
+ * - getOrCreatePrivateChat() creates the chat once and resolves to it for both users
+ * - Each resolution is a single document read
+ * - Invalid participants are rejected
+ */
+public class ChatRepositoryTest {
+
+    private FakeChatRepository repository;
+
+    @Before
+    public void setUp() {
+        repository = new FakeChatRepository();
+    }
+
+    @Test
+    public void testGetOrCreatePrivateChat_CreatesOnce() throws ExecutionException, InterruptedException {
+        // Act - both users open the conversation
+        Chat fromAlice = Tasks.await(repository.getOrCreatePrivateChat("alice", "bob"));
+        Chat fromBob = Tasks.await(repository.getOrCreatePrivateChat("bob", "alice"));
+
+        // Assert
+        assertEquals(fromAlice.getId(), fromBob.getId());
+        assertEquals(1, repository.getChatCount());
+        assertEquals(2, repository.getReadCount());
+        assertFalse(fromAlice.isGroup());
+        assertEquals(Arrays.asList("alice", "bob"), fromBob.getParticipantIds());
+    }
+
+    @Test
+    public void testGetOrCreatePrivateChat_ReturnsExistingChat() throws ExecutionException, InterruptedException {
+        // Arrange
+        Chat created = Tasks.await(repository.getOrCreatePrivateChat("alice", "bob"));
+        created.setLastMessageText("Hi");
+        created.setLastMessageTimestamp(1000L);
+        Tasks.await(repository.createChat(created));
+
+        // Act
+        Chat resolved = Tasks.await(repository.getOrCreatePrivateChat("bob", "alice"));
+
+        // Assert - the existing document is returned, not reset
+        assertEquals("Hi", resolved.getLastMessageText());
+    }
+
+    @Test
+    public void testGetOrCreatePrivateChat_InvalidUsers() {
+        assertTrue(repository.getOrCreatePrivateChat("alice", "alice").getException() instanceof IllegalArgumentException);
+        assertTrue(repository.getOrCreatePrivateChat(null, "bob").getException() instanceof IllegalArgumentException);
+        assertEquals(0, repository.getChatCount());
+    }
+}
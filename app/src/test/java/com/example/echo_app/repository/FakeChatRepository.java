@@ -0,0 +1,218 @@
+package com.example.echo_app.repository;
+
+import com.example.echo_app.model.Chat;
+import com.example.echo_app.utils.ChatIds;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * FakeChatRepository.java
+ *
+ * In-memory fake implementation of ChatRepository for unit testing.
+ *
+ * Features:
+ * - In-memory map of chatId → Chat (stored and returned as copies)
+ * - Same inbox order and cursor semantics as FirestoreChatRepository
+ *   (lastMessageTimestamp desc, then chat ID desc)
+ * - Synchronous inbox listeners that emit ADDED/MODIFIED/REMOVED changes for their
+ *   limited window, including chats pushed out of the window by newer activity
+ */
+public class FakeChatRepository implements ChatRepository {
+
+    private static final Comparator<Chat> INBOX_ORDER = (a, b) -> {
+        int byTimestamp = Long.compare(b.getLastMessageTimestamp(), a.getLastMessageTimestamp());
+        return byTimestamp != 0 ? byTimestamp : b.getId().compareTo(a.getId());
+    };
+
+    private final Map<String, Chat> chats = new HashMap<>();
+    private final List<InboxListener> listeners = new ArrayList<>();
+    private int readCount = 0;
+
+    @Override
+    public Task<Chat> getChatById(String chatId) {
+        if (chatId == null || chatId.isEmpty()) {
+            return Tasks.forException(new IllegalArgumentException("chatId must not be null or empty"));
+        }
+        readCount++;
+        Chat chat = chats.get(chatId);
+        if (chat == null) {
+            return Tasks.forException(new Exception("Chat not found: " + chatId));
+        }
+        return Tasks.forResult(copy(chat));
+    }
+
+    @Override
+    public Task<Void> createChat(Chat chat) {
+        if (chat == null || chat.getId() == null || chat.getId().isEmpty()
+                || chat.getParticipantIds() == null || chat.getParticipantIds().isEmpty()) {
+            return Tasks.forException(new IllegalArgumentException("Chat id and participantIds must not be null or empty"));
+        }
+        chats.put(chat.getId(), copy(chat));
+        for (InboxListener listener : new ArrayList<>(listeners)) {
+            listener.refresh();
+        }
+        return Tasks.forResult(null);
+    }
+
+    @Override
+    public Task<Chat> getOrCreatePrivateChat(String userId, String otherUserId) {
+        String chatId;
+        try {
+            chatId = ChatIds.privateChatId(userId, otherUserId);
+        } catch (IllegalArgumentException e) {
+            return Tasks.forException(e);
+        }
+
+        readCount++;
+        Chat existing = chats.get(chatId);
+        if (existing != null) {
+            return Tasks.forResult(copy(existing));
+        }
+
+        List<String> participants = new ArrayList<>(Arrays.asList(userId, otherUserId));
+        Collections.sort(participants);
+        Chat chat = new Chat(chatId, participants, false);
+        createChat(chat);
+        return Tasks.forResult(copy(chat));
+    }
+
+    @Override
+    public Task<Page<Chat>> getInboxPage(String userId, int pageSize, String cursor) {
+        if (userId == null || userId.isEmpty()) {
+            return Tasks.forException(new IllegalArgumentException("userId must not be null or empty"));
+        }
+        if (pageSize <= 0) {
+            return Tasks.forException(new IllegalArgumentException("pageSize must be positive"));
+        }
+
+        List<Chat> inbox = inbox(userId);
+        int start = 0;
+        if (cursor != null) {
+            PageCursor pageCursor;
+            try {
+                pageCursor = PageCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                return Tasks.forException(e);
+            }
+            Chat position = new Chat();
+            position.setId(pageCursor.getDocumentId());
+            position.setLastMessageTimestamp(pageCursor.getTimestamp());
+            while (start < inbox.size() && INBOX_ORDER.compare(inbox.get(start), position) <= 0) {
+                start++;
+            }
+        }
+
+        int end = Math.min(start + pageSize, inbox.size());
+        List<Chat> items = new ArrayList<>(inbox.subList(start, end));
+        String nextCursor = null;
+        if (end < inbox.size()) {
+            Chat last = items.get(items.size() - 1);
+            nextCursor = PageCursor.forTimestamp(last.getLastMessageTimestamp(), last.getId()).encode();
+        }
+        return Tasks.forResult(new Page<>(items, nextCursor));
+    }
+
+    @Override
+    public ListenerRegistration listenToInbox(String userId, int limit, ChangeListener<Chat> listener) {
+        if (userId == null || userId.isEmpty() || listener == null) {
+            throw new IllegalArgumentException("userId and listener must not be null or empty");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+
+        InboxListener inboxListener = new InboxListener(userId, limit, listener);
+        listeners.add(inboxListener);
+        inboxListener.refresh();
+        return () -> listeners.remove(inboxListener);
+    }
+
+    /**
+     * Get the number of single-document reads served (getChatById(), getOrCreatePrivateChat()).
+     */
+    public int getReadCount() {
+        return readCount;
+    }
+
+    /**
+     * Get the number of stored chats.
+     */
+    public int getChatCount() {
+        return chats.size();
+    }
+
+    private List<Chat> inbox(String userId) {
+        List<Chat> inbox = new ArrayList<>();
+        for (Chat chat : chats.values()) {
+            if (chat.getParticipantIds().contains(userId)) {
+                inbox.add(copy(chat));
+            }
+        }
+        Collections.sort(inbox, INBOX_ORDER);
+        return inbox;
+    }
+
+    private static Chat copy(Chat chat) {
+        Chat copy = new Chat(chat.getId(), new ArrayList<>(chat.getParticipantIds()), chat.isGroup());
+        copy.setLastMessageId(chat.getLastMessageId());
+        copy.setLastMessageText(chat.getLastMessageText());
+        copy.setLastMessageTimestamp(chat.getLastMessageTimestamp());
+        copy.setUpdatedAt(chat.getUpdatedAt());
+        return copy;
+    }
+
+    /**
+     * A registered inbox listener and the window it last reported.
+     */
+    private class InboxListener {
+        final String userId;
+        final int limit;
+        final ChangeListener<Chat> listener;
+        Map<String, Chat> window = new LinkedHashMap<>();
+
+        InboxListener(String userId, int limit, ChangeListener<Chat> listener) {
+            this.userId = userId;
+            this.limit = limit;
+            this.listener = listener;
+        }
+
+        void refresh() {
+            List<Chat> inbox = inbox(userId);
+            Map<String, Chat> next = new LinkedHashMap<>();
+            for (Chat chat : inbox.subList(0, Math.min(limit, inbox.size()))) {
+                next.put(chat.getId(), chat);
+            }
+
+            List<Change<Chat>> changes = new ArrayList<>();
+            for (Chat previous : window.values()) {
+                if (!next.containsKey(previous.getId())) {
+                    changes.add(Change.removed(previous));
+                }
+            }
+            for (Chat chat : next.values()) {
+                Chat previous = window.get(chat.getId());
+                if (previous == null) {
+                    changes.add(Change.added(chat));
+                } else if (INBOX_ORDER.compare(previous, chat) != 0
+                        || !String.valueOf(previous.getLastMessageId()).equals(String.valueOf(chat.getLastMessageId()))) {
+                    changes.add(Change.modified(chat));
+                }
+            }
+
+            window = next;
+            if (!changes.isEmpty()) {
+                listener.onChanges(changes);
+            }
+        }
+    }
+}
@@ -0,0 +1,656 @@
+package com.example.echo_app.repository;
+
+import com.example.echo_app.data.mapper.ChatMapper;
+import com.example.echo_app.model.Chat;
+import com.example.echo_app.model.DeliveryStatus;
+import com.example.echo_app.model.Message;
+import com.example.echo_app.utils.MessageIdGenerator;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * FakeFirestoreMessageRepository.java
+ *
+ * In-memory fake implementation of MessageRepository for unit testing.
+ *
+ * This class simulates Firebase Firestore behavior using local data structures.
+ * It implements the MessageRepository interface without requiring Firebase SDK.
+ *
+ * Features:
+ * - In-memory map of chatId → (messageId → Message), preserving insertion order
+ * - Simulates Firestore operations (get, add, update, delete, paged and delta queries)
+ * - Returns Task<T> for consistent API with real implementation
+ * - Validates input parameters
+ * - Same cursor semantics as FirestoreMessageRepository.getMessagesPage()
+ *   (descending timestamp, then descending document ID)
+ * - Sends stamp receivedAt with a simulated server clock (the client timestamp
+ *   unless setServerTime() was called), like serverTimestamp() in toSendMap()
+ * - Sends also record the chat preview (lastMessage*) fields, like the real send batch
+ * - Sends increment the unread count of the participants of chats added with putChat(),
+ *   except the sender and except in broadcast chats, like the real send transaction;
+ *   a re-sent message that is already stored is not counted again
+ * - Synchronous real-time listeners that receive ADDED/MODIFIED/REMOVED changes
+ *
+ * Usage in Tests:
+ * FakeFirestoreMessageRepository repository = new FakeFirestoreMessageRepository();
+ * Task<List<Message>> messagesTask = repository.getMessagesByChatId("chat1");
+ * List<Message> messages = Tasks.await(messagesTask);
+ */
+public class FakeFirestoreMessageRepository implements MessageRepository {
+
+    /**
+     * Ordering used by Firestore for paged queries: newest first, ties broken by document ID.
+     */
+    private static final Comparator<Message> NEWEST_FIRST = (a, b) -> {
+        int byTimestamp = Long.compare(b.getTimestamp(), a.getTimestamp());
+        return byTimestamp != 0 ? byTimestamp : b.getId().compareTo(a.getId());
+    };
+
+    private final Map<String, Map<String, Message>> messagesByChat = new HashMap<>();
+    private final List<FakeListener> listeners = new ArrayList<>();
+    private final Map<String, Chat> chatPreviews = new HashMap<>();
+    private final Map<String, Chat> chatDocuments = new HashMap<>();
+    private final Map<String, Long> unreadCounts = new HashMap<>();
+    private int batchUpdateCount = 0;
+    private int sendBatchCount = 0;
+    private int failingSends = 0;
+    private final Map<String, Exception> rejectedSends = new HashMap<>();
+    private final Set<String> deletedChats = new HashSet<>();
+    private final List<Exception> failingStatusUpdates = new ArrayList<>();
+    private long serverTime = 0L;
+
+    /**
+     * Default constructor.
+     * Initializes empty in-memory message store.
+     */
+    public FakeFirestoreMessageRepository() {
+    }
+
+    /**
+     * Retrieve all messages for a specific chat, ordered by timestamp ascending.
+     *
+     * @param chatId The unique identifier of the chat
+     * @return Task<List<Message>> - Task that completes with the chat's messages
+     */
+    @Override
+    public Task<List<Message>> getMessagesByChatId(String chatId) {
+        if (chatId == null || chatId.isEmpty()) {
+            return Tasks.forException(new IllegalArgumentException("chatId must not be null or empty"));
+        }
+
+        List<Message> messageList = new ArrayList<>();
+        for (Message message : chatMessages(chatId).values()) {
+            messageList.add(copyMessage(message));
+        }
+
+        // Stable sort keeps insertion order for equal timestamps, like Firestore's tie-break
+        Collections.sort(messageList, (a, b) -> Long.compare(a.getTimestamp(), b.getTimestamp()));
+        return Tasks.forResult(messageList);
+    }
+
+    /**
+     * Retrieve one page of messages for a chat, newest window first.
+     *
+     * @param chatId The unique identifier of the chat
+     * @param pageSize Maximum number of messages in the page
+     * @param cursor Opaque cursor from a previous page, or null for the newest page
+     * @return Task<Page<Message>> - Task that completes with the page, oldest first within the page
+     */
+    @Override
+    public Task<Page<Message>> getMessagesPage(String chatId, int pageSize, String cursor) {
+        if (chatId == null || chatId.isEmpty()) {
+            return Tasks.forException(new IllegalArgumentException("chatId must not be null or empty"));
+        }
+
+        if (pageSize <= 0) {
+            return Tasks.forException(new IllegalArgumentException("pageSize must be positive"));
+        }
+
+        PageCursor pageCursor = null;
+        if (cursor != null) {
+            try {
+                pageCursor = PageCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                return Tasks.forException(e);
+            }
+        }
+
+        List<Message> sorted = new ArrayList<>(chatMessages(chatId).values());
+        Collections.sort(sorted, NEWEST_FIRST);
+
+        // Simulate startAfter(timestamp, documentId)
+        int start = 0;
+        if (pageCursor != null) {
+            Message marker = new Message();
+            marker.setTimestamp(pageCursor.getTimestamp());
+            marker.setId(pageCursor.getDocumentId());
+            while (start < sorted.size() && NEWEST_FIRST.compare(sorted.get(start), marker) <= 0) {
+                start++;
+            }
+        }
+
+        int end = Math.min(start + pageSize, sorted.size());
+        List<Message> pageItems = new ArrayList<>();
+        for (int i = end - 1; i >= start; i--) {
+            pageItems.add(copyMessage(sorted.get(i)));
+        }
+
+        String nextCursor = null;
+        if (end < sorted.size()) {
+            Message oldest = sorted.get(end - 1);
+            nextCursor = PageCursor.forTimestamp(oldest.getTimestamp(), oldest.getId()).encode();
+        }
+
+        return Tasks.forResult(new Page<>(pageItems, nextCursor));
+    }
+
+    /**
+     * Retrieve messages of a chat at or after a timestamp, ordered by timestamp ascending.
+     *
+     * @param chatId The unique identifier of the chat
+     * @param sinceTimestamp Inclusive lower bound on Message.timestamp
+     * @return Task<List<Message>> - Task that completes with the matching messages
+     */
+    @Override
+    public Task<List<Message>> getMessagesSince(String chatId, long sinceTimestamp) {
+        if (chatId == null || chatId.isEmpty()) {
+            return Tasks.forException(new IllegalArgumentException("chatId must not be null or empty"));
+        }
+
+        List<Message> messageList = new ArrayList<>();
+        for (Message message : chatMessages(chatId).values()) {
+            if (message.getTimestamp() >= sinceTimestamp) {
+                messageList.add(copyMessage(message));
+            }
+        }
+
+        Collections.sort(messageList, (a, b) -> Long.compare(a.getTimestamp(), b.getTimestamp()));
+        return Tasks.forResult(messageList);
+    }
+
+    /**
+     * Retrieve messages of a chat received at or after a server time, ordered by receivedAt.
+     *
+     * @param chatId The unique identifier of the chat
+     * @param receivedSince Inclusive lower bound on Message.receivedAt
+     * @return Task<List<Message>> - Task that completes with the matching messages
+     */
+    @Override
+    public Task<List<Message>> getMessagesReceivedSince(String chatId, long receivedSince) {
+        if (chatId == null || chatId.isEmpty()) {
+            return Tasks.forException(new IllegalArgumentException("chatId must not be null or empty"));
+        }
+
+        List<Message> messageList = new ArrayList<>();
+        for (Message message : chatMessages(chatId).values()) {
+            if (message.getReceivedAt() >= receivedSince) {
+                messageList.add(copyMessage(message));
+            }
+        }
+
+        Collections.sort(messageList, (a, b) -> Long.compare(a.getReceivedAt(), b.getReceivedAt()));
+        return Tasks.forResult(messageList);
+    }
+
+    /**
+     * Listen to message changes in a chat.
+     * Delivers existing matching messages as ADDED immediately, then every later
+     * change synchronously on the calling thread.
+     *
+     * @param chatId The unique identifier of the chat
+     * @param sinceTimestamp Inclusive lower bound on Message.timestamp
+     * @param listener Callback receiving change batches
+     * @return ListenerRegistration - Handle that detaches the listener
+     */
+    @Override
+    public ListenerRegistration listenToMessages(String chatId, long sinceTimestamp,
+                                                 ChangeListener<Message> listener) {
+        if (chatId == null || chatId.isEmpty() || listener == null) {
+            throw new IllegalArgumentException("chatId and listener must not be null or empty");
+        }
+
+        FakeListener fakeListener = new FakeListener(chatId, sinceTimestamp, listener);
+        listeners.add(fakeListener);
+
+        List<Change<Message>> initial = new ArrayList<>();
+        for (Message message : getMessagesSince(chatId, sinceTimestamp).getResult()) {
+            initial.add(Change.added(message));
+        }
+        if (!initial.isEmpty()) {
+            listener.onChanges(initial);
+        }
+
+        return () -> listeners.remove(fakeListener);
+    }
+
+    /**
+     * Send a new message to a chat.
+     * Like FirestoreMessageRepository, assigns a generated ID to the passed message when it has none;
+     * re-sending a message with the same ID overwrites it.
+     *
+     * @param message The Message object to send
+     * @return Task<Void> - Task that completes when the message is stored
+     */
+    @Override
+    public Task<Void> sendMessage(Message message) {
+        if (message == null || message.getChatId() == null) {
+            return Tasks.forException(new IllegalArgumentException("Message and chatId must not be null"));
+        }
+
+        if (message.getId() == null || message.getId().isEmpty()) {
+            message.setId(MessageIdGenerator.getInstance().next());
+        }
+        if (deletedChats.contains(message.getChatId())) {
+            return Tasks.forException(chatNotFound(message.getChatId()));
+        }
+        Message stored = copyMessage(message);
+
+        Message previous = putSent(stored);
+        updatePreview(stored);
+        if (previous == null) {
+            countUnread(stored);
+        }
+        notifyListeners(stored.getChatId(), previous == null ? Change.Type.ADDED : Change.Type.MODIFIED, stored);
+        return Tasks.forResult(null);
+    }
+
+    /**
+     * Write client-identified messages in order, like sequential WriteBatch commits.
+     * Writes are keyed by message ID, so re-sending a message overwrites it.
+     * When failures are armed with failNextSends(), the call fails without writing anything.
+     *
+     * @param messages Messages to write (each must have id and chatId set)
+     * @return Task<Void> - Task that completes when all messages are stored
+     */
+    @Override
+    public Task<Void> sendMessages(List<Message> messages) {
+        if (messages == null) {
+            return Tasks.forException(new IllegalArgumentException("messages must not be null"));
+        }
+        for (Message message : messages) {
+            if (message == null || message.getChatId() == null || message.getChatId().isEmpty()
+                    || message.getId() == null || message.getId().isEmpty()) {
+                return Tasks.forException(new IllegalArgumentException("Every message must have an id and chatId"));
+            }
+        }
+        if (failingSends > 0) {
+            failingSends--;
+            return Tasks.forException(new Exception("Simulated network failure"));
+        }
+        for (Message message : messages) {
+            if (deletedChats.contains(message.getChatId())) {
+                return Tasks.forException(chatNotFound(message.getChatId()));
+            }
+            Exception rejection = rejectedSends.get(message.getId());
+            if (rejection != null) {
+                // A batch commits atomically: one rejected document fails the whole call
+                return Tasks.forException(rejection);
+            }
+        }
+
+        Map<String, Message> newestByChat = new HashMap<>();
+        for (Message message : messages) {
+            Message stored = copyMessage(message);
+            Message previous = putSent(stored);
+            if (previous == null) {
+                countUnread(stored);
+            }
+            Message newest = newestByChat.get(stored.getChatId());
+            if (newest == null || stored.getTimestamp() >= newest.getTimestamp()) {
+                newestByChat.put(stored.getChatId(), stored);
+            }
+            notifyListeners(stored.getChatId(), previous == null ? Change.Type.ADDED : Change.Type.MODIFIED, stored);
+        }
+        for (Message newest : newestByChat.values()) {
+            updatePreview(newest);
+        }
+        sendBatchCount++;
+        return Tasks.forResult(null);
+    }
+
+    /**
+     * Update a message's delivery status.
+     *
+     * @param messageId The message identifier in format "chatId/messageId"
+     * @param newStatus The new delivery status
+     * @return Task<Void> - Task that completes when the status is updated
+     */
+    @Override
+    public Task<Void> updateMessageStatus(String messageId, String newStatus) {
+        if (messageId == null || messageId.isEmpty()) {
+            return Tasks.forException(new IllegalArgumentException("messageId must not be null or empty"));
+        }
+
+        if (newStatus == null || newStatus.isEmpty()) {
+            return Tasks.forException(new IllegalArgumentException("newStatus must not be null or empty"));
+        }
+
+        String[] parts = messageId.split("/");
+        if (parts.length != 2) {
+            return Tasks.forException(new IllegalArgumentException("messageId must be in format: 'chatId/messageId'"));
+        }
+
+        Message message = chatMessages(parts[0]).get(parts[1]);
+        if (message == null) {
+            // Firestore update() fails with NOT_FOUND for missing documents
+            return Tasks.forException(new Exception("Message not found: " + messageId));
+        }
+
+        message.setDeliveryStatus(newStatus);
+        notifyListeners(parts[0], Change.Type.MODIFIED, message);
+        return Tasks.forResult(null);
+    }
+
+    /**
+     * Advance the delivery status of many messages.
+     * Like the real transactions, missing messages are skipped and a status is never
+     * moved backwards; invalid entries fail the call before anything is applied.
+     *
+     * @param statusByMessageId Map of "chatId/messageId" → new status
+     * @return Task<Void> - Task that completes when all statuses are updated
+     */
+    @Override
+    public Task<Void> updateMessageStatuses(Map<String, String> statusByMessageId) {
+        if (statusByMessageId == null) {
+            return Tasks.forException(new IllegalArgumentException("statusByMessageId must not be null"));
+        }
+
+        for (Map.Entry<String, String> entry : statusByMessageId.entrySet()) {
+            String[] parts = entry.getKey() != null ? entry.getKey().split("/") : new String[0];
+            if (parts.length != 2) {
+                return Tasks.forException(new IllegalArgumentException("messageId must be in format: 'chatId/messageId'"));
+            }
+            if (!DeliveryStatus.isAcknowledgement(entry.getValue())) {
+                return Tasks.forException(new IllegalArgumentException("Invalid acknowledgement: " + entry.getValue()));
+            }
+        }
+        if (!failingStatusUpdates.isEmpty()) {
+            return Tasks.forException(failingStatusUpdates.remove(0));
+        }
+
+        for (Map.Entry<String, String> entry : statusByMessageId.entrySet()) {
+            String[] parts = entry.getKey().split("/");
+            Message message = chatMessages(parts[0]).get(parts[1]);
+            if (message == null
+                    || DeliveryStatus.rank(entry.getValue()) <= DeliveryStatus.rank(message.getDeliveryStatus())) {
+                continue;
+            }
+            message.setDeliveryStatus(entry.getValue());
+            notifyListeners(message.getChatId(), Change.Type.MODIFIED, message);
+        }
+        batchUpdateCount++;
+        return Tasks.forResult(null);
+    }
+
+    /**
+     * Delete a message from a chat.
+     *
+     * @param messageId The message identifier in format "chatId/messageId"
+     * @return Task<Void> - Task that completes when the message is deleted
+     */
+    @Override
+    public Task<Void> deleteMessage(String messageId) {
+        if (messageId == null || messageId.isEmpty()) {
+            return Tasks.forException(new IllegalArgumentException("messageId must not be null or empty"));
+        }
+
+        String[] parts = messageId.split("/");
+        if (parts.length != 2) {
+            return Tasks.forException(new IllegalArgumentException("messageId must be in format: 'chatId/messageId'"));
+        }
+
+        // Firestore delete() succeeds for missing documents
+        Message removed = chatMessages(parts[0]).remove(parts[1]);
+        if (removed != null) {
+            notifyListeners(parts[0], Change.Type.REMOVED, removed);
+        }
+        return Tasks.forResult(null);
+    }
+
+    /**
+     * Deliver a single change to every listener whose window contains the message.
+     */
+    private void notifyListeners(String chatId, Change.Type type, Message message) {
+        for (FakeListener fakeListener : new ArrayList<>(listeners)) {
+            if (fakeListener.chatId.equals(chatId) && message.getTimestamp() >= fakeListener.sinceTimestamp) {
+                fakeListener.listener.onChanges(Arrays.asList(new Change<>(type, copyMessage(message))));
+            }
+        }
+    }
+
+    /**
+     * Get (or lazily create) the message map for a chat.
+     *
+     * @param chatId The chat identifier
+     * @return Insertion-ordered map of messageId → Message
+     */
+    private Map<String, Message> chatMessages(String chatId) {
+        Map<String, Message> messages = messagesByChat.get(chatId);
+        if (messages == null) {
+            messages = new LinkedHashMap<>();
+            messagesByChat.put(chatId, messages);
+        }
+        return messages;
+    }
+
+    /**
+     * Merge the preview fields of a message's chat, like the chat set(merge) in the send batch.
+     */
+    private void updatePreview(Message message) {
+        Chat chat = chatPreviews.get(message.getChatId());
+        if (chat == null) {
+            chat = new Chat();
+            chat.setId(message.getChatId());
+            chatPreviews.put(message.getChatId(), chat);
+        } else if (message.getTimestamp() < chat.getLastMessageTimestamp()) {
+            // The preview only moves forward, like the transactional update
+            return;
+        }
+        chat.setLastMessageId(message.getId());
+        chat.setLastMessageText(ChatMapper.previewText(message));
+        chat.setLastMessageTimestamp(message.getTimestamp());
+        chat.setUpdatedAt(message.getTimestamp());
+    }
+
+    /**
+     * Count a sent message as unread for every other participant of its chat.
+     */
+    private void countUnread(Message message) {
+        Chat chat = chatDocuments.get(message.getChatId());
+        if (chat == null || chat.isBroadcast() || chat.getParticipantIds() == null) {
+            return;
+        }
+        for (String participantId : chat.getParticipantIds()) {
+            if (!participantId.equals(message.getSenderId())) {
+                unreadCounts.merge(participantId + "/" + message.getChatId(), 1L, Long::sum);
+            }
+        }
+    }
+
+    /**
+     * Create a copy of a message to simulate Firestore deserialization.
+     *
+     * @param message The message to copy
+     * @return A new Message object with the same data
+     */
+    private Message copyMessage(Message message) {
+        if (message == null) {
+            return null;
+        }
+
+        Message copy = new Message(message.getId(), message.getSenderId(), message.getChatId(),
+                message.getContent(), message.getMessageType());
+        copy.setReceiverId(message.getReceiverId());
+        copy.setMediaUrl(message.getMediaUrl());
+        copy.setThumbnail(message.getThumbnail());
+        copy.setDeliveryStatus(message.getDeliveryStatus());
+        copy.setTimestamp(message.getTimestamp());
+        copy.setReceivedAt(message.getReceivedAt());
+        return copy;
+    }
+
+    /**
+     * Clear all data (useful for test cleanup).
+     */
+    public void clear() {
+        messagesByChat.clear();
+        chatPreviews.clear();
+        chatDocuments.clear();
+        unreadCounts.clear();
+    }
+
+    /**
+     * Get the number of messages stored for a chat.
+     * Useful for test verification.
+     */
+    public int getMessageCount(String chatId) {
+        return chatMessages(chatId).size();
+    }
+
+    /**
+     * Get the number of successful updateMessageStatuses() calls.
+     * Useful for verifying that acknowledgements were batched.
+     */
+    public int getBatchUpdateCount() {
+        return batchUpdateCount;
+    }
+
+    /**
+     * Get the preview fields written to a chat document by sends, or null if nothing was sent.
+     */
+    public Chat getChatPreview(String chatId) {
+        return chatPreviews.get(chatId);
+    }
+
+    /**
+     * Store a chat document whose participants and broadcast flag sends read,
+     * e.g. to simulate a member joining or leaving between two sends.
+     *
+     * @param chat The chat (id, participantIds and broadcast are used)
+     */
+    public void putChat(Chat chat) {
+        Chat stored = new Chat();
+        stored.setId(chat.getId());
+        stored.setParticipantIds(chat.getParticipantIds() != null ? new ArrayList<>(chat.getParticipantIds()) : null);
+        stored.setBroadcast(chat.isBroadcast());
+        chatDocuments.put(chat.getId(), stored);
+    }
+
+    /**
+     * Get the unread count that sends have written for a user in a chat.
+     */
+    public long getUnreadCount(String userId, String chatId) {
+        Long count = unreadCounts.get(userId + "/" + chatId);
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * Get the number of successful sendMessages() calls.
+     */
+    public int getSendBatchCount() {
+        return sendBatchCount;
+    }
+
+    /**
+     * Simulate a chat whose document has been deleted: sends to it fail with
+     * NOT_FOUND, like the transactional write, and nothing is stored.
+     *
+     * @param chatId The chat identifier
+     */
+    public void deleteChat(String chatId) {
+        deletedChats.add(chatId);
+    }
+
+    private static FirebaseFirestoreException chatNotFound(String chatId) {
+        return new FirebaseFirestoreException("Chat not found: " + chatId, FirebaseFirestoreException.Code.NOT_FOUND);
+    }
+
+    /**
+     * Store a sent message like set(toSendMap(), merge): a re-send keeps the stored status.
+     *
+     * @return The previously stored message, or null
+     */
+    private Message putSent(Message stored) {
+        Map<String, Message> messages = chatMessages(stored.getChatId());
+        Message previous = messages.get(stored.getId());
+        stored.setDeliveryStatus(previous != null ? previous.getDeliveryStatus() : DeliveryStatus.SENT);
+        stored.setReceivedAt(serverTime > 0L ? serverTime : stored.getTimestamp());
+        messages.put(stored.getId(), stored);
+        return previous;
+    }
+
+    /**
+     * Set the simulated server clock used for receivedAt of later sends.
+     * While unset (0), receivedAt equals the client timestamp.
+     *
+     * @param serverTime Server time in epoch millis
+     */
+    public void setServerTime(long serverTime) {
+        this.serverTime = serverTime;
+    }
+
+    /**
+     * Make the next sendMessages() calls fail, simulating loss of connectivity.
+     *
+     * @param count Number of calls that should fail
+     */
+    public void failNextSends(int count) {
+        failingSends = count;
+    }
+
+    /**
+     * Make every sendMessages() call that contains a message fail with the given error,
+     * simulating a document the server rejects (e.g. by security rules).
+     *
+     * @param messageId The message to reject
+     * @param error The failure to report
+     */
+    public void rejectSendsOf(String messageId, Exception error) {
+        rejectedSends.put(messageId, error);
+    }
+
+    /**
+     * Make the next updateMessageStatuses() calls fail with the given errors, in order.
+     *
+     * @param errors One error per failing call
+     */
+    public void failNextStatusUpdates(Exception... errors) {
+        failingStatusUpdates.addAll(Arrays.asList(errors));
+    }
+
+    /**
+     * Get the number of attached listeners.
+     * Useful for verifying that registrations are removed.
+     */
+    public int getListenerCount() {
+        return listeners.size();
+    }
+
+    /**
+     * A registered listener and the query window it observes.
+     */
+    private static class FakeListener {
+        final String chatId;
+        final long sinceTimestamp;
+        final ChangeListener<Message> listener;
+
+        FakeListener(String chatId, long sinceTimestamp, ChangeListener<Message> listener) {
+            this.chatId = chatId;
+            this.sinceTimestamp = sinceTimestamp;
+            this.listener = listener;
+        }
+    }
+}
@@ -4,8 +4,15 @@ import com.example.echo_app.model.User;
 import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.Tasks;
 
+import com.example.echo_app.data.FirestoreConstants;
+import com.example.echo_app.data.mapper.UserMapper;
+import com.example.echo_app.utils.CollectionUtils;
+
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -23,6 +30,12 @@ import java.util.Map;
  * - Returns Task<T> for consistent API with real implementation
  * - Validates input parameters
  * - Supports email-based queries
+ * - Field-level updates with the same diff as FirestoreUserRepository; records the
+ *   written fields and counts writes (no-op updates are not counted)
+ * - Batched ID lookups with the same chunking as FirestoreUserRepository
+ * - Paged listing and prefix search with the same ordering and cursor semantics
+ *   as FirestoreUserRepository (normalized field, then document ID)
+ * - Legacy users without normalized fields (putLegacyUser()) and their backfill
  *
  * Usage in Tests:
  * FakeFirestoreUserRepository repository = new FakeFirestoreUserRepository();
@@ -32,6 +45,9 @@ import java.util.Map;
 public class FakeFirestoreUserRepository implements UserRepository {
 
     private final Map<String, User> users = new HashMap<>();
+    private int queryCount = 0;
+    private int updateWriteCount = 0;
+    private Map<String, Object> lastUpdatedFields;
 
     /**
      * Default constructor.
@@ -61,11 +77,106 @@ public class FakeFirestoreUserRepository implements UserRepository {
         }
     }
 
+    /**
+     * Retrieve many users by ID.
+     * Counts one query per chunk of FirestoreConstants.MAX_IN_QUERY_VALUES IDs.
+     *
+     * @param userIds The user IDs to resolve
+     * @return Task<Map<String, User>> - Task that completes with every requested ID in
+     *         request order, mapped to null when the user does not exist
+     */
+    @Override
+    public Task<Map<String, User>> getUsersByIds(Collection<String> userIds) {
+        if (userIds == null) {
+            return Tasks.forException(new IllegalArgumentException("userIds must not be null"));
+        }
+
+        List<String> ids = CollectionUtils.distinctIds(userIds);
+        queryCount += CollectionUtils.partition(ids, FirestoreConstants.MAX_IN_QUERY_VALUES).size();
+
+        Map<String, User> result = new LinkedHashMap<>();
+        for (String id : ids) {
+            result.put(id, copyUser(users.get(id)));
+        }
+        return Tasks.forResult(result);
+    }
+
+    /**
+     * Retrieve one page of users ordered by displayNameLower, then ID.
+     */
+    @Override
+    public Task<Page<User>> getUsersPage(int pageSize, String cursor) {
+        return queryPage(UserMapper.FIELD_DISPLAY_NAME_LOWER, null, pageSize, cursor);
+    }
+
+    /**
+     * Search users by normalized prefix of display name, or of email if the prefix contains '@'.
+     */
+    @Override
+    public Task<Page<User>> searchUsers(String prefix, int pageSize, String cursor) {
+        if (prefix == null) {
+            return Tasks.forException(new IllegalArgumentException("prefix must not be null"));
+        }
+        String normalized = User.normalize(prefix);
+        String field = normalized.indexOf('@') >= 0
+                ? UserMapper.FIELD_EMAIL_LOWER : UserMapper.FIELD_DISPLAY_NAME_LOWER;
+        return queryPage(field, normalized, pageSize, cursor);
+    }
+
+    private Task<Page<User>> queryPage(String field, String prefix, int pageSize, String cursor) {
+        if (pageSize <= 0) {
+            return Tasks.forException(new IllegalArgumentException("pageSize must be positive"));
+        }
+
+        PageCursor after;
+        try {
+            after = cursor != null ? PageCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            return Tasks.forException(e);
+        }
+
+        // Like Firestore, documents without the ordered field are excluded
+        List<User> matches = new ArrayList<>();
+        for (User user : users.values()) {
+            String value = fieldValue(user, field);
+            if (value == null || (prefix != null && !value.startsWith(prefix))) {
+                continue;
+            }
+            if (after != null) {
+                int byValue = value.compareTo(after.getSortKey());
+                if (byValue < 0 || (byValue == 0 && user.getId().compareTo(after.getDocumentId()) <= 0)) {
+                    continue;
+                }
+            }
+            matches.add(user);
+        }
+        matches.sort(Comparator.comparing((User user) -> fieldValue(user, field)).thenComparing(User::getId));
+
+        boolean hasMore = matches.size() > pageSize;
+        List<User> items = new ArrayList<>();
+        for (User user : matches.subList(0, Math.min(pageSize, matches.size()))) {
+            items.add(copyUser(user));
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            User last = items.get(items.size() - 1);
+            nextCursor = new PageCursor(fieldValue(last, field), last.getId()).encode();
+        }
+        return Tasks.forResult(new Page<>(items, nextCursor));
+    }
+
+    private static String fieldValue(User user, String field) {
+        return UserMapper.FIELD_EMAIL_LOWER.equals(field) ? user.getEmailLower() : user.getDisplayNameLower();
+    }
+
     /**
      * Retrieve all users from the database.
      *
      * @return Task<List<User>> - Task that completes with a list of all users
+     * @deprecated Mirrors the deprecated UserRepository.getAllUsers().
      */
+    @Deprecated
     @Override
     public Task<List<User>> getAllUsers() {
         List<User> userList = new ArrayList<>();
@@ -114,6 +225,53 @@ public class FakeFirestoreUserRepository implements UserRepository {
         return Tasks.forResult(null);
     }
 
+    /**
+     * Update only the fields that differ from previous.
+     *
+     * @param previous The user as last read
+     * @param updated The user with the new values
+     * @return Task<Void> - Task that completes when the changed fields are stored
+     */
+    @Override
+    public Task<Void> updateUser(User previous, User updated) {
+        if (previous == null || updated == null || updated.getId() == null) {
+            return Tasks.forException(new IllegalArgumentException("previous, updated and updated.id must not be null"));
+        }
+        if (!updated.getId().equals(previous.getId())) {
+            return Tasks.forException(new IllegalArgumentException("previous and updated must be the same user"));
+        }
+
+        Map<String, Object> changed = UserMapper.toUpdateMap(previous, updated);
+        if (changed.isEmpty()) {
+            return Tasks.forResult(null);
+        }
+        User existing = users.get(updated.getId());
+        if (existing == null) {
+            return Tasks.forException(new Exception("User not found: " + updated.getId()));
+        }
+
+        Map<String, Object> data = UserMapper.toMap(existing);
+        data.putAll(changed);
+        users.put(updated.getId(), UserMapper.fromMap(updated.getId(), data));
+        lastUpdatedFields = changed;
+        updateWriteCount++;
+        return Tasks.forResult(null);
+    }
+
+    /**
+     * Number of field-level updates that reached the store.
+     */
+    public int getUpdateWriteCount() {
+        return updateWriteCount;
+    }
+
+    /**
+     * Fields written by the last field-level update, or null if none.
+     */
+    public Map<String, Object> getLastUpdatedFields() {
+        return lastUpdatedFields;
+    }
+
     /**
      * Delete a user from the database.
      *
@@ -155,6 +313,37 @@ public class FakeFirestoreUserRepository implements UserRepository {
         return Tasks.forException(new Exception("User not found with email: " + email));
     }
 
+    /**
+     * Add the missing normalized search fields to stored users.
+     *
+     * @return Task<Integer> - Task that completes with the number of users updated
+     */
+    @Override
+    public Task<Integer> backfillSearchKeys() {
+        int updated = 0;
+        for (User user : users.values()) {
+            if (user.displayNameLower == null || user.emailLower == null) {
+                user.displayNameLower = User.normalize(user.getDisplayName());
+                user.emailLower = User.normalize(user.getEmail());
+                updated++;
+            }
+        }
+        return Tasks.forResult(updated);
+    }
+
+    /**
+     * Store a user the way documents were written before the normalized search
+     * fields existed, so that listing and search do not see it.
+     *
+     * @param user The user to store
+     */
+    public void putLegacyUser(User user) {
+        User legacy = copyUser(user);
+        legacy.displayNameLower = null;
+        legacy.emailLower = null;
+        users.put(legacy.getId(), legacy);
+    }
+
     /**
      * Create a deep copy of a user to simulate Firestore deserialization.
      *
@@ -195,12 +384,7 @@ public class FakeFirestoreUserRepository implements UserRepository {
         if (update.getProfileImageUrl() != null) {
             merged.setProfileImageUrl(update.getProfileImageUrl());
         }
-        // For isOnline, we merge the value (simulating primitive type update)
-        merged.setOnline(update.isOnline());
-
-        if (update.getLastSeen() > 0) {
-            merged.setLastSeen(update.getLastSeen());
-        }
+        // isOnline and lastSeen are left alone: profile updates never write presence
         if (update.getUpdatedAt() > 0) {
             merged.setUpdatedAt(update.getUpdatedAt());
         }
@@ -215,6 +399,13 @@ public class FakeFirestoreUserRepository implements UserRepository {
         users.clear();
     }
 
+    /**
+     * Get the number of whereIn queries issued by getUsersByIds().
+     */
+    public int getQueryCount() {
+        return queryCount;
+    }
+
     /**
      * Get the number of users in the store.
      * Useful for test verification.
@@ -0,0 +1,277 @@
+package com.example.echo_app.repository;
+
+import com.example.echo_app.data.FirestoreConstants;
+import com.example.echo_app.model.Chat;
+import com.example.echo_app.model.Group;
+import com.example.echo_app.model.Membership;
+import com.example.echo_app.utils.BroadcastPolicy;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * FakeGroupRepository.java
+ *
+ * In-memory fake implementation of GroupRepository for unit testing.
+ *
+ * Features:
+ * - In-memory groups, member lists (groupId → userId → Membership) and
+ *   per-user group index (userId → groupId → Membership), mirroring
+ *   groups/{groupId}/members and users/{uid}/groups in FirestoreGroupRepository
+ * - createGroup() also stores the linked group Chat (same ID)
+ * - Membership changes update the member list, the index, Group.memberIds and
+ *   the linked chat's participantIds together
+ * - Broadcast mode selected on create and bulk add, like FirestoreGroupRepository
+ * - Counts committed batches, chunking bulk adds like FirestoreGroupRepository
+ * - getGroupsForUser() reads only the index, most recently joined first
+ */
+public class FakeGroupRepository implements GroupRepository {
+
+    private static final int MAX_BATCH_OPERATIONS = FirestoreConstants.MAX_BATCH_OPERATIONS;
+
+    private final Map<String, Group> groups = new HashMap<>();
+    private final Map<String, Map<String, Membership>> membersByGroup = new HashMap<>();
+    private final Map<String, Map<String, Membership>> groupsByUser = new HashMap<>();
+    private final Map<String, Chat> chats = new HashMap<>();
+    private long joinClock = 0L;
+    private int batchCount = 0;
+
+    @Override
+    public Task<Group> getGroupById(String groupId) {
+        if (groupId == null || groupId.isEmpty()) {
+            return Tasks.forException(new IllegalArgumentException("groupId must not be null or empty"));
+        }
+        Group group = groups.get(groupId);
+        if (group == null) {
+            return Tasks.forException(new Exception("Group not found: " + groupId));
+        }
+        return Tasks.forResult(copy(group));
+    }
+
+    @Override
+    public Task<List<Group>> getGroupsForUser(String userId) {
+        if (userId == null || userId.isEmpty()) {
+            return Tasks.forException(new IllegalArgumentException("userId must not be null or empty"));
+        }
+
+        List<Membership> memberships = new ArrayList<>(userIndex(userId).values());
+        memberships.sort((a, b) -> Long.compare(b.getJoinedAt(), a.getJoinedAt()));
+
+        List<Group> result = new ArrayList<>();
+        for (Membership membership : memberships) {
+            Group group = groups.get(membership.getGroupId());
+            if (group != null) {
+                result.add(copy(group));
+            }
+        }
+        return Tasks.forResult(result);
+    }
+
+    @Override
+    public Task<Void> createGroup(Group group) {
+        if (group == null || group.getId() == null || group.getId().isEmpty()
+                || group.getAdminId() == null || group.getAdminId().isEmpty()) {
+            return Tasks.forException(new IllegalArgumentException("Group id and adminId must not be null or empty"));
+        }
+
+        Group stored = copy(group);
+        List<String> memberIds = new ArrayList<>();
+        memberIds.add(group.getAdminId());
+        if (group.getMemberIds() != null) {
+            for (String memberId : group.getMemberIds()) {
+                if (!memberIds.contains(memberId)) {
+                    memberIds.add(memberId);
+                }
+            }
+        }
+        stored.setMemberIds(new ArrayList<>());
+        stored.setBroadcast(group.isBroadcast() || BroadcastPolicy.isBroadcast(memberIds.size()));
+        groups.put(stored.getId(), stored);
+        Chat chat = new Chat(stored.getId(), new ArrayList<>(), true);
+        chat.setBroadcast(stored.isBroadcast());
+        chats.put(stored.getId(), chat);
+        for (String memberId : memberIds) {
+            putMember(stored, memberId, memberId.equals(group.getAdminId()));
+        }
+        int firstChunk = Math.min(memberIds.size(), (MAX_BATCH_OPERATIONS - 2) / 2);
+        batchCount += 1 + chunkCount(memberIds.size() - firstChunk, MAX_BATCH_OPERATIONS / 2);
+        return Tasks.forResult(null);
+    }
+
+    @Override
+    public Task<Void> updateGroup(Group group) {
+        if (group == null || group.getId() == null || group.getId().isEmpty()) {
+            return Tasks.forException(new IllegalArgumentException("Group and id must not be null"));
+        }
+        Group stored = groups.get(group.getId());
+        if (stored == null) {
+            return Tasks.forException(new Exception("Group not found: " + group.getId()));
+        }
+        stored.setName(group.getName());
+        stored.setDescription(group.getDescription());
+        stored.setGroupImageUrl(group.getGroupImageUrl());
+        stored.setAdminId(group.getAdminId());
+        return Tasks.forResult(null);
+    }
+
+    @Override
+    public Task<Void> deleteGroup(String groupId) {
+        if (groupId == null || groupId.isEmpty()) {
+            return Tasks.forException(new IllegalArgumentException("groupId must not be null or empty"));
+        }
+        Map<String, Membership> members = membersByGroup.remove(groupId);
+        if (members != null) {
+            for (String memberId : members.keySet()) {
+                userIndex(memberId).remove(groupId);
+            }
+        }
+        groups.remove(groupId);
+        chats.remove(groupId);
+        return Tasks.forResult(null);
+    }
+
+    @Override
+    public Task<Void> addMemberToGroup(String groupId, String userId, boolean isAdmin) {
+        if (groupId == null || groupId.isEmpty() || userId == null || userId.isEmpty()) {
+            return Tasks.forException(new IllegalArgumentException("groupId and userId must not be null or empty"));
+        }
+        Group group = groups.get(groupId);
+        if (group == null) {
+            // update() on a missing document fails the whole batch
+            return Tasks.forException(new Exception("Group not found: " + groupId));
+        }
+        putMember(group, userId, isAdmin);
+        batchCount++;
+        return Tasks.forResult(null);
+    }
+
+    @Override
+    public Task<Void> addMembersToGroup(String groupId, Collection<String> userIds) {
+        if (groupId == null || groupId.isEmpty() || userIds == null) {
+            return Tasks.forException(new IllegalArgumentException("groupId and userIds must not be null"));
+        }
+        Group group = groups.get(groupId);
+        if (group == null) {
+            return Tasks.forException(new Exception("Group not found: " + groupId));
+        }
+        List<String> ids = new ArrayList<>();
+        for (String userId : userIds) {
+            if (userId != null && !userId.isEmpty() && !ids.contains(userId)
+                    && !group.getMemberIds().contains(userId)) {
+                ids.add(userId);
+            }
+        }
+        if (ids.isEmpty()) {
+            return Tasks.forResult(null);
+        }
+        for (String userId : ids) {
+            putMember(group, userId, false);
+        }
+        if (!group.isBroadcast() && BroadcastPolicy.isBroadcast(group.getMemberIds().size())) {
+            group.setBroadcast(true);
+            chats.get(groupId).setBroadcast(true);
+        }
+        batchCount += chunkCount(ids.size(), (MAX_BATCH_OPERATIONS - 2) / 2);
+        return Tasks.forResult(null);
+    }
+
+    @Override
+    public Task<Void> removeMemberFromGroup(String groupId, String userId) {
+        if (groupId == null || groupId.isEmpty() || userId == null || userId.isEmpty()) {
+            return Tasks.forException(new IllegalArgumentException("groupId and userId must not be null or empty"));
+        }
+        Group group = groups.get(groupId);
+        if (group == null) {
+            return Tasks.forException(new Exception("Group not found: " + groupId));
+        }
+        groupMembers(groupId).remove(userId);
+        userIndex(userId).remove(groupId);
+        group.getMemberIds().remove(userId);
+        Chat chat = chats.get(groupId);
+        if (chat != null) {
+            chat.getParticipantIds().remove(userId);
+        }
+        batchCount++;
+        return Tasks.forResult(null);
+    }
+
+    /**
+     * Get the linked chat of a group (chats/{groupId}), or null if there is none.
+     */
+    public Chat getChat(String groupId) {
+        Chat chat = chats.get(groupId);
+        if (chat == null) {
+            return null;
+        }
+        Chat copy = new Chat(chat.getId(), new ArrayList<>(chat.getParticipantIds()), chat.isGroup());
+        copy.setBroadcast(chat.isBroadcast());
+        return copy;
+    }
+
+    /**
+     * Get the number of WriteBatch commits FirestoreGroupRepository would have issued.
+     */
+    public int getBatchCount() {
+        return batchCount;
+    }
+
+    /**
+     * Get the member documents of a group (groups/{groupId}/members).
+     */
+    public Map<String, Membership> getMembers(String groupId) {
+        return new LinkedHashMap<>(groupMembers(groupId));
+    }
+
+    /**
+     * Get the group index entries of a user (users/{uid}/groups).
+     */
+    public Map<String, Membership> getUserIndex(String userId) {
+        return new LinkedHashMap<>(userIndex(userId));
+    }
+
+    private void putMember(Group group, String userId, boolean isAdmin) {
+        long joinedAt = ++joinClock;
+        Membership member = new Membership(userId, userId, group.getId(), isAdmin);
+        member.setJoinedAt(joinedAt);
+        Membership indexEntry = new Membership(group.getId(), userId, group.getId(), isAdmin);
+        indexEntry.setJoinedAt(joinedAt);
+        groupMembers(group.getId()).put(userId, member);
+        userIndex(userId).put(group.getId(), indexEntry);
+        if (!group.getMemberIds().contains(userId)) {
+            group.getMemberIds().add(userId);
+        }
+        Chat chat = chats.get(group.getId());
+        if (chat != null && !chat.getParticipantIds().contains(userId)) {
+            chat.getParticipantIds().add(userId);
+        }
+    }
+
+    private static int chunkCount(int size, int chunkSize) {
+        return (size + chunkSize - 1) / chunkSize;
+    }
+
+    private Map<String, Membership> groupMembers(String groupId) {
+        return membersByGroup.computeIfAbsent(groupId, k -> new LinkedHashMap<>());
+    }
+
+    private Map<String, Membership> userIndex(String userId) {
+        return groupsByUser.computeIfAbsent(userId, k -> new LinkedHashMap<>());
+    }
+
+    private static Group copy(Group group) {
+        Group copy = new Group(group.getId(), group.getName(), group.getAdminId(),
+                group.getMemberIds() != null ? new ArrayList<>(group.getMemberIds()) : new ArrayList<>());
+        copy.setDescription(group.getDescription());
+        copy.setGroupImageUrl(group.getGroupImageUrl());
+        copy.setCreatedAt(group.getCreatedAt());
+        copy.setUpdatedAt(group.getUpdatedAt());
+        copy.setBroadcast(group.isBroadcast());
+        return copy;
+    }
+}
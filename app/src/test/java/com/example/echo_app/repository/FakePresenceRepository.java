@@ -0,0 +1,67 @@
+package com.example.echo_app.repository;
+
+import com.example.echo_app.model.Presence;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * FakePresenceRepository.java
+ *
+ * In-memory fake implementation of PresenceRepository for unit testing.
+ *
+ * Features:
+ * - In-memory map of userId → Presence
+ * - Records every write in order
+ * - Can be switched to fail writes
+ * - Listening is not modelled (returns a no-op registration)
+ */
+public class FakePresenceRepository implements PresenceRepository {
+
+    private final Map<String, Presence> presenceByUser = new HashMap<>();
+    private final List<Presence> writes = new ArrayList<>();
+    private boolean failWrites;
+
+    @Override
+    public Task<Void> setPresence(String userId, boolean online, long lastSeen) {
+        if (userId == null || userId.isEmpty()) {
+            return Tasks.forException(new IllegalArgumentException("userId must not be null or empty"));
+        }
+        Presence presence = new Presence(userId, online, lastSeen);
+        writes.add(presence);
+        if (failWrites) {
+            return Tasks.forException(new Exception("Simulated write failure"));
+        }
+        presenceByUser.put(userId, presence);
+        return Tasks.forResult(null);
+    }
+
+    @Override
+    public ListenerRegistration listenToPresence(Collection<String> userIds, ChangeListener<Presence> listener) {
+        return () -> { };
+    }
+
+    /**
+     * Stored presence of a user, or null if never written.
+     */
+    public Presence getPresence(String userId) {
+        return presenceByUser.get(userId);
+    }
+
+    /**
+     * Every write issued so far, including failed ones.
+     */
+    public List<Presence> getWrites() {
+        return writes;
+    }
+
+    public void setFailWrites(boolean failWrites) {
+        this.failWrites = failWrites;
+    }
+}
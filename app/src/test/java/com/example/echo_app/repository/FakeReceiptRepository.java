@@ -0,0 +1,155 @@
+package com.example.echo_app.repository;
+
+import com.example.echo_app.model.ReadReceipt;
+import com.example.echo_app.utils.Constants;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * FakeReceiptRepository.java
+ *
+ * In-memory fake implementation of ReceiptRepository for unit testing.
+ *
+ * Features:
+ * - In-memory map of chatId → (userId → ReadReceipt)
+ * - Same monotonic watermark semantics as FirestoreReceiptRepository
+ * - Counts the writes that would reach Firestore (no-op advances are not counted)
+ * - Broadcast read counters as a plain map (messageId → count); shards are not modelled
+ * - Synchronous real-time listeners
+ */
+public class FakeReceiptRepository implements ReceiptRepository {
+
+    private final Map<String, Map<String, ReadReceipt>> receiptsByChat = new HashMap<>();
+    private final Map<String, List<ChangeListener<ReadReceipt>>> listenersByChat = new HashMap<>();
+    private final Map<String, Long> readCounts = new HashMap<>();
+    private int writeCount = 0;
+
+    @Override
+    public Task<Void> markDelivered(String chatId, String userId, long upToTimestamp) {
+        return advance(chatId, userId, upToTimestamp, false, null);
+    }
+
+    @Override
+    public Task<Void> markSeen(String chatId, String userId, long upToTimestamp) {
+        return advance(chatId, userId, upToTimestamp, true, null);
+    }
+
+    @Override
+    public Task<Void> markSeenBroadcast(String chatId, String userId, String messageId, long timestamp) {
+        if (messageId == null || messageId.isEmpty()) {
+            return Tasks.forException(new IllegalArgumentException("messageId must not be null or empty"));
+        }
+        return advance(chatId, userId, timestamp, true, messageId);
+    }
+
+    @Override
+    public Task<Long> getReadCount(String chatId, String messageId) {
+        if (chatId == null || chatId.isEmpty() || messageId == null || messageId.isEmpty()) {
+            return Tasks.forException(new IllegalArgumentException("chatId and messageId must not be null or empty"));
+        }
+        Long count = readCounts.get(chatId + "/" + messageId);
+        return Tasks.forResult(count != null ? count : 0L);
+    }
+
+    private Task<Void> advance(String chatId, String userId, long upToTimestamp, boolean seen,
+                               String readMessageId) {
+        if (chatId == null || chatId.isEmpty() || userId == null || userId.isEmpty()) {
+            return Tasks.forException(new IllegalArgumentException("chatId and userId must not be null or empty"));
+        }
+        if (upToTimestamp <= 0) {
+            return Tasks.forException(new IllegalArgumentException("upToTimestamp must be positive"));
+        }
+
+        Map<String, ReadReceipt> receipts = receiptsByChat.computeIfAbsent(chatId, k -> new LinkedHashMap<>());
+        ReadReceipt current = receipts.get(userId);
+        long currentDelivered = current != null ? current.getDeliveredUpTo() : 0L;
+        long currentSeen = current != null ? current.getSeenUpTo() : 0L;
+
+        long delivered = Math.max(currentDelivered, upToTimestamp);
+        long seenUpTo = seen ? Math.max(currentSeen, upToTimestamp) : currentSeen;
+        if (current != null && delivered == currentDelivered && seenUpTo == currentSeen) {
+            return Tasks.forResult(null);
+        }
+
+        ReadReceipt updated = new ReadReceipt(userId, chatId, delivered, seenUpTo);
+        receipts.put(userId, updated);
+        writeCount++;
+        if (readMessageId != null && seenUpTo > currentSeen) {
+            readCounts.merge(chatId + "/" + readMessageId, 1L, Long::sum);
+        }
+
+        Change<ReadReceipt> change = current == null ? Change.added(copy(updated)) : Change.modified(copy(updated));
+        for (ChangeListener<ReadReceipt> listener : new ArrayList<>(listenersFor(chatId))) {
+            listener.onChanges(Collections.singletonList(change));
+        }
+        return Tasks.forResult(null);
+    }
+
+    @Override
+    public Task<List<ReadReceipt>> getReceipts(String chatId) {
+        if (chatId == null || chatId.isEmpty()) {
+            return Tasks.forException(new IllegalArgumentException("chatId must not be null or empty"));
+        }
+
+        List<ReadReceipt> result = new ArrayList<>();
+        Map<String, ReadReceipt> receipts = receiptsByChat.get(chatId);
+        if (receipts != null) {
+            for (ReadReceipt receipt : receipts.values()) {
+                result.add(copy(receipt));
+            }
+        }
+        return Tasks.forResult(result);
+    }
+
+    @Override
+    public ListenerRegistration listenToReceipts(String chatId, boolean broadcast,
+                                                 ChangeListener<ReadReceipt> listener) {
+        if (chatId == null || chatId.isEmpty() || listener == null) {
+            throw new IllegalArgumentException("chatId and listener must not be null or empty");
+        }
+
+        listenersFor(chatId).add(listener);
+
+        List<ReadReceipt> watched = getReceipts(chatId).getResult();
+        if (broadcast) {
+            // Furthest-seen first, capped like the Firestore query (initial snapshot only)
+            watched.sort((a, b) -> Long.compare(b.getSeenUpTo(), a.getSeenUpTo()));
+            watched = watched.subList(0, Math.min(watched.size(), Constants.RECEIPT_LISTENER_LIMIT));
+        }
+        List<Change<ReadReceipt>> initial = new ArrayList<>();
+        for (ReadReceipt receipt : watched) {
+            initial.add(Change.added(receipt));
+        }
+        if (!initial.isEmpty()) {
+            listener.onChanges(initial);
+        }
+
+        return () -> listenersFor(chatId).remove(listener);
+    }
+
+    /**
+     * Get the number of receipt documents written so far.
+     */
+    public int getWriteCount() {
+        return writeCount;
+    }
+
+    private List<ChangeListener<ReadReceipt>> listenersFor(String chatId) {
+        return listenersByChat.computeIfAbsent(chatId, k -> new ArrayList<>());
+    }
+
+    private static ReadReceipt copy(ReadReceipt receipt) {
+        ReadReceipt copy = new ReadReceipt(receipt.getUserId(), receipt.getChatId(),
+                receipt.getDeliveredUpTo(), receipt.getSeenUpTo());
+        copy.setUpdatedAt(receipt.getUpdatedAt());
+        return copy;
+    }
+}
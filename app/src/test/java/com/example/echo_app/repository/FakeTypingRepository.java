@@ -0,0 +1,98 @@
+package com.example.echo_app.repository;
+
+import com.example.echo_app.model.TypingStatus;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * FakeTypingRepository.java
+ *
+ * In-memory fake implementation of TypingRepository for unit testing.
+ *
+ * Features:
+ * - In-memory map of "chatId/userId" → TypingStatus
+ * - Counts set and clear writes separately
+ * - Can be switched to fail writes
+ * - Synchronous real-time listeners
+ */
+public class FakeTypingRepository implements TypingRepository {
+
+    private final Map<String, TypingStatus> statuses = new HashMap<>();
+    private final Map<String, List<ChangeListener<TypingStatus>>> listenersByChat = new HashMap<>();
+    private int setCount;
+    private int clearCount;
+    private boolean failWrites;
+
+    @Override
+    public Task<Void> setTyping(String chatId, String userId, long expiresAt) {
+        if (chatId == null || chatId.isEmpty() || userId == null || userId.isEmpty()) {
+            return Tasks.forException(new IllegalArgumentException("chatId and userId must not be null or empty"));
+        }
+        setCount++;
+        if (failWrites) {
+            return Tasks.forException(new Exception("Simulated write failure"));
+        }
+        TypingStatus status = new TypingStatus(userId, chatId, expiresAt);
+        TypingStatus previous = statuses.put(chatId + "/" + userId, status);
+        notify(chatId, previous == null ? Change.added(status) : Change.modified(status));
+        return Tasks.forResult(null);
+    }
+
+    @Override
+    public Task<Void> clearTyping(String chatId, String userId) {
+        if (chatId == null || chatId.isEmpty() || userId == null || userId.isEmpty()) {
+            return Tasks.forException(new IllegalArgumentException("chatId and userId must not be null or empty"));
+        }
+        clearCount++;
+        TypingStatus removed = statuses.remove(chatId + "/" + userId);
+        if (removed != null) {
+            notify(chatId, Change.removed(removed));
+        }
+        return Tasks.forResult(null);
+    }
+
+    @Override
+    public ListenerRegistration listenToTyping(String chatId, ChangeListener<TypingStatus> listener) {
+        if (chatId == null || chatId.isEmpty() || listener == null) {
+            throw new IllegalArgumentException("chatId and listener must not be null or empty");
+        }
+        listenersFor(chatId).add(listener);
+        return () -> listenersFor(chatId).remove(listener);
+    }
+
+    /**
+     * Stored status of a user in a chat, or null if none.
+     */
+    public TypingStatus getStatus(String chatId, String userId) {
+        return statuses.get(chatId + "/" + userId);
+    }
+
+    public int getSetCount() {
+        return setCount;
+    }
+
+    public int getClearCount() {
+        return clearCount;
+    }
+
+    public void setFailWrites(boolean failWrites) {
+        this.failWrites = failWrites;
+    }
+
+    private void notify(String chatId, Change<TypingStatus> change) {
+        for (ChangeListener<TypingStatus> listener : new ArrayList<>(listenersFor(chatId))) {
+            listener.onChanges(Collections.singletonList(change));
+        }
+    }
+
+    private List<ChangeListener<TypingStatus>> listenersFor(String chatId) {
+        return listenersByChat.computeIfAbsent(chatId, k -> new ArrayList<>());
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.echo_app.repository;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+/**
+ * FakeUnreadCounterRepository.java
+ *
+ * In-memory fake implementation of UnreadCounterRepository for unit testing.
+ *
+ * Features:
+ * - One total per (user, chat); shards are not modelled
+ * - Counts read calls (one per chat, like one shard query per counter)
+ */
+public class FakeUnreadCounterRepository implements UnreadCounterRepository {
+
+    private final Map<String, Long> counts = new HashMap<>();
+    private int readCount = 0;
+
+    /**
+     * Also used by tests to seed counts.
+     *
+     * @deprecated See UnreadCounterRepository.incrementUnread().
+     */
+    @Deprecated
+    @Override
+    public Task<Void> incrementUnread(String chatId, Collection<String> recipientIds) {
+        if (chatId == null || chatId.isEmpty() || recipientIds == null) {
+            return Tasks.forException(new IllegalArgumentException("chatId and recipientIds must not be null"));
+        }
+        for (String userId : new LinkedHashSet<>(recipientIds)) {
+            counts.merge(userId + "/" + chatId, 1L, Long::sum);
+        }
+        return Tasks.forResult(null);
+    }
+
+    @Override
+    public Task<Void> markRead(String userId, String chatId) {
+        if (userId == null || userId.isEmpty() || chatId == null || chatId.isEmpty()) {
+            return Tasks.forException(new IllegalArgumentException("userId and chatId must not be null or empty"));
+        }
+        counts.remove(userId + "/" + chatId);
+        return Tasks.forResult(null);
+    }
+
+    @Override
+    public Task<Long> getUnreadCount(String userId, String chatId) {
+        if (userId == null || userId.isEmpty() || chatId == null || chatId.isEmpty()) {
+            return Tasks.forException(new IllegalArgumentException("userId and chatId must not be null or empty"));
+        }
+        readCount++;
+        Long count = counts.get(userId + "/" + chatId);
+        return Tasks.forResult(count != null ? count : 0L);
+    }
+
+    @Override
+    public Task<Map<String, Long>> getUnreadCounts(String userId, Collection<String> chatIds) {
+        if (userId == null || userId.isEmpty() || chatIds == null) {
+            return Tasks.forException(new IllegalArgumentException("userId and chatIds must not be null"));
+        }
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (String chatId : new LinkedHashSet<>(chatIds)) {
+            result.put(chatId, getUnreadCount(userId, chatId).getResult());
+        }
+        return Tasks.forResult(result);
+    }
+
+    /**
+     * Get the number of counters read so far.
+     */
+    public int getReadCount() {
+        return readCount;
+    }
+}
@@ -2,14 +2,23 @@ package com.example.echo_app.repository;
 
 import static org.junit.Assert.*;
 
+import com.example.echo_app.model.Chat;
+import com.example.echo_app.model.DeliveryStatus;
 import com.example.echo_app.model.Message;
 import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.ListenerRegistration;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 
 /**
@@ -22,9 +31,17 @@ import java.util.concurrent.ExecutionException;
  *
  * Test Coverage:
  * - getMessagesByChatId: empty chats, message retrieval, ordering
- * - sendMessage: new message creation, validation
+ * - sendMessage: new message creation, validation, client-generated IDs, idempotent retry
+ *   that keeps an acknowledged status, chat preview written with the message and never
+ *   rewound, missing chat rejected, recipients' unread counts taken from the chat document and
+ *   not counted again on retry
  * - updateMessageStatus: status progression, validation
  * - deleteMessage: message deletion, validation
+ * - getMessagesPage: newest-first windows, cursor continuation, tie-breaking
+ * - PageCursor: round trip, malformed and oversized length prefixes rejected
+ * - listenToMessages: incremental change delivery, registration removal
+ * - updateMessageStatuses / DeliveryAckBatcher: batching, coalescing, no downgrades (also
+ *   against the stored status), deleted messages skipped, retry cap and permanent failures
  */
 public class FirestoreMessageRepositoryTest {
 
@@ -214,6 +231,171 @@ public class FirestoreMessageRepositoryTest {
         }
     }
 
+    @Test
+    public void testSendMessage_AssignsIdWhenMissing() throws ExecutionException, InterruptedException {
+        // Arrange
+        Message message = new Message(null, "user1", "chat1", "Hello!", "text");
+
+        // Act
+        Tasks.await(messageRepository.sendMessage(message));
+
+        // Assert - the caller's object carries the stored ID
+        assertNotNull(message.getId());
+        List<Message> messages = Tasks.await(messageRepository.getMessagesByChatId("chat1"));
+        assertEquals(message.getId(), messages.get(0).getId());
+    }
+
+    @Test
+    public void testSendMessage_RetryDoesNotDuplicate() throws ExecutionException, InterruptedException {
+        // Arrange
+        Message message = new Message(null, "user1", "chat1", "Hello!", "text");
+        Tasks.await(messageRepository.sendMessage(message));
+
+        // Act - retry the same message, e.g. after a timeout
+        Tasks.await(messageRepository.sendMessage(message));
+
+        // Assert
+        assertEquals(1, messageRepository.getMessageCount("chat1"));
+    }
+
+    @Test
+    public void testSendMessages_RetryKeepsAcknowledgedStatus() throws ExecutionException, InterruptedException {
+        // Arrange - the first send landed and the recipient has seen it
+        Message message = new Message("msg1", "user1", "chat1", "Hello!", "text");
+        Tasks.await(messageRepository.sendMessages(Collections.singletonList(message)));
+        Tasks.await(messageRepository.updateMessageStatuses(
+                Collections.singletonMap("chat1/msg1", DeliveryStatus.SEEN)));
+
+        // Act - an outbox retry sends the same message again
+        Tasks.await(messageRepository.sendMessages(Collections.singletonList(message)));
+
+        // Assert
+        List<Message> messages = Tasks.await(messageRepository.getMessagesByChatId("chat1"));
+        assertEquals(1, messages.size());
+        assertEquals(DeliveryStatus.SEEN, messages.get(0).getDeliveryStatus());
+    }
+
+    @Test
+    public void testSendMessage_UpdatesChatPreview() throws ExecutionException, InterruptedException {
+        // Arrange
+        Message message = new Message("msg1", "user1", "chat1", "Hello!", "text");
+        message.setTimestamp(1000L);
+
+        // Act
+        Tasks.await(messageRepository.sendMessage(message));
+
+        // Assert
+        Chat preview = messageRepository.getChatPreview("chat1");
+        assertEquals("msg1", preview.getLastMessageId());
+        assertEquals("Hello!", preview.getLastMessageText());
+        assertEquals(1000L, preview.getLastMessageTimestamp());
+        assertEquals(1000L, preview.getUpdatedAt());
+    }
+
+    @Test
+    public void testSendMessages_PreviewIsNewestPerChat() throws ExecutionException, InterruptedException {
+        // Arrange
+        Message newest = new Message("msg2", "user1", "chat1", "Second", "text");
+        newest.setTimestamp(2000L);
+        Message older = new Message("msg1", "user1", "chat1", "First", "text");
+        older.setTimestamp(1000L);
+        Message other = new Message("msg3", "user1", "chat2", "Elsewhere", "text");
+        other.setTimestamp(1500L);
+
+        // Act
+        Tasks.await(messageRepository.sendMessages(Arrays.asList(newest, older, other)));
+
+        // Assert
+        assertEquals("Second", messageRepository.getChatPreview("chat1").getLastMessageText());
+        assertEquals("Elsewhere", messageRepository.getChatPreview("chat2").getLastMessageText());
+    }
+
+    @Test
+    public void testSendMessage_LateRetryDoesNotRewindPreview() throws ExecutionException, InterruptedException {
+        // Arrange
+        Message older = new Message("msg1", "user1", "chat1", "First", "text");
+        older.setTimestamp(1000L);
+        Message newer = new Message("msg2", "user1", "chat1", "Second", "text");
+        newer.setTimestamp(2000L);
+        Tasks.await(messageRepository.sendMessage(older));
+        Tasks.await(messageRepository.sendMessage(newer));
+
+        // Act - the older message is retried after the newer one landed
+        Tasks.await(messageRepository.sendMessages(Collections.singletonList(older)));
+
+        // Assert
+        Chat preview = messageRepository.getChatPreview("chat1");
+        assertEquals("msg2", preview.getLastMessageId());
+        assertEquals(2000L, preview.getLastMessageTimestamp());
+    }
+
+    @Test
+    public void testSendMessage_DeletedChatFails() throws InterruptedException {
+        // Arrange
+        messageRepository.deleteChat("chat1");
+
+        // Act
+        try {
+            Tasks.await(messageRepository.sendMessage(new Message("msg1", "user1", "chat1", "Hello!", "text")));
+            fail("Expected the send to fail");
+        } catch (ExecutionException e) {
+            // Assert - no orphaned chat or message is created
+            assertEquals(FirebaseFirestoreException.Code.NOT_FOUND,
+                    ((FirebaseFirestoreException) e.getCause()).getCode());
+        }
+        assertNull(messageRepository.getChatPreview("chat1"));
+        assertEquals(0, messageRepository.getMessageCount("chat1"));
+    }
+
+    @Test
+    public void testSendMessage_CountsUnreadForCurrentMembers() throws ExecutionException, InterruptedException {
+        // Arrange
+        messageRepository.putChat(new Chat("chat1", Arrays.asList("user1", "user2", "user3"), true));
+        Tasks.await(messageRepository.sendMessage(new Message("msg1", "user1", "chat1", "Hello!", "text")));
+
+        // Act - user3 leaves and user4 joins before the next send
+        messageRepository.putChat(new Chat("chat1", Arrays.asList("user1", "user2", "user4"), true));
+        Tasks.await(messageRepository.sendMessages(Arrays.asList(
+                new Message("msg2", "user1", "chat1", "Welcome", "text"),
+                new Message("msg3", "user2", "chat1", "Hi", "text"))));
+
+        // Assert - the sender's own messages are never unread for them
+        assertEquals(1L, messageRepository.getUnreadCount("user1", "chat1"));
+        assertEquals(2L, messageRepository.getUnreadCount("user2", "chat1"));
+        assertEquals(1L, messageRepository.getUnreadCount("user3", "chat1"));
+        assertEquals(2L, messageRepository.getUnreadCount("user4", "chat1"));
+    }
+
+    @Test
+    public void testSendMessages_RetryDoesNotCountUnreadTwice() throws ExecutionException, InterruptedException {
+        // Arrange - the first attempt committed, but its response was lost
+        messageRepository.putChat(new Chat("chat1", Arrays.asList("user1", "user2"), false));
+        Message first = new Message("msg1", "user1", "chat1", "Hello!", "text");
+        Tasks.await(messageRepository.sendMessages(Collections.singletonList(first)));
+
+        // Act - the outbox retries it together with a new message
+        Message second = new Message("msg2", "user1", "chat1", "Still there?", "text");
+        Tasks.await(messageRepository.sendMessages(Arrays.asList(first, second)));
+        Tasks.await(messageRepository.sendMessage(second));
+
+        // Assert
+        assertEquals(2L, messageRepository.getUnreadCount("user2", "chat1"));
+    }
+
+    @Test
+    public void testSendMessage_BroadcastKeepsNoUnreadCounts() throws ExecutionException, InterruptedException {
+        // Arrange
+        Chat channel = new Chat("chat1", Arrays.asList("user1", "user2"), true);
+        channel.setBroadcast(true);
+        messageRepository.putChat(channel);
+
+        // Act
+        Tasks.await(messageRepository.sendMessage(new Message("msg1", "user1", "chat1", "News", "text")));
+
+        // Assert
+        assertEquals(0L, messageRepository.getUnreadCount("user2", "chat1"));
+    }
+
     // ═════════════════════════════════════════════════════════════════════════════════
     // Test: updateMessageStatus
     // ═════════════════════════════════════════════════════════════════════════════════
@@ -288,6 +470,177 @@ public class FirestoreMessageRepositoryTest {
         }
     }
 
+    // ═════════════════════════════════════════════════════════════════════════════════
+    // Test: updateMessageStatuses / DeliveryAckBatcher
+    // ═════════════════════════════════════════════════════════════════════════════════
+
+    @Test
+    public void testUpdateMessageStatuses_UpdatesAllInOneCall() throws ExecutionException, InterruptedException {
+        // Arrange
+        Map<String, String> statuses = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            Tasks.await(messageRepository.sendMessage(new Message("msg" + i, "user1", "chat1", "Hi", "text")));
+            statuses.put("chat1/msg" + i, DeliveryStatus.SEEN);
+        }
+
+        // Act
+        Tasks.await(messageRepository.updateMessageStatuses(statuses));
+
+        // Assert
+        for (Message message : Tasks.await(messageRepository.getMessagesByChatId("chat1"))) {
+            assertEquals(DeliveryStatus.SEEN, message.getDeliveryStatus());
+        }
+        assertEquals(1, messageRepository.getBatchUpdateCount());
+    }
+
+    @Test
+    public void testUpdateMessageStatuses_InvalidStatus() throws InterruptedException {
+        Map<String, String> statuses = new HashMap<>();
+        statuses.put("chat1/msg1", "read");
+        try {
+            Tasks.await(messageRepository.updateMessageStatuses(statuses));
+            fail("Should throw exception for invalid status");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+    }
+
+    @Test
+    public void testDeliveryAckBatcher_CoalescesAndNeverDowngrades() throws ExecutionException, InterruptedException {
+        // Arrange
+        Tasks.await(messageRepository.sendMessage(new Message("msg1", "user1", "chat1", "Hi", "text")));
+        Tasks.await(messageRepository.sendMessage(new Message("msg2", "user1", "chat1", "Hi", "text")));
+        DeliveryAckBatcher acks = new DeliveryAckBatcher(messageRepository);
+
+        // Act - duplicate and out-of-order acknowledgements
+        assertTrue(acks.acknowledge("chat1/msg1", DeliveryStatus.DELIVERED));
+        assertTrue(acks.acknowledge("chat1/msg1", DeliveryStatus.SEEN));
+        assertFalse(acks.acknowledge("chat1/msg1", DeliveryStatus.DELIVERED));
+        assertTrue(acks.acknowledge("chat1/msg2", DeliveryStatus.DELIVERED));
+        assertFalse(acks.acknowledge("chat1/msg2", DeliveryStatus.DELIVERED));
+        assertEquals(2, acks.getPendingCount());
+        Tasks.await(acks.flush());
+
+        // A late "delivered" after "seen" was flushed is dropped
+        assertFalse(acks.acknowledge("chat1/msg1", DeliveryStatus.DELIVERED));
+        Tasks.await(acks.flush());
+
+        // Assert
+        List<Message> messages = Tasks.await(messageRepository.getMessagesByChatId("chat1"));
+        assertEquals(DeliveryStatus.SEEN, messages.get(0).getDeliveryStatus());
+        assertEquals(DeliveryStatus.DELIVERED, messages.get(1).getDeliveryStatus());
+        assertEquals(1, messageRepository.getBatchUpdateCount());
+    }
+
+    @Test
+    public void testUpdateMessageStatuses_NeverDowngradesStoredStatus() throws ExecutionException, InterruptedException {
+        // Arrange - another device already marked msg1 as seen
+        Tasks.await(messageRepository.sendMessage(new Message("msg1", "user1", "chat1", "Hi", "text")));
+        Tasks.await(messageRepository.updateMessageStatuses(Collections.singletonMap("chat1/msg1", DeliveryStatus.SEEN)));
+
+        // Act - a late "delivered" from a fresh batcher that never saw the "seen"
+        DeliveryAckBatcher acks = new DeliveryAckBatcher(messageRepository);
+        assertTrue(acks.acknowledge("chat1/msg1", DeliveryStatus.DELIVERED));
+        Tasks.await(acks.flush());
+
+        // Assert
+        assertEquals(DeliveryStatus.SEEN,
+                Tasks.await(messageRepository.getMessagesByChatId("chat1")).get(0).getDeliveryStatus());
+    }
+
+    @Test
+    public void testUpdateMessageStatuses_SkipsDeletedMessages() throws ExecutionException, InterruptedException {
+        // Arrange - msg1 was deleted after it was acknowledged
+        Tasks.await(messageRepository.sendMessage(new Message("msg2", "user1", "chat1", "Hi", "text")));
+        Map<String, String> statuses = new HashMap<>();
+        statuses.put("chat1/msg1", DeliveryStatus.SEEN);
+        statuses.put("chat1/msg2", DeliveryStatus.SEEN);
+
+        // Act
+        Tasks.await(messageRepository.updateMessageStatuses(statuses));
+
+        // Assert - the rest of the chunk is still applied
+        assertEquals(DeliveryStatus.SEEN,
+                Tasks.await(messageRepository.getMessagesByChatId("chat1")).get(0).getDeliveryStatus());
+    }
+
+    @Test
+    public void testUpdateMessageStatuses_SentIsNotAnAcknowledgement() throws InterruptedException {
+        try {
+            Tasks.await(messageRepository.updateMessageStatuses(Collections.singletonMap("chat1/msg1", DeliveryStatus.SENT)));
+            fail("\"sent\" must be rejected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+    }
+
+    @Test
+    public void testDeliveryAckBatcher_RequeuesTransientFailure() throws InterruptedException, ExecutionException {
+        // Arrange
+        Tasks.await(messageRepository.sendMessage(new Message("msg1", "user1", "chat1", "Hi", "text")));
+        DeliveryAckBatcher acks = new DeliveryAckBatcher(messageRepository, 3);
+        acks.acknowledge("chat1/msg1", DeliveryStatus.SEEN);
+        messageRepository.failNextStatusUpdates(
+                new FirebaseFirestoreException("offline", FirebaseFirestoreException.Code.UNAVAILABLE));
+
+        // Act
+        try {
+            Tasks.await(acks.flush());
+            fail("Flush should fail while offline");
+        } catch (ExecutionException expected) {
+            // re-queued below
+        }
+
+        // Assert
+        assertEquals(1, acks.getPendingCount());
+        Tasks.await(acks.flush());
+        assertEquals(DeliveryStatus.SEEN,
+                Tasks.await(messageRepository.getMessagesByChatId("chat1")).get(0).getDeliveryStatus());
+    }
+
+    @Test
+    public void testDeliveryAckBatcher_DropsAfterMaxAttempts() throws InterruptedException {
+        // Arrange
+        DeliveryAckBatcher acks = new DeliveryAckBatcher(messageRepository, 2);
+        acks.acknowledge("chat1/msg1", DeliveryStatus.SEEN);
+        FirebaseFirestoreException unavailable =
+                new FirebaseFirestoreException("offline", FirebaseFirestoreException.Code.UNAVAILABLE);
+        messageRepository.failNextStatusUpdates(unavailable, unavailable);
+
+        // Act
+        for (int i = 0; i < 2; i++) {
+            try {
+                Tasks.await(acks.flush());
+                fail("Flush should fail while offline");
+            } catch (ExecutionException expected) {
+                // counted as a failed attempt
+            }
+        }
+
+        // Assert
+        assertEquals(0, acks.getPendingCount());
+    }
+
+    @Test
+    public void testDeliveryAckBatcher_DropsPermanentFailure() throws InterruptedException {
+        // Arrange
+        DeliveryAckBatcher acks = new DeliveryAckBatcher(messageRepository);
+        acks.acknowledge("chat1/msg1", DeliveryStatus.SEEN);
+        messageRepository.failNextStatusUpdates(
+                new FirebaseFirestoreException("rules", FirebaseFirestoreException.Code.PERMISSION_DENIED));
+
+        // Act
+        try {
+            Tasks.await(acks.flush());
+            fail("Flush should fail when rejected by rules");
+        } catch (ExecutionException expected) {
+            // dropped, not re-queued
+        }
+
+        // Assert
+        assertEquals(0, acks.getPendingCount());
+    }
+
     // ═════════════════════════════════════════════════════════════════════════════════
     // Test: deleteMessage
     // ═════════════════════════════════════════════════════════════════════════════════
@@ -356,6 +709,199 @@ public class FirestoreMessageRepositoryTest {
         }
     }
 
+    // ═════════════════════════════════════════════════════════════════════════════════
+    // Test: getMessagesPage
+    // ═════════════════════════════════════════════════════════════════════════════════
+
+    @Test
+    public void testGetMessagesPage_NewestWindowFirst() throws ExecutionException, InterruptedException {
+        // Arrange
+        for (int i = 1; i <= 5; i++) {
+            Message message = new Message("msg" + i, "user1", "chat1", "Message " + i, "text");
+            message.setTimestamp(i * 1000);
+            Tasks.await(messageRepository.sendMessage(message));
+        }
+
+        // Act
+        Page<Message> page = Tasks.await(messageRepository.getMessagesPage("chat1", 2, null));
+
+        // Assert - newest two, oldest first within the page
+        assertEquals(2, page.getItems().size());
+        assertEquals("msg4", page.getItems().get(0).getId());
+        assertEquals("msg5", page.getItems().get(1).getId());
+        assertTrue(page.hasMore());
+    }
+
+    @Test
+    public void testGetMessagesPage_WalksBackThroughHistory() throws ExecutionException, InterruptedException {
+        // Arrange
+        for (int i = 1; i <= 5; i++) {
+            Message message = new Message("msg" + i, "user1", "chat1", "Message " + i, "text");
+            message.setTimestamp(i * 1000);
+            Tasks.await(messageRepository.sendMessage(message));
+        }
+
+        // Act
+        Page<Message> first = Tasks.await(messageRepository.getMessagesPage("chat1", 2, null));
+        Page<Message> second = Tasks.await(messageRepository.getMessagesPage("chat1", 2, first.getNextCursor()));
+        Page<Message> third = Tasks.await(messageRepository.getMessagesPage("chat1", 2, second.getNextCursor()));
+
+        // Assert
+        assertEquals("msg2", second.getItems().get(0).getId());
+        assertEquals("msg3", second.getItems().get(1).getId());
+        assertEquals(1, third.getItems().size());
+        assertEquals("msg1", third.getItems().get(0).getId());
+        assertFalse(third.hasMore());
+        assertNull(third.getNextCursor());
+    }
+
+    @Test
+    public void testGetMessagesPage_EqualTimestampsNotSkipped() throws ExecutionException, InterruptedException {
+        // Arrange - all messages share one timestamp; the document ID must break ties
+        for (int i = 0; i < 4; i++) {
+            Message message = new Message("msg" + i, "user1", "chat1", "Message " + i, "text");
+            message.setTimestamp(1000);
+            Tasks.await(messageRepository.sendMessage(message));
+        }
+
+        // Act
+        Page<Message> first = Tasks.await(messageRepository.getMessagesPage("chat1", 3, null));
+        Page<Message> second = Tasks.await(messageRepository.getMessagesPage("chat1", 3, first.getNextCursor()));
+
+        // Assert
+        assertEquals(3, first.getItems().size());
+        assertEquals(1, second.getItems().size());
+        assertEquals("msg0", second.getItems().get(0).getId());
+        assertFalse(second.hasMore());
+    }
+
+    @Test
+    public void testGetMessagesPage_ExactMultipleHasNoTrailingPage() throws ExecutionException, InterruptedException {
+        // Arrange
+        for (int i = 1; i <= 4; i++) {
+            Message message = new Message("msg" + i, "user1", "chat1", "Message " + i, "text");
+            message.setTimestamp(i * 1000);
+            Tasks.await(messageRepository.sendMessage(message));
+        }
+
+        // Act
+        Page<Message> first = Tasks.await(messageRepository.getMessagesPage("chat1", 2, null));
+        Page<Message> second = Tasks.await(messageRepository.getMessagesPage("chat1", 2, first.getNextCursor()));
+
+        // Assert
+        assertTrue(first.hasMore());
+        assertEquals(2, second.getItems().size());
+        assertFalse(second.hasMore());
+    }
+
+    @Test
+    public void testGetMessagesPage_InvalidArguments() throws InterruptedException {
+        Task<?>[] tasks = {
+                messageRepository.getMessagesPage(null, 10, null),
+                messageRepository.getMessagesPage("chat1", 0, null),
+                messageRepository.getMessagesPage("chat1", 10, "not-a-cursor")
+        };
+
+        for (Task<?> task : tasks) {
+            try {
+                Tasks.await(task);
+                fail("Should throw exception for invalid arguments");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IllegalArgumentException);
+            }
+        }
+    }
+
+    @Test
+    public void testPageCursor_RoundTrip() {
+        PageCursor cursor = PageCursor.forTimestamp(1700000000000L, "id:with:colons");
+        PageCursor decoded = PageCursor.decode(cursor.encode());
+
+        assertEquals(1700000000000L, decoded.getTimestamp());
+        assertEquals("id:with:colons", decoded.getDocumentId());
+    }
+
+    @Test
+    public void testPageCursor_OversizedLengthRejected() {
+        // keyStart + Integer.MAX_VALUE would overflow to a negative end index
+        for (String encoded : new String[]{"2147483647:1700000000000msg1", "-1:msg1", "13:1700000000000"}) {
+            try {
+                PageCursor.decode(encoded);
+                fail("Should reject cursor: " + encoded);
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage().contains("Malformed cursor"));
+            }
+        }
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════════════
+    // Test: listenToMessages
+    // ═════════════════════════════════════════════════════════════════════════════════
+
+    @Test
+    public void testListenToMessages_DeliversOnlyDeltas() throws ExecutionException, InterruptedException {
+        // Arrange
+        Message old = new Message("msg1", "user1", "chat1", "Old", "text");
+        old.setTimestamp(1000);
+        Tasks.await(messageRepository.sendMessage(old));
+
+        List<List<Change<Message>>> batches = new ArrayList<>();
+        ListenerRegistration registration = messageRepository.listenToMessages("chat1", 2000,
+                new ChangeListener<Message>() {
+                    @Override
+                    public void onChanges(List<Change<Message>> changes) {
+                        batches.add(changes);
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        fail("Unexpected listener error: " + e);
+                    }
+                });
+
+        // Act
+        Message fresh = new Message("msg2", "user2", "chat1", "New", "text");
+        fresh.setTimestamp(3000);
+        Tasks.await(messageRepository.sendMessage(fresh));
+        Tasks.await(messageRepository.updateMessageStatus("chat1/msg2", "seen"));
+        Tasks.await(messageRepository.deleteMessage("chat1/msg2"));
+
+        // Assert - history before the window is not replayed
+        assertEquals(3, batches.size());
+        assertEquals(Change.Type.ADDED, batches.get(0).get(0).getType());
+        assertEquals(Change.Type.MODIFIED, batches.get(1).get(0).getType());
+        assertEquals("seen", batches.get(1).get(0).getItem().getDeliveryStatus());
+        assertEquals(Change.Type.REMOVED, batches.get(2).get(0).getType());
+
+        registration.remove();
+        assertEquals(0, messageRepository.getListenerCount());
+    }
+
+    @Test
+    public void testListenToMessages_RemovedRegistrationStopsDelivery() throws ExecutionException, InterruptedException {
+        // Arrange
+        List<Change<Message>> received = new ArrayList<>();
+        ListenerRegistration registration = messageRepository.listenToMessages("chat1", 0,
+                new ChangeListener<Message>() {
+                    @Override
+                    public void onChanges(List<Change<Message>> changes) {
+                        received.addAll(changes);
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        fail("Unexpected listener error: " + e);
+                    }
+                });
+
+        // Act
+        registration.remove();
+        Tasks.await(messageRepository.sendMessage(new Message("msg1", "user1", "chat1", "Hello", "text")));
+
+        // Assert
+        assertTrue(received.isEmpty());
+    }
+
     // ═════════════════════════════════════════════════════════════════════════════════
     // Integration Tests
     // ═════════════════════════════════════════════════════════════════════════════════
@@ -10,7 +10,9 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
@@ -25,11 +27,15 @@ import java.util.concurrent.ExecutionException;
  *
  * Test Coverage:
  * - getUserById: success and not found scenarios
- * - getAllUsers: empty and populated lists
+ * - getAllUsers (deprecated): empty and populated lists
  * - addUser: new user creation and validation
- * - updateUser: field updates and validation
+ * - updateUser: field updates and validation, presence never written
+ * - updateUser(previous, updated): only changed fields written, no-op without changes
  * - deleteUser: successful deletion and validation
  * - getUserByEmail: email query and edge cases
+ * - getUsersByIds: chunking, ordering and missing IDs
+ * - getUsersPage / searchUsers: ordering, prefix ranges and cursors
+ * - backfillSearchKeys: legacy documents become searchable, re-runs write nothing
  */
 public class FirestoreUserRepositoryTest {
 
@@ -98,9 +104,10 @@ public class FirestoreUserRepositoryTest {
     }
 
     // ═════════════════════════════════════════════════════════════════════════════════
-    // Test: getAllUsers
+    // Test: getAllUsers (deprecated, still supported until removed)
     // ═════════════════════════════════════════════════════════════════════════════════
 
+    @SuppressWarnings("deprecation")
     @Test
     public void testGetAllUsers_Empty() throws ExecutionException, InterruptedException {
         // Act
@@ -112,6 +119,7 @@ public class FirestoreUserRepositoryTest {
         assertEquals(0, users.size());
     }
 
+    @SuppressWarnings("deprecation")
     @Test
     public void testGetAllUsers_MultipleUsers() throws ExecutionException, InterruptedException {
         // Arrange
@@ -190,14 +198,33 @@ public class FirestoreUserRepositoryTest {
 
         // Act - update user
         User updatedUser = new User("uid1", "John Updated", "john@example.com");
-        updatedUser.setOnline(true);
         Task<Void> task = userRepository.updateUser(updatedUser);
         Tasks.await(task);
 
         // Assert - verify update
         User retrievedUser = Tasks.await(userRepository.getUserById("uid1"));
         assertEquals("John Updated", retrievedUser.getDisplayName());
+    }
+
+    @Test
+    public void testUpdateUser_NeverWritesPresence() throws ExecutionException, InterruptedException {
+        // Arrange - PresenceService has marked the user online
+        User user = new User("uid1", "John Doe", "john@example.com");
+        user.setOnline(true);
+        user.setLastSeen(5000L);
+        userRepository.addUser(user).await();
+
+        // Act - a profile edit built from a stale copy that still says offline
+        User stale = new User("uid1", "John Updated", "john@example.com");
+        stale.setOnline(false);
+        stale.setLastSeen(1000L);
+        Tasks.await(userRepository.updateUser(stale));
+
+        // Assert
+        User retrievedUser = Tasks.await(userRepository.getUserById("uid1"));
+        assertEquals("John Updated", retrievedUser.getDisplayName());
         assertTrue(retrievedUser.isOnline());
+        assertEquals(5000L, retrievedUser.getLastSeen());
     }
 
     @Test
@@ -219,18 +246,65 @@ public class FirestoreUserRepositoryTest {
         user.setOnline(false);
         userRepository.addUser(user).await();
 
-        // Act - update only online status
+        // Act - update only the profile image
         User updateData = new User("uid1", null, null);
-        updateData.setOnline(true);
+        updateData.setProfileImageUrl("https://example.com/john.jpg");
         Task<Void> task = userRepository.updateUser(updateData);
         Tasks.await(task);
 
-        // Assert - verify only online status changed
+        // Assert - verify only the profile image changed
         User retrievedUser = Tasks.await(userRepository.getUserById("uid1"));
-        assertTrue(retrievedUser.isOnline());
+        assertEquals("https://example.com/john.jpg", retrievedUser.getProfileImageUrl());
         assertEquals("John Doe", retrievedUser.getDisplayName()); // Should remain unchanged
     }
 
+    @Test
+    public void testUpdateUserDiff_WritesOnlyChangedFields() throws ExecutionException, InterruptedException {
+        // Arrange
+        User user = new User("uid1", "John Doe", "john@example.com");
+        Tasks.await(userRepository.addUser(user));
+        User loaded = Tasks.await(userRepository.getUserById("uid1"));
+
+        // Act
+        User edited = Tasks.await(userRepository.getUserById("uid1"));
+        edited.setProfileImageUrl("https://example.com/john.jpg");
+        Tasks.await(userRepository.updateUser(loaded, edited));
+
+        // Assert
+        assertEquals(1, userRepository.getUpdateWriteCount());
+        assertEquals(new HashSet<>(Arrays.asList("profileImageUrl", "displayNameLower", "emailLower")),
+                userRepository.getLastUpdatedFields().keySet());
+        User retrievedUser = Tasks.await(userRepository.getUserById("uid1"));
+        assertEquals("https://example.com/john.jpg", retrievedUser.getProfileImageUrl());
+        assertEquals("John Doe", retrievedUser.getDisplayName());
+    }
+
+    @Test
+    public void testUpdateUserDiff_NoChangesIsNoOp() throws ExecutionException, InterruptedException {
+        // Arrange
+        Tasks.await(userRepository.addUser(new User("uid1", "John Doe", "john@example.com")));
+        User loaded = Tasks.await(userRepository.getUserById("uid1"));
+
+        // Act - re-saving with only a fresh updatedAt
+        User unchanged = Tasks.await(userRepository.getUserById("uid1"));
+        unchanged.setUpdatedAt(loaded.getUpdatedAt() + 1000L);
+        Tasks.await(userRepository.updateUser(loaded, unchanged));
+
+        // Assert
+        assertEquals(0, userRepository.getUpdateWriteCount());
+    }
+
+    @Test
+    public void testUpdateUserDiff_DifferentUsersRejected() {
+        // Act
+        Task<Void> task = userRepository.updateUser(
+                new User("uid1", "John Doe", "john@example.com"),
+                new User("uid2", "Jane Doe", "jane@example.com"));
+
+        // Assert
+        assertTrue(task.getException() instanceof IllegalArgumentException);
+    }
+
     // ═════════════════════════════════════════════════════════════════════════════════
     // Test: deleteUser
     // ═════════════════════════════════════════════════════════════════════════════════
@@ -369,13 +443,12 @@ public class FirestoreUserRepositoryTest {
         assertEquals("John Doe", retrievedUser.getDisplayName());
 
         // Update user
-        retrievedUser.setOnline(true);
-        retrievedUser.setLastSeen(System.currentTimeMillis());
+        retrievedUser.setDisplayName("John Updated");
         userRepository.updateUser(retrievedUser).await();
 
         // Verify update
         User updatedUser = Tasks.await(userRepository.getUserById("uid1"));
-        assertTrue(updatedUser.isOnline());
+        assertEquals("John Updated", updatedUser.getDisplayName());
 
         // Delete user
         userRepository.deleteUser("uid1").await();
@@ -398,8 +471,9 @@ public class FirestoreUserRepositoryTest {
         }
 
         // Verify all users exist
-        List<User> allUsers = Tasks.await(userRepository.getAllUsers());
-        assertEquals(5, allUsers.size());
+        Page<User> allUsers = Tasks.await(userRepository.getUsersPage(10, null));
+        assertEquals(5, allUsers.getItems().size());
+        assertNull(allUsers.getNextCursor());
 
         // Verify individual retrieval
         User user3 = Tasks.await(userRepository.getUserById("uid3"));
@@ -409,5 +483,135 @@ public class FirestoreUserRepositoryTest {
         User userByEmail = Tasks.await(userRepository.getUserByEmail("user3@example.com"));
         assertEquals("uid3", userByEmail.getId());
     }
-}
 
+    // ═════════════════════════════════════════════════════════════════════════════════
+    // Test: getUsersByIds
+    // ═════════════════════════════════════════════════════════════════════════════════
+
+    @Test
+    public void testGetUsersByIds_PreservesOrderAndMissingIds() throws ExecutionException, InterruptedException {
+        // Arrange
+        Tasks.await(userRepository.addUser(new User("uid1", "User 1", "user1@example.com")));
+        Tasks.await(userRepository.addUser(new User("uid2", "User 2", "user2@example.com")));
+
+        // Act
+        Map<String, User> users = Tasks.await(userRepository.getUsersByIds(
+                Arrays.asList("uid2", "ghost", "uid1", "uid2", null)));
+
+        // Assert
+        assertEquals(Arrays.asList("uid2", "ghost", "uid1"), new ArrayList<>(users.keySet()));
+        assertEquals("User 2", users.get("uid2").getDisplayName());
+        assertTrue(users.containsKey("ghost"));
+        assertNull(users.get("ghost"));
+    }
+
+    @Test
+    public void testGetUsersByIds_ChunksLargeRequests() throws ExecutionException, InterruptedException {
+        // Arrange
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 75; i++) {
+            Tasks.await(userRepository.addUser(new User("uid" + i, "User " + i, "user" + i + "@example.com")));
+            ids.add("uid" + i);
+        }
+
+        // Act
+        Map<String, User> users = Tasks.await(userRepository.getUsersByIds(ids));
+
+        // Assert - 75 IDs need three queries of at most 30
+        assertEquals(75, users.size());
+        assertEquals(3, userRepository.getQueryCount());
+    }
+
+    @Test
+    public void testGetUsersByIds_EmptyAndNull() throws ExecutionException, InterruptedException {
+        assertTrue(Tasks.await(userRepository.getUsersByIds(new ArrayList<>())).isEmpty());
+        assertEquals(0, userRepository.getQueryCount());
+        assertTrue(userRepository.getUsersByIds(null).getException() instanceof IllegalArgumentException);
+    }
+
+    // ═════════════════════════════════════════════════════════════════════════════════
+    // Test: getUsersPage / searchUsers
+    // ═════════════════════════════════════════════════════════════════════════════════
+
+    @Test
+    public void testGetUsersPage_WalksAllUsersInNameOrder() throws ExecutionException, InterruptedException {
+        // Arrange
+        Tasks.await(userRepository.addUser(new User("u3", "carol", "carol@example.com")));
+        Tasks.await(userRepository.addUser(new User("u1", "Alice", "alice@example.com")));
+        Tasks.await(userRepository.addUser(new User("u2", "bob", "bob@example.com")));
+
+        // Act
+        Page<User> first = Tasks.await(userRepository.getUsersPage(2, null));
+        Page<User> second = Tasks.await(userRepository.getUsersPage(2, first.getNextCursor()));
+
+        // Assert
+        assertEquals("Alice", first.getItems().get(0).getDisplayName());
+        assertEquals("bob", first.getItems().get(1).getDisplayName());
+        assertTrue(first.hasMore());
+        assertEquals(1, second.getItems().size());
+        assertEquals("carol", second.getItems().get(0).getDisplayName());
+        assertFalse(second.hasMore());
+    }
+
+    @Test
+    public void testSearchUsers_CaseInsensitivePrefix() throws ExecutionException, InterruptedException {
+        // Arrange
+        Tasks.await(userRepository.addUser(new User("u1", "Johnny", "j1@example.com")));
+        Tasks.await(userRepository.addUser(new User("u2", "john Smith", "j2@example.com")));
+        Tasks.await(userRepository.addUser(new User("u3", "Jane", "j3@example.com")));
+
+        // Act
+        Page<User> page = Tasks.await(userRepository.searchUsers("  JOHN", 10, null));
+
+        // Assert
+        assertEquals(2, page.getItems().size());
+        assertEquals("john Smith", page.getItems().get(0).getDisplayName());
+        assertEquals("Johnny", page.getItems().get(1).getDisplayName());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void testSearchUsers_EmailPrefixAndPaging() throws ExecutionException, InterruptedException {
+        // Arrange - same display name, distinguished by document ID
+        for (int i = 0; i < 5; i++) {
+            Tasks.await(userRepository.addUser(new User("u" + i, "Sam", "sam" + i + "@example.com")));
+        }
+
+        // Act
+        Page<User> byName = Tasks.await(userRepository.searchUsers("sam", 3, null));
+        Page<User> byNameNext = Tasks.await(userRepository.searchUsers("sam", 3, byName.getNextCursor()));
+        Page<User> byEmail = Tasks.await(userRepository.searchUsers("Sam2@", 10, null));
+
+        // Assert
+        assertEquals(3, byName.getItems().size());
+        assertEquals(2, byNameNext.getItems().size());
+        assertEquals("u3", byNameNext.getItems().get(0).getId());
+        assertEquals(1, byEmail.getItems().size());
+        assertEquals("u2", byEmail.getItems().get(0).getId());
+    }
+
+    @Test
+    public void testBackfillSearchKeys_LegacyUsersBecomeSearchable() throws ExecutionException, InterruptedException {
+        // Arrange - one user written before the normalized fields existed
+        Tasks.await(userRepository.addUser(new User("u1", "Alice", "alice@example.com")));
+        userRepository.putLegacyUser(new User("u2", "Albert", "albert@example.com"));
+        assertEquals(1, Tasks.await(userRepository.searchUsers("al", 10, null)).getItems().size());
+
+        // Act
+        int updated = Tasks.await(userRepository.backfillSearchKeys());
+        int updatedAgain = Tasks.await(userRepository.backfillSearchKeys());
+
+        // Assert
+        assertEquals(1, updated);
+        assertEquals(0, updatedAgain);
+        assertEquals(2, Tasks.await(userRepository.searchUsers("al", 10, null)).getItems().size());
+        assertEquals(1, Tasks.await(userRepository.searchUsers("albert@", 10, null)).getItems().size());
+    }
+
+    @Test
+    public void testPrefixEnd_IsExclusiveUpperBound() {
+        assertEquals("joho", FirestoreUserRepository.prefixEnd("john"));
+        assertTrue("johnny".compareTo(FirestoreUserRepository.prefixEnd("john")) < 0);
+        assertTrue("joho".compareTo(FirestoreUserRepository.prefixEnd("john")) >= 0);
+    }
+}
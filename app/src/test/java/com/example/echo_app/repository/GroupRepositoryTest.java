@@ -0,0 +1,179 @@
+package com.example.echo_app.repository;
+
+import static org.junit.Assert.*;
+
+import com.example.echo_app.model.Chat;
+import com.example.echo_app.model.Group;
+import com.example.echo_app.model.Membership;
+import com.example.echo_app.utils.Constants;
+import com.google.android.gms.tasks.Tasks;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * GroupRepositoryTest.java
+ *
+ * Unit tests for group membership and the per-user group index using FakeGroupRepository.
+ *
+ * Test Coverage:
+ * - createGroup() writes a member doc and an index entry per member, plus the linked chat
+ * - addMembersToGroup() imports large member lists in 249-member batches and leaves
+ *   existing members (and their admin flag) untouched
+ * - Broadcast mode is selected at the member threshold, on create and on import
+ * - addMemberToGroup()/removeMemberFromGroup() keep members, index and memberIds in sync
+ * - getGroupsForUser() lists groups from the index, most recently joined first
+ * - deleteGroup() removes index entries
+ */
+public class GroupRepositoryTest {
+
+    private FakeGroupRepository repository;
+
+    @Before
+    public void setUp() throws ExecutionException, InterruptedException {
+        repository = new FakeGroupRepository();
+        Tasks.await(repository.createGroup(new Group("g1", "Hiking", "alice", Arrays.asList("bob"))));
+        Tasks.await(repository.createGroup(new Group("g2", "Books", "carol", Arrays.asList("alice"))));
+    }
+
+    @Test
+    public void testCreateGroup_WritesMembersAndIndex() {
+        assertEquals(2, repository.getMembers("g1").size());
+        assertTrue(repository.getMembers("g1").get("alice").isAdmin());
+        assertFalse(repository.getMembers("g1").get("bob").isAdmin());
+
+        Membership indexEntry = repository.getUserIndex("bob").get("g1");
+        assertEquals("g1", indexEntry.getId());
+        assertEquals("bob", indexEntry.getUserId());
+    }
+
+    @Test
+    public void testGetGroupsForUser_ReadsIndexNewestFirst() throws ExecutionException, InterruptedException {
+        List<Group> groups = Tasks.await(repository.getGroupsForUser("alice"));
+
+        assertEquals(2, groups.size());
+        assertEquals("g2", groups.get(0).getId());
+        assertEquals("g1", groups.get(1).getId());
+        assertTrue(Tasks.await(repository.getGroupsForUser("nobody")).isEmpty());
+    }
+
+    @Test
+    public void testAddAndRemoveMember_KeepIndexInSync() throws ExecutionException, InterruptedException {
+        // Act
+        Tasks.await(repository.addMemberToGroup("g1", "dave", false));
+
+        // Assert
+        assertTrue(repository.getMembers("g1").containsKey("dave"));
+        assertTrue(repository.getUserIndex("dave").containsKey("g1"));
+        assertTrue(Tasks.await(repository.getGroupById("g1")).getMemberIds().contains("dave"));
+
+        // Act
+        Tasks.await(repository.removeMemberFromGroup("g1", "dave"));
+
+        // Assert
+        assertFalse(repository.getMembers("g1").containsKey("dave"));
+        assertTrue(Tasks.await(repository.getGroupsForUser("dave")).isEmpty());
+        assertFalse(Tasks.await(repository.getGroupById("g1")).getMemberIds().contains("dave"));
+    }
+
+    @Test
+    public void testAddMember_MissingGroupFails() {
+        assertFalse(repository.addMemberToGroup("missing", "dave", false).isSuccessful());
+        assertTrue(repository.getUserIndex("dave").isEmpty());
+    }
+
+    @Test
+    public void testDeleteGroup_RemovesIndexEntries() throws ExecutionException, InterruptedException {
+        Tasks.await(repository.deleteGroup("g1"));
+
+        assertFalse(repository.getUserIndex("bob").containsKey("g1"));
+        assertEquals(1, Tasks.await(repository.getGroupsForUser("alice")).size());
+    }
+
+    @Test
+    public void testCreateGroup_WritesLinkedChatInOneBatch() {
+        Chat chat = repository.getChat("g1");
+
+        assertNotNull(chat);
+        assertTrue(chat.isGroup());
+        assertEquals(Arrays.asList("alice", "bob"), chat.getParticipantIds());
+        assertEquals("One batch per group", 2, repository.getBatchCount());
+    }
+
+    @Test
+    public void testAddMembersToGroup_ChunksLargeImport() throws ExecutionException, InterruptedException {
+        // Arrange - 600 new users plus one existing member and a duplicate
+        List<String> userIds = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            userIds.add("user" + i);
+        }
+        userIds.add("bob");
+        userIds.add("user0");
+        int batchesBefore = repository.getBatchCount();
+
+        // Act
+        Tasks.await(repository.addMembersToGroup("g1", userIds));
+
+        // Assert - 600 new ids (bob is already a member) → 249 + 249 + 102
+        assertEquals(3, repository.getBatchCount() - batchesBefore);
+        assertEquals(602, repository.getMembers("g1").size());
+        assertEquals(602, Tasks.await(repository.getGroupById("g1")).getMemberIds().size());
+        assertEquals(602, repository.getChat("g1").getParticipantIds().size());
+        assertTrue(repository.getUserIndex("user599").containsKey("g1"));
+        assertTrue(repository.getMembers("g1").get("alice").isAdmin());
+    }
+
+    @Test
+    public void testAddMembersToGroup_KeepsExistingAdmin() throws ExecutionException, InterruptedException {
+        // Arrange
+        long joinedAt = repository.getMembers("g1").get("alice").getJoinedAt();
+        int batchesBefore = repository.getBatchCount();
+
+        // Act - the admin is part of an imported list
+        Tasks.await(repository.addMembersToGroup("g1", Arrays.asList("alice", "dave")));
+
+        // Assert
+        Membership admin = repository.getMembers("g1").get("alice");
+        assertTrue(admin.isAdmin());
+        assertEquals(joinedAt, admin.getJoinedAt());
+        assertTrue(repository.getUserIndex("alice").get("g1").isAdmin());
+        assertFalse(repository.getMembers("g1").get("dave").isAdmin());
+        assertEquals(1, repository.getBatchCount() - batchesBefore);
+    }
+
+    @Test
+    public void testCreateGroup_SmallGroupIsNotBroadcast() throws ExecutionException, InterruptedException {
+        assertFalse(Tasks.await(repository.getGroupById("g1")).isBroadcast());
+        assertFalse(repository.getChat("g1").isBroadcast());
+    }
+
+    @Test
+    public void testAddMembersToGroup_ThresholdEnablesBroadcast() throws ExecutionException, InterruptedException {
+        // Arrange - g1 has 2 members; add enough to land exactly on the threshold
+        List<String> userIds = new ArrayList<>();
+        for (int i = 0; i < Constants.BROADCAST_MEMBER_THRESHOLD - 3; i++) {
+            userIds.add("user" + i);
+        }
+        Tasks.await(repository.addMembersToGroup("g1", userIds));
+        assertFalse(Tasks.await(repository.getGroupById("g1")).isBroadcast());
+
+        // Act
+        Tasks.await(repository.addMembersToGroup("g1", Arrays.asList("last")));
+
+        // Assert
+        assertTrue(Tasks.await(repository.getGroupById("g1")).isBroadcast());
+        assertTrue(repository.getChat("g1").isBroadcast());
+    }
+
+    @Test
+    public void testRemoveMember_UpdatesLinkedChat() throws ExecutionException, InterruptedException {
+        Tasks.await(repository.removeMemberFromGroup("g1", "bob"));
+
+        assertEquals(Arrays.asList("alice"), repository.getChat("g1").getParticipantIds());
+    }
+}
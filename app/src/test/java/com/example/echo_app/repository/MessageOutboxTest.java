@@ -0,0 +1,207 @@
+package com.example.echo_app.repository;
+
+import static org.junit.Assert.*;
+
+import com.example.echo_app.data.FakeOutboxStore;
+import com.example.echo_app.model.Message;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * MessageOutboxTest.java
+ *
+ * Unit tests for the durable message outbox.
+ *
+ * Uses FakeOutboxStore as the queue, FakeFirestoreMessageRepository as the server
+ * and a direct executor, so every operation completes synchronously.
+ *
+ * Test Coverage:
+ * - send() assigns an ID, persists the message and requests a drain
+ * - drain() delivers in enqueue order, in batches
+ * - A failed drain keeps messages queued
+ * - Retrying after a partial failure never duplicates messages
+ * - A permanently rejected message is set aside without blocking the queue
+ * - Messages are set aside after the attempt cap, and send() queues them again
+ */
+public class MessageOutboxTest {
+
+    private static final long TIMEOUT = 1000L;
+
+    private FakeOutboxStore store;
+    private FakeFirestoreMessageRepository remote;
+    private MessageOutbox outbox;
+    private int drainRequests;
+
+    @Before
+    public void setUp() {
+        store = new FakeOutboxStore();
+        remote = new FakeFirestoreMessageRepository();
+        drainRequests = 0;
+        outbox = new MessageOutbox(store, Runnable::run, () -> drainRequests++);
+    }
+
+    @Test
+    public void testSend_AssignsIdAndPersists() throws ExecutionException, InterruptedException {
+        // Act
+        Message queued = Tasks.await(outbox.send(message("chat1", "hello")));
+
+        // Assert
+        assertNotNull(queued.getId());
+        assertFalse(queued.getId().isEmpty());
+        assertEquals(1, store.size());
+        assertEquals(1, drainRequests);
+        assertEquals(0, remote.getMessageCount("chat1"));
+    }
+
+    @Test
+    public void testSend_InvalidMessage() {
+        assertTrue(outbox.send(null).getException() instanceof IllegalArgumentException);
+        assertTrue(outbox.send(message(null, "hi")).getException() instanceof IllegalArgumentException);
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    public void testDrain_DeliversInOrderInBatches() throws Exception {
+        // Arrange
+        for (int i = 0; i < 5; i++) {
+            Tasks.await(outbox.send(message("chat1", "m" + i)));
+        }
+
+        // Act
+        int delivered = outbox.drain(remote, 2, TIMEOUT);
+
+        // Assert
+        assertEquals(5, delivered);
+        assertEquals(0, store.size());
+        assertEquals(3, remote.getSendBatchCount());
+        List<Message> messages = Tasks.await(remote.getMessagesByChatId("chat1"));
+        assertEquals(5, messages.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals("m" + i, messages.get(i).getContent());
+        }
+    }
+
+    @Test
+    public void testDrain_FailureKeepsMessagesQueued() throws Exception {
+        // Arrange
+        Tasks.await(outbox.send(message("chat1", "offline")));
+        remote.failNextSends(1);
+
+        // Act
+        try {
+            outbox.drain(remote, 10, TIMEOUT);
+            fail("Expected the drain to fail");
+        } catch (ExecutionException expected) {
+            // Worker turns this into Result.retry()
+        }
+
+        // Assert
+        assertEquals(1, store.size());
+        assertEquals(1, Tasks.await(outbox.getPending("chat1")).size());
+        assertEquals(0, remote.getMessageCount("chat1"));
+    }
+
+    @Test
+    public void testDrain_RetryDoesNotDuplicate() throws Exception {
+        // Arrange - the first batch lands, the second fails
+        for (int i = 0; i < 4; i++) {
+            Tasks.await(outbox.send(message("chat1", "m" + i)));
+        }
+        List<Message> firstBatch = store.peek(2);
+        Tasks.await(remote.sendMessages(firstBatch));
+        remote.failNextSends(1);
+
+        // Act - a crash before remove() means the first batch is sent again
+        try {
+            outbox.drain(remote, 2, TIMEOUT);
+            fail("Expected the drain to fail");
+        } catch (ExecutionException expected) {
+            // Retried below
+        }
+        int delivered = outbox.drain(remote, 2, TIMEOUT);
+
+        // Assert
+        assertEquals(4, delivered);
+        assertEquals(0, store.size());
+        assertEquals(4, remote.getMessageCount("chat1"));
+    }
+
+    @Test
+    public void testDrain_PermanentRejectionIsSetAside() throws Exception {
+        // Arrange
+        Message first = Tasks.await(outbox.send(message("chat1", "m0")));
+        Message rejected = Tasks.await(outbox.send(message("chat1", "m1")));
+        Message last = Tasks.await(outbox.send(message("chat1", "m2")));
+        remote.rejectSendsOf(rejected.getId(), new FirebaseFirestoreException("rules",
+                FirebaseFirestoreException.Code.PERMISSION_DENIED));
+
+        // Act
+        int delivered = outbox.drain(remote, 10, TIMEOUT);
+
+        // Assert - the messages around it are delivered, in order
+        assertEquals(2, delivered);
+        assertEquals(0, store.size());
+        List<Message> messages = Tasks.await(remote.getMessagesByChatId("chat1"));
+        assertEquals(2, messages.size());
+        assertEquals(first.getId(), messages.get(0).getId());
+        assertEquals(last.getId(), messages.get(1).getId());
+        List<Message> failed = Tasks.await(outbox.getFailed("chat1"));
+        assertEquals(1, failed.size());
+        assertEquals(rejected.getId(), failed.get(0).getId());
+    }
+
+    @Test
+    public void testDrain_SetsAsideAfterMaxAttempts() throws Exception {
+        // Arrange
+        outbox = new MessageOutbox(store, Runnable::run, () -> drainRequests++, 2);
+        Message stuck = Tasks.await(outbox.send(message("chat1", "stuck")));
+        remote.failNextSends(2);
+
+        // Act - two transient failures reach the cap
+        for (int i = 0; i < 2; i++) {
+            try {
+                outbox.drain(remote, 1, TIMEOUT);
+                fail("Expected the drain to fail");
+            } catch (ExecutionException expected) {
+                // Worker turns this into Result.retry()
+            }
+        }
+        Tasks.await(outbox.send(message("chat1", "next")));
+        int delivered = outbox.drain(remote, 1, TIMEOUT);
+
+        // Assert - the stuck message no longer holds up the queue
+        assertEquals(1, delivered);
+        assertEquals(1, remote.getMessageCount("chat1"));
+        assertEquals(1, Tasks.await(outbox.getFailed("chat1")).size());
+
+        // Act - sending it again re-queues it
+        Tasks.await(outbox.send(stuck));
+        delivered = outbox.drain(remote, 1, TIMEOUT);
+
+        // Assert
+        assertEquals(1, delivered);
+        assertEquals(2, remote.getMessageCount("chat1"));
+        assertTrue(Tasks.await(outbox.getFailed("chat1")).isEmpty());
+    }
+
+    @Test
+    public void testDrain_EmptyQueue() throws Exception {
+        assertEquals(0, outbox.drain(remote, 10, TIMEOUT));
+        assertEquals(0, remote.getSendBatchCount());
+    }
+
+    private static Message message(String chatId, String content) {
+        Message message = new Message();
+        message.setChatId(chatId);
+        message.setSenderId("alice");
+        message.setContent(content);
+        message.setMessageType("text");
+        return message;
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.echo_app.repository;
+
+import static org.junit.Assert.*;
+
+import com.example.echo_app.utils.FakeScheduler;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * PresenceServiceTest.java
+ *
+ * Unit tests for PresenceService debouncing and heartbeat coalescing.
+ *
+ * Uses FakePresenceRepository to record writes and FakeScheduler as both the
+ * scheduler and the clock, so timers run deterministically.
+ *
+ * Test Coverage:
+ * - A transition is written once, after the debounce interval
+ * - A quick background/foreground flip (e.g. rotation) writes nothing
+ * - Heartbeats refresh lastSeen once per interval while online
+ * - Going offline stops the heartbeat
+ * - A failed write is retried by the next transition
+ */
+public class PresenceServiceTest {
+
+    private static final long DEBOUNCE = 5_000L;
+    private static final long HEARTBEAT = 60_000L;
+
+    private FakePresenceRepository repository;
+    private FakeScheduler scheduler;
+    private PresenceService service;
+
+    @Before
+    public void setUp() {
+        repository = new FakePresenceRepository();
+        scheduler = new FakeScheduler(1_000_000L);
+        service = new PresenceService(repository, scheduler, scheduler, DEBOUNCE, HEARTBEAT);
+    }
+
+    @Test
+    public void testOnForeground_WritesOnceAfterDebounce() {
+        // Act
+        service.onForeground("alice");
+        scheduler.advance(DEBOUNCE - 1);
+        int beforeDebounce = service.getWriteCount();
+        scheduler.advance(1);
+
+        // Assert
+        assertEquals(0, beforeDebounce);
+        assertEquals(1, service.getWriteCount());
+        assertTrue(repository.getPresence("alice").isOnline());
+        assertEquals(1_000_000L + DEBOUNCE, repository.getPresence("alice").getLastSeen());
+    }
+
+    @Test
+    public void testQuickFlip_WritesNothing() {
+        // Arrange
+        service.onForeground("alice");
+        scheduler.advance(DEBOUNCE);
+
+        // Act - a rotation stops and restarts the activity within milliseconds
+        service.onBackground();
+        scheduler.advance(200);
+        service.onForeground("alice");
+        scheduler.advance(DEBOUNCE);
+
+        // Assert
+        assertEquals(1, service.getWriteCount());
+    }
+
+    @Test
+    public void testHeartbeat_OneWritePerInterval() {
+        // Arrange
+        service.onForeground("alice");
+        scheduler.advance(DEBOUNCE);
+
+        // Act - ten minutes in the foreground
+        scheduler.advance(10 * HEARTBEAT);
+
+        // Assert - the transition write plus one heartbeat per minute
+        assertEquals(11, service.getWriteCount());
+        assertTrue(repository.getPresence("alice").isOnline());
+    }
+
+    @Test
+    public void testHeartbeat_CoalescedWithTransition() {
+        // Arrange - online, then offline and back shortly before a heartbeat is due
+        service.onForeground("alice");
+        scheduler.advance(DEBOUNCE);
+        service.onBackground();
+        scheduler.advance(HEARTBEAT - 2 * DEBOUNCE);
+        service.onForeground("alice");
+        scheduler.advance(DEBOUNCE);
+        int afterTransitions = service.getWriteCount();
+
+        // Act - the old heartbeat slot passes
+        scheduler.advance(DEBOUNCE);
+
+        // Assert - the online write restarted the interval, so no extra heartbeat
+        assertEquals(3, afterTransitions);
+        assertEquals(3, service.getWriteCount());
+    }
+
+    @Test
+    public void testOnBackground_StopsHeartbeat() {
+        // Arrange
+        service.onForeground("alice");
+        scheduler.advance(DEBOUNCE);
+
+        // Act
+        service.onBackground();
+        scheduler.advance(DEBOUNCE);
+        scheduler.advance(5 * HEARTBEAT);
+
+        // Assert
+        assertEquals(2, service.getWriteCount());
+        assertFalse(repository.getPresence("alice").isOnline());
+        assertEquals(0, scheduler.getPendingCount());
+    }
+
+    @Test
+    public void testSignOut_WritesOfflineImmediately() {
+        // Arrange
+        service.onForeground("alice");
+        scheduler.advance(DEBOUNCE);
+
+        // Act
+        service.signOut();
+
+        // Assert
+        assertEquals(2, service.getWriteCount());
+        assertFalse(repository.getPresence("alice").isOnline());
+        assertEquals(0, scheduler.getPendingCount());
+    }
+
+    @Test
+    public void testFailedWrite_RetriedOnNextTransition() {
+        // Arrange
+        repository.setFailWrites(true);
+        service.onForeground("alice");
+        scheduler.advance(DEBOUNCE);
+        repository.setFailWrites(false);
+
+        // Act - a flip settles on the same state, which is no longer known to be stored
+        service.onBackground();
+        service.onForeground("alice");
+        scheduler.advance(DEBOUNCE);
+
+        // Assert
+        assertEquals(2, repository.getWrites().size());
+        assertTrue(repository.getPresence("alice").isOnline());
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.echo_app.repository;
+
+import static org.junit.Assert.*;
+
+import com.example.echo_app.model.DeliveryStatus;
+import com.example.echo_app.model.Message;
+import com.example.echo_app.model.ReadReceipt;
+import com.example.echo_app.utils.Constants;
+import com.google.android.gms.tasks.Tasks;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * ReceiptRepositoryTest.java
+ *
+ * Unit tests for read-receipt watermarks and client-side status derivation.
+ *
+ * Uses FakeReceiptRepository, which mirrors the transactional semantics of
+ * FirestoreReceiptRepository.
+ *
+ * Test Coverage:
+ * - Marking a chat seen is a single write regardless of message count
+ * - Watermarks never move backwards and redundant marks do not write
+ * - Seen implies delivered
+ * - Broadcast reads are counted once per member and only when the watermark moves
+ * - DeliveryStatus.resolve() for private and group chats, members without a receipt
+ * - Receipt listeners watch every receipt, except in broadcast chats
+ */
+public class ReceiptRepositoryTest {
+
+    private FakeReceiptRepository repository;
+
+    @Before
+    public void setUp() {
+        repository = new FakeReceiptRepository();
+    }
+
+    // ==================== Watermark Tests ====================
+
+    @Test
+    public void testMarkSeen_SingleWrite() throws ExecutionException, InterruptedException {
+        // Act - the newest of 300 messages is visible
+        Tasks.await(repository.markSeen("chat1", "bob", 300_000L));
+
+        // Assert
+        assertEquals(1, repository.getWriteCount());
+        ReadReceipt receipt = Tasks.await(repository.getReceipts("chat1")).get(0);
+        assertEquals(300_000L, receipt.getSeenUpTo());
+        assertEquals(300_000L, receipt.getDeliveredUpTo());
+    }
+
+    @Test
+    public void testMarkSeen_NeverMovesBackwards() throws ExecutionException, InterruptedException {
+        // Arrange
+        Tasks.await(repository.markSeen("chat1", "bob", 5000L));
+
+        // Act
+        Tasks.await(repository.markSeen("chat1", "bob", 3000L));
+        Tasks.await(repository.markDelivered("chat1", "bob", 4000L));
+
+        // Assert
+        ReadReceipt receipt = Tasks.await(repository.getReceipts("chat1")).get(0);
+        assertEquals(5000L, receipt.getSeenUpTo());
+        assertEquals(5000L, receipt.getDeliveredUpTo());
+        assertEquals("Redundant marks must not write", 1, repository.getWriteCount());
+    }
+
+    @Test
+    public void testMarkDelivered_DoesNotAdvanceSeen() throws ExecutionException, InterruptedException {
+        // Act
+        Tasks.await(repository.markSeen("chat1", "bob", 1000L));
+        Tasks.await(repository.markDelivered("chat1", "bob", 2000L));
+
+        // Assert
+        ReadReceipt receipt = Tasks.await(repository.getReceipts("chat1")).get(0);
+        assertEquals(2000L, receipt.getDeliveredUpTo());
+        assertEquals(1000L, receipt.getSeenUpTo());
+    }
+
+    @Test
+    public void testMarkSeen_InvalidArguments() {
+        assertTrue(repository.markSeen(null, "bob", 1000L).getException() instanceof IllegalArgumentException);
+        assertTrue(repository.markSeen("chat1", "", 1000L).getException() instanceof IllegalArgumentException);
+        assertTrue(repository.markSeen("chat1", "bob", 0L).getException() instanceof IllegalArgumentException);
+    }
+
+    @Test
+    public void testMarkSeenBroadcast_CountsEachMemberOnce() throws ExecutionException, InterruptedException {
+        // Act - bob marks the same message twice, carol once, dave an older message afterwards
+        Tasks.await(repository.markSeenBroadcast("group1", "bob", "m2", 2000L));
+        Tasks.await(repository.markSeenBroadcast("group1", "bob", "m2", 2000L));
+        Tasks.await(repository.markSeenBroadcast("group1", "carol", "m2", 2000L));
+        Tasks.await(repository.markSeen("group1", "dave", 3000L));
+        Tasks.await(repository.markSeenBroadcast("group1", "dave", "m2", 2000L));
+
+        // Assert
+        assertEquals(Long.valueOf(2L), Tasks.await(repository.getReadCount("group1", "m2")));
+        assertEquals(Long.valueOf(0L), Tasks.await(repository.getReadCount("group1", "m1")));
+    }
+
+    @Test
+    public void testMarkSeenBroadcast_MissingMessageIdRejected() {
+        assertTrue(repository.markSeenBroadcast("group1", "bob", null, 1000L).getException()
+                instanceof IllegalArgumentException);
+    }
+
+    // ==================== Status Derivation Tests ====================
+
+    @Test
+    public void testListenToReceipts_CappedOnlyInBroadcastChats() throws ExecutionException, InterruptedException {
+        // Arrange
+        int members = Constants.RECEIPT_LISTENER_LIMIT + 5;
+        for (int i = 0; i < members; i++) {
+            Tasks.await(repository.markSeen("chat1", "user" + i, 1000L + i));
+        }
+        List<ReadReceipt> all = new ArrayList<>();
+        List<ReadReceipt> capped = new ArrayList<>();
+
+        // Act
+        repository.listenToReceipts("chat1", false, collectInto(all)).remove();
+        repository.listenToReceipts("chat1", true, collectInto(capped)).remove();
+
+        // Assert - the broadcast listener keeps the furthest-seen receipts
+        assertEquals(members, all.size());
+        assertEquals(Constants.RECEIPT_LISTENER_LIMIT, capped.size());
+        assertEquals("user" + (members - 1), capped.get(0).getUserId());
+    }
+
+    @Test
+    public void testResolve_PrivateChat() {
+        Message older = message("alice", 1000L);
+        Message middle = message("alice", 2000L);
+        Message newest = message("alice", 3000L);
+        List<ReadReceipt> receipts = Arrays.asList(
+                new ReadReceipt("alice", "chat1", 3000L, 3000L),
+                new ReadReceipt("bob", "chat1", 2000L, 1000L));
+
+        List<String> participants = Arrays.asList("alice", "bob");
+
+        assertEquals(DeliveryStatus.SEEN, DeliveryStatus.resolve(older, participants, receipts));
+        assertEquals(DeliveryStatus.DELIVERED, DeliveryStatus.resolve(middle, participants, receipts));
+        assertEquals(DeliveryStatus.SENT, DeliveryStatus.resolve(newest, participants, receipts));
+    }
+
+    @Test
+    public void testResolve_GroupRequiresEveryRecipient() {
+        Message message = message("alice", 2000L);
+        List<ReadReceipt> receipts = Arrays.asList(
+                new ReadReceipt("bob", "group1", 2000L, 2000L),
+                new ReadReceipt("carol", "group1", 2000L, 1000L));
+
+        assertEquals(DeliveryStatus.DELIVERED,
+                DeliveryStatus.resolve(message, Arrays.asList("alice", "bob", "carol"), receipts));
+    }
+
+    @Test
+    public void testResolve_ParticipantWithoutReceiptHasNotSeen() {
+        Message message = message("alice", 2000L);
+        // dave is a member who never opened the group, so he has no receipt
+        List<ReadReceipt> receipts = Arrays.asList(
+                new ReadReceipt("bob", "group1", 2000L, 2000L),
+                new ReadReceipt("carol", "group1", 2000L, 2000L));
+
+        assertEquals(DeliveryStatus.SENT,
+                DeliveryStatus.resolve(message, Arrays.asList("alice", "bob", "carol", "dave"), receipts));
+        assertEquals(DeliveryStatus.SEEN,
+                DeliveryStatus.resolve(message, Arrays.asList("alice", "bob", "carol"), receipts));
+    }
+
+    @Test
+    public void testResolve_SenderReceiptIgnored() {
+        Message message = message("alice", 2000L);
+        List<ReadReceipt> receipts = Collections.singletonList(new ReadReceipt("alice", "chat1", 9000L, 9000L));
+
+        assertEquals(DeliveryStatus.SENT,
+                DeliveryStatus.resolve(message, Arrays.asList("alice", "bob"), receipts));
+    }
+
+    @Test
+    public void testResolve_StoredStatusNotDowngraded() {
+        Message message = message("alice", 2000L);
+        message.setDeliveryStatus(DeliveryStatus.SEEN);
+
+        assertEquals(DeliveryStatus.SEEN,
+                DeliveryStatus.resolve(message, Arrays.asList("alice", "bob"), Collections.emptyList()));
+    }
+
+    private static ChangeListener<ReadReceipt> collectInto(List<ReadReceipt> receipts) {
+        return new ChangeListener<ReadReceipt>() {
+            @Override
+            public void onChanges(List<Change<ReadReceipt>> changes) {
+                for (Change<ReadReceipt> change : changes) {
+                    receipts.add(change.getItem());
+                }
+            }
+
+            @Override
+            public void onError(Exception e) {
+                fail(e.getMessage());
+            }
+        };
+    }
+
+    private static Message message(String senderId, long timestamp) {
+        Message message = new Message("m" + timestamp, senderId, "chat1", "hi", "text");
+        message.setTimestamp(timestamp);
+        return message;
+    }
+}
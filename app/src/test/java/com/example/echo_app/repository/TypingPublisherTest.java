@@ -0,0 +1,139 @@
+package com.example.echo_app.repository;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * TypingPublisherTest.java
+ *
+ * Unit tests for TypingPublisher write throttling.
+ *
+ * Uses FakeTypingRepository to count writes and a fake clock to control time.
+ *
+ * Test Coverage:
+ * - The first keystroke writes immediately (leading edge)
+ * - Continuous typing writes at most once per refresh interval
+ * - Each write extends the expiry by the TTL
+ * - stop() deletes only an unexpired indicator
+ * - Switching chats stops the previous indicator
+ * - A failed write is retried by the next keystroke
+ */
+public class TypingPublisherTest {
+
+    private static final long REFRESH = 5_000L;
+    private static final long TTL = 10_000L;
+
+    private FakeTypingRepository repository;
+    private long now;
+    private TypingPublisher publisher;
+
+    @Before
+    public void setUp() {
+        repository = new FakeTypingRepository();
+        now = 1_000_000L;
+        publisher = new TypingPublisher(repository, () -> now, REFRESH, TTL);
+    }
+
+    @Test
+    public void testOnTyping_LeadingEdgeWrite() {
+        // Act
+        publisher.onTyping("chat1", "alice");
+
+        // Assert
+        assertEquals(1, repository.getSetCount());
+        assertEquals(now + TTL, repository.getStatus("chat1", "alice").getExpiresAt());
+    }
+
+    @Test
+    public void testOnTyping_ThrottledToRefreshInterval() {
+        // Act - a keystroke every 100 ms for 12 seconds
+        for (int i = 0; i < 120; i++) {
+            publisher.onTyping("chat1", "alice");
+            now += 100;
+        }
+
+        // Assert - writes at 0 s, 5 s and 10 s
+        assertEquals(3, repository.getSetCount());
+        assertEquals(1_000_000L + 2 * REFRESH + TTL, repository.getStatus("chat1", "alice").getExpiresAt());
+    }
+
+    @Test
+    public void testStop_DeletesUnexpiredIndicator() {
+        // Arrange
+        publisher.onTyping("chat1", "alice");
+        now += 1_000L;
+
+        // Act
+        publisher.stop();
+
+        // Assert
+        assertEquals(1, repository.getClearCount());
+        assertNull(repository.getStatus("chat1", "alice"));
+    }
+
+    @Test
+    public void testStop_ExpiredIndicatorNotWritten() {
+        // Arrange
+        publisher.onTyping("chat1", "alice");
+        now += TTL;
+
+        // Act
+        publisher.stop();
+        publisher.stop();
+
+        // Assert
+        assertEquals(0, repository.getClearCount());
+        assertEquals(1, publisher.getWriteCount());
+    }
+
+    @Test
+    public void testOnTyping_AfterPauseWritesImmediately() {
+        // Arrange
+        publisher.onTyping("chat1", "alice");
+
+        // Act - typing resumes after the indicator expired
+        now += TTL + 1;
+        publisher.onTyping("chat1", "alice");
+
+        // Assert
+        assertEquals(2, repository.getSetCount());
+    }
+
+    @Test
+    public void testOnTyping_OtherChatStopsPrevious() {
+        // Arrange
+        publisher.onTyping("chat1", "alice");
+
+        // Act
+        now += 500L;
+        publisher.onTyping("chat2", "alice");
+
+        // Assert
+        assertNull(repository.getStatus("chat1", "alice"));
+        assertNotNull(repository.getStatus("chat2", "alice"));
+        assertEquals(2, repository.getSetCount());
+    }
+
+    @Test
+    public void testOnTyping_FailedWriteRetried() {
+        // Arrange
+        repository.setFailWrites(true);
+        publisher.onTyping("chat1", "alice");
+        repository.setFailWrites(false);
+
+        // Act - the next keystroke is within the refresh interval
+        now += 100L;
+        publisher.onTyping("chat1", "alice");
+
+        // Assert
+        assertEquals(2, repository.getSetCount());
+        assertNotNull(repository.getStatus("chat1", "alice"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_TtlShorterThanRefreshRejected() {
+        new TypingPublisher(repository, () -> now, REFRESH, REFRESH - 1);
+    }
+}
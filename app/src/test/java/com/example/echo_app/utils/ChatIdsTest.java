@@ -0,0 +1,46 @@
+package com.example.echo_app.utils;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * ChatIdsTest.java
+ *
+ * Unit tests for canonical private chat IDs.
+ */
+public class ChatIdsTest {
+
+    @Test
+    public void testPrivateChatId_IndependentOfArgumentOrder() {
+        assertEquals("alice_bob", ChatIds.privateChatId("alice", "bob"));
+        assertEquals("alice_bob", ChatIds.privateChatId("bob", "alice"));
+    }
+
+    @Test
+    public void testOtherParticipant() {
+        String chatId = ChatIds.privateChatId("alice", "bob");
+
+        assertTrue(ChatIds.isPrivateChatId(chatId));
+        assertEquals("bob", ChatIds.otherParticipant(chatId, "alice"));
+        assertEquals("alice", ChatIds.otherParticipant(chatId, "bob"));
+    }
+
+    @Test
+    public void testIsPrivateChatId_RejectsGeneratedIds() {
+        assertFalse(ChatIds.isPrivateChatId("Xk3b9QeP0aL7"));
+        assertFalse(ChatIds.isPrivateChatId("_bob"));
+        assertFalse(ChatIds.isPrivateChatId("a_b_c"));
+        assertFalse(ChatIds.isPrivateChatId(null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPrivateChatId_RejectsSameUser() {
+        ChatIds.privateChatId("alice", "alice");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPrivateChatId_RejectsSeparatorInUserId() {
+        ChatIds.privateChatId("al_ice", "bob");
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.echo_app.utils;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * CollectionUtilsTest.java
+ *
+ * Unit tests for the chunking and de-duplication helpers used by batched queries.
+ */
+public class CollectionUtilsTest {
+
+    @Test
+    public void testPartition_SplitsIntoBoundedChunks() {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 61; i++) {
+            items.add(i);
+        }
+
+        List<List<Integer>> chunks = CollectionUtils.partition(items, 30);
+
+        assertEquals(3, chunks.size());
+        assertEquals(30, chunks.get(0).size());
+        assertEquals(30, chunks.get(1).size());
+        assertEquals(Collections.singletonList(60), chunks.get(2));
+    }
+
+    @Test
+    public void testPartition_Empty() {
+        assertTrue(CollectionUtils.partition(new ArrayList<>(), 30).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPartition_InvalidSize() {
+        CollectionUtils.partition(Arrays.asList(1, 2), 0);
+    }
+
+    @Test
+    public void testDistinctIds_KeepsFirstOccurrenceOrder() {
+        List<String> ids = CollectionUtils.distinctIds(Arrays.asList("b", null, "a", "", "b", "c"));
+
+        assertEquals(Arrays.asList("b", "a", "c"), ids);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.echo_app.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * FakeScheduler.java
+ *
+ * Manually advanced Scheduler and Clock for unit testing timer-driven code.
+ *
+ * Features:
+ * - Tasks run only when advance() moves the fake time past their due time
+ * - Tasks due at the same time run in scheduling order
+ * - Also serves as the Clock, so now() matches the scheduler's time
+ */
+public class FakeScheduler implements Scheduler, Clock {
+
+    private final List<ScheduledTask> tasks = new ArrayList<>();
+    private long now;
+    private long sequence;
+
+    public FakeScheduler(long startTime) {
+        this.now = startTime;
+    }
+
+    @Override
+    public long now() {
+        return now;
+    }
+
+    @Override
+    public Cancellable schedule(Runnable task, long delayMillis) {
+        ScheduledTask scheduled = new ScheduledTask(task, now + delayMillis, sequence++);
+        tasks.add(scheduled);
+        return () -> tasks.remove(scheduled);
+    }
+
+    /**
+     * Move time forward, running every task that becomes due (including tasks
+     * scheduled by tasks that run during the advance).
+     */
+    public void advance(long millis) {
+        long target = now + millis;
+        while (true) {
+            ScheduledTask next = null;
+            for (ScheduledTask task : tasks) {
+                if (task.dueAt <= target && (next == null || task.dueAt < next.dueAt
+                        || (task.dueAt == next.dueAt && task.order < next.order))) {
+                    next = task;
+                }
+            }
+            if (next == null) {
+                break;
+            }
+            tasks.remove(next);
+            now = Math.max(now, next.dueAt);
+            next.task.run();
+        }
+        now = target;
+    }
+
+    /**
+     * Number of tasks waiting to run.
+     */
+    public int getPendingCount() {
+        return tasks.size();
+    }
+
+    private static final class ScheduledTask {
+        final Runnable task;
+        final long dueAt;
+        final long order;
+
+        ScheduledTask(Runnable task, long dueAt, long order) {
+            this.task = task;
+            this.dueAt = dueAt;
+            this.order = order;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.echo_app.utils;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * MessageIdGeneratorTest.java
+ *
+ * Unit tests for client-generated, time-ordered message IDs.
+ */
+public class MessageIdGeneratorTest {
+
+    private long now = 1_700_000_000_000L;
+
+    @Test
+    public void testNext_EncodesTimestamp() {
+        MessageIdGenerator generator = new MessageIdGenerator(() -> now, new Random(1));
+
+        String id = generator.next();
+
+        assertEquals(MessageIdGenerator.ID_LENGTH, id.length());
+        assertEquals(now, MessageIdGenerator.timestampOf(id));
+    }
+
+    @Test
+    public void testNext_SortsInCreationOrder() {
+        MessageIdGenerator generator = new MessageIdGenerator(() -> now, new Random(2));
+
+        String previous = generator.next();
+        for (int i = 0; i < 1000; i++) {
+            // Advance the clock only every tenth ID to exercise the same-millisecond path
+            if (i % 10 == 0) {
+                now++;
+            }
+            String id = generator.next();
+            assertTrue(previous + " should sort before " + id, previous.compareTo(id) < 0);
+            previous = id;
+        }
+    }
+
+    @Test
+    public void testNext_MonotonicWhenClockMovesBackwards() {
+        MessageIdGenerator generator = new MessageIdGenerator(() -> now, new Random(3));
+        String first = generator.next();
+
+        now -= 5_000L;
+        String second = generator.next();
+
+        assertTrue(first.compareTo(second) < 0);
+        assertEquals(MessageIdGenerator.timestampOf(first), MessageIdGenerator.timestampOf(second));
+    }
+
+    @Test
+    public void testNext_Unique() {
+        MessageIdGenerator generator = MessageIdGenerator.getInstance();
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(ids.add(generator.next()));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTimestampOf_RejectsForeignId() {
+        MessageIdGenerator.timestampOf("not-a-generated-id");
+    }
+}
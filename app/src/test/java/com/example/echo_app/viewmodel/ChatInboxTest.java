@@ -0,0 +1,148 @@
+package com.example.echo_app.viewmodel;
+
+import static org.junit.Assert.*;
+
+import com.example.echo_app.model.Chat;
+import com.example.echo_app.repository.Change;
+import com.example.echo_app.repository.ChangeListener;
+import com.example.echo_app.repository.FakeChatRepository;
+import com.example.echo_app.repository.Page;
+import com.google.android.gms.tasks.Tasks;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * ChatInboxTest.java
+ *
+ * Unit tests for the sorted ChatInbox and the inbox contract of ChatRepository.
+ *
+ * Test Coverage:
+ * - ADDED changes keep (lastMessageTimestamp desc, id desc) order
+ * - A new last message moves exactly one row
+ * - A change that keeps the sort key updates the row in place
+ * - REMOVED deletes by ID; unknown removals are ignored
+ * - Inbox paging and the live window of FakeChatRepository
+ */
+public class ChatInboxTest {
+
+    private ChatInbox inbox;
+
+    @Before
+    public void setUp() {
+        inbox = new ChatInbox();
+    }
+
+    @Test
+    public void testApply_AddedSortedNewestFirst() {
+        inbox.apply(Arrays.asList(
+                Change.added(chat("a", 1000)),
+                Change.added(chat("c", 3000)),
+                Change.added(chat("b", 2000))));
+
+        assertEquals(Arrays.asList("c", "b", "a"), ids(inbox.snapshot()));
+        assertEquals(2, inbox.indexOf("a"));
+        assertEquals(-1, inbox.indexOf("missing"));
+    }
+
+    @Test
+    public void testApply_NewMessageMovesOneRow() {
+        inbox.apply(Arrays.asList(
+                Change.added(chat("a", 1000)),
+                Change.added(chat("b", 2000)),
+                Change.added(chat("c", 3000))));
+
+        List<ChatInbox.RowUpdate> updates = inbox.apply(
+                Collections.singletonList(Change.modified(chat("a", 4000))));
+
+        assertEquals(1, updates.size());
+        assertEquals(ChatInbox.RowUpdate.Type.MOVED, updates.get(0).getType());
+        assertEquals(2, updates.get(0).getFromIndex());
+        assertEquals(0, updates.get(0).getToIndex());
+        assertEquals(Arrays.asList("a", "c", "b"), ids(inbox.snapshot()));
+    }
+
+    @Test
+    public void testApply_SameSortKeyChangesInPlace() {
+        inbox.apply(Arrays.asList(Change.added(chat("a", 1000)), Change.added(chat("b", 2000))));
+
+        Chat renamed = chat("a", 1000);
+        renamed.setLastMessageText("edited");
+        List<ChatInbox.RowUpdate> updates = inbox.apply(Collections.singletonList(Change.modified(renamed)));
+
+        assertEquals(ChatInbox.RowUpdate.Type.CHANGED, updates.get(0).getType());
+        assertEquals(1, updates.get(0).getToIndex());
+        assertEquals("edited", inbox.get(1).getLastMessageText());
+    }
+
+    @Test
+    public void testApply_Removed() {
+        inbox.apply(Arrays.asList(Change.added(chat("a", 1000)), Change.added(chat("b", 2000))));
+
+        List<ChatInbox.RowUpdate> updates = inbox.apply(Arrays.asList(
+                Change.removed(chat("b", 2000)),
+                Change.removed(chat("missing", 5000))));
+
+        assertEquals(1, updates.size());
+        assertEquals(ChatInbox.RowUpdate.Type.REMOVED, updates.get(0).getType());
+        assertEquals(0, updates.get(0).getFromIndex());
+        assertEquals(Collections.singletonList("a"), ids(inbox.snapshot()));
+    }
+
+    @Test
+    public void testRepository_InboxPagesAndLiveWindow() throws ExecutionException, InterruptedException {
+        // Arrange
+        FakeChatRepository repository = new FakeChatRepository();
+        for (int i = 1; i <= 5; i++) {
+            Tasks.await(repository.createChat(chat("chat" + i, i * 1000L)));
+        }
+
+        // Paging: 2 + 2 + 1
+        Page<Chat> first = Tasks.await(repository.getInboxPage("alice", 2, null));
+        Page<Chat> second = Tasks.await(repository.getInboxPage("alice", 2, first.getNextCursor()));
+        Page<Chat> third = Tasks.await(repository.getInboxPage("alice", 2, second.getNextCursor()));
+        assertEquals(Arrays.asList("chat5", "chat4"), ids(first.getItems()));
+        assertEquals(Arrays.asList("chat3", "chat2"), ids(second.getItems()));
+        assertEquals(Collections.singletonList("chat1"), ids(third.getItems()));
+        assertNull(third.getNextCursor());
+
+        // Live window of 3 applied to an inbox
+        repository.listenToInbox("alice", 3, new ChangeListener<Chat>() {
+            @Override
+            public void onChanges(List<Change<Chat>> changes) {
+                inbox.apply(changes);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                fail(e.getMessage());
+            }
+        });
+        assertEquals(Arrays.asList("chat5", "chat4", "chat3"), ids(inbox.snapshot()));
+
+        // Act - activity in chat1 brings it to the top and pushes chat3 out
+        Tasks.await(repository.createChat(chat("chat1", 9000L)));
+
+        // Assert
+        assertEquals(Arrays.asList("chat1", "chat5", "chat4"), ids(inbox.snapshot()));
+    }
+
+    private static Chat chat(String id, long lastMessageTimestamp) {
+        Chat chat = new Chat(id, Arrays.asList("alice", "bob"), false);
+        chat.setLastMessageTimestamp(lastMessageTimestamp);
+        return chat;
+    }
+
+    private static List<String> ids(List<Chat> chats) {
+        String[] ids = new String[chats.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = chats.get(i).getId();
+        }
+        return Arrays.asList(ids);
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.echo_app.viewmodel;
+
+import static org.junit.Assert.*;
+
+import com.example.echo_app.model.Message;
+import com.example.echo_app.repository.Change;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * MessageTimelineTest.java
+ *
+ * Unit tests for MessageTimeline incremental state.
+ *
+ * Test Coverage:
+ * - ADDED changes keep (timestamp, id) order regardless of arrival order
+ * - MODIFIED replaces by ID and re-positions on timestamp change
+ * - REMOVED deletes by ID
+ * - Duplicate ADDED changes do not duplicate entries
+ * - Re-delivered ADDED changes are reported as MODIFIED
+ */
+public class MessageTimelineTest {
+
+    private MessageTimeline timeline;
+
+    @Before
+    public void setUp() {
+        timeline = new MessageTimeline();
+    }
+
+    @Test
+    public void testApply_AddedOutOfOrder() {
+        timeline.apply(Arrays.asList(
+                Change.added(message("msg3", 3000)),
+                Change.added(message("msg1", 1000)),
+                Change.added(message("msg2", 2000))));
+
+        List<Message> messages = timeline.snapshot();
+        assertEquals(3, messages.size());
+        assertEquals("msg1", messages.get(0).getId());
+        assertEquals("msg3", messages.get(2).getId());
+        assertEquals("msg3", timeline.newest().getId());
+        assertEquals("msg1", timeline.oldest().getId());
+    }
+
+    @Test
+    public void testApply_ModifiedReplacesById() {
+        timeline.apply(Arrays.asList(Change.added(message("msg1", 1000))));
+
+        Message seen = message("msg1", 1000);
+        seen.setDeliveryStatus("seen");
+        timeline.apply(Arrays.asList(Change.modified(seen)));
+
+        assertEquals(1, timeline.size());
+        assertEquals("seen", timeline.snapshot().get(0).getDeliveryStatus());
+    }
+
+    @Test
+    public void testApply_ModifiedTimestampRepositions() {
+        timeline.apply(Arrays.asList(
+                Change.added(message("msg1", 1000)),
+                Change.added(message("msg2", 2000))));
+
+        timeline.apply(Arrays.asList(Change.modified(message("msg1", 3000))));
+
+        List<Message> messages = timeline.snapshot();
+        assertEquals(2, messages.size());
+        assertEquals("msg2", messages.get(0).getId());
+        assertEquals("msg1", messages.get(1).getId());
+    }
+
+    @Test
+    public void testApply_RemovedDeletesById() {
+        timeline.apply(Arrays.asList(
+                Change.added(message("msg1", 1000)),
+                Change.added(message("msg2", 2000))));
+
+        timeline.apply(Arrays.asList(Change.removed(message("msg1", 1000))));
+
+        assertEquals(1, timeline.size());
+        assertFalse(timeline.contains("msg1"));
+        assertTrue(timeline.contains("msg2"));
+    }
+
+    @Test
+    public void testApply_DuplicateAddedIsIdempotent() {
+        timeline.apply(Arrays.asList(Change.added(message("msg1", 1000))));
+        timeline.apply(Arrays.asList(Change.added(message("msg1", 1000))));
+
+        assertEquals(1, timeline.size());
+    }
+
+    @Test
+    public void testApply_ListenerOverlapReportedAsModified() {
+        // Arrange - the loaded page ends at msg2; the listener starts at its timestamp
+        timeline.apply(Arrays.asList(Change.added(message("msg1", 1000)), Change.added(message("msg2", 2000))));
+
+        // Act - the listener's first snapshot re-delivers msg2 and brings the new msg3
+        List<Change<Message>> applied = timeline.apply(Arrays.asList(
+                Change.added(message("msg2", 2000)),
+                Change.added(message("msg3", 3000))));
+
+        // Assert
+        assertEquals(2, applied.size());
+        assertEquals(Change.Type.MODIFIED, applied.get(0).getType());
+        assertEquals(Change.Type.ADDED, applied.get(1).getType());
+        assertEquals("msg3", applied.get(1).getItem().getId());
+        assertEquals(3, timeline.size());
+    }
+
+    @Test
+    public void testApply_EqualTimestampsOrderedById() {
+        timeline.apply(Arrays.asList(
+                Change.added(message("b", 1000)),
+                Change.added(message("a", 1000))));
+
+        List<Message> messages = timeline.snapshot();
+        assertEquals("a", messages.get(0).getId());
+        assertEquals("b", messages.get(1).getId());
+    }
+
+    private static Message message(String id, long timestamp) {
+        Message message = new Message(id, "user1", "chat1", "Message " + id, "text");
+        message.setTimestamp(timestamp);
+        return message;
+    }
+}
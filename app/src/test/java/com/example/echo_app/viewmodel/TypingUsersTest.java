@@ -0,0 +1,86 @@
+package com.example.echo_app.viewmodel;
+
+import static org.junit.Assert.*;
+
+import com.example.echo_app.model.TypingStatus;
+import com.example.echo_app.repository.Change;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * TypingUsersTest.java
+ *
+ * Unit tests for reader-side typing expiry.
+ *
+ * Test Coverage:
+ * - Entries are active until their expiresAt
+ * - REMOVED changes hide an entry immediately
+ * - Entries from a typist whose clock runs ahead are capped at the TTL
+ * - nextExpiry() reports when the UI must re-evaluate
+ */
+public class TypingUsersTest {
+
+    private static final long TTL = 10_000L;
+
+    private TypingUsers typingUsers;
+
+    @Before
+    public void setUp() {
+        typingUsers = new TypingUsers(TTL);
+    }
+
+    @Test
+    public void testActiveUserIds_ExpireWithoutWrites() {
+        // Arrange
+        typingUsers.apply(Arrays.asList(
+                Change.added(new TypingStatus("bob", "chat1", 15_000L)),
+                Change.added(new TypingStatus("alice", "chat1", 12_000L))), 5_000L);
+
+        // Act & Assert
+        assertEquals(Arrays.asList("alice", "bob"), typingUsers.activeUserIds(11_999L));
+        assertEquals(Collections.singletonList("bob"), typingUsers.activeUserIds(12_000L));
+        assertTrue(typingUsers.activeUserIds(15_000L).isEmpty());
+    }
+
+    @Test
+    public void testApply_RemovedHidesImmediately() {
+        // Arrange
+        typingUsers.apply(Collections.singletonList(
+                Change.added(new TypingStatus("bob", "chat1", 15_000L))), 5_000L);
+
+        // Act
+        typingUsers.apply(Collections.singletonList(
+                Change.removed(new TypingStatus("bob", "chat1", 15_000L))), 6_000L);
+
+        // Assert
+        assertTrue(typingUsers.activeUserIds(6_000L).isEmpty());
+    }
+
+    @Test
+    public void testApply_FastTypistClockCapped() {
+        // Arrange - the typist's clock is an hour ahead
+        typingUsers.apply(Collections.singletonList(
+                Change.added(new TypingStatus("bob", "chat1", 3_600_000L + 15_000L))), 5_000L);
+
+        // Act & Assert
+        assertEquals(5_000L + TTL, typingUsers.nextExpiry(5_000L));
+        assertTrue(typingUsers.activeUserIds(5_000L + TTL).isEmpty());
+    }
+
+    @Test
+    public void testNextExpiry() {
+        // Arrange
+        typingUsers.apply(Arrays.asList(
+                Change.added(new TypingStatus("alice", "chat1", 12_000L)),
+                Change.added(new TypingStatus("bob", "chat1", 14_000L))), 5_000L);
+
+        // Act & Assert
+        assertEquals(12_000L, typingUsers.nextExpiry(5_000L));
+        assertEquals(14_000L, typingUsers.nextExpiry(12_000L));
+        assertEquals(0L, typingUsers.nextExpiry(14_000L));
+    }
+}